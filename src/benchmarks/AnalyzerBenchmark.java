@@ -0,0 +1,88 @@
+package benchmarks;
+
+import cosc1295.src.models.DomainSnapshot;
+import cosc1295.src.models.Student;
+import cosc1295.src.models.Team;
+import cosc1295.src.services.SuggestionService;
+import cosc1295.src.services.analyzers.*;
+import helpers.utilities.LogicalAssistant;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each analyzer from construction on a snapshot to the suggestion returned by call(),
+ * which is what SuggestionService does for every suggestion requested.
+ * The swap analyzers consider every pair of Teams, so cohorts are kept smaller than in the other benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class AnalyzerBenchmark {
+
+    @Param({ "100", "250", "500" })
+    public int students;
+
+    @Param({ "1", "4" })
+    public int parallelism;
+
+    private DomainSnapshot snapshot;
+    private Team firstTeam;
+    private Team secondTeam;
+    private Student unteamedStudent;
+
+    @Setup
+    public void setUp() {
+        snapshot = new SyntheticCohort(BenchmarkRunner.SEED).generate(students);
+
+        List<Team> teams = snapshot.getTeams();
+        firstTeam = teams.get(0);
+        secondTeam = teams.get(teams.size() - 1);
+        unteamedStudent = LogicalAssistant.filterUnteamedStudents(snapshot.getStudents(), teams).get(0);
+    }
+
+    @Benchmark
+    public Object autoSwap() throws Exception {
+        return run(new AutoSwapAnalyzer<>(snapshot));
+    }
+
+    @Benchmark
+    public Object teamsSwap() throws Exception {
+        return run(new TeamsSwapAnalyzer<>(snapshot));
+    }
+
+    @Benchmark
+    public Object secondTeam() throws Exception {
+        return run(new SecondTeamAnalyzer<>(snapshot, firstTeam));
+    }
+
+    @Benchmark
+    public Object swapStudent() throws Exception {
+        return run(new SwapStudentAnalyzer<>(snapshot, firstTeam, secondTeam));
+    }
+
+    @Benchmark
+    public Object autoAssign() throws Exception {
+        return run(new AutoAssignAnalyzer<>(snapshot));
+    }
+
+    @Benchmark
+    public Object assignStudent() throws Exception {
+        return run(new AssignStudentAnalyzer<>(snapshot, firstTeam));
+    }
+
+    @Benchmark
+    public Object teamToAssign() throws Exception {
+        return run(new TeamToAssignAnalyzer<>(snapshot, unteamedStudent));
+    }
+
+    private Object run(SuperAnalyzer analyzer) throws Exception {
+        analyzer.setWorkerPool(SuggestionService.getWorkerPool(parallelism));
+        return ((Callable<?>) analyzer).call();
+    }
+}
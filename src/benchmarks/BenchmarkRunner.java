@@ -0,0 +1,36 @@
+package benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks of this package at each of their cohort sizes and saves the results into a CSV file,
+ * so that runs before and after a change can be compared.
+ * Any JMH command line option may be given to override the defaults, eg. `-p students=1000` or `Analyzer`.
+ * Requires annotation processing (jmh-generator-annprocess) to be enabled when compiling.
+ */
+public final class BenchmarkRunner {
+
+    static final long SEED = 1295L;
+    private static final String RESULT_FILE = "benchmark-results.csv";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+        OptionsBuilder builder = new OptionsBuilder();
+        if (commandLineOptions.getIncludes().isEmpty()) builder.include(BenchmarkRunner.class.getPackage().getName() + "\\.");
+
+        Options options = builder
+            .resultFormat(ResultFormatType.CSV)
+            .result(RESULT_FILE)
+            .parent(commandLineOptions)
+            .build();
+
+        new Runner(options).run();
+    }
+}
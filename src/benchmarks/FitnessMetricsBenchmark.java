@@ -0,0 +1,53 @@
+package benchmarks;
+
+import cosc1295.src.controllers.ControllerBase;
+import cosc1295.src.models.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the Fitness Metrics of a single Team and the Standard Deviations across all Teams of a cohort.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FitnessMetricsBenchmark {
+
+    @Param({ "100", "1000", "10000" })
+    public int students;
+
+    private List<Team> teams;
+    private List<Project> projects;
+    private List<Preference> preferences;
+    private ControllerBase controllerBase;
+    private int nextTeam;
+
+    @Setup
+    public void setUp() {
+        DomainSnapshot snapshot = new SyntheticCohort(BenchmarkRunner.SEED).generate(students);
+
+        teams = snapshot.getTeams();
+        projects = snapshot.getProjects();
+        preferences = snapshot.getPreferences();
+        controllerBase = new ControllerBase();
+    }
+
+    //Takes the Teams in turn so that a single Team is not cached by the CPU
+    @Benchmark
+    public TeamFitness teamFitnessMetrics() {
+        Team team = teams.get(nextTeam);
+        nextTeam = (nextTeam + 1) % teams.size();
+
+        return controllerBase.calculateTeamFitnessMetricsFor(team, projects, preferences);
+    }
+
+    @Benchmark
+    public List<Double> standardDeviations() {
+        return controllerBase.calculateStandardDeviationsForFitnessMetrics(teams, projects, preferences);
+    }
+}
@@ -0,0 +1,108 @@
+package benchmarks;
+
+import cosc1295.src.models.DomainSnapshot;
+import cosc1295.src.models.Student;
+import cosc1295.src.models.Team;
+import helpers.utilities.LogicalAssistant;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the nested-loop member resolution and unteamed filtering (as they used to be in LogicalAssistant)
+ * against the unique-ID indexed versions, on cohorts of growing size up to 10k Students.
+ * The Teams are given members holding only their Student Unique ID, as Teams read from storage are.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemberResolutionBenchmark {
+
+    @Param({ "1000", "2500", "5000", "10000" })
+    public int students;
+
+    private List<Student> cohort;
+    private List<Team> storedTeams;
+
+    @Setup
+    public void setUp() {
+        DomainSnapshot snapshot = new SyntheticCohort(BenchmarkRunner.SEED).generate(students);
+        cohort = snapshot.getStudents();
+
+        storedTeams = snapshot.getTeams();
+        for (Team team : storedTeams) {
+            List<Student> members = new ArrayList<>();
+            for (Student member : team.getMembers()) {
+                Student storedMember = new Student();
+                storedMember.setUniqueId(member.getUniqueId());
+                members.add(storedMember);
+            }
+
+            team.setMembers(members);
+        }
+    }
+
+    //The Teams are cloned in both resolutions, as the resolution replaces their members
+    @Benchmark
+    public List<Team> resolveMembersByNestedLoops() {
+        List<Team> teams = cloneTeams(storedTeams);
+        nestedSetStudentDataInTeams(teams, cohort);
+
+        return teams;
+    }
+
+    @Benchmark
+    public List<Team> resolveMembersByIndex() {
+        List<Team> teams = cloneTeams(storedTeams);
+        LogicalAssistant.setStudentDataInTeams(teams, cohort);
+
+        return teams;
+    }
+
+    @Benchmark
+    public List<Student> filterUnteamedByNestedLoops() {
+        return nestedFilterUnteamedStudents(cohort, storedTeams);
+    }
+
+    @Benchmark
+    public List<Student> filterUnteamedByIndex() {
+        return LogicalAssistant.filterUnteamedStudents(cohort, storedTeams);
+    }
+
+    private static List<Team> cloneTeams(List<Team> teams) {
+        List<Team> clones = new ArrayList<>(teams.size());
+        for (Team team : teams) clones.add(team.clone());
+
+        return clones;
+    }
+
+    private static void nestedSetStudentDataInTeams(List<Team> teams, List<Student> students) {
+        for (Team team : teams) {
+            List<Student> memberData = new ArrayList<>();
+
+            for (Student member : team.getMembers())
+                for (Student student : students)
+                    if (student.getUniqueId().equals(member.getUniqueId())) {
+                        memberData.add(student);
+                        break;
+                    }
+
+            team.setMembers(memberData);
+        }
+    }
+
+    private static List<Student> nestedFilterUnteamedStudents(List<Student> students, List<Team> teams) {
+        List<Student> unteamedStudents = new ArrayList<>(students);
+
+        for (Team team : teams)
+            for (Student member : team.getMembers())
+                unteamedStudents.removeIf(m -> m.getUniqueId().equals(member.getUniqueId()));
+
+        return unteamedStudents;
+    }
+}
@@ -0,0 +1,158 @@
+package benchmarks;
+
+import helpers.commons.SharedConstants;
+import helpers.commons.SharedEnums;
+import helpers.utilities.LogicalAssistant;
+import helpers.utilities.RecordTokenizer;
+import org.openjdk.jmh.annotations.*;
+
+import javafx.util.Pair;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the parsing of the text file records read the most: Students, Fitness Metrics and Preferences.
+ * Each record is parsed as the readers did with String.split, and with a RecordTokenizer reset per record.
+ * Records are generated beforehand in the format of the text files, and each run parses all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordParsingBenchmark {
+
+    private static final int RECORDS = 1024;
+    private static final String DELIMITER = SharedConstants.TEXT_DELIMITER;
+
+    private String[] studentRecords;
+    private String[] fitnessRecords;
+    private String[] preferenceRecords;
+    private final RecordTokenizer tokenizer = new RecordTokenizer();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkRunner.SEED);
+        String[] skills = { "A", "N", "P", "W" };
+
+        studentRecords = new String[RECORDS];
+        fitnessRecords = new String[RECORDS];
+        preferenceRecords = new String[RECORDS];
+
+        for (int i = 0; i < RECORDS; i++) {
+            StringBuilder student = new StringBuilder().append(i + 1).append(DELIMITER).append('S').append(i + 1).append(DELIMITER);
+            for (String skill : skills) student.append(skill).append(random.nextInt(4) + 1).append(DELIMITER);
+            student.append((char) ('A' + random.nextInt(4))).append(DELIMITER);
+            for (int j = random.nextInt(3); j > 0; j--) student.append('S').append(random.nextInt(RECORDS) + 1).append(DELIMITER);
+            studentRecords[i] = student.toString();
+
+            StringBuilder fitness = new StringBuilder().append(i + 1).append(DELIMITER).append(randomScore(random)).append(DELIMITER);
+            for (String skill : skills) fitness.append(skill).append(DELIMITER).append(randomScore(random)).append(DELIMITER);
+            for (int j = 0; j < 4; j++) fitness.append(randomScore(random)).append(DELIMITER);
+            for (int j = 1; j <= 4; j++) fitness.append("PRO").append(j).append(DELIMITER).append(randomScore(random)).append(DELIMITER);
+            fitnessRecords[i] = fitness.toString();
+
+            StringBuilder preference = new StringBuilder().append('S').append(i + 1).append(DELIMITER);
+            for (int j = 1; j <= SharedConstants.MAX_PREFERENCE; j++)
+                preference.append("PRO").append(j).append(DELIMITER).append(random.nextInt(SharedConstants.MAX_PREFERENCE) + 1).append(DELIMITER);
+            preferenceRecords[i] = preference.toString();
+        }
+    }
+
+    @Benchmark
+    public int parseStudentsBySplit() {
+        int checksum = 0;
+        for (String record : studentRecords) {
+            String[] tokens = record.split(DELIMITER);
+            checksum += Integer.parseInt(tokens[0]) + tokens[1].length();
+
+            for (int i = 2; i <= 5; i++) {
+                Pair<SharedEnums.SKILLS, SharedEnums.RANKINGS> skillRanking = LogicalAssistant.parseSkillRankingToken(tokens[i]);
+                checksum += skillRanking.getValue().ordinal();
+            }
+
+            if (tokens.length > 6) checksum += tokens[6].equals("A") ? 1 : 0;
+            for (int i = 7; i < tokens.length && i < 9; i++) checksum += tokens[i].trim().length();
+        }
+
+        return checksum;
+    }
+
+    @Benchmark
+    public int parseStudentsByTokenizer() {
+        int checksum = 0;
+        for (String record : studentRecords) {
+            tokenizer.reset(record);
+            checksum += tokenizer.nextInt() + tokenizer.next().length();
+
+            for (int i = 2; i <= 5; i++) checksum += tokenizer.nextSkillRanking().getValue().ordinal();
+
+            if (tokenizer.hasNext()) checksum += tokenizer.nextPersonality() == SharedEnums.PERSONALITIES.A ? 1 : 0;
+            for (int i = 7; i < 9 && tokenizer.hasNext(); i++) checksum += tokenizer.next().trim().length();
+        }
+
+        return checksum;
+    }
+
+    @Benchmark
+    public double parseFitnessMetricsBySplit() {
+        double checksum = 0;
+        for (String record : fitnessRecords) {
+            String[] tokens = record.split(DELIMITER);
+            checksum += Integer.parseInt(tokens[0]) + Double.parseDouble(tokens[1]);
+
+            for (int i = 3; i < tokens.length; i += 2)
+                checksum += tokens[i - 1].length() + Double.parseDouble(tokens[i]);
+        }
+
+        return checksum;
+    }
+
+    @Benchmark
+    public double parseFitnessMetricsByTokenizer() {
+        double checksum = 0;
+        for (String record : fitnessRecords) {
+            tokenizer.reset(record);
+            checksum += tokenizer.nextInt() + tokenizer.nextDouble();
+
+            while (tokenizer.hasNext())
+                checksum += tokenizer.next().length() + tokenizer.nextDouble();
+        }
+
+        return checksum;
+    }
+
+    @Benchmark
+    public int parsePreferencesBySplit() {
+        int checksum = 0;
+        for (String record : preferenceRecords) {
+            String[] tokens = record.split(DELIMITER);
+            checksum += tokens[0].length();
+
+            for (int i = 2; i < tokens.length; i += 2)
+                checksum += tokens[i - 1].length() + Integer.parseInt(tokens[i]);
+        }
+
+        return checksum;
+    }
+
+    @Benchmark
+    public int parsePreferencesByTokenizer() {
+        int checksum = 0;
+        for (String record : preferenceRecords) {
+            tokenizer.reset(record);
+            checksum += tokenizer.next().length();
+
+            for (int i = 0; i < SharedConstants.MAX_PREFERENCE; i++)
+                checksum += tokenizer.next().length() + tokenizer.nextInt();
+        }
+
+        return checksum;
+    }
+
+    //A score as written by the Fitness Metrics, rounded to 2 decimals
+    private static double randomScore(Random random) {
+        return Math.round(random.nextDouble() * 1000) / 100.0;
+    }
+}
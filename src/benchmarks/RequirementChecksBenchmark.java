@@ -0,0 +1,105 @@
+package benchmarks;
+
+import cosc1295.src.models.DomainSnapshot;
+import cosc1295.src.models.Student;
+import cosc1295.src.models.Team;
+import cosc1295.src.services.analyzers.ConstraintEngine;
+import helpers.utilities.LogicalAssistant;
+import org.openjdk.jmh.annotations.*;
+
+import javafx.util.Pair;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the requirement checks made by the analyzers for every candidate: assigning an unteamed Student
+ * in place of a Team member, and swapping 2 members between 2 Teams. Candidates are drawn at random beforehand.
+ * The checks are measured through LogicalAssistant, and through a ConstraintEngine shared as by the analyzers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequirementChecksBenchmark {
+
+    private static final int CANDIDATES = 1024;
+
+    @Param({ "100", "1000", "10000" })
+    public int students;
+
+    private final List<Pair<Team, Student>> assignTargets = new ArrayList<>(CANDIDATES);
+    private final List<Student> assignees = new ArrayList<>(CANDIDATES);
+    private final List<Pair<Team, Team>> swapTeams = new ArrayList<>(CANDIDATES);
+    private final List<Pair<Student, Student>> swapMembers = new ArrayList<>(CANDIDATES);
+    private ConstraintEngine constraintEngine;
+    private int nextCandidate;
+
+    @Setup
+    public void setUp() {
+        DomainSnapshot snapshot = new SyntheticCohort(BenchmarkRunner.SEED).generate(students);
+        List<Team> teams = snapshot.getTeams();
+        List<Student> unteamedStudents = LogicalAssistant.filterUnteamedStudents(snapshot.getStudents(), teams);
+        Random random = new Random(BenchmarkRunner.SEED);
+        constraintEngine = new ConstraintEngine(teams, snapshot.getStudents());
+
+        assignTargets.clear();
+        assignees.clear();
+        swapTeams.clear();
+        swapMembers.clear();
+
+        for (int i = 0; i < CANDIDATES; i++) {
+            Team team = teams.get(random.nextInt(teams.size()));
+            assignTargets.add(new Pair<>(team, randomMemberOf(team, random)));
+            assignees.add(unteamedStudents.get(random.nextInt(unteamedStudents.size())));
+
+            Team first = teams.get(random.nextInt(teams.size()));
+            Team second;
+            do second = teams.get(random.nextInt(teams.size())); while (second == first);
+
+            swapTeams.add(new Pair<>(first, second));
+            swapMembers.add(new Pair<>(randomMemberOf(first, random), randomMemberOf(second, random)));
+        }
+    }
+
+    @Benchmark
+    public boolean isStudentAssignable() {
+        int candidate = nextCandidate();
+        return LogicalAssistant.isStudentAssignable(assignees.get(candidate), assignTargets.get(candidate));
+    }
+
+    @Benchmark
+    public boolean areStudentsSwappable() {
+        int candidate = nextCandidate();
+        return LogicalAssistant.areStudentsSwappable(swapTeams.get(candidate), swapMembers.get(candidate));
+    }
+
+    @Benchmark
+    public boolean isStudentAssignableByEngine() {
+        int candidate = nextCandidate();
+        return constraintEngine.isStudentAssignable(
+            assignees.get(candidate), assignTargets.get(candidate).getKey(), assignTargets.get(candidate).getValue()
+        );
+    }
+
+    @Benchmark
+    public boolean areStudentsSwappableByEngine() {
+        int candidate = nextCandidate();
+        return constraintEngine.areStudentsSwappable(
+            swapTeams.get(candidate).getKey(), swapTeams.get(candidate).getValue(),
+            swapMembers.get(candidate).getKey(), swapMembers.get(candidate).getValue()
+        );
+    }
+
+    private int nextCandidate() {
+        nextCandidate = (nextCandidate + 1) % CANDIDATES;
+        return nextCandidate;
+    }
+
+    private static Student randomMemberOf(Team team, Random random) {
+        return team.getMembers().get(random.nextInt(team.getMembers().size()));
+    }
+}
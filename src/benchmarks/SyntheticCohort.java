@@ -0,0 +1,149 @@
+package benchmarks;
+
+import cosc1295.src.models.*;
+import helpers.commons.SharedConstants;
+import helpers.commons.SharedEnums.PERSONALITIES;
+import helpers.commons.SharedEnums.RANKINGS;
+import helpers.commons.SharedEnums.SKILLS;
+
+import javafx.util.Pair;
+import java.util.*;
+
+/**
+ * Generates a reproducible cohort of N Students, P Projects and T full Teams, shaped like the data in the assignment files:
+ * every Student and Project ranks all 4 skills, every Student rates 4 distinct Projects from 4 down to 1,
+ * and some Students have up to 2 conflicters. Teams take their members from the start of the Student list,
+ * the remaining Students are left unteamed. The same seed always produces the same cohort.
+ */
+public final class SyntheticCohort {
+
+    private static final SKILLS[] SKILL_VALUES = SKILLS.values();
+    private static final RANKINGS[] RANKING_VALUES = RANKINGS.values();
+    private static final PERSONALITIES[] PERSONALITY_VALUES = PERSONALITIES.values();
+    private static final int PREFERENCES_PER_STUDENT = 4;
+    private static final int MAX_CONFLICTERS = 2;
+
+    private final Random random;
+
+    public SyntheticCohort(long seed) {
+        random = new Random(seed);
+    }
+
+    /**
+     * Generates the cohort into a snapshot, so that analyzers can be constructed on it without reading storage.
+     * @param studentCount int
+     * @param projectCount int - at least 4, so each Student can rate 4 distinct Projects
+     * @param teamCount int - at most studentCount / GROUP_LIMIT
+     * @return DomainSnapshot
+     */
+    public DomainSnapshot generate(int studentCount, int projectCount, int teamCount) {
+        if (projectCount < PREFERENCES_PER_STUDENT || teamCount * SharedConstants.GROUP_LIMIT > studentCount)
+            throw new IllegalArgumentException("Cohort too small: " + studentCount + " Students, " + projectCount + " Projects, " + teamCount + " Teams.");
+
+        List<Project> projects = makeProjects(projectCount);
+        List<Student> students = makeStudents(studentCount);
+        List<Preference> preferences = makePreferences(students, projects);
+        List<Team> teams = makeTeams(teamCount, students, projects);
+
+        return new DomainSnapshot(0, SyntheticCohort.class.getSimpleName(), students, projects, preferences, teams);
+    }
+
+    /**
+     * Generates a cohort with 1 Project per 10 Students (at least 4) and 4 in 5 Students in full Teams.
+     * @param studentCount int
+     * @return DomainSnapshot
+     */
+    public DomainSnapshot generate(int studentCount) {
+        return generate(
+            studentCount,
+            Math.max(PREFERENCES_PER_STUDENT, studentCount / 10),
+            studentCount * 4 / 5 / SharedConstants.GROUP_LIMIT
+        );
+    }
+
+    private List<Project> makeProjects(int count) {
+        List<Project> projects = new ArrayList<>(count);
+
+        for (int i = 1; i <= count; i++) {
+            Project project = new Project();
+            project.setId(i);
+            project.setUniqueId("Pr" + i);
+            project.setProjectTitle("Project " + i);
+            project.setSkillRanking(makeSkillRanking());
+            projects.add(project);
+        }
+
+        return projects;
+    }
+
+    private List<Student> makeStudents(int count) {
+        List<Student> students = new ArrayList<>(count);
+
+        for (int i = 1; i <= count; i++) {
+            Student student = new Student();
+            student.setId(i);
+            student.setUniqueId("S" + i);
+            student.setSkillRanking(makeSkillRanking());
+            student.setPersonality(PERSONALITY_VALUES[random.nextInt(PERSONALITY_VALUES.length)]);
+            students.add(student);
+        }
+
+        for (Student student : students) {
+            int conflicterCount = random.nextInt(MAX_CONFLICTERS + 1);
+
+            for (int i = 0; i < conflicterCount; i++) {
+                String conflicter = students.get(random.nextInt(count)).getUniqueId();
+                if (!conflicter.equals(student.getUniqueId()) && !student.getConflicters().contains(conflicter))
+                    student.addConflicter(conflicter);
+            }
+        }
+
+        return students;
+    }
+
+    private List<Preference> makePreferences(List<Student> students, List<Project> projects) {
+        List<Preference> preferences = new ArrayList<>(students.size());
+
+        for (Student student : students) {
+            Preference preference = new Preference();
+            preference.setStudentUniqueId(student.getUniqueId());
+
+            Set<Integer> rated = new HashSet<>();
+            for (int rating = PREFERENCES_PER_STUDENT; rating > 0; rating--) {
+                int project;
+                do project = random.nextInt(projects.size()); while (!rated.add(project));
+
+                preference.addPreference(new Pair<>(projects.get(project).getUniqueId(), rating));
+            }
+
+            preferences.add(preference);
+        }
+
+        return preferences;
+    }
+
+    private List<Team> makeTeams(int count, List<Student> students, List<Project> projects) {
+        List<Team> teams = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            Team team = new Team();
+            team.setId(i + 1);
+            team.setProject(projects.get(random.nextInt(projects.size())));
+
+            for (int j = 0; j < SharedConstants.GROUP_LIMIT; j++)
+                team.addMember(students.get(i * SharedConstants.GROUP_LIMIT + j));
+
+            teams.add(team);
+        }
+
+        return teams;
+    }
+
+    private HashMap<SKILLS, RANKINGS> makeSkillRanking() {
+        HashMap<SKILLS, RANKINGS> skillRanking = new HashMap<>();
+        for (SKILLS skill : SKILL_VALUES)
+            skillRanking.put(skill, RANKING_VALUES[random.nextInt(RANKING_VALUES.length)]);
+
+        return skillRanking;
+    }
+}
@@ -10,27 +10,35 @@ import java.io.*;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
-
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Saves entries in binary files of records, 1 record per entry holding the entry serialized alone.
+ * Entries are found by their `id` field and checked by their `uniqueId` field, both indexed by BinaryRecordStore,
+ * so an entry is read, added or updated without reading or writing the other entries.
+ * As each entry is serialized alone, each record carries the class descriptor of its entry: the files are larger
+ * than a serialized list, which is the cost of reading or writing an entry on its own.
+ * A file saved as a serialized list of entries, as before, is converted on first use.
+ */
 public class BinaryFileServiceBase<T> {
 
+    private static final Map<Class<?>, Field> idFields = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Field> uniqueIdFields = new ConcurrentHashMap<>();
+
     private final Flasher flasher = Flasher.getInstance();
 
     private final String ASSET_PATH = System.getProperty("user.dir") + "\\src\\assets\\binaries";
 
-    @SuppressWarnings("unchecked")
-	public List<T> readAllDataFromFile(Class<T> type) {
-        String filePath = generateFilePathByDataType(type);
-        List<T> data;
+    public List<T> readAllDataFromFile(Class<T> type) {
+        File file = new File(generateFilePathByDataType(type));
+        if (!file.exists()) return null;
 
+        List<T> data = new ArrayList<>();
         try {
-            FileInputStream fileStream = new FileInputStream(filePath);
-            ObjectInputStream inputStream = new ObjectInputStream(fileStream);
-
-            data = (ArrayList<T>) inputStream.readObject();
-            inputStream.close();
-        } catch (FileNotFoundException | ClassNotFoundException ex) {
-            return null;
-        } catch (IOException ex) {
+            for (byte[] entry : storeOf(type, file).readAll())
+                data.add(deserialize(type, entry));
+        } catch (IOException | ClassNotFoundException | ClassCastException ex) {
             flasher.flash(new Flash(
                     ex.getMessage(),
                     FLASH_TYPES.ERROR
@@ -43,18 +51,13 @@ public class BinaryFileServiceBase<T> {
     }
 
     public T getEntryFromFileById(Class<T> type, int id) {
-        List<T> data = readAllDataFromFile(type);
-        if (data == null) return null;
+        File file = new File(generateFilePathByDataType(type));
+        if (!file.exists()) return null;
 
         try {
-            for (T item : data) {
-                Field idField = type.getDeclaredField("id");
-                idField.setAccessible(true);
-                int idVal = (int) idField.get(item);
-
-                if (idVal == id) return item;
-            }
-        } catch (NoSuchFieldException | SecurityException | IllegalAccessException ex) {
+            byte[] entry = storeOf(type, file).read(id);
+            return entry == null ? null : deserialize(type, entry);
+        } catch (IOException | ClassNotFoundException | ClassCastException ex) {
             flasher.flash(new Flash(
                     ex.getMessage(),
                     FLASH_TYPES.ERROR
@@ -62,22 +65,14 @@ public class BinaryFileServiceBase<T> {
 
             return null;
         }
-
-        return null;
     }
 
     public boolean saveEntryToFile(Class<T> type, T entry) {
-        String filePath = generateFilePathByDataType(type);
+        File file = new File(generateFilePathByDataType(type));
 
         try {
-            FileOutputStream fileStream = new FileOutputStream(filePath, true);
-            ObjectOutputStream outputStream = new ObjectOutputStream(fileStream) {
-                protected void writeStreamHeader() throws IOException { reset(); }
-            };
-
-            outputStream.writeObject(entry);
-            outputStream.close();
-        } catch (IOException ex) {
+            storeOf(type, file).append(makeRecord(type, entry));
+        } catch (IOException | NoSuchFieldException | SecurityException | IllegalAccessException ex) {
             flasher.flash(new Flash(
                     ex.getMessage(),
                     FLASH_TYPES.ERROR
@@ -90,31 +85,12 @@ public class BinaryFileServiceBase<T> {
     }
 
     public Boolean updateEntryToFile(Class<T> type, T entry) {
-        String filePath = generateFilePathByDataType(type);
-
-        List<T> data = readAllDataFromFile(type);
-        if (data == null) return null;
+        File file = new File(generateFilePathByDataType(type));
+        if (!file.exists()) return null;
 
         try {
-            Field idEntry = type.getDeclaredField("id");
-            idEntry.setAccessible(true);
-            int idEntryVal = (int) idEntry.get(entry);
-
-            T itemToReplace = null;
-            for (T item : data) {
-                Field idItem = type.getDeclaredField("id");
-                idItem.setAccessible(true);
-                int idItemVal = (int) idItem.get(item);
-
-                if (idItemVal == idEntryVal) {
-                    itemToReplace = item;
-                    break;
-                }
-            }
-
-            if (itemToReplace == null) return false;
-            data.set(data.indexOf(itemToReplace), entry);
-        } catch (NoSuchFieldException | SecurityException | IllegalAccessException ex) {
+            return storeOf(type, file).update(makeRecord(type, entry));
+        } catch (IOException | NoSuchFieldException | SecurityException | IllegalAccessException ex) {
             flasher.flash(new Flash(
                     ex.getMessage(),
                     FLASH_TYPES.ERROR
@@ -122,13 +98,14 @@ public class BinaryFileServiceBase<T> {
 
             return null;
         }
+    }
 
-        try {
-            FileOutputStream fileStream = new FileOutputStream(filePath);
-            ObjectOutputStream outputStream = new ObjectOutputStream(fileStream);
+    public Boolean isRedundantUniqueId(Class<T> type, String uniqueId) {
+        File file = new File(generateFilePathByDataType(type));
+        if (!file.exists()) return null;
 
-            outputStream.writeObject(data);
-            outputStream.close();
+        try {
+            return storeOf(type, file).containsUniqueId(uniqueId);
         } catch (IOException ex) {
             flasher.flash(new Flash(
                     ex.getMessage(),
@@ -137,54 +114,133 @@ public class BinaryFileServiceBase<T> {
 
             return null;
         }
-
-        return true;
     }
 
-    public Boolean isRedundantUniqueId(Class<T> type, String uniqueId) {
-        List<T> data = readAllDataFromFile(type);
-        if (data == null) return null;
+    /**
+     * Gets the `id` for the next entry from the file header, being the highest `id` ever saved plus 1.
+     * Returns 1 if no data was ever saved, -1 on exception.
+     * @param type Class<T>
+     * @return int
+     */
+    public int getNextEntryIdForNewEntry(Class<T> type) {
+        final int UNDETERMINED_ID = -1;
+        File file = new File(generateFilePathByDataType(type));
 
         try {
-            for (T item : data) {
-                Field uidItem = type.getDeclaredField("uniqueId");
-                uidItem.setAccessible(true);
-                String uidItemVal = (String) uidItem.get(item);
-
-                if (uidItemVal.equals(uniqueId)) return true;
-            }
-        } catch (NoSuchFieldException | SecurityException | IllegalAccessException ex) {
+            return storeOf(type, file).getNextId();
+        } catch (IOException ex) {
             flasher.flash(new Flash(
                     ex.getMessage(),
                     FLASH_TYPES.ERROR
             ));
 
-            return null;
+            return UNDETERMINED_ID;
         }
-
-        return false;
     }
 
-    public int getNextEntryIdForNewEntry(Class<T> type) {
-        final int UNDETERMINED_ID = -1;
-
-        List<T> data = readAllDataFromFile(type);
-        if (data == null) return UNDETERMINED_ID;
+    /**
+     * Converts a file saved as a serialized list of entries, followed by the entries appended one by one, into records.
+     * The last saved version of an entry is kept. Returns null on exception, false if there is no such file to convert.
+     * @param type Class<T>
+     * @return Boolean
+     */
+    public Boolean convertSerializedFile(Class<T> type) {
+        File file = new File(generateFilePathByDataType(type));
 
-        T lastItem = data.get(data.size() - 1);
         try {
-            Field idItem = type.getDeclaredField("id");
-            idItem.setAccessible(true);
-            int idItemVal = (int) idItem.get(lastItem);
+            if (!file.exists() || BinaryRecordStore.isRecordFile(file)) return false;
 
-            return ++idItemVal;
-        } catch (NoSuchFieldException | SecurityException | IllegalAccessException ex) {
+            convertSerializedFile(type, file);
+            return true;
+        } catch (IOException | ClassNotFoundException | ClassCastException |
+                 NoSuchFieldException | SecurityException | IllegalAccessException ex
+        ) {
             flasher.flash(new Flash(
                     ex.getMessage(),
                     FLASH_TYPES.ERROR
             ));
 
-            return UNDETERMINED_ID;
+            return null;
+        }
+    }
+
+    //Gets the store of a file, converting the file first if it is a serialized list
+    private BinaryRecordStore storeOf(Class<T> type, File file) throws IOException {
+        if (file.length() > 0 && !BinaryRecordStore.isRecordFile(file))
+            try {
+                convertSerializedFile(type, file);
+            } catch (ClassNotFoundException | ClassCastException |
+                     NoSuchFieldException | SecurityException | IllegalAccessException ex
+            ) {
+                throw new IOException("Unable to convert " + file.getName() + ": " + ex.getMessage(), ex);
+            }
+
+        return BinaryRecordStore.of(file);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void convertSerializedFile(Class<T> type, File file)
+        throws IOException, ClassNotFoundException, NoSuchFieldException, IllegalAccessException
+    {
+        List<T> entries = new ArrayList<>();
+        try (ObjectInputStream inputStream = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            //The list comes first, then the entries appended with a reset in place of the stream header
+            while (true) {
+                Object item;
+                try {
+                    item = inputStream.readObject();
+                } catch (EOFException ex) {
+                    break;
+                }
+
+                if (item instanceof List) entries.addAll((List<T>) item);
+                else entries.add(type.cast(item));
+            }
+        }
+
+        List<BinaryRecordStore.Record> records = new ArrayList<>(entries.size());
+        for (T entry : entries) records.add(makeRecord(type, entry));
+
+        BinaryRecordStore.of(file).rewrite(records);
+    }
+
+    private BinaryRecordStore.Record makeRecord(Class<T> type, T entry)
+        throws IOException, NoSuchFieldException, IllegalAccessException
+    {
+        Field uniqueIdField = fieldOf(uniqueIdFields, type, "uniqueId");
+        String uniqueId = uniqueIdField == null ? null : (String) uniqueIdField.get(entry);
+
+        Field idField = fieldOf(idFields, type, "id");
+        if (idField == null) throw new NoSuchFieldException("id");
+
+        return new BinaryRecordStore.Record((int) idField.get(entry), uniqueId, serialize(entry));
+    }
+
+    //Looks up a field once per type, null if the type has no such field
+    private static Field fieldOf(Map<Class<?>, Field> fields, Class<?> type, String name) {
+        return fields.computeIfAbsent(type, key -> {
+            try {
+                Field field = key.getDeclaredField(name);
+                field.setAccessible(true);
+                return field;
+            } catch (NoSuchFieldException ex) {
+                return null;
+            }
+        });
+    }
+
+    private static byte[] serialize(Object entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(bytes)) {
+            outputStream.writeObject(entry);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private T deserialize(Class<T> type, byte[] entry) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(entry))) {
+            return type.cast(inputStream.readObject());
         }
     }
 
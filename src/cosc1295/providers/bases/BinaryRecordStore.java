@@ -0,0 +1,336 @@
+package cosc1295.providers.bases;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A binary file of variable-length records, read and written through a FileChannel.
+ * The file starts with a header holding the format and the highest ID given, so the next ID is known without reading records.
+ * Each record holds its ID, the Unique ID of its entry and the bytes of its entry, in a slot with some spare room:
+ *      status (1 byte) | id (4 bytes) | slot size (4 bytes) | length (4 bytes) | unique id length (2 bytes) | slot
+ * where the slot holds the unique id then the bytes, followed by the spare room.
+ * An entry is updated in place if its new bytes fit the slot, otherwise its slot is marked dead and a new record is appended.
+ * The position of each live record is indexed by ID, and its ID by Unique ID, so an entry is read with 1 seek.
+ * One store is kept per file. The index is built on first use, and again if the file has been changed by other means.
+ */
+final class BinaryRecordStore {
+
+    private static final int MAGIC = 0x42525331; //BRS1
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16; //magic, version, highest id, reserved
+    private static final int HIGHEST_ID_POSITION = 8;
+    private static final int RECORD_HEADER_SIZE = 15;
+    private static final int ID_OFFSET = 1;
+    private static final int SLOT_SIZE_OFFSET = 5;
+    private static final int LENGTH_OFFSET = 9;
+    private static final int UNIQUE_ID_LENGTH_OFFSET = 13;
+
+    private static final byte LIVE = 1;
+    private static final byte DEAD = 0;
+
+    private static final Map<String, BinaryRecordStore> stores = new ConcurrentHashMap<>();
+
+    private final File file;
+    private Map<Integer, Long> positions; //ordered by ID, null until built
+    private Map<Integer, Integer> slotSizes;
+    private Map<Integer, String> entryUniqueIds;
+    private Map<String, Integer> uniqueIds;
+    private int highestId;
+    private long indexedLength;
+    private long indexedModified;
+
+    private BinaryRecordStore(File file) {
+        this.file = file;
+    }
+
+    static BinaryRecordStore of(File file) {
+        return stores.computeIfAbsent(file.getAbsolutePath(), path -> new BinaryRecordStore(new File(path)));
+    }
+
+    /**
+     * Checks if a file is written in this format, by its header. False if the file does not exist or is empty.
+     * @param file File
+     * @return boolean
+     * @throws IOException
+     */
+    static boolean isRecordFile(File file) throws IOException {
+        if (!file.exists() || file.length() < HEADER_SIZE) return false;
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            readFully(channel, header, 0);
+
+            return header.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Writes a new file holding the given entries, replacing the file if it exists.
+     * Used to convert files written in another format.
+     * @param entries List<Record>
+     * @throws IOException
+     */
+    synchronized void rewrite(List<Record> entries) throws IOException {
+        try (FileChannel channel = FileChannel.open(
+            file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            writeHeader(channel, 0);
+        }
+
+        resetIndex();
+        recordFileState();
+
+        for (Record entry : entries) append(entry);
+    }
+
+    /**
+     * Reads the bytes of all live entries, in ID order.
+     * @return List<byte[]>
+     * @throws IOException
+     */
+    synchronized List<byte[]> readAll() throws IOException {
+        refresh();
+
+        List<byte[]> entries = new ArrayList<>(positions.size());
+        if (positions.isEmpty()) return entries;
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            for (long position : positions.values()) entries.add(readBytes(channel, position));
+        }
+
+        return entries;
+    }
+
+    /**
+     * Reads the bytes of the entry having the ID. Returns null if there is no such entry.
+     * @param id int
+     * @return byte[]
+     * @throws IOException
+     */
+    synchronized byte[] read(int id) throws IOException {
+        refresh();
+
+        Long position = positions.get(id);
+        if (position == null) return null;
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return readBytes(channel, position);
+        }
+    }
+
+    /**
+     * Appends a new entry, or a new version of an entry, in which case the slot of the old version is marked dead.
+     * @param entry Record
+     * @throws IOException
+     */
+    synchronized void append(Record entry) throws IOException {
+        refresh();
+
+        byte[] uniqueId = entry.uniqueId.getBytes(StandardCharsets.UTF_8);
+        int slotSize = uniqueId.length + entry.bytes.length + entry.bytes.length / 4; //spare room, for updates in place
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + slotSize);
+        record.put(LIVE).putInt(entry.id).putInt(slotSize).putInt(entry.bytes.length).putShort((short) uniqueId.length)
+              .put(uniqueId).put(entry.bytes);
+        record.rewind();
+
+        try (FileChannel channel = FileChannel.open(
+            file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE
+        )) {
+            if (channel.size() == 0) writeHeader(channel, highestId);
+
+            Long oldPosition = positions.get(entry.id);
+            if (oldPosition != null) writeFully(channel, ByteBuffer.wrap(new byte[] { DEAD }), oldPosition);
+
+            long position = channel.size();
+            writeFully(channel, record, position);
+
+            if (entry.id > highestId) {
+                highestId = entry.id;
+                writeHighestId(channel);
+            }
+
+            index(entry.id, entry.uniqueId, position, slotSize);
+        }
+
+        recordFileState();
+    }
+
+    /**
+     * Replaces the entry having the ID, in place if the new bytes fit its slot.
+     * Returns false if there is no such entry.
+     * @param entry Record
+     * @return boolean
+     * @throws IOException
+     */
+    synchronized boolean update(Record entry) throws IOException {
+        refresh();
+
+        Long position = positions.get(entry.id);
+        if (position == null) return false;
+
+        byte[] uniqueId = entry.uniqueId.getBytes(StandardCharsets.UTF_8);
+        int slotSize = slotSizes.get(entry.id);
+        if (uniqueId.length + entry.bytes.length > slotSize) {
+            append(entry);
+            return true;
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE - LENGTH_OFFSET + uniqueId.length + entry.bytes.length);
+        record.putInt(entry.bytes.length).putShort((short) uniqueId.length).put(uniqueId).put(entry.bytes);
+        record.rewind();
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            writeFully(channel, record, position + LENGTH_OFFSET);
+        }
+
+        index(entry.id, entry.uniqueId, position, slotSize);
+        recordFileState();
+        return true;
+    }
+
+    synchronized boolean containsUniqueId(String uniqueId) throws IOException {
+        refresh();
+        return uniqueIds.containsKey(uniqueId);
+    }
+
+    /**
+     * Gets the ID for the next entry, being the highest ID ever given plus 1.
+     * @return int
+     * @throws IOException
+     */
+    synchronized int getNextId() throws IOException {
+        refresh();
+        return highestId + 1;
+    }
+
+    private void index(int id, String uniqueId, long position, int slotSize) {
+        positions.put(id, position);
+        slotSizes.put(id, slotSize);
+
+        //The Unique ID of an entry may change
+        String oldUniqueId = entryUniqueIds.put(id, uniqueId);
+        if (oldUniqueId != null && Objects.equals(uniqueIds.get(oldUniqueId), id)) uniqueIds.remove(oldUniqueId);
+        if (!uniqueId.isEmpty()) uniqueIds.put(uniqueId, id);
+    }
+
+    private void resetIndex() {
+        positions = new TreeMap<>();
+        slotSizes = new HashMap<>();
+        entryUniqueIds = new HashMap<>();
+        uniqueIds = new HashMap<>();
+        highestId = 0;
+    }
+
+    private void refresh() throws IOException {
+        if (positions == null || file.length() != indexedLength || file.lastModified() != indexedModified) build();
+    }
+
+    private void recordFileState() {
+        indexedLength = file.length();
+        indexedModified = file.lastModified();
+    }
+
+    //Reads the record headers only, skipping the bytes of the entries
+    private void build() throws IOException {
+        resetIndex();
+
+        //The file and its header are written with the first entry
+        if (!file.exists() || file.length() == 0) {
+            recordFileState();
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header, 0);
+
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION)
+                throw new IOException("Unknown binary record format: " + file.getName());
+
+            highestId = header.getInt(HIGHEST_ID_POSITION);
+
+            long position = HEADER_SIZE;
+            long size = channel.size();
+            ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+
+            while (position < size) {
+                recordHeader.clear();
+                readFully(channel, recordHeader, position);
+
+                int slotSize = recordHeader.getInt(SLOT_SIZE_OFFSET);
+                if (recordHeader.get(0) == LIVE) {
+                    ByteBuffer uniqueId = ByteBuffer.allocate(recordHeader.getShort(UNIQUE_ID_LENGTH_OFFSET));
+                    readFully(channel, uniqueId, position + RECORD_HEADER_SIZE);
+
+                    index(
+                        recordHeader.getInt(ID_OFFSET), new String(uniqueId.array(), StandardCharsets.UTF_8),
+                        position, slotSize
+                    );
+                }
+
+                position += RECORD_HEADER_SIZE + slotSize;
+            }
+        }
+
+        recordFileState();
+    }
+
+    private byte[] readBytes(FileChannel channel, long position) throws IOException {
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        readFully(channel, recordHeader, position);
+
+        ByteBuffer bytes = ByteBuffer.allocate(recordHeader.getInt(LENGTH_OFFSET));
+        readFully(channel, bytes, position + RECORD_HEADER_SIZE + recordHeader.getShort(UNIQUE_ID_LENGTH_OFFSET));
+
+        return bytes.array();
+    }
+
+    private static void writeHeader(FileChannel channel, int highestId) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(highestId).putInt(0);
+        header.rewind();
+
+        writeFully(channel, header, 0);
+    }
+
+    private void writeHighestId(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        buffer.putInt(0, highestId);
+
+        writeFully(channel, buffer, HIGHEST_ID_POSITION);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) throw new IOException("Unexpected end of binary record file.");
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer, position + buffer.position());
+    }
+
+    /**
+     * An entry as stored: its ID, its Unique ID (empty if it has none) and its bytes.
+     */
+    static final class Record {
+
+        private final int id;
+        private final String uniqueId;
+        private final byte[] bytes;
+
+        Record(int id, String uniqueId, byte[] bytes) {
+            this.id = id;
+            this.uniqueId = uniqueId == null ? "" : uniqueId;
+            this.bytes = bytes;
+        }
+    }
+}
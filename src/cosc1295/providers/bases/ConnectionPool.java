@@ -0,0 +1,274 @@
+package cosc1295.providers.bases;
+
+import helpers.commons.SharedConstants;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A bounded pool of physical connections to database, used by DatabaseContext.
+ * Connections are opened on demand up to the pool size, and the most recently released connection is handed out first (LIFO),
+ * so that a few connections stay warm and the others can be dropped by the server when idle for long.
+ * Each connection keeps its own cache of PreparedStatements for queries that never change.
+ */
+public final class ConnectionPool {
+
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+    private static final int VALIDATION_TIMEOUT = 2; //seconds
+
+    private final DataSource dataSource;
+    private final int maxSize;
+    private final long borrowTimeout;
+
+    private final Deque<PooledConnection> idleConnections = new ArrayDeque<>();
+    private int openCount;
+    private boolean closed;
+
+    //Metrics
+    private long borrowCount;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+
+    /**
+     * @param dataSource DataSource
+     * @param maxSize int - the maximum number of connections opened at the same time
+     * @param borrowTimeout long - milliseconds to wait for a connection before giving up
+     */
+    ConnectionPool(DataSource dataSource, int maxSize, long borrowTimeout) {
+        this.dataSource = dataSource;
+        this.maxSize = maxSize;
+        this.borrowTimeout = borrowTimeout;
+    }
+
+    /**
+     * Takes an idle connection, or opens a new one if the pool is not full,
+     * otherwise waits until another thread releases a connection.
+     * @return PooledConnection
+     * @throws SQLException if the pool is closed, no connection becomes available in time, or a connection fails to open
+     */
+    PooledConnection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + borrowTimeout * 1000000L;
+
+        while (true) {
+            PooledConnection candidate = null;
+            boolean shouldOpen = false;
+
+            synchronized (this) {
+                while (!closed && idleConnections.isEmpty() && openCount >= maxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) throw new SQLException("Timed out waiting for a database connection.");
+
+                    try {
+                        wait(remaining / 1000000L + 1);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection.");
+                    }
+                }
+
+                if (closed) throw new SQLException("Connection pool has been closed.");
+
+                if (!idleConnections.isEmpty()) candidate = idleConnections.pop();
+                else {
+                    openCount++;
+                    shouldOpen = true;
+                }
+            }
+
+            //Connections are opened and validated outside the lock, so other threads are not blocked meanwhile
+            if (shouldOpen) {
+                try {
+                    candidate = new PooledConnection(this, dataSource.getConnection());
+                } catch (SQLException ex) {
+                    discard(null);
+                    throw ex;
+                }
+            }
+            else if (!candidate.isValid()) {
+                discard(candidate);
+                continue;
+            }
+
+            recordWait(System.nanoTime() - start);
+            return candidate;
+        }
+    }
+
+    /**
+     * Returns a connection to the pool. A connection left in a transaction is rolled back first.
+     * @param connection PooledConnection
+     */
+    void release(PooledConnection connection) {
+        try {
+            if (!connection.getConnection().getAutoCommit()) {
+                connection.getConnection().rollback();
+                connection.getConnection().setAutoCommit(true);
+            }
+        } catch (SQLException ex) {
+            if (SharedConstants.DEV) logger.log(Level.SEVERE, "ConnectionPool.release : " + ex.getMessage());
+            discard(connection);
+            return;
+        }
+
+        synchronized (this) {
+            if (closed) {
+                openCount--;
+                connection.close();
+            }
+            else idleConnections.push(connection);
+
+            notifyAll();
+        }
+    }
+
+    /**
+     * Closes all idle connections. Connections in use are closed when released.
+     */
+    synchronized void close() {
+        closed = true;
+
+        while (!idleConnections.isEmpty()) {
+            idleConnections.pop().close();
+            openCount--;
+        }
+
+        notifyAll();
+    }
+
+    synchronized Metrics getMetrics() {
+        return new Metrics(
+            openCount - idleConnections.size(), idleConnections.size(), maxSize,
+            borrowCount, borrowCount == 0 ? 0 : totalWaitNanos / borrowCount, maxWaitNanos
+        );
+    }
+
+    private synchronized void recordWait(long waitNanos) {
+        borrowCount++;
+        totalWaitNanos += waitNanos;
+        maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+    }
+
+    private void discard(PooledConnection connection) {
+        if (connection != null) connection.close();
+
+        synchronized (this) {
+            openCount--;
+            notifyAll();
+        }
+    }
+
+    /**
+     * A physical connection with its cache of PreparedStatements.
+     * The cache is bounded and drops the least recently used statement when full.
+     */
+    static final class PooledConnection {
+
+        private final ConnectionPool owner;
+        private final Connection connection;
+        private final LinkedHashMap<String, PreparedStatement> statementCache =
+            new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+                private static final long serialVersionUID = -4087151406127925375L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() <= SharedConstants.DB_STATEMENT_CACHE_SIZE) return false;
+
+                    try { eldest.getValue().close(); } catch (SQLException ignored) { }
+                    return true;
+                }
+            };
+
+        private PooledConnection(ConnectionPool owner, Connection connection) {
+            this.owner = owner;
+            this.connection = connection;
+        }
+
+        Connection getConnection() {
+            return connection;
+        }
+
+        //Returns this connection to the pool it was borrowed from
+        void release() {
+            owner.release(this);
+        }
+
+        /**
+         * Gets the cached PreparedStatement for a query that never changes, preparing it on first use.
+         * Cached statements must not be closed by callers, only their ResultSets.
+         * @param query String
+         * @return PreparedStatement
+         * @throws SQLException
+         */
+        PreparedStatement prepareCached(String query) throws SQLException {
+            PreparedStatement statement = statementCache.get(query);
+            if (statement != null && !statement.isClosed()) return statement;
+
+            statement = connection.prepareStatement(query);
+            statementCache.put(query, statement);
+            return statement;
+        }
+
+        private boolean isValid() {
+            try {
+                return connection.isValid(VALIDATION_TIMEOUT);
+            } catch (SQLException ex) {
+                return false;
+            }
+        }
+
+        private void close() {
+            for (PreparedStatement statement : statementCache.values())
+                try { statement.close(); } catch (SQLException ignored) { }
+
+            statementCache.clear();
+            try { connection.close(); } catch (SQLException ignored) { }
+        }
+    }
+
+    /**
+     * The state of the pool at one point in time. Wait times are the time taken to get a connection when borrowing.
+     */
+    public static final class Metrics {
+
+        private final int activeConnections;
+        private final int idleConnections;
+        private final int maxConnections;
+        private final long borrowCount;
+        private final long averageWaitNanos;
+        private final long maxWaitNanos;
+
+        private Metrics(int active, int idle, int max, long borrowCount, long averageWaitNanos, long maxWaitNanos) {
+            activeConnections = active;
+            idleConnections = idle;
+            maxConnections = max;
+            this.borrowCount = borrowCount;
+            this.averageWaitNanos = averageWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+        }
+
+        public int getActiveConnections() { return activeConnections; }
+
+        public int getIdleConnections() { return idleConnections; }
+
+        public int getMaxConnections() { return maxConnections; }
+
+        public long getBorrowCount() { return borrowCount; }
+
+        public long getAverageWaitNanos() { return averageWaitNanos; }
+
+        public long getMaxWaitNanos() { return maxWaitNanos; }
+
+        @Override
+        public String toString() {
+            return "Active: " + activeConnections + ", Idle: " + idleConnections + ", Max: " + maxConnections +
+                   ", Borrows: " + borrowCount + ", Average wait: " + averageWaitNanos / 1000 + "us" +
+                   ", Max wait: " + maxWaitNanos / 1000 + "us";
+        }
+    }
+}
@@ -2,8 +2,6 @@ package cosc1295.providers.bases;
 
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.sql.*;
 import java.util.*;
 import java.util.logging.Level;
@@ -11,12 +9,15 @@ import java.util.logging.Logger;
 
 import com.mysql.cj.jdbc.MysqlDataSource;
 import com.sun.istack.internal.NotNull;
+import cosc1295.providers.bases.ConnectionPool.PooledConnection;
 import cosc1295.src.models.*;
 import helpers.commons.SharedConstants;
 
 /**
- * Singleton: the database context that contains the connection to database.
+ * Singleton: the database context that holds a pool of connections to database.
  * Provides all necessary methods to execute on-demand queries against database.
+ * Each query borrows a connection from the pool and releases it when done. During a transaction (auto-commit OFF),
+ * the connection is pinned to the calling thread, so all statements of that thread run in the same transaction.
  */
 public class DatabaseContext {
     private static final Logger logger = Logger.getLogger(DatabaseContext.class.getName());
@@ -40,43 +41,62 @@ public class DatabaseContext {
     }};
 
     private static DatabaseContext context;
-    private static Connection connection;
+    private static volatile ConnectionPool pool;
+    private static Properties connectionProperties;
+
+    //The connection of a thread that is in a transaction
+    private static final ThreadLocal<PooledConnection> transactionConnection = new ThreadLocal<>();
+
+    //Statements created outside a transaction hold their connection until they are executed
+    private final Map<Statement, PooledConnection> leasedStatements = Collections.synchronizedMap(new IdentityHashMap<>());
 
     private DatabaseContext() { }
 
+    /**
+     * Returns the database context, creating the connection pool on first call.
+     * Returns null if the connection properties can not be read or database can not be connected,
+     * the next call will then try again.
+     * @return DatabaseContext
+     */
     public static DatabaseContext getInstance() {
         if (context == null) {
             synchronized (DatabaseContext.class) {
-                context = context == null ?
-                            new DatabaseContext()
-                            : context;
+                if (context == null) {
+                    try {
+                        pool = preparePool();
+                    } catch (SQLException | IOException | NumberFormatException ex) {
+                        if (SharedConstants.DEV) logger.log(Level.SEVERE, "DatabaseContext.getInstance : " + ex.getMessage());
+                        return null;
+                    }
+
+                    context = new DatabaseContext();
+                }
             }
         }
 
-        try {
-            prepareConnection();
-        } catch (SQLException | IOException ex) {
-            if (SharedConstants.DEV) logger.log(Level.SEVERE, "DatabaseContext.getInstance : " + ex.getMessage());
-            return null;
-        }
-
         return context;
     }
 
     /**
-     * Establishes a connection to database according to DATA_ENV.
+     * Creates the connection pool according to DATA_ENV, and checks that database can be connected.
      * DATA_ENV == `server` : connects to CPanel server when assignment is submitted.
      * DATA_ENV == `local` : connects to localhost server for development.
-     * The connection properties are obtained from db.properties file.
+     * The connection properties are obtained from db.properties file, which is read only once.
+     * @return ConnectionPool
      * @throws SQLException
      * @throws IOException
      */
-    private static void prepareConnection() throws SQLException, IOException {
-        Properties connectionProperties = new Properties();
+    private static ConnectionPool preparePool() throws SQLException, IOException {
+        if (connectionProperties == null) {
+            Properties properties = new Properties();
+
+            //Read connection properties from db.properties into Properties object
+            try (FileInputStream inputStream = new FileInputStream(PROPS_PATH)) {
+                properties.load(inputStream);
+            }
 
-        //Read connection properties from db.properties into Properties object
-        FileInputStream inputStream = new FileInputStream(PROPS_PATH);
-        connectionProperties.load(inputStream);
+            connectionProperties = properties;
+        }
 
         MysqlDataSource dataSource = new MysqlDataSource();
 
@@ -102,8 +122,26 @@ public class DatabaseContext {
                 connectionProperties.getProperty(SharedConstants.DATA_ENV + ".password")
             );
 
-        connection = dataSource.getConnection();
-        inputStream.close();
+        String poolSize = connectionProperties.getProperty(SharedConstants.DATA_ENV + ".poolSize");
+        ConnectionPool connectionPool = new ConnectionPool(
+            dataSource,
+            poolSize == null ? SharedConstants.DB_POOL_SIZE : Integer.parseInt(poolSize),
+            SharedConstants.DB_POOL_TIMEOUT
+        );
+
+        //Open the first connection now, so that an unreachable database is reported here as before
+        connectionPool.release(connectionPool.borrow());
+        return connectionPool;
+    }
+
+    /**
+     * Gets the current state of the connection pool: active and idle connections, and wait times for a connection.
+     * Returns null if the context has been closed.
+     * @return ConnectionPool.Metrics
+     */
+    public ConnectionPool.Metrics getPoolMetrics() {
+        ConnectionPool connectionPool = pool;
+        return connectionPool == null ? null : connectionPool.getMetrics();
     }
 
     /**
@@ -118,24 +156,20 @@ public class DatabaseContext {
         String table = TABLE_NAMES.get(type.getSimpleName());
         String query = "SELECT * FROM " + table;
 
-        List<String> data = new ArrayList<>();
+        List<String> data;
+        PooledConnection connection = null;
         try {
-            PreparedStatement statement = connection.prepareStatement(query);
-            ResultSet resultSet = statement.executeQuery();
+            connection = acquireConnection();
 
-            //Get data (delimeterized strings) from resultSet by calling makeRawEntry
-            while (resultSet.next()) {
-                String rawEntry = makeRawEntry(type, resultSet);
-                data.add(rawEntry);
+            //Get data (delimeterized strings) from resultSet by the row mapper of the type
+            try (ResultSet resultSet = connection.prepareCached(query).executeQuery()) {
+                data = RowMappers.of(type).mapRows(resultSet);
             }
-
-            statement.close();
-        } catch (
-            SQLException | IllegalAccessException | InstantiationException |
-            InvocationTargetException | NullPointerException ex
-        ) {
+        } catch (SQLException ex) {
             if (SharedConstants.DEV) logger.log(Level.SEVERE, "DatabaseContext.retrieveSimpleDataForType : " + ex.getMessage());
             return null;
+        } finally {
+            releaseConnection(connection);
         }
 
         return data;
@@ -144,23 +178,27 @@ public class DatabaseContext {
     /**
      * Retrieves all data in database according to model class `type`, by joining tables.
      * Suitable for data that are stored in multiple tables: Preference, Project, Student, Team.
-     * Data are returned in a list of delimeterized strings like data saved in text file.
+     * Data are read by type straight into models, the rows of an entry being grouped into 1 model.
      * @param type Class<T>
      * @param <T> Class
-     * @return List<String>
+     * @return List<T>
      */
-    public <T> List<String> retrieveCompositeDataForType(@NotNull Class<T> type) {
+    public <T> List<T> retrieveCompositeModelsForType(@NotNull Class<T> type) {
         String query = composeQueryForType(type);
-        List<String> data;
+        List<T> data;
+        PooledConnection connection = null;
 
         try {
-            PreparedStatement statement = connection.prepareStatement(query);
-            ResultSet resultSet = statement.executeQuery();
+            connection = acquireConnection();
 
-            data = makeListRawEntry(type, resultSet);
-        } catch (SQLException | IllegalAccessException | InstantiationException | InvocationTargetException ex) {
-            if (SharedConstants.DEV) logger.log(Level.SEVERE, "DatabaseContext.retrieveCompositeDataForType : " + ex.getMessage());
+            try (ResultSet resultSet = connection.prepareCached(query).executeQuery()) {
+                data = ModelMappers.of(type).mapModels(resultSet);
+            }
+        } catch (SQLException | IndexOutOfBoundsException | NumberFormatException ex) {
+            if (SharedConstants.DEV) logger.log(Level.SEVERE, "DatabaseContext.retrieveCompositeModelsForType : " + ex.getMessage());
             return null;
+        } finally {
+            releaseConnection(connection);
         }
 
         return data;
@@ -175,32 +213,44 @@ public class DatabaseContext {
      * @return List<HashMap<String, String>>
      */
     public List<HashMap<String, String>> executeDataRetrievalQuery(@NotNull String query) {
-        List<HashMap<String, String>> data = new ArrayList<>();
+        List<HashMap<String, String>> data;
+        PooledConnection connection = null;
 
         try {
-            PreparedStatement statement = connection.prepareStatement(query);
-            ResultSet resultSet = statement.executeQuery();
+            connection = acquireConnection();
 
-            ResultSetMetaData metaData = resultSet.getMetaData(); //Query result's metadata that contains column labels
-            while (resultSet.next()) {
-                HashMap<String, String> rowData = new HashMap<>();
-
-                for (int i = 1; i <= metaData.getColumnCount(); i++)
-                    rowData.put(
-                        metaData.getColumnLabel(i), //Key is the column label
-                        resultSet.getString(metaData.getColumnLabel(i)) //Value is data associated with column
-                    );
-
-                data.add(rowData);
+            try (PreparedStatement statement = connection.getConnection().prepareStatement(query);
+                 ResultSet resultSet = statement.executeQuery()
+            ) {
+                data = readRows(resultSet);
             }
         } catch (SQLException ex) {
             if (SharedConstants.DEV) logger.log(Level.SEVERE, "DatabaseContext.executeDataRetrievalQuery : " + ex.getMessage());
             return null;
+        } finally {
+            releaseConnection(connection);
         }
 
         return data;
     }
 
+    /**
+     * Same as `executeDataRetrievalQuery(String)`, but executes a statement made by `createStatement`
+     * so that the query can take parameters. The statement is closed after execution.
+     * @param statement PreparedStatement
+     * @return List<HashMap<String, String>>
+     */
+    public List<HashMap<String, String>> executeDataRetrievalQuery(@NotNull PreparedStatement statement) {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            return readRows(resultSet);
+        } catch (SQLException ex) {
+            if (SharedConstants.DEV) logger.log(Level.SEVERE, "DatabaseContext.executeDataRetrievalQuery : " + ex.getMessage());
+            return null;
+        } finally {
+            closeStatement(statement);
+        }
+    }
+
     /**
      * Gets 1 row record by ID or Unique ID from a table according to model class `type`.
      * If byId == true: param `id` is the row ID and data must be retrieved by primary key.
@@ -218,15 +268,22 @@ public class DatabaseContext {
         String query = "SELECT * FROM `" + table + "` WHERE " + (byId ? "`id`" : "`unique_id`") + " = ?";
 
         String rawData = null;
+        PooledConnection connection = null;
         try {
-            PreparedStatement statement = connection.prepareStatement(query);
+            connection = acquireConnection();
+            PreparedStatement statement = connection.prepareCached(query);
             statement.setString(1, id);
-            ResultSet entry = statement.executeQuery();
 
-            while (entry.next()) rawData = makeRawEntry(type, entry);
-        } catch (SQLException | IllegalAccessException | InstantiationException | InvocationTargetException ex) {
+            //The last row is taken if many rows match
+            try (ResultSet entry = statement.executeQuery()) {
+                List<String> entries = RowMappers.of(type).mapRows(entry);
+                if (!entries.isEmpty()) rawData = entries.get(entries.size() - 1);
+            }
+        } catch (SQLException ex) {
             if (SharedConstants.DEV) logger.log(Level.SEVERE, "DatabaseContext.getRawEntryForType : " + ex.getMessage());
             return null;
+        } finally {
+            releaseConnection(connection);
         }
 
         return rawData;
@@ -251,6 +308,8 @@ public class DatabaseContext {
         } catch (SQLException ex) {
             if (SharedConstants.DEV) logger.log(Level.SEVERE, "DatabaseContext.executeDataInsertionQuery : " + ex.getMessage());
             return -1;
+        } finally {
+            closeStatement(statement);
         }
     }
 
@@ -267,6 +326,26 @@ public class DatabaseContext {
         } catch (SQLException ex) {
             if (SharedConstants.DEV) logger.log(Level.SEVERE, "DatabaseContext.executeDataModifierQuery : " + ex.getMessage());
             return null;
+        } finally {
+            closeStatement(statement);
+        }
+    }
+
+    /**
+     * Executes the batch of a statement made by `createStatement`, to INSERT, UPDATE or DELETE many rows at once.
+     * Returns NULL indicating an exception, otherwise the number of affected rows for each command in the batch
+     * (or Statement.SUCCESS_NO_INFO, Statement.EXECUTE_FAILED). The statement is closed after execution.
+     * @param statement PreparedStatement
+     * @return int[]
+     */
+    public int[] executeDataBatchQuery(@NotNull PreparedStatement statement) {
+        try {
+            return statement.executeBatch();
+        } catch (SQLException ex) {
+            if (SharedConstants.DEV) logger.log(Level.SEVERE, "DatabaseContext.executeDataBatchQuery : " + ex.getMessage());
+            return null;
+        } finally {
+            closeStatement(statement);
         }
     }
 
@@ -284,15 +363,20 @@ public class DatabaseContext {
         String table = TABLE_NAMES.get(type.getSimpleName());
         String query = "SELECT * FROM `" + table + "` WHERE `unique_id` = ?";
 
+        PooledConnection connection = null;
         try {
-            PreparedStatement statement = connection.prepareStatement(query);
+            connection = acquireConnection();
+            PreparedStatement statement = connection.prepareCached(query);
             statement.setString(1, uniqueId.toUpperCase());
-            ResultSet resultSet = statement.executeQuery();
 
-            return resultSet.next();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
         } catch (SQLException ex) {
             if (SharedConstants.DEV) logger.log(Level.SEVERE, "DatabaseContext.isRedundantUniqueId : " + ex.getMessage());
             return null;
+        } finally {
+            releaseConnection(connection);
         }
     }
 
@@ -300,18 +384,25 @@ public class DatabaseContext {
      * Precompiles a `query` string which is an SQL statement when needed to execute an on-demand query.
      * Query can be any type: SELECT, INSERT, UPDATE, DELETE, DROP, CALL, JOIN, UNION, INTERSECT...
      * Useful when needed to do a custom joining or calling an SQL function/stored procedure.
+     * The statement keeps its connection until it is executed by any of the `executeData...` methods taking a statement.
      * @param query String
      * @param action String
      * @return PreparedStatement
      */
     public PreparedStatement createStatement(@NotNull String query, @NotNull String action) {
+        PooledConnection connection = null;
         try {
-            if (action.equals(SharedConstants.DB_INSERT))
-                return connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
+            connection = acquireConnection();
+
+            PreparedStatement statement = action.equals(SharedConstants.DB_INSERT)
+                ? connection.getConnection().prepareStatement(query, Statement.RETURN_GENERATED_KEYS)
+                : connection.getConnection().prepareStatement(query);
 
-            return connection.prepareStatement(query);
+            if (connection != transactionConnection.get()) leasedStatements.put(statement, connection);
+            return statement;
         } catch (SQLException ex) {
             if (SharedConstants.DEV) logger.log(Level.SEVERE, "DatabaseContext.createStatement : " + ex.getMessage());
+            releaseConnection(connection);
             return null;
         }
     }
@@ -320,11 +411,34 @@ public class DatabaseContext {
      * Turns the auto-commit in connection ON or OFF according to param `auto`.
      * Useful when needed to make multiple changes in database, and be able to undo changes
      * if an error occurred while changes were incomplete.
+     * Turning OFF pins a connection to the calling thread until auto-commit is turned back ON.
      * @param auto boolean
      * @throws SQLException
      */
     public void toggleAutoCommit(boolean auto) throws SQLException {
-        connection.setAutoCommit(auto);
+        PooledConnection connection = transactionConnection.get();
+
+        if (auto) {
+            if (connection == null) return;
+
+            transactionConnection.remove();
+            try {
+                connection.getConnection().setAutoCommit(true);
+            } finally {
+                connection.release();
+            }
+
+            return;
+        }
+
+        if (connection == null) {
+            connection = borrowConnection();
+            transactionConnection.set(connection);
+        }
+        //A previous transaction of this thread was left unfinished, discard it
+        else if (!connection.getConnection().getAutoCommit()) connection.getConnection().rollback();
+
+        connection.getConnection().setAutoCommit(false);
     }
 
     /**
@@ -333,7 +447,8 @@ public class DatabaseContext {
      * @throws SQLException
      */
     public void saveChanges() throws SQLException {
-        connection.commit();
+        PooledConnection connection = transactionConnection.get();
+        if (connection != null) connection.getConnection().commit();
     }
 
     /**
@@ -342,82 +457,72 @@ public class DatabaseContext {
      * @throws SQLException
      */
     public void revertChanges() throws SQLException {
-        connection.rollback();
-    }
-
-    public void close() {
-        try {
-            connection.close();
-            context = null;
-        } catch (SQLException ignored) { }
+        PooledConnection connection = transactionConnection.get();
+        if (connection != null) connection.getConnection().rollback();
     }
 
     /**
-     * Gets the `composeRaw` method from a Class according to model type refection.
-     * Then invokes the `composeRaw` method to turn data in ResultSet into a delimeterized string.
-     * @param type Class<T>
-     * @param rs ResultSet
-     * @param <T> Type
-     * @return String
-     * @throws IllegalAccessException
-     * @throws InstantiationException
-     * @throws InvocationTargetException
+     * Closes a statement made by `createStatement`, returning its connection to the pool if it was not in a transaction.
+     * Statements are closed after being executed, so this is only needed for a statement that ends up not being executed.
+     * @param statement PreparedStatement
      */
-    private <T> String makeRawEntry(Class<T> type, ResultSet rs)
-        throws IllegalAccessException, InstantiationException, InvocationTargetException
-    {
-        Method composeRaw = getComposeRawMethod(type);
-
-        if (composeRaw != null) {
-            composeRaw.setAccessible(true);
-            return (String) composeRaw.invoke(type.newInstance(), rs);
-        }
+    public void closeStatement(@NotNull PreparedStatement statement) {
+        PooledConnection connection = leasedStatements.remove(statement);
 
-        throw new NullPointerException();
+        try { statement.close(); } catch (SQLException ignored) { }
+        if (connection != null) connection.release();
     }
 
-    /**
-     * Gets the `composeRaw` method from a Class according to model type refection.
-     * Then invokes the `composeRaw` method to turn data in ResultSet into a delimeterized string.
-     * @param type Class<T>
-     * @param rs ResultSet
-     * @param <T> Type
-     * @return List<String>
-     * @throws IllegalAccessException
-     * @throws InstantiationException
-     * @throws InvocationTargetException
-     */
-    private <T> List<String> makeListRawEntry(Class<T> type, ResultSet rs)
-        throws IllegalAccessException, InstantiationException, InvocationTargetException
-    {
-        Method composeRaw = getComposeRawMethod(type);
-
-        if (composeRaw != null) {
-            composeRaw.setAccessible(true);
-            return (List<String>) composeRaw.invoke(type.newInstance(), rs);
+    public void close() {
+        synchronized (DatabaseContext.class) {
+            if (pool != null) pool.close();
+
+            pool = null;
+            context = null;
         }
+    }
 
-        throw new NullPointerException();
+    //Uses the connection pinned to this thread in a transaction, otherwise borrows one from the pool
+    private PooledConnection acquireConnection() throws SQLException {
+        PooledConnection connection = transactionConnection.get();
+        return connection != null ? connection : borrowConnection();
+    }
+
+    private static PooledConnection borrowConnection() throws SQLException {
+        ConnectionPool connectionPool = pool;
+        if (connectionPool == null) throw new SQLException("Database context has been closed.");
+
+        return connectionPool.borrow();
+    }
+
+    //Returns a borrowed connection to the pool, a connection pinned to a transaction is kept
+    private void releaseConnection(PooledConnection connection) {
+        if (connection != null && connection != transactionConnection.get()) connection.release();
     }
 
     /**
-     * Gets the `composeRaw` method from a class according to model type refection.
-     * The `composeRaw` method is picked up from the array containing declared method of class.
-     * @param type Class<T>
-     * @param <T> Type
-     * @return Method
+     * Reads all rows in a ResultSet into HashMaps of column label to data associated with the column.
+     * @param resultSet ResultSet
+     * @return List<HashMap<String, String>>
+     * @throws SQLException
      */
-    private <T> Method getComposeRawMethod(Class<T> type) {
-        Method composeRaw = null;
-
-        Method[] methods = type.getDeclaredMethods();
-        for (Method method : methods)
-            if (method.getName().equals("composeRaw")) {
-                composeRaw = method;
-                break;
-            }
+    private List<HashMap<String, String>> readRows(ResultSet resultSet) throws SQLException {
+        List<HashMap<String, String>> data = new ArrayList<>();
+
+        ResultSetMetaData metaData = resultSet.getMetaData(); //Query result's metadata that contains column labels
+        while (resultSet.next()) {
+            HashMap<String, String> rowData = new HashMap<>();
 
-        return composeRaw;
+            for (int i = 1; i <= metaData.getColumnCount(); i++)
+                rowData.put(
+                    metaData.getColumnLabel(i), //Key is the column label
+                    resultSet.getString(metaData.getColumnLabel(i)) //Value is data associated with column
+                );
+
+            data.add(rowData);
+        }
+
+        return data;
     }
 
     private <T> String composeQueryForType(Class<T> type) {
@@ -441,12 +546,16 @@ public class DatabaseContext {
                         "      FROM `students` S1 LEFT JOIN `students` S2 ON S1.`conflicter1_id` = S2.`id`" +
                         "      LEFT JOIN `students` S3 ON S1.`conflicter2_id` = S3.`id`) T1, `skill_rankings` SR, `rankings` R" +
                         "  WHERE T1.`id` = R.`subject_id` AND R.`id` = SR.`ranking_id` AND R.`subject_type` = 'STUDENT';";
-            default: //Team
-                return "SELECT T1.*, F.`id` AS `fitness_metric_id`" +
-                        "  FROM (" +
-                        "    SELECT T.*, S.`unique_id` FROM `teams` T, `team_members` M, `students` S" +
-                        "    WHERE T.`id` = M.`team_id` AND M.`student_id` = S.`id`" +
-                        "  ) T1 LEFT JOIN `fitness_metrics` F ON F.`team_id` = T1.`id`;";
+            default: //Team, with its members, Project and Fitness Metrics, ordered so the rows of a Team are together
+                return "SELECT T.`id`, T.`project_id`, S.`unique_id`," +
+                        "    P.`unique_id` AS `project_unique_id`, P.`project_title`," +
+                        "    F.`id` AS `fitness_metric_id`, F.`team_id`, F.`avg_skill_competency`, F.`competency_by_skill`," +
+                        "    F.`avg_preference_satisfaction`, F.`avg_skill_shortfall`, F.`shortfall_by_project`" +
+                        "  FROM `teams` T JOIN `team_members` M ON T.`id` = M.`team_id`" +
+                        "    JOIN `students` S ON M.`student_id` = S.`id`" +
+                        "    LEFT JOIN `projects` P ON P.`id` = T.`project_id`" +
+                        "    LEFT JOIN `fitness_metrics` F ON F.`team_id` = T.`id`" +
+                        "  ORDER BY T.`id`;";
         }
     }
 }
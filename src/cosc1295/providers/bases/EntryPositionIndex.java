@@ -0,0 +1,230 @@
+package cosc1295.providers.bases;
+
+import helpers.commons.SharedConstants;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps the ID of each entry in a text file to the byte position of its line, so an entry is read
+ * by seeking to its line instead of scanning the file. One index is kept per file, built on first read.
+ * TextFileServiceBase keeps the index valid when it appends, updates or removes entries.
+ * The index is rebuilt if the file has been changed by other means, or if a line read does not have the ID looked for.
+ * In log-structured mode, the last record of an ID wins and a tombstone removes the ID. The records
+ * superseded or removed are counted as dead, so LogStructuredFile knows when to compact the file.
+ */
+final class EntryPositionIndex {
+
+    private static final Map<String, EntryPositionIndex> indices = new ConcurrentHashMap<>();
+
+    private final File file;
+    private final boolean logStructured;
+    private Map<String, Long> positions; //null until built
+    private int deadRecords;
+    private long indexedLength;
+    private long indexedModified;
+
+    private EntryPositionIndex(File file, boolean logStructured) {
+        this.file = file;
+        this.logStructured = logStructured;
+    }
+
+    /**
+     * Gets the index of a file, creating it on first use, or again when the mode of the file has been switched.
+     * @param file File
+     * @param logStructured boolean - true if the file is written in log-structured mode
+     * @return EntryPositionIndex
+     */
+    static EntryPositionIndex of(File file, boolean logStructured) {
+        return indices.compute(file.getAbsolutePath(), (path, index) ->
+            index != null && index.logStructured == logStructured ? index : new EntryPositionIndex(new File(path), logStructured)
+        );
+    }
+
+    /**
+     * Gets the ID of an entry as matched by the reads: the first token, trimmed.
+     * @param entry String
+     * @return String
+     */
+    static String keyOf(String entry) {
+        int delimiter = entry.indexOf(SharedConstants.TEXT_DELIMITER);
+        return (delimiter < 0 ? entry : entry.substring(0, delimiter)).trim();
+    }
+
+    /**
+     * Checks if a record is a tombstone, which removes the entry having its ID.
+     * @param entry String
+     * @return boolean
+     */
+    static boolean isTombstone(String entry) {
+        return entry.endsWith(SharedConstants.TEXT_DELIMITER + SharedConstants.TEXT_FILE_TOMBSTONE);
+    }
+
+    /**
+     * Reads the line having the ID. Returns empty string if no line has the ID.
+     * @param id String
+     * @return String
+     * @throws IOException
+     */
+    synchronized String readEntry(String id) throws IOException {
+        refresh();
+
+        Long position = positions.get(id);
+        if (position == null) return SharedConstants.EMPTY_STRING;
+
+        String entry = readLineAt(position);
+        if (entry != null && keyOf(entry).equals(id)) return entry;
+
+        //The file has been changed in a way the index could not tell, so index it again
+        build();
+        position = positions.get(id);
+        return position == null ? SharedConstants.EMPTY_STRING : readLineAt(position);
+    }
+
+    /**
+     * Records an entry appended at the given position, which is the file length before appending.
+     * @param entry String
+     * @param position long
+     */
+    synchronized void recordAppend(String entry, long position) {
+        if (positions == null) return;
+
+        deadRecords += record(positions, entry, position);
+        recordFileState();
+    }
+
+    /**
+     * Builds the index if it is not built yet, or if the file has been changed by other means.
+     * @throws IOException
+     */
+    synchronized void refresh() throws IOException {
+        if (!isCurrent()) build();
+    }
+
+    /**
+     * Checks if the file has a live entry having the ID.
+     * @param id String
+     * @return boolean
+     * @throws IOException
+     */
+    synchronized boolean containsEntry(String id) throws IOException {
+        refresh();
+        return positions.containsKey(id);
+    }
+
+    /**
+     * Checks if the dead records have passed the compaction threshold.
+     * @return boolean
+     */
+    synchronized boolean isCompactionNeeded() {
+        return positions != null &&
+               deadRecords >= SharedConstants.TEXT_FILE_COMPACTION_MINIMUM &&
+               deadRecords > positions.size() * SharedConstants.TEXT_FILE_COMPACTION_RATIO;
+    }
+
+    /**
+     * Checks if the file has records that were superseded or removed.
+     * @return boolean
+     * @throws IOException
+     */
+    synchronized boolean hasDeadRecords() throws IOException {
+        refresh();
+        return deadRecords > 0;
+    }
+
+    /**
+     * Replaces the index after the file has been rewritten.
+     * @param newPositions Map<String, Long> - the position of the line to read for each ID
+     */
+    synchronized void replace(Map<String, Long> newPositions) {
+        positions = newPositions;
+        deadRecords = 0;
+        recordFileState();
+    }
+
+    //Records the position of a line and returns the number of records it makes dead.
+    //The first line of an ID wins, or the last one in log-structured mode
+    private int record(Map<String, Long> positions, String entry, long position) {
+        String key = keyOf(entry);
+        if (!logStructured) {
+            positions.putIfAbsent(key, position);
+            return 0;
+        }
+
+        //The tombstone is dead, and so is the record it removes
+        if (isTombstone(entry)) return positions.remove(key) == null ? 1 : 2;
+        return positions.put(key, position) == null ? 0 : 1;
+    }
+
+    private boolean isCurrent() {
+        return positions != null && file.length() == indexedLength && file.lastModified() == indexedModified;
+    }
+
+    private void recordFileState() {
+        indexedLength = file.length();
+        indexedModified = file.lastModified();
+    }
+
+    //Scans the file once, reading bytes so the positions are exact whatever the line endings are
+    private void build() throws IOException {
+        Map<String, Long> newPositions = new HashMap<>();
+        int newDeadRecords = 0;
+
+        try (InputStream input = new BufferedInputStream(new FileInputStream(file))) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long position = 0;
+            long lineStart = 0;
+
+            int current;
+            while ((current = input.read()) != -1) {
+                position++;
+                if (current != '\n') {
+                    line.write(current);
+                    continue;
+                }
+
+                newDeadRecords += record(newPositions, decode(line), lineStart);
+                line.reset();
+                lineStart = position;
+            }
+
+            if (line.size() > 0) newDeadRecords += record(newPositions, decode(line), lineStart);
+        }
+
+        replace(newPositions);
+        deadRecords = newDeadRecords;
+    }
+
+    //Returns null if the position is past the end of file
+    private String readLineAt(long position) throws IOException {
+        try (RandomAccessFile reader = new RandomAccessFile(file, "r")) {
+            if (position >= reader.length()) return null;
+            reader.seek(position);
+
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            byte[] buffer = new byte[256];
+
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                int end = 0;
+                while (end < read && buffer[end] != '\n') end++;
+
+                line.write(buffer, 0, end);
+                if (end < read) break;
+            }
+
+            return decode(line);
+        }
+    }
+
+    //Decodes a line as FileReader does, without the carriage return of Windows line endings
+    private static String decode(ByteArrayOutputStream line) {
+        byte[] bytes = line.toByteArray();
+        int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+
+        return new String(bytes, 0, length, Charset.defaultCharset());
+    }
+}
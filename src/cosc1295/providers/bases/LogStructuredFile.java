@@ -0,0 +1,171 @@
+package cosc1295.providers.bases;
+
+import helpers.commons.SharedConstants;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes a text file as a log in log-structured mode: an update appends the new record of an entry,
+ * and a removal appends a tombstone, so each write costs the size of a record instead of the size of the file.
+ * The last record of an ID wins when reading, through the EntryPositionIndex of the file.
+ * When the dead records pass the compaction threshold, the file is rewritten with only the live records in background.
+ * Writes to a file are serialized, and a compaction never runs during a write.
+ * When log-structured mode is turned off, a file still having dead records is compacted once before being used as a plain file.
+ */
+final class LogStructuredFile {
+
+    private static final Logger logger = Logger.getLogger(LogStructuredFile.class.getName());
+
+    private static final Map<String, LogStructuredFile> files = new ConcurrentHashMap<>();
+    private static final ExecutorService compactor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, LogStructuredFile.class.getSimpleName() + "Compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final File file;
+    private boolean compactionScheduled;
+    private boolean settled; //true once the file has no dead records left, until a record is appended again
+
+    private LogStructuredFile(File file) {
+        this.file = file;
+    }
+
+    static LogStructuredFile of(File file) {
+        return files.computeIfAbsent(file.getAbsolutePath(), path -> new LogStructuredFile(new File(path)));
+    }
+
+    /**
+     * Keeps the latest record of each ID, in the order the IDs first appear, and drops the removed IDs.
+     * An ID removed then added again is placed as new.
+     * @param records List<String>
+     * @return List<String>
+     */
+    static List<String> resolve(List<String> records) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (String record : records) {
+            String key = EntryPositionIndex.keyOf(record);
+
+            if (EntryPositionIndex.isTombstone(record)) entries.remove(key);
+            else entries.put(key, record);
+        }
+
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * Appends a record, being a new entry or a new version of an entry.
+     * @param record String
+     * @throws IOException
+     */
+    synchronized void append(String record) throws IOException {
+        EntryPositionIndex index = index();
+        index.refresh(); //the index must be built before appending, so the dead records are counted
+
+        long position = file.length(); //the appended line starts at the current end of file
+        try (PrintWriter printer = new PrintWriter(new BufferedWriter(new FileWriter(file, true)))) {
+            printer.println(record);
+        }
+
+        index.recordAppend(record, position);
+        settled = false;
+        scheduleCompactionIfNeeded(index);
+    }
+
+    /**
+     * Appends the new version of the entry having the ID. Does nothing if there is no such entry.
+     * @param record String
+     * @param id String
+     * @throws IOException
+     */
+    synchronized void update(String record, String id) throws IOException {
+        if (index().containsEntry(id)) append(record);
+    }
+
+    /**
+     * Appends a tombstone for the entry having the ID. Does nothing if there is no such entry.
+     * @param id String
+     * @throws IOException
+     */
+    synchronized void remove(String id) throws IOException {
+        if (index().containsEntry(id)) append(id + SharedConstants.TEXT_DELIMITER + SharedConstants.TEXT_FILE_TOMBSTONE);
+    }
+
+    /**
+     * Rewrites the file with only the live records, then replaces the index with their positions.
+     * The records are written into a temporary file first, which then replaces the file.
+     * @throws IOException
+     */
+    synchronized void compact() throws IOException {
+        List<String> records = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String record;
+            while ((record = reader.readLine()) != null)
+                records.add(record);
+        }
+
+        File compactedFile = new File(file.getPath() + ".compacting");
+        Map<String, Long> positions = new HashMap<>();
+        int separatorLength = System.lineSeparator().getBytes().length;
+
+        try (PrintWriter printer = new PrintWriter(new BufferedWriter(new FileWriter(compactedFile)))) {
+            long position = 0;
+            for (String record : resolve(records)) {
+                printer.println(record);
+                positions.put(EntryPositionIndex.keyOf(record), position);
+                position += record.getBytes().length + separatorLength;
+            }
+        }
+
+        try {
+            Files.move(compactedFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(compactedFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        index().replace(positions);
+    }
+
+    /**
+     * Compacts the file if it still has dead records, so it can be read and written as a plain file.
+     * The file is only scanned again after a record has been appended in log-structured mode.
+     * @throws IOException
+     */
+    synchronized void settle() throws IOException {
+        if (settled) return;
+        if (index().hasDeadRecords()) compact();
+
+        settled = true;
+    }
+
+    //The index is got on each use, as it is replaced when the mode of the file is switched
+    private EntryPositionIndex index() {
+        return EntryPositionIndex.of(file, true);
+    }
+
+    private void scheduleCompactionIfNeeded(EntryPositionIndex index) {
+        if (compactionScheduled || !index.isCompactionNeeded()) return;
+
+        compactionScheduled = true;
+        compactor.submit(() -> {
+            try {
+                compact();
+            } catch (IOException ex) {
+                if (SharedConstants.DEV) logger.log(Level.SEVERE, "LogStructuredFile.compact : " + ex.getMessage());
+            } finally {
+                synchronized (this) {
+                    compactionScheduled = false;
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,280 @@
+package cosc1295.providers.bases;
+
+import cosc1295.src.models.*;
+import helpers.commons.SharedEnums.PERSONALITIES;
+import helpers.commons.SharedEnums.RANKINGS;
+import helpers.commons.SharedEnums.SKILLS;
+import helpers.utilities.RecordTokenizer;
+
+import javafx.util.Pair;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The mappers that read data retrieved from database straight into models, one per model class joined from many tables.
+ * Columns are read by type and by index, looked up once per ResultSet, so no delimeterized string is made and parsed again.
+ * The rows of an entry spread over many rows are grouped while streaming through the ResultSet, they must be together.
+ */
+final class ModelMappers {
+
+    private static final RANKINGS[] RANKINGS_BY_VALUE = RANKINGS.values();
+
+    /**
+     * Reads all rows in a ResultSet into models.
+     * @param <T> Type
+     */
+    @FunctionalInterface
+    interface ModelMapper<T> {
+        List<T> mapModels(ResultSet rs) throws SQLException;
+    }
+
+    private static final Map<Class<?>, ModelMapper<?>> mappers = new HashMap<>();
+
+    static {
+        mappers.put(Student.class, (ModelMapper<Student>) ModelMappers::mapStudents);
+        mappers.put(Project.class, (ModelMapper<Project>) ModelMappers::mapProjects);
+        mappers.put(Preference.class, (ModelMapper<Preference>) ModelMappers::mapPreferences);
+        mappers.put(Team.class, (ModelMapper<Team>) ModelMappers::mapTeams);
+    }
+
+    private ModelMappers() { }
+
+    /**
+     * Gets the mapper for a model class.
+     * @param type Class<T>
+     * @param <T> Type
+     * @return ModelMapper<T>
+     * @throws SQLException if no mapper is registered for the model class
+     */
+    @SuppressWarnings("unchecked")
+    static <T> ModelMapper<T> of(Class<T> type) throws SQLException {
+        ModelMapper<T> mapper = (ModelMapper<T>) mappers.get(type);
+        if (mapper == null) throw new SQLException("No model mapper for " + type.getSimpleName());
+
+        return mapper;
+    }
+
+    private static List<Student> mapStudents(ResultSet rs) throws SQLException {
+        int id = rs.findColumn("id"), uniqueId = rs.findColumn("unique_id"), personality = rs.findColumn("personality"),
+            firstConflicter = rs.findColumn("first_conflicter"), secondConflicter = rs.findColumn("second_conflicter"),
+            skill = rs.findColumn("skill"), ranking = rs.findColumn("ranking");
+
+        List<Student> students = new ArrayList<>();
+
+        Student student = null;
+        HashMap<SKILLS, RANKINGS> skillRanking = null;
+        while (rs.next()) {
+            if (student == null || student.getId() != rs.getInt(id)) {
+                student = new Student();
+                student.setId(rs.getInt(id));
+                student.setUniqueId(rs.getString(uniqueId));
+                student.setPersonality(personalityOf(rs.getString(personality)));
+
+                List<String> conflicters = new ArrayList<>();
+                String conflicter1 = rs.getString(firstConflicter);
+                String conflicter2 = rs.getString(secondConflicter);
+
+                if (conflicter1 != null) conflicters.add(conflicter1.trim());
+                if (conflicter2 != null) conflicters.add(conflicter2.trim());
+                student.setConflicters(conflicters);
+
+                skillRanking = new HashMap<>();
+                student.setSkillRanking(skillRanking);
+                students.add(student);
+            }
+
+            skillRanking.put(skillOf(rs.getString(skill)), rankingOf(rs.getInt(ranking)));
+        }
+
+        return students;
+    }
+
+    private static List<Project> mapProjects(ResultSet rs) throws SQLException {
+        int id = rs.findColumn("id"), uniqueId = rs.findColumn("unique_id"), projectTitle = rs.findColumn("project_title"),
+            briefDescription = rs.findColumn("brief_description"), projectOwnerId = rs.findColumn("project_owner_id"),
+            skill = rs.findColumn("skill"), ranking = rs.findColumn("ranking");
+
+        List<Project> projects = new ArrayList<>();
+
+        Project project = null;
+        HashMap<SKILLS, RANKINGS> skillRanking = null;
+        while (rs.next()) {
+            if (project == null || project.getId() != rs.getInt(id)) {
+                project = new Project();
+                project.setId(rs.getInt(id));
+                project.setUniqueId(rs.getString(uniqueId));
+                project.setProjectTitle(rs.getString(projectTitle));
+                project.setBriefDescription(rs.getString(briefDescription));
+
+                ProjectOwner projectOwner = new ProjectOwner();
+                projectOwner.setId(rs.getInt(projectOwnerId));
+                project.setProjectOwner(projectOwner);
+
+                skillRanking = new HashMap<>();
+                project.setSkillRanking(skillRanking);
+                projects.add(project);
+            }
+
+            skillRanking.put(skillOf(rs.getString(skill)), rankingOf(rs.getInt(ranking)));
+        }
+
+        return projects;
+    }
+
+    private static List<Preference> mapPreferences(ResultSet rs) throws SQLException {
+        int studentId = rs.findColumn("student_id"), projectId = rs.findColumn("project_id"), rating = rs.findColumn("rating");
+
+        List<Preference> preferences = new ArrayList<>();
+
+        Preference preference = null;
+        HashMap<String, Integer> projectPreferences = null;
+        while (rs.next()) {
+            if (preference == null || !preference.getStudentUniqueId().equals(rs.getString(studentId))) {
+                preference = new Preference();
+                preference.setStudentUniqueId(rs.getString(studentId));
+
+                projectPreferences = new HashMap<>();
+                preference.setPreference(projectPreferences);
+                preferences.add(preference);
+            }
+
+            projectPreferences.put(rs.getString(projectId), rs.getInt(rating));
+        }
+
+        return preferences;
+    }
+
+    //A Team comes with its Project and Fitness Metrics in its rows, and a member in each row
+    private static List<Team> mapTeams(ResultSet rs) throws SQLException {
+        int id = rs.findColumn("id"), projectId = rs.findColumn("project_id"), uniqueId = rs.findColumn("unique_id"),
+            projectUniqueId = rs.findColumn("project_unique_id"), projectTitle = rs.findColumn("project_title"),
+            fitnessMetricId = rs.findColumn("fitness_metric_id");
+        FitnessColumns fitnessColumns = new FitnessColumns(rs);
+
+        List<Team> teams = new ArrayList<>();
+        RecordTokenizer tokenizer = new RecordTokenizer();
+
+        Team team = null;
+        List<Student> members = null;
+        while (rs.next()) {
+            if (team == null || team.getId() != rs.getInt(id)) {
+                team = new Team();
+                team.setId(rs.getInt(id));
+
+                if (rs.getString(projectUniqueId) == null) throw new SQLException("Project not found for Team #" + team.getId());
+
+                Project teamProject = new Project();
+                teamProject.setId(rs.getInt(projectId));
+                teamProject.setUniqueId(rs.getString(projectUniqueId));
+                teamProject.setProjectTitle(rs.getString(projectTitle));
+                team.setProject(teamProject);
+
+                if (rs.getString(fitnessMetricId) != null) team.setFitnessMetrics(mapTeamFitness(rs, fitnessColumns, tokenizer));
+
+                members = new ArrayList<>();
+                team.setMembers(members);
+                teams.add(team);
+            }
+
+            Student member = new Student();
+            member.setUniqueId(rs.getString(uniqueId));
+            members.add(member);
+        }
+
+        return teams;
+    }
+
+    /**
+     * Reads the Fitness Metrics in the current row. The scores by skill, by preference and by Project are saved
+     * delimeterized in their columns, they are decoded from the column values by a RecordTokenizer.
+     * The ID of the Fitness Metrics is the ID of its Team, as the Fitness Metrics are removed by Team ID.
+     * @param rs ResultSet
+     * @param columns FitnessColumns
+     * @param tokenizer RecordTokenizer
+     * @return TeamFitness
+     * @throws SQLException
+     */
+    private static TeamFitness mapTeamFitness(ResultSet rs, FitnessColumns columns, RecordTokenizer tokenizer)
+        throws SQLException
+    {
+        TeamFitness fitnessMetrics = new TeamFitness();
+        fitnessMetrics.setId(rs.getInt(columns.teamId));
+        fitnessMetrics.setAverageTeamSkillCompetency(rs.getDouble(columns.averageCompetency));
+        fitnessMetrics.setAverageSkillShortfall(rs.getDouble(columns.averageShortfall));
+
+        HashMap<SKILLS, Double> skillCompetencies = new HashMap<>();
+        tokenizer.reset(rs.getString(columns.competencyBySkill));
+        while (tokenizer.hasNext()) {
+            SKILLS skill = skillOf(tokenizer.next());
+            skillCompetencies.put(skill, tokenizer.nextDouble());
+        }
+
+        fitnessMetrics.setTeamCompetency(skillCompetencies);
+
+        tokenizer.reset(rs.getString(columns.averageSatisfaction));
+        fitnessMetrics.setPreferenceSatisfaction(new Pair<>(
+            tokenizer.nextDouble(),
+            new Pair<>(tokenizer.nextDouble(), tokenizer.nextDouble())
+        ));
+
+        //Project Unique ID followed by its shortfall, an ID without shortfall is ignored
+        HashMap<String, Double> skillShortfall = new HashMap<>();
+        tokenizer.reset(rs.getString(columns.shortfallByProject));
+        while (tokenizer.hasNext()) {
+            String projectUniqueId = tokenizer.next();
+            if (!tokenizer.hasNext()) break;
+
+            skillShortfall.put(projectUniqueId, tokenizer.nextDouble());
+        }
+
+        fitnessMetrics.setSkillShortFall(skillShortfall);
+        return fitnessMetrics;
+    }
+
+    //Any skill other than A, N and P is a W, as the Skill-Ranking tokens are read from file
+    private static SKILLS skillOf(String skill) {
+        return skill.equals(SKILLS.A.name()) ? SKILLS.A
+             : (skill.equals(SKILLS.N.name()) ? SKILLS.N
+             : (skill.equals(SKILLS.P.name()) ? SKILLS.P : SKILLS.W));
+    }
+
+    private static RANKINGS rankingOf(int ranking) throws SQLException {
+        if (ranking < 1 || ranking > RANKINGS_BY_VALUE.length) throw new SQLException("Invalid ranking: " + ranking);
+        return RANKINGS_BY_VALUE[ranking - 1];
+    }
+
+    //Any Personality other than A, B and C is a D, as Personalities are read from file
+    private static PERSONALITIES personalityOf(String personality) {
+        if (personality == null) return PERSONALITIES.D;
+
+        return personality.equals(PERSONALITIES.A.name()) ? PERSONALITIES.A
+             : (personality.equals(PERSONALITIES.B.name()) ? PERSONALITIES.B
+             : (personality.equals(PERSONALITIES.C.name()) ? PERSONALITIES.C : PERSONALITIES.D));
+    }
+
+    /**
+     * The indices of the Fitness Metrics columns in a ResultSet.
+     */
+    private static final class FitnessColumns {
+
+        private final int teamId;
+        private final int averageCompetency;
+        private final int competencyBySkill;
+        private final int averageSatisfaction;
+        private final int averageShortfall;
+        private final int shortfallByProject;
+
+        private FitnessColumns(ResultSet rs) throws SQLException {
+            teamId = rs.findColumn("team_id");
+            averageCompetency = rs.findColumn("avg_skill_competency");
+            competencyBySkill = rs.findColumn("competency_by_skill");
+            averageSatisfaction = rs.findColumn("avg_preference_satisfaction");
+            averageShortfall = rs.findColumn("avg_skill_shortfall");
+            shortfallByProject = rs.findColumn("shortfall_by_project");
+        }
+    }
+}
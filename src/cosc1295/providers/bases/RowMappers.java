@@ -0,0 +1,143 @@
+package cosc1295.providers.bases;
+
+import cosc1295.src.models.*;
+import helpers.commons.SharedConstants;
+import helpers.utilities.Helpers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The mappers that turn data retrieved from database into delimeterized strings as data saved in text file,
+ * one per model class stored in 1 table. Models joined from many tables are read by ModelMappers instead.
+ * Mappers are registered once when this class is loaded. Each mapper looks up the indices of its columns once per ResultSet,
+ * then reads all rows by index, so no reflection or model instance is involved in reading rows.
+ */
+final class RowMappers {
+
+    private static final String DELIMITER = SharedConstants.TEXT_DELIMITER;
+
+    /**
+     * Turns all rows in a ResultSet into delimeterized strings.
+     */
+    @FunctionalInterface
+    interface ResultSetMapper {
+        List<String> mapRows(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Turns the current row in a ResultSet into a delimeterized string.
+     */
+    @FunctionalInterface
+    interface RowMapper {
+        String mapRow(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Looks up the column indices in a ResultSet, then returns the RowMapper reading the columns by index.
+     */
+    @FunctionalInterface
+    interface RowMapperFactory {
+        RowMapper bind(ResultSet rs) throws SQLException;
+    }
+
+    private static final Map<Class<?>, ResultSetMapper> mappers = new HashMap<>();
+
+    static {
+        //Data that are stored in 1 table, 1 row per entry
+        registerRowMapper(Address.class, rs -> {
+            int id = rs.findColumn("id"), building = rs.findColumn("building"), street = rs.findColumn("street"),
+                suburb = rs.findColumn("suburb"), state = rs.findColumn("state"),
+                postCode = rs.findColumn("post_code"), country = rs.findColumn("country");
+
+            return row -> {
+                String buildingName = row.getString(building);
+                return row.getInt(id) + DELIMITER +
+                       (Helpers.isNullOrBlankOrEmpty(buildingName) ? SharedConstants.NA : buildingName) + DELIMITER +
+                       row.getString(street) + DELIMITER +
+                       row.getString(suburb) + DELIMITER +
+                       row.getString(state) + DELIMITER +
+                       row.getString(postCode) + DELIMITER +
+                       row.getString(country);
+            };
+        });
+
+        registerRowMapper(Company.class, rs -> {
+            int id = rs.findColumn("id"), uniqueId = rs.findColumn("unique_id"), companyName = rs.findColumn("company_name"),
+                abnNumber = rs.findColumn("abn_number"), websiteUrl = rs.findColumn("website_url"),
+                addressId = rs.findColumn("address_id");
+
+            return row -> row.getInt(id) + DELIMITER +
+                          row.getString(uniqueId) + DELIMITER +
+                          row.getString(companyName) + DELIMITER +
+                          row.getString(abnNumber) + DELIMITER +
+                          row.getString(websiteUrl) + DELIMITER +
+                          row.getInt(addressId);
+        });
+
+        registerRowMapper(Role.class, rs -> {
+            int id = rs.findColumn("id"), role = rs.findColumn("role");
+            return row -> row.getInt(id) + DELIMITER + row.getString(role);
+        });
+
+        registerRowMapper(ProjectOwner.class, rs -> {
+            int id = rs.findColumn("id"), uniqueId = rs.findColumn("unique_id"), firstName = rs.findColumn("first_name"),
+                lastName = rs.findColumn("last_name"), emailAddress = rs.findColumn("email_address"),
+                roleId = rs.findColumn("role_id"), companyId = rs.findColumn("company_id");
+
+            return row -> row.getInt(id) + DELIMITER +
+                          row.getString(uniqueId) + DELIMITER +
+                          row.getString(firstName) + DELIMITER +
+                          row.getString(lastName) + DELIMITER +
+                          row.getString(emailAddress) + DELIMITER +
+                          row.getString(roleId) + DELIMITER +
+                          row.getString(companyId);
+        });
+
+        //The competencies and shortfalls are saved delimeterized, so they are put in as they are
+        registerRowMapper(TeamFitness.class, rs -> {
+            int teamId = rs.findColumn("team_id"), averageCompetency = rs.findColumn("avg_skill_competency"),
+                competencyBySkill = rs.findColumn("competency_by_skill"),
+                averageSatisfaction = rs.findColumn("avg_preference_satisfaction"),
+                averageShortfall = rs.findColumn("avg_skill_shortfall"), shortfallByProject = rs.findColumn("shortfall_by_project");
+
+            return row -> row.getInt(teamId) + DELIMITER +
+                          row.getString(averageCompetency) + DELIMITER +
+                          row.getString(competencyBySkill) +
+                          row.getString(averageSatisfaction) +
+                          row.getString(averageShortfall) + DELIMITER +
+                          row.getString(shortfallByProject);
+        });
+    }
+
+    private RowMappers() { }
+
+    /**
+     * Gets the mapper for a model class.
+     * @param type Class<T>
+     * @param <T> Type
+     * @return ResultSetMapper
+     * @throws SQLException if no mapper is registered for the model class
+     */
+    static <T> ResultSetMapper of(Class<T> type) throws SQLException {
+        ResultSetMapper mapper = mappers.get(type);
+        if (mapper == null) throw new SQLException("No row mapper for " + type.getSimpleName());
+
+        return mapper;
+    }
+
+    private static void registerRowMapper(Class<?> type, RowMapperFactory factory) {
+        mappers.put(type, rs -> {
+            RowMapper mapper = factory.bind(rs);
+
+            List<String> data = new ArrayList<>();
+            while (rs.next()) data.add(mapper.mapRow(rs));
+
+            return data;
+        });
+    }
+}
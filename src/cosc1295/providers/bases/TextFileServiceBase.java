@@ -5,10 +5,10 @@ import cosc1295.src.models.Flash;
 import helpers.commons.SharedConstants;
 import helpers.commons.SharedEnums;
 import helpers.commons.SharedEnums.DATA_TYPES;
+import helpers.utilities.RecordTokenizer;
 
 import java.io.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 public class TextFileServiceBase {
 
@@ -16,8 +16,14 @@ public class TextFileServiceBase {
 
     private final String ASSET_PATH = System.getProperty("user.dir") + "\\src\\assets\\texts\\";
 
+    //The files having entries updated or removed by ID, other files are only appended
+    private static final Set<DATA_TYPES> LOG_STRUCTURED_TYPES = EnumSet.of(
+        DATA_TYPES.STUDENT, DATA_TYPES.PROJECT_TEAM, DATA_TYPES.FITNESS_METRICS
+    );
+
     /**
      * Reads all lines in a file into a list of strings then returns.
+     * For the files written in log-structured mode, only the latest record of each entry is returned.
      * @param type DATA_TYPES
      * @return List<String>
      */
@@ -30,6 +36,7 @@ public class TextFileServiceBase {
 
         List<String> rawData = new ArrayList<>();
         try {
+            settleIfLogged(fileToRead, type);
             BufferedReader reader = new BufferedReader(new FileReader(fileToRead));
 
             String currentEntry;
@@ -48,11 +55,30 @@ public class TextFileServiceBase {
             return null;
         }
 
-        return rawData;
+        return isLogStructured(type) ? LogStructuredFile.resolve(rawData) : rawData;
+    }
+
+    /**
+     * Reads all lines in a file according to DATA_TYPES, keyed by their `id`.
+     * Used to join entries in memory instead of searching the file for each of them.
+     * If several lines have the same `id`, the first one is kept, as getEntryFromFileById does.
+     * @param type DATA_TYPES
+     * @return Map<String, String>
+     */
+    public Map<String, String> readAllEntriesById(DATA_TYPES type) {
+        List<String> rawData = readAllDataFromFile(type);
+        if (rawData == null) return null;
+
+        Map<String, String> entries = new HashMap<>(rawData.size() * 2);
+        for (String entry : rawData)
+            entries.putIfAbsent(EntryPositionIndex.keyOf(entry), entry);
+
+        return entries;
     }
 
     /**
      * Search for a line in file with the `id` according to DATA_TYPES.
+     * The line is found by the position index of the file, which is built on the first search.
      * Return that line to the Service accordingly.
      * @param id String
      * @param type DATA_TYPES
@@ -65,32 +91,10 @@ public class TextFileServiceBase {
         if (!fileToRead.exists()) return SharedConstants.EMPTY_STRING;
         if (!fileToRead.canRead()) return null;
 
-        String entryInNeed = SharedConstants.EMPTY_STRING;
+        String entryInNeed;
         try {
-            BufferedReader reader = new BufferedReader(new FileReader(fileToRead));
-
-            boolean found = false;
-            while (!found) {
-                entryInNeed = reader.readLine();
-                if (entryInNeed == null) {
-                    entryInNeed = SharedConstants.EMPTY_STRING;
-                    found = true;
-                    continue;
-                }
-
-                try {
-                    String[] tokens = entryInNeed.split(SharedConstants.TEXT_DELIMITER);
-                    if (tokens[0].trim().equals(id)) found = true;
-                } catch (IndexOutOfBoundsException ex) {
-                    flasher.flash(new Flash(
-                        "An error occurred while parsing file data to search for an entry. " +
-                                "The current failure entry will be skipped.",
-                        SharedEnums.FLASH_TYPES.ERROR
-                    ));
-                }
-            }
-
-            reader.close();
+            settleIfLogged(fileToRead, type);
+            entryInNeed = EntryPositionIndex.of(fileToRead, isLogStructured(type)).readEntry(id);
         } catch (FileNotFoundException ex) {
             return null;
         } catch (IOException ex) {
@@ -129,12 +133,20 @@ public class TextFileServiceBase {
             }
 
         try {
+            if (isLogStructured(type)) {
+                LogStructuredFile.of(fileToWrite).append(any);
+                return true;
+            }
+
+            long position = fileToWrite.length(); //the appended line starts at the current end of file
             BufferedWriter writer = new BufferedWriter(new FileWriter(fileToWrite, true));
             PrintWriter printer = new PrintWriter(writer);
 
             printer.println(any);
             printer.close();
             writer.close();
+
+            EntryPositionIndex.of(fileToWrite, isLogStructured(type)).recordAppend(any, position);
         } catch (FileNotFoundException ex) {
             return false;
         } catch (IOException ex) {
@@ -152,6 +164,7 @@ public class TextFileServiceBase {
     /**
      * Edits (replaces) a line in a file according to DATA_TYPES. Searches for the line by `id`,
      * replaces it when found. Returns false on exception or error, true on success.
+     * In log-structured mode, the new line is appended instead of rewriting the file.
      * @param thingToUpdate String
      * @param id int
      * @param type DATA_TYPES
@@ -179,25 +192,35 @@ public class TextFileServiceBase {
         }
 
         try {
+            if (isLogStructured(type)) {
+                LogStructuredFile.of(fileToUpdate).update(thingToUpdate, String.valueOf(id));
+                return true;
+            }
+
+            settleIfLogged(fileToUpdate, type);
+
             BufferedReader reader = new BufferedReader(new FileReader(fileToUpdate));
-            StringBuffer lineBuffer = new StringBuffer();
+            ByteArrayOutputStream lineBuffer = new ByteArrayOutputStream();
+            Map<String, Long> positions = new HashMap<>(); //positions of the lines in the rewritten file
+            RecordTokenizer tokenizer = new RecordTokenizer();
             String lineToUpdate;
 
             while ((lineToUpdate = reader.readLine()) != null) {
-                String[] tokens = lineToUpdate.split(SharedConstants.TEXT_DELIMITER);
-                if (tokens[0].equals(String.valueOf(id)))
+                if (tokenizer.reset(lineToUpdate).next().equals(String.valueOf(id)))
                     lineToUpdate = thingToUpdate;
 
-                lineBuffer.append(lineToUpdate);
-                lineBuffer.append("\n");
+                positions.putIfAbsent(EntryPositionIndex.keyOf(lineToUpdate), (long) lineBuffer.size());
+                lineBuffer.write(lineToUpdate.getBytes());
+                lineBuffer.write('\n');
             }
 
             reader.close();
 
             FileOutputStream outputStream = new FileOutputStream(filePath);
-            outputStream.write(lineBuffer.toString().getBytes());
+            outputStream.write(lineBuffer.toByteArray());
 
             outputStream.close();
+            EntryPositionIndex.of(fileToUpdate, isLogStructured(type)).replace(positions);
         } catch (IOException e) {
             flasher.flash(new Flash("An error occurred while updating new data to file.\n", SharedEnums.FLASH_TYPES.ERROR));
             return false;
@@ -219,18 +242,18 @@ public class TextFileServiceBase {
 
         if (!fileToCheck.exists()) return false;
 
-        try {
-            BufferedReader reader = new BufferedReader(new FileReader(fileToCheck));
+        //Reads the resolved entries, so the stale and removed records of log-structured mode do not count
+        List<String> entries = readAllDataFromFile(type);
+        if (entries == null) return false;
 
-            String currentEntry;
-            while ((currentEntry = reader.readLine()) != null) {
-                String[] tokens = currentEntry.split(SharedConstants.TEXT_DELIMITER);
-                if (tokens[1].equalsIgnoreCase(uniqueId))
+        RecordTokenizer tokenizer = new RecordTokenizer();
+        try {
+            for (String currentEntry : entries) {
+                tokenizer.reset(currentEntry).skip(1);
+                if (tokenizer.next().equalsIgnoreCase(uniqueId))
                     return true;
             }
-
-            reader.close();
-        } catch (IOException | IndexOutOfBoundsException ex) {
+        } catch (IndexOutOfBoundsException ex) {
             flasher.flash(new Flash(
                 "Error occurred while reading file: " + ex.getMessage(),
                 SharedEnums.FLASH_TYPES.ERROR
@@ -254,32 +277,24 @@ public class TextFileServiceBase {
         if (!fileToRead.exists()) return 1; //No data ever saved, so ID starts at 1
         if (!fileToRead.canRead()) return UNDETERMINED_ID;
 
-        String lastEntry = SharedConstants.EMPTY_STRING;
-        try {
-            BufferedReader reader = new BufferedReader(new FileReader(fileToRead));
-
-            String currentEntry;
-            while ((currentEntry = reader.readLine()) != null)
-                lastEntry = currentEntry;
-
-            reader.close();
-        } catch (FileNotFoundException ex) {
-            return 1; //No data ever saved, so ID starts at 1
-        } catch (IOException ex) {
-            flasher.flash(new Flash(
-                    ex.getMessage(),
-                    SharedEnums.FLASH_TYPES.ERROR
-            ));
-
-            return UNDETERMINED_ID;
-        }
+        //The last entry added is the last of the resolved entries, as updates in log-structured mode keep their place
+        List<String> entries = readAllDataFromFile(type);
+        if (entries == null) return UNDETERMINED_ID;
 
-        String[] tokens = lastEntry.split(SharedConstants.TEXT_DELIMITER);
-        int currentEntryId = Integer.parseInt(tokens[0]);
+        String lastEntry = entries.isEmpty() ? SharedConstants.EMPTY_STRING : entries.get(entries.size() - 1);
+        int currentEntryId = new RecordTokenizer(lastEntry).nextInt();
 
         return ++currentEntryId;
     }
 
+    /**
+     * Removes the lines having the `id` from a file according to DATA_TYPES.
+     * In log-structured mode, a tombstone is appended instead of rewriting the file.
+     * Returns null on exception, false if the file cannot be rewritten, true on success.
+     * @param id String
+     * @param type DATA_TYPES
+     * @return Boolean
+     */
     public Boolean removeEntryFromFileById(String id, DATA_TYPES type) {
         String filePath = generateFilePathByDataType(type);
         File fileToRead = new File(filePath);
@@ -288,25 +303,40 @@ public class TextFileServiceBase {
         if (!fileToRead.canRead()) return null;
 
         try {
+            if (isLogStructured(type)) {
+                LogStructuredFile.of(fileToRead).remove(id);
+                return true;
+            }
+
+            settleIfLogged(fileToRead, type);
+
             BufferedReader reader = new BufferedReader(new FileReader(fileToRead));
 
             File tempFile = new File(ASSET_PATH + "temp.txt");
             BufferedWriter writer = new BufferedWriter(new FileWriter(tempFile));
             PrintWriter printer = new PrintWriter(writer);
 
+            Map<String, Long> positions = new HashMap<>(); //positions of the lines in the rewritten file
+            long position = 0;
+            int separatorLength = System.lineSeparator().getBytes().length;
+
             String currentEntry;
             while ((currentEntry = reader.readLine()) != null) {
-                String[] tokens = currentEntry.split(SharedConstants.TEXT_DELIMITER);
-                if (tokens[0].trim().equalsIgnoreCase(id)) continue;
+                if (EntryPositionIndex.keyOf(currentEntry).equalsIgnoreCase(id)) continue;
 
                 printer.println(currentEntry);
+                positions.putIfAbsent(EntryPositionIndex.keyOf(currentEntry), position);
+                position += currentEntry.getBytes().length + separatorLength;
             }
 
             printer.close();
             writer.close();
             reader.close();
 
-            if (fileToRead.delete()) return tempFile.renameTo(fileToRead);
+            if (fileToRead.delete() && tempFile.renameTo(fileToRead)) {
+                EntryPositionIndex.of(fileToRead, isLogStructured(type)).replace(positions);
+                return true;
+            }
         } catch (IOException ex) {
             return null;
         }
@@ -314,6 +344,16 @@ public class TextFileServiceBase {
         return false;
     }
 
+    private static boolean isLogStructured(DATA_TYPES type) {
+        return SharedConstants.TEXT_FILE_LOG_STRUCTURED && LOG_STRUCTURED_TYPES.contains(type);
+    }
+
+    //A file written in log-structured mode before the mode was turned off is compacted before being used as a plain file
+    private static void settleIfLogged(File file, DATA_TYPES type) throws IOException {
+        if (!isLogStructured(type) && LOG_STRUCTURED_TYPES.contains(type))
+            LogStructuredFile.of(file).settle();
+    }
+
     /**
      * Creates the file path for reading a file according to DATA_TYPES.
      * @param type DATA_TYPES
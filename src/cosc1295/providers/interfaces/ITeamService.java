@@ -12,6 +12,10 @@ public interface ITeamService {
 
     boolean updateTeam(Team newTeam);
 
+    boolean updateTeams(List<Team> teams);
+
+    boolean saveTeams(List<Team> teams);
+
     Boolean removeTeamFitness(int id);
 
     Boolean deleteTeam(Team team);
@@ -7,6 +7,7 @@ import cosc1295.src.models.Address;
 import cosc1295.src.models.Company;
 import helpers.commons.SharedConstants;
 import helpers.commons.SharedEnums.DATA_TYPES;
+import helpers.utilities.RecordTokenizer;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
@@ -57,21 +58,22 @@ public class CompanyService extends TextFileServiceBase implements ICompanyServi
         if (rawCompanyData.isEmpty()) return new ArrayList<>();
 
         List<Company> companies = new ArrayList<>();
+        RecordTokenizer tokenizer = new RecordTokenizer();
         try {
             for (String rawCompany : rawCompanyData) {
                 if (rawCompany.isEmpty()) continue;
 
                 Company company = new Company();
-                String[] companyTokens = rawCompany.split(SharedConstants.TEXT_DELIMITER);
+                tokenizer.reset(rawCompany);
 
-                company.setId(Integer.parseInt(companyTokens[0].trim()));
-                company.setUniqueId(companyTokens[1]);
-                company.setCompanyName(companyTokens[2]);
-                company.setAbnNumber(companyTokens[3]);
-                company.setWebsiteUrl(companyTokens[4]);
+                company.setId(tokenizer.nextInt());
+                company.setUniqueId(tokenizer.next());
+                company.setCompanyName(tokenizer.next());
+                company.setAbnNumber(tokenizer.next());
+                company.setWebsiteUrl(tokenizer.next());
 
                 Address address = new Address();
-                address.setId(Integer.parseInt(companyTokens[5]));
+                address.setId(tokenizer.nextInt());
                 company.setAddress(address);
 
                 companies.add(company);
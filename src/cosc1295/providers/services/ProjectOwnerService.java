@@ -8,6 +8,7 @@ import cosc1295.src.models.ProjectOwner;
 import cosc1295.src.models.Role;
 import helpers.commons.SharedConstants;
 import helpers.commons.SharedEnums.DATA_TYPES;
+import helpers.utilities.RecordTokenizer;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
@@ -58,25 +59,26 @@ public class ProjectOwnerService extends TextFileServiceBase implements IProject
         if (rawProjectOwnerData.isEmpty()) return new ArrayList<>();
 
         List<ProjectOwner> projectOwners = new ArrayList<>();
+        RecordTokenizer tokenizer = new RecordTokenizer();
         try {
             for (String rawProjectOwner : rawProjectOwnerData) {
                 if (rawProjectOwner.isEmpty()) continue;
 
-                String[] projectOwnerTokens = rawProjectOwner.split(SharedConstants.TEXT_DELIMITER);
+                tokenizer.reset(rawProjectOwner);
                 ProjectOwner projectOwner = new ProjectOwner();
 
-                projectOwner.setId(Integer.parseInt(projectOwnerTokens[0]));
-                projectOwner.setUniqueId(projectOwnerTokens[1]);
-                projectOwner.setFirstName(projectOwnerTokens[2]);
-                projectOwner.setLastName(projectOwnerTokens[3]);
-                projectOwner.setEmailAddress(projectOwnerTokens[4]);
+                projectOwner.setId(tokenizer.nextInt());
+                projectOwner.setUniqueId(tokenizer.next());
+                projectOwner.setFirstName(tokenizer.next());
+                projectOwner.setLastName(tokenizer.next());
+                projectOwner.setEmailAddress(tokenizer.next());
 
                 Role role = new Role();
-                role.setId(Integer.parseInt(projectOwnerTokens[5]));
+                role.setId(tokenizer.nextInt());
                 projectOwner.setRole(role);
 
                 Company company = new Company();
-                company.setId(Integer.parseInt(projectOwnerTokens[6]));
+                company.setId(tokenizer.nextInt());
                 projectOwner.setCompany(company);
 
                 projectOwners.add(projectOwner);
@@ -5,11 +5,14 @@ import cosc1295.providers.bases.TextFileServiceBase;
 import cosc1295.providers.interfaces.IProjectService;
 import cosc1295.src.models.Project;
 import cosc1295.src.models.ProjectOwner;
+import cosc1295.src.services.ChangeEventService;
+import cosc1295.src.services.ChangeEventService.ChangeEvent;
+import cosc1295.src.services.DomainSnapshotService;
 import helpers.commons.SharedConstants;
 import helpers.commons.SharedEnums.SKILLS;
 import helpers.commons.SharedEnums.RANKINGS;
 import helpers.commons.SharedEnums.DATA_TYPES;
-import helpers.utilities.LogicalAssistant;
+import helpers.utilities.RecordTokenizer;
 
 import javafx.util.Pair;
 import java.sql.PreparedStatement;
@@ -41,10 +44,13 @@ public class ProjectService extends TextFileServiceBase implements IProjectServi
      */
     @Override
     public boolean saveNewProject(Project newProject) {
-        if (SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName()))
-            return saveEntryToTextFile(newProject);
+        boolean saved = SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName())
+                ? saveEntryToTextFile(newProject)
+                : saveEntryToDatabase(newProject);
 
-        return saveEntryToDatabase(newProject);
+        DomainSnapshotService.getInstance().invalidate();
+        if (saved) ChangeEventService.getInstance().publish(ChangeEvent.forAllTeams()); //adds a skill shortfall to all Teams
+        return saved;
     }
 
     /**
@@ -66,35 +72,34 @@ public class ProjectService extends TextFileServiceBase implements IProjectServi
      */
     @Override
     public List<Project> readAllProjectsFromFile() {
-        List<String> rawProjectData;
-        if (SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName()))
-            rawProjectData = readAllDataFromFile(DATA_TYPES.PROJECT);
-        else
-            rawProjectData = context.retrieveCompositeDataForType(Project.class);
+        if (!SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName()))
+            return context.retrieveCompositeModelsForType(Project.class);
 
+        List<String> rawProjectData = readAllDataFromFile(DATA_TYPES.PROJECT);
         if (rawProjectData == null) return null;
         if (rawProjectData.isEmpty()) return new ArrayList<>();
 
         List<Project> projects = new ArrayList<>();
+        RecordTokenizer tokenizer = new RecordTokenizer();
         try {
             for (String rawProject : rawProjectData) {
                 if (rawProject.isEmpty()) continue;
 
                 Project project = new Project();
-                String[] projectTokens = rawProject.split(SharedConstants.TEXT_DELIMITER);
+                tokenizer.reset(rawProject);
 
-                project.setId(Integer.parseInt(projectTokens[0].trim()));
-                project.setUniqueId(projectTokens[1]);
-                project.setProjectTitle(projectTokens[2]);
-                project.setBriefDescription(projectTokens[3]);
+                project.setId(tokenizer.nextInt());
+                project.setUniqueId(tokenizer.next());
+                project.setProjectTitle(tokenizer.next());
+                project.setBriefDescription(tokenizer.next());
 
                 ProjectOwner projectOwner = new ProjectOwner();
-                projectOwner.setId(Integer.parseInt(projectTokens[4].trim()));
+                projectOwner.setId(tokenizer.nextInt());
                 project.setProjectOwner(projectOwner);
 
                 HashMap<SKILLS, RANKINGS> skillRanking = new HashMap<>();
                 for (int i = 5; i <= 8; i++) {
-                    Pair<SKILLS, RANKINGS> skPair = LogicalAssistant.parseSkillRankingToken(projectTokens[i]);
+                    Pair<SKILLS, RANKINGS> skPair = tokenizer.nextSkillRanking();
                     skillRanking.put(skPair.getKey(), skPair.getValue());
                 }
 
@@ -170,8 +175,8 @@ public class ProjectService extends TextFileServiceBase implements IProjectServi
                 return true;
             }
 
-            context.toggleAutoCommit(true);
             context.revertChanges();
+            context.toggleAutoCommit(true);
             return false;
         } catch (SQLException ex) {
             if (SharedConstants.DEV) logger.log(Level.SEVERE, "ProjectService.saveEntryToDatabase : " + ex.getMessage());
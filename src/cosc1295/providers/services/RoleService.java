@@ -6,6 +6,7 @@ import cosc1295.providers.interfaces.IRoleService;
 import cosc1295.src.models.Role;
 import helpers.commons.SharedConstants;
 import helpers.commons.SharedEnums;
+import helpers.utilities.RecordTokenizer;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
@@ -42,14 +43,15 @@ public class RoleService extends TextFileServiceBase implements IRoleService {
         if (rawRoleData.isEmpty()) return new ArrayList<>();
 
         List<Role> roles = new ArrayList<>();
+        RecordTokenizer tokenizer = new RecordTokenizer();
         try {
             for (String rawRoleString : rawRoleData) {
                 if (rawRoleString.isEmpty()) continue;
 
-                String[] tokens = rawRoleString.split(SharedConstants.TEXT_DELIMITER);
+                tokenizer.reset(rawRoleString);
 
-                int roleId = Integer.parseInt(tokens[0]);
-                Role role = new Role(roleId, tokens[1]);
+                int roleId = tokenizer.nextInt();
+                Role role = new Role(roleId, tokenizer.next());
 
                 roles.add(role);
             }
@@ -3,15 +3,18 @@ package cosc1295.providers.services;
 import cosc1295.providers.bases.DatabaseContext;
 import cosc1295.providers.bases.TextFileServiceBase;
 import cosc1295.providers.interfaces.IStudentService;
+import cosc1295.src.models.DomainSnapshot;
 import cosc1295.src.models.Preference;
 import cosc1295.src.models.Student;
+import cosc1295.src.services.ChangeEventService;
+import cosc1295.src.services.ChangeEventService.ChangeEvent;
+import cosc1295.src.services.DomainSnapshotService;
 import helpers.commons.SharedConstants;
 import helpers.commons.SharedEnums.SKILLS;
 import helpers.commons.SharedEnums.RANKINGS;
 import helpers.commons.SharedEnums.DATA_TYPES;
-import helpers.commons.SharedEnums.PERSONALITIES;
 import helpers.utilities.Helpers;
-import helpers.utilities.LogicalAssistant;
+import helpers.utilities.RecordTokenizer;
 
 import javafx.util.Pair;
 
@@ -42,42 +45,36 @@ public class StudentService extends TextFileServiceBase implements IStudentServi
      */
     @Override
     public List<Student> readAllStudentsFromFile() {
-        List<String> rawStudentData;
-        if (SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName()))
-            rawStudentData = readAllDataFromFile(DATA_TYPES.STUDENT);
-        else
-            rawStudentData = context.retrieveCompositeDataForType(Student.class);
+        if (!SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName()))
+            return context.retrieveCompositeModelsForType(Student.class);
 
+        List<String> rawStudentData = readAllDataFromFile(DATA_TYPES.STUDENT);
         if (rawStudentData == null) return null;
         if (rawStudentData.isEmpty()) return new ArrayList<>();
 
         List<Student> students = new ArrayList<>();
+        RecordTokenizer tokenizer = new RecordTokenizer();
         try {
             for (String rawStudent : rawStudentData) {
-                String[] studentTokens = rawStudent.split(SharedConstants.TEXT_DELIMITER);
+                tokenizer.reset(rawStudent);
                 Student student = new Student();
 
-                student.setId(Integer.parseInt(studentTokens[0]));
-                student.setUniqueId(studentTokens[1]);
+                student.setId(tokenizer.nextInt());
+                student.setUniqueId(tokenizer.next());
 
                 HashMap<SKILLS, RANKINGS> skillRanking = new HashMap<>();
                 for (int i = 2; i <= 5; i++) {
-                    Pair<SKILLS, RANKINGS> skPair = LogicalAssistant.parseSkillRankingToken(studentTokens[i]);
+                    Pair<SKILLS, RANKINGS> skPair = tokenizer.nextSkillRanking();
                     skillRanking.put(skPair.getKey(), skPair.getValue());
                 }
 
                 student.setSkillRanking(skillRanking);
 
-                if (studentTokens.length > 6)
-                    student.setPersonality(
-                        studentTokens[6].equals(PERSONALITIES.A.name()) ? PERSONALITIES.A
-                            : (studentTokens[6].equals(PERSONALITIES.B.name()) ? PERSONALITIES.B
-                            : (studentTokens[6].equals(PERSONALITIES.C.name()) ? PERSONALITIES.C : PERSONALITIES.D))
-                    );
+                if (tokenizer.hasNext()) student.setPersonality(tokenizer.nextPersonality());
 
                 List<String> conflicters = new ArrayList<>();
-                if (studentTokens.length > 7) conflicters.add(studentTokens[7].trim());
-                if (studentTokens.length > 8) conflicters.add(studentTokens[8].trim());
+                if (tokenizer.hasNext()) conflicters.add(tokenizer.next().trim());
+                if (tokenizer.hasNext()) conflicters.add(tokenizer.next().trim());
 
                 student.setConflicters(conflicters);
                 students.add(student);
@@ -98,8 +95,12 @@ public class StudentService extends TextFileServiceBase implements IStudentServi
      */
     @Override
     public Boolean updateStudent(Student student) {
-        return SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName())
+        Boolean updated = SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName())
                 ? updateStudentToFile(student) : updateStudentToDatabase(student);
+
+        DomainSnapshotService.getInstance().invalidate();
+        if (Boolean.TRUE.equals(updated)) ChangeEventService.getInstance().publish(ChangeEvent.forStudent(student.getUniqueId()));
+        return updated;
     }
 
     /**
@@ -110,8 +111,12 @@ public class StudentService extends TextFileServiceBase implements IStudentServi
      */
     @Override
     public Boolean saveStudentPreferences(Preference preference) {
-        return SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName())
+        Boolean saved = SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName())
                 ? savePreferenceToFile(preference) : savePreferenceToDatabase(preference);
+
+        DomainSnapshotService.getInstance().invalidate();
+        if (Boolean.TRUE.equals(saved)) ChangeEventService.getInstance().publish(ChangeEvent.forStudent(preference.getStudentUniqueId()));
+        return saved;
     }
 
     /**
@@ -120,30 +125,28 @@ public class StudentService extends TextFileServiceBase implements IStudentServi
      */
     @Override
     public List<Preference> readAllStudentPreferencesFromFile() {
-        List<String> rawPreferences;
-        if (SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName()))
-            rawPreferences = readAllDataFromFile(DATA_TYPES.PREFERENCE);
-        else
-            rawPreferences = context.retrieveCompositeDataForType(Preference.class);
+        if (!SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName()))
+            return context.retrieveCompositeModelsForType(Preference.class);
 
+        List<String> rawPreferences = readAllDataFromFile(DATA_TYPES.PREFERENCE);
         if (rawPreferences == null) return null;
         if (rawPreferences.isEmpty()) return new ArrayList<>();
 
         List<Preference> preferences = new ArrayList<>();
+        RecordTokenizer tokenizer = new RecordTokenizer();
         try {
             for (String rawPreference : rawPreferences) {
                 if (rawPreference.isEmpty()) continue;
 
-                String[] preferenceTokens = rawPreference.split(SharedConstants.TEXT_DELIMITER);
+                tokenizer.reset(rawPreference);
                 Preference preference = new Preference();
 
-                preference.setStudentUniqueId(preferenceTokens[0]);
+                preference.setStudentUniqueId(tokenizer.next());
 
+                //Project Unique ID followed by its preference
                 HashMap<String, Integer> projectPreferences = new HashMap<>();
-                projectPreferences.put(preferenceTokens[1], Integer.parseInt(preferenceTokens[2]));
-                projectPreferences.put(preferenceTokens[3], Integer.parseInt(preferenceTokens[4]));
-                projectPreferences.put(preferenceTokens[5], Integer.parseInt(preferenceTokens[6]));
-                projectPreferences.put(preferenceTokens[7], Integer.parseInt(preferenceTokens[8]));
+                for (int i = 0; i < SharedConstants.MAX_PREFERENCE; i++)
+                    projectPreferences.put(tokenizer.next(), tokenizer.nextInt());
 
                 preference.setPreference(projectPreferences);
 
@@ -159,19 +162,17 @@ public class StudentService extends TextFileServiceBase implements IStudentServi
 
     /**
      * Gets a Preference for a Student. Used when data are saved in files.
+     * Looked up in the PreferenceIndex of the current DomainSnapshot, which is built once per data load.
      * @param uniqueId String
      * @return Preference
      */
-    //Reversed traversal is needed because only the last preference entry of the student is effective
+    //Only the last preference entry of the student is effective, the index keeps it
     @Override
     public Preference retrievePreferenceForStudent(String uniqueId) {
-        List<Preference> allPreferences = readAllStudentPreferencesFromFile();
-
-        for (int i = allPreferences.size() - 1; i >= 0; i--)
-            if (allPreferences.get(i).getStudentUniqueId().equals(uniqueId))
-                return allPreferences.get(i);
+        DomainSnapshot snapshot = DomainSnapshotService.getInstance().getSnapshot();
+        if (snapshot.getPreferenceIndex() == null) return null;
 
-        return null; //no preference entry found
+        return snapshot.getPreferenceIndex().getLatestPreferenceFor(uniqueId); //null if no preference entry found
     }
 
     private Boolean updateStudentToFile(Student student) {
@@ -210,6 +211,7 @@ public class StudentService extends TextFileServiceBase implements IStudentServi
             return result;
         } catch (SQLException | NumberFormatException ex) {
             if (SharedConstants.DEV) logger.log(Level.SEVERE, "StudentService.updateStudentToDatabase : " + ex.getMessage());
+            context.closeStatement(statement);
             return null;
         }
     }
@@ -276,7 +278,10 @@ public class StudentService extends TextFileServiceBase implements IStudentServi
             return true;
         } catch (NumberFormatException | SQLException ex) {
             if (SharedConstants.DEV) logger.log(Level.SEVERE, "StudentService.savePreferenceToDatabase : " + ex.getMessage());
-            try { context.revertChanges(); } catch (SQLException e) { return null; }
+            try {
+                context.revertChanges();
+                context.toggleAutoCommit(true);
+            } catch (SQLException e) { return null; }
             return null;
         }
     }
@@ -9,17 +9,19 @@ import cosc1295.src.models.Project;
 import cosc1295.src.models.Student;
 import cosc1295.src.models.Team;
 import cosc1295.src.models.TeamFitness;
+import cosc1295.src.services.ChangeEventService;
+import cosc1295.src.services.ChangeEventService.ChangeEvent;
+import cosc1295.src.services.DomainSnapshotService;
 import helpers.commons.SharedConstants;
 import helpers.commons.SharedEnums.SKILLS;
 import helpers.commons.SharedEnums.DATA_TYPES;
+import helpers.utilities.RecordTokenizer;
 
 import javafx.util.Pair;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.sql.Statement;
+import java.util.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -38,51 +40,59 @@ public class TeamService extends TextFileServiceBase implements ITeamService {
      */
     @Override
     public List<Team> readAllTeamsFromFile() {
-        List<String> rawTeamData;
-        if (SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName()))
-            rawTeamData = readAllDataFromFile(DATA_TYPES.PROJECT_TEAM);
-        else
-            rawTeamData = context.retrieveCompositeDataForType(Team.class);
+        if (!SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName()))
+            return context.retrieveCompositeModelsForType(Team.class);
+
+        List<String> rawTeamData = readAllDataFromFile(DATA_TYPES.PROJECT_TEAM);
 
         if (rawTeamData == null) return null;
         if (rawTeamData.isEmpty()) return new ArrayList<>();
 
+        //Projects and Fitness Metrics are read from file once, then joined to the Teams in memory
+        Map<String, String> rawProjects = readAllEntriesById(DATA_TYPES.PROJECT);
+        Map<String, String> rawFitnessMetrics = readAllEntriesById(DATA_TYPES.FITNESS_METRICS);
+        if (rawProjects == null || rawFitnessMetrics == null) return null;
+
         List<Team> teams = new ArrayList<>();
+        RecordTokenizer teamTokenizer = new RecordTokenizer();
+        RecordTokenizer projectTokenizer = new RecordTokenizer();
         try {
             for (String rawTeam : rawTeamData) {
-                String[] teamTokens = rawTeam.split(SharedConstants.TEXT_DELIMITER);
+                teamTokenizer.reset(rawTeam);
                 Team team = new Team();
-                team.setId(Integer.parseInt(teamTokens[0]));
+                team.setId(teamTokenizer.nextInt());
+
+                //The IDs are kept as read, to look up the Project and Fitness Metrics
+                String projectId = teamTokenizer.next();
+                String fitnessMetricsId = teamTokenizer.next();
+
+                if (Integer.parseInt(fitnessMetricsId.trim()) != 0) {
+                    TeamFitness teamFitness = parseTeamFitnessMetrics(
+                        rawFitnessMetrics.getOrDefault(fitnessMetricsId, SharedConstants.EMPTY_STRING)
+                    );
 
-                if (Integer.parseInt(teamTokens[2].trim()) != 0) {
-                    TeamFitness teamFitness = retrieveTeamFitnessMetricsFromFile(teamTokens[2]);
                     if (teamFitness == null) return null;
                     team.setFitnessMetrics(teamFitness);
                 }
 
                 Project teamProject = new Project();
-                teamProject.setId(Integer.parseInt(teamTokens[1]));
+                teamProject.setId(Integer.parseInt(projectId));
 
-                String rawProject = SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName())
-                                    ? getEntryFromFileById(teamTokens[1], DATA_TYPES.PROJECT)
-                                    : retrieveRawProjectFromDatabase(teamTokens[1]);
+                String rawProject = rawProjects.getOrDefault(projectId, SharedConstants.EMPTY_STRING);
 
-                String[] projectTokens = rawProject.split(SharedConstants.TEXT_DELIMITER);
+                projectTokenizer.reset(rawProject).skip(1);
 
-                teamProject.setUniqueId(projectTokens[1]);
-                teamProject.setProjectTitle(projectTokens[2]);
+                teamProject.setUniqueId(projectTokenizer.next());
+                teamProject.setProjectTitle(projectTokenizer.next());
                 team.setProject(teamProject);
 
                 List<Student> members = new ArrayList<>();
-                for (int i = 3; i < 7; i++)
-                    try {
-                        Student member = new Student();
-                        member.setUniqueId(teamTokens[i]);
+                for (int i = 3; i < 7 && teamTokenizer.hasNext(); i++) {
+                    Student member = new Student();
+                    member.setUniqueId(teamTokenizer.next());
 
-                        members.add(member);
-                    } catch (IndexOutOfBoundsException ex) {
-                        break;
-                    }
+                    members.add(member);
+                }
 
                 team.setMembers(members);
                 teams.add(team);
@@ -96,17 +106,12 @@ public class TeamService extends TextFileServiceBase implements ITeamService {
     }
 
     /**
-     * Reads a Fitness Metrics for a Team by Team ID from file or database according to DATA_SOURCE.
-     * @param fitnessMetricsId String
+     * Parses a delimiterized string read from file into a Fitness Metrics.
+     * Returns a Fitness Metrics with ID 0 if the string is empty, or null if it is malformed.
+     * @param rawFitnessMetrics String
      * @return TeamFitness
      */
-    private TeamFitness retrieveTeamFitnessMetricsFromFile(String fitnessMetricsId) {
-        String rawFitnessMetrics;
-        if (SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName()))
-            rawFitnessMetrics = getEntryFromFileById(fitnessMetricsId, DATA_TYPES.FITNESS_METRICS);
-        else
-            rawFitnessMetrics = context.getRawEntryForType(TeamFitness.class, fitnessMetricsId, true);
-
+    private TeamFitness parseTeamFitnessMetrics(String rawFitnessMetrics) {
         TeamFitness fitnessMetrics = new TeamFitness();
 
         if (rawFitnessMetrics == null) return null;
@@ -115,70 +120,55 @@ public class TeamService extends TextFileServiceBase implements ITeamService {
             return fitnessMetrics;
         }
 
-        String[] fitnessTokens = rawFitnessMetrics.split(SharedConstants.TEXT_DELIMITER);
+        RecordTokenizer fitnessTokenizer = new RecordTokenizer(rawFitnessMetrics);
         try {
-            fitnessMetrics.setId(Integer.parseInt(fitnessTokens[0]));
-            fitnessMetrics.setAverageTeamSkillCompetency(Double.parseDouble(fitnessTokens[1]));
+            fitnessMetrics.setId(fitnessTokenizer.nextInt());
+            fitnessMetrics.setAverageTeamSkillCompetency(fitnessTokenizer.nextDouble());
 
+            //Skill followed by its competency
             HashMap<SKILLS, Double> skillCompetencies = new HashMap<>();
-            for (int i = 2; i < 10; i++)
-                if (i % 2 != 0) {
-                    SKILLS skill = fitnessTokens[i - 1].equals(SKILLS.A.name()) ? SKILLS.A : (
-                            fitnessTokens[i - 1].equals(SKILLS.P.name()) ? SKILLS.P : (
-                                    fitnessTokens[i - 1].equals(SKILLS.N.name()) ? SKILLS.N : SKILLS.W
-                            ));
-
-                    double score = Double.parseDouble(fitnessTokens[i]);
-                    skillCompetencies.put(skill, score);
-                }
+            for (int i = 0; i < SKILLS.values().length; i++) {
+                String token = fitnessTokenizer.next();
+                SKILLS skill = token.equals(SKILLS.A.name()) ? SKILLS.A : (
+                        token.equals(SKILLS.P.name()) ? SKILLS.P : (
+                                token.equals(SKILLS.N.name()) ? SKILLS.N : SKILLS.W
+                        ));
+
+                double score = fitnessTokenizer.nextDouble();
+                skillCompetencies.put(skill, score);
+            }
 
             fitnessMetrics.setTeamCompetency(skillCompetencies);
 
             Pair<Double, Pair<Double, Double>> satisfactions = new Pair<>(
-                    Double.parseDouble(fitnessTokens[10]),
+                    fitnessTokenizer.nextDouble(),
                     new Pair<>(
-                            Double.parseDouble(fitnessTokens[11]),
-                            Double.parseDouble(fitnessTokens[12])
+                            fitnessTokenizer.nextDouble(),
+                            fitnessTokenizer.nextDouble()
                     ));
 
             fitnessMetrics.setPreferenceSatisfaction(satisfactions);
-            fitnessMetrics.setAverageSkillShortfall(Double.parseDouble(fitnessTokens[13]));
+            fitnessMetrics.setAverageSkillShortfall(fitnessTokenizer.nextDouble());
 
+            //Project Unique ID followed by its shortfall, an ID without shortfall is ignored
             HashMap<String, Double> skillShortfall = new HashMap<>();
-            for (int i = 14; i < fitnessTokens.length; i++)
-                if (i % 2 != 0) {
-                    String projectUniqueId = fitnessTokens[i - 1];
-                    double shortFallScore = Double.parseDouble(fitnessTokens[i]);
+            while (fitnessTokenizer.hasNext()) {
+                String projectUniqueId = fitnessTokenizer.next();
+                if (!fitnessTokenizer.hasNext()) break;
 
-                    skillShortfall.put(projectUniqueId, shortFallScore);
-                }
+                double shortFallScore = fitnessTokenizer.nextDouble();
+                skillShortfall.put(projectUniqueId, shortFallScore);
+            }
 
             fitnessMetrics.setSkillShortFall(skillShortfall);
         } catch (IndexOutOfBoundsException | NumberFormatException ex) {
-            if (SharedConstants.DEV) logger.log(Level.SEVERE, "TeamService.retrieveTeamFitnessMetricsFromFile : " + ex.getMessage());
+            if (SharedConstants.DEV) logger.log(Level.SEVERE, "TeamService.parseTeamFitnessMetrics : " + ex.getMessage());
             return null;
         }
 
         return fitnessMetrics;
     }
 
-    /**
-     * Gets a delimeterized string as a Project for a Team from database.
-     * @param projectId String
-     * @return String
-     */
-    private String retrieveRawProjectFromDatabase(String projectId) {
-        String query = "SELECT `unique_id`, `project_title` FROM `projects` WHERE id = " + projectId;
-
-        List<HashMap<String, String>> result = context.executeDataRetrievalQuery(query);
-        if (result == null) return SharedConstants.EMPTY_STRING;
-
-        HashMap<String, String> projectData = result.get(0);
-        return projectId + SharedConstants.TEXT_DELIMITER +
-               projectData.get("unique_id") + SharedConstants.TEXT_DELIMITER +
-               projectData.get("project_title");
-    }
-
     /**
      * Save a Team into file or database according to DATA_SOURCE.
      * Returns -1 on exception, or the ID of newly created Team.
@@ -187,8 +177,13 @@ public class TeamService extends TextFileServiceBase implements ITeamService {
      */
     @Override
     public int SaveNewTeam(@NotNull Team newTeam) {
-        return SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName())
+        int newTeamId = SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName())
                 ? saveTeamToTextFile(newTeam) : saveTeamToDatabase(newTeam);
+
+        DomainSnapshotService.getInstance().invalidate();
+        if (newTeamId > 0) ChangeEventService.getInstance().publish(ChangeEvent.forTeams(Collections.singleton(newTeamId)));
+
+        return newTeamId;
     }
 
     private int saveTeamToTextFile(Team team) {
@@ -217,7 +212,7 @@ public class TeamService extends TextFileServiceBase implements ITeamService {
     }
 
     private int saveTeamToDatabase(Team team) {
-        boolean error;
+        boolean committed = false;
         try {
             context.toggleAutoCommit(false);
             String query = "INSERT INTO `teams` (`project_id`) VALUES (" + team.getProject().getId() + ");";
@@ -226,61 +221,111 @@ public class TeamService extends TextFileServiceBase implements ITeamService {
             if (statement == null) return -1;
 
             int teamId = context.executeDataInsertionQuery(statement);
-            error = teamId <= 0;
+            if (teamId <= 0) return -1;
 
-            if (!error) {
-                error = !saveTeamMembersToDatabase(teamId, team.getMembers());
-                if (!error) error = !saveFitnessMetricsToDatabase(teamId, team.getFitnessMetrics());
-            }
+            team.setId(teamId);
+            List<Team> newTeam = Collections.singletonList(team);
 
-            if (error) {
-                context.revertChanges();
-                context.toggleAutoCommit(true);
-                return -1;
-            }
+            if (!saveTeamMembersToDatabase(newTeam)) return -1;
+            if (team.getFitnessMetrics() != null && !saveFitnessMetricsToDatabase(newTeam)) return -1;
 
             context.saveChanges();
-            context.toggleAutoCommit(true);
+            committed = true;
             return teamId;
         } catch (SQLException ex) {
             if (SharedConstants.DEV) logger.log(Level.SEVERE, "TeamService.saveTeamToDatabase : " + ex.getMessage());
             return -1;
+        } finally {
+            endTransaction(committed, "TeamService.saveTeamToDatabase");
         }
     }
 
-    //true for success, false for exception
-    private boolean saveTeamMembersToDatabase(int teamId, List<Student> members) {
+    //Discards the changes of a transaction that has not been committed, and returns its connection to the pool
+    private void endTransaction(boolean committed, String caller) {
+        try {
+            if (!committed) context.revertChanges();
+        } catch (SQLException ex) {
+            if (SharedConstants.DEV) logger.log(Level.SEVERE, caller + ".revert : " + ex.getMessage());
+        }
+
         try {
-            for (Student member : members) {
-                String query = "SELECT `id` FROM `students` WHERE `unique_id` = '" + member.getUniqueId() + "';";
+            context.toggleAutoCommit(true);
+        } catch (SQLException ex) {
+            if (SharedConstants.DEV) logger.log(Level.SEVERE, caller + ".toggleAutoCommit : " + ex.getMessage());
+        }
+    }
 
-                List<HashMap<String, String>> result = context.executeDataRetrievalQuery(query);
-                if (result == null) throw new SQLException();
+    //Inserts the members of all Teams with 1 batch, true for success, false for exception
+    private boolean saveTeamMembersToDatabase(List<Team> teams) {
+        Set<String> uniqueIds = new HashSet<>();
+        for (Team team : teams)
+            for (Student member : team.getMembers())
+                uniqueIds.add(member.getUniqueId());
 
-                int memberId = Integer.parseInt(result.get(0).get("id"));
-                query = "INSERT INTO `team_members` (`team_id`, `student_id`) VALUES (?, ?);";
+        if (uniqueIds.isEmpty()) return true;
 
-                PreparedStatement statement = context.createStatement(query, SharedConstants.DB_INSERT);
-                if (statement == null) throw new SQLException();
+        Map<String, Integer> studentIds = retrieveStudentIdsFromDatabase(uniqueIds);
+        if (studentIds == null) return false;
 
-                statement.setInt(1, teamId);
-                statement.setInt(2, memberId);
+        String query = "INSERT INTO `team_members` (`team_id`, `student_id`) VALUES (?, ?);";
 
-                int inserted = context.executeDataInsertionQuery(statement);
-                if (inserted <= 0) throw new SQLException();
-            }
-        } catch (SQLException | NumberFormatException ex) {
+        PreparedStatement statement = context.createStatement(query, SharedConstants.DB_INSERT);
+        if (statement == null) return false;
+
+        try {
+            for (Team team : teams)
+                for (Student member : team.getMembers()) {
+                    Integer memberId = studentIds.get(member.getUniqueId().toUpperCase());
+                    if (memberId == null) throw new SQLException("Student not found: " + member.getUniqueId());
+
+                    statement.setInt(1, team.getId());
+                    statement.setInt(2, memberId);
+                    statement.addBatch();
+                }
+        } catch (SQLException ex) {
             if (SharedConstants.DEV) logger.log(Level.SEVERE, "TeamService.saveTeamMembersToDatabase : " + ex.getMessage());
+            context.closeStatement(statement);
             return false;
         }
 
-        return true;
+        return isBatchFullyApplied(context.executeDataBatchQuery(statement));
     }
 
-    //true for success, false for exception
-    private boolean saveFitnessMetricsToDatabase(int teamId, @Nullable TeamFitness metrics) {
-        if (metrics == null) return true;
+    //Maps the Student Unique IDs (upper-cased) to their database IDs with 1 query, null for exception
+    private Map<String, Integer> retrieveStudentIdsFromDatabase(Set<String> uniqueIds) {
+        String query = "SELECT `id`, `unique_id` FROM `students` WHERE `unique_id` IN (" +
+                String.join(", ", Collections.nCopies(uniqueIds.size(), "?")) + ");";
 
+        PreparedStatement statement = context.createStatement(query, SharedConstants.DB_SELECT);
+        if (statement == null) return null;
+
+        try {
+            int parameterIndex = 1;
+            for (String uniqueId : uniqueIds)
+                statement.setString(parameterIndex++, uniqueId);
+        } catch (SQLException ex) {
+            if (SharedConstants.DEV) logger.log(Level.SEVERE, "TeamService.retrieveStudentIdsFromDatabase : " + ex.getMessage());
+            context.closeStatement(statement);
+            return null;
+        }
+
+        List<HashMap<String, String>> result = context.executeDataRetrievalQuery(statement);
+        if (result == null) return null;
+
+        Map<String, Integer> studentIds = new HashMap<>();
+        try {
+            for (HashMap<String, String> row : result)
+                studentIds.put(row.get("unique_id").toUpperCase(), Integer.parseInt(row.get("id")));
+        } catch (NumberFormatException ex) {
+            if (SharedConstants.DEV) logger.log(Level.SEVERE, "TeamService.retrieveStudentIdsFromDatabase : " + ex.getMessage());
+            return null;
+        }
+
+        return studentIds;
+    }
+
+    //Inserts the Fitness Metrics of all Teams having one with 1 batch, true for success, false for exception
+    private boolean saveFitnessMetricsToDatabase(List<Team> teams) {
         String query = "INSERT INTO `fitness_metrics` (`team_id`, `avg_skill_competency`, `competency_by_skill`," +
                 "`avg_preference_satisfaction`, `avg_skill_shortfall`,`shortfall_by_project`) VALUES (?, ?, ?, ?, ?, ?);";
 
@@ -288,31 +333,155 @@ public class TeamService extends TextFileServiceBase implements ITeamService {
         if (statement == null) return false;
 
         try {
-            statement.setInt(1, teamId);
-            statement.setDouble(2, metrics.getAverageTeamSkillCompetency());
-            statement.setDouble(5, metrics.getAverageSkillShortfall());
-            statement.setString(4,
-                metrics.getPreferenceSatisfaction().getKey() + SharedConstants.TEXT_DELIMITER +
-                    metrics.getPreferenceSatisfaction().getValue().getKey() + SharedConstants.TEXT_DELIMITER +
-                    metrics.getPreferenceSatisfaction().getValue().getValue() + SharedConstants.TEXT_DELIMITER
-            );
-
-            StringBuilder competencyBySkill = new StringBuilder(SharedConstants.EMPTY_STRING);
-            for (Map.Entry<SKILLS, Double> entry : metrics.getTeamCompetency().entrySet())
-                competencyBySkill.append(entry.getKey()).append(SharedConstants.TEXT_DELIMITER).append(entry.getValue()).append(SharedConstants.TEXT_DELIMITER);
-
-            StringBuilder shortfallByProject = new StringBuilder(SharedConstants.EMPTY_STRING);
-            for (Map.Entry<String, Double> entry : metrics.getSkillShortFall().entrySet())
-                shortfallByProject.append(entry.getKey()).append(SharedConstants.TEXT_DELIMITER).append(entry.getValue()).append(SharedConstants.TEXT_DELIMITER);
-
-            statement.setString(3, competencyBySkill.toString());
-            statement.setString(6, shortfallByProject.toString());
-
-            return context.executeDataInsertionQuery(statement) > 0;
+            for (Team team : teams) {
+                TeamFitness metrics = team.getFitnessMetrics();
+
+                statement.setInt(1, team.getId());
+                statement.setDouble(2, metrics.getAverageTeamSkillCompetency());
+                statement.setDouble(5, metrics.getAverageSkillShortfall());
+                statement.setString(4,
+                    metrics.getPreferenceSatisfaction().getKey() + SharedConstants.TEXT_DELIMITER +
+                        metrics.getPreferenceSatisfaction().getValue().getKey() + SharedConstants.TEXT_DELIMITER +
+                        metrics.getPreferenceSatisfaction().getValue().getValue() + SharedConstants.TEXT_DELIMITER
+                );
+
+                StringBuilder competencyBySkill = new StringBuilder(SharedConstants.EMPTY_STRING);
+                for (Map.Entry<SKILLS, Double> entry : metrics.getTeamCompetency().entrySet())
+                    competencyBySkill.append(entry.getKey()).append(SharedConstants.TEXT_DELIMITER).append(entry.getValue()).append(SharedConstants.TEXT_DELIMITER);
+
+                StringBuilder shortfallByProject = new StringBuilder(SharedConstants.EMPTY_STRING);
+                for (Map.Entry<String, Double> entry : metrics.getSkillShortFall().entrySet())
+                    shortfallByProject.append(entry.getKey()).append(SharedConstants.TEXT_DELIMITER).append(entry.getValue()).append(SharedConstants.TEXT_DELIMITER);
+
+                statement.setString(3, competencyBySkill.toString());
+                statement.setString(6, shortfallByProject.toString());
+                statement.addBatch();
+            }
         } catch (SQLException ex) {
             if (SharedConstants.DEV) logger.log(Level.SEVERE, "TeamService.saveFitnessMetricsToDatabase : " + ex.getMessage());
+            context.closeStatement(statement);
             return false;
         }
+
+        return isBatchFullyApplied(context.executeDataBatchQuery(statement));
+    }
+
+    //true if every command of a batch affected at least 1 row
+    private boolean isBatchFullyApplied(@Nullable int[] affectedRows) {
+        if (affectedRows == null) return false;
+
+        for (int count : affectedRows)
+            if (count == 0 || count == Statement.EXECUTE_FAILED) return false;
+
+        return true;
+    }
+
+    /**
+     * Saves many Teams at once into file or database according to DATA_SOURCE: newly added Teams are created,
+     * the others are updated. In database, all Teams are written in 1 transaction, so either all are saved or none.
+     * In file, the Teams written before a failure are reverted: new Teams are removed, the others are rewritten as they were.
+     * Returns true on success, otherwise false.
+     * @param teams List<Team>
+     * @return boolean
+     */
+    @Override
+    public boolean saveTeams(@NotNull List<Team> teams) {
+        List<Team> newTeams = new ArrayList<>();
+        List<Team> updatedTeams = new ArrayList<>();
+        for (Team team : teams) (team.isNewlyAdded() ? newTeams : updatedTeams).add(team);
+
+        if (teams.isEmpty()) return true;
+
+        boolean inTextFile = SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName());
+        boolean saved = inTextFile
+                ? saveTeamsToTextFile(newTeams, updatedTeams)
+                : saveTeamsToDatabase(newTeams, updatedTeams);
+
+        DomainSnapshotService.getInstance().invalidate();
+        if (!saved) return false;
+
+        List<Integer> teamIds = new ArrayList<>();
+        for (Team team : teams) teamIds.add(team.getId());
+        ChangeEventService.getInstance().publish(ChangeEvent.forTeams(teamIds));
+
+        return true;
+    }
+
+    private boolean saveTeamsToTextFile(List<Team> newTeams, List<Team> updatedTeams) {
+        //The Teams as they are before being updated, to revert them on failure
+        Map<Integer, Team> previousTeams = new HashMap<>();
+        if (!updatedTeams.isEmpty())
+            for (Team team : DomainSnapshotService.getInstance().getSnapshot().getTeams())
+                previousTeams.put(team.getId(), team);
+
+        List<Team> savedTeams = new ArrayList<>();
+        for (Team team : newTeams) {
+            if (saveTeamToTextFile(team) <= 0) return revertTeamsInTextFile(savedTeams, Collections.emptyList(), previousTeams);
+            savedTeams.add(team);
+        }
+
+        List<Team> writtenTeams = new ArrayList<>();
+        for (Team team : updatedTeams) {
+            writtenTeams.add(team);
+            if (!updateTeamToTextFile(team)) return revertTeamsInTextFile(savedTeams, writtenTeams, previousTeams);
+        }
+
+        return true;
+    }
+
+    //Removes the new Teams and rewrites the updated ones as they were, always false as the save has failed
+    private boolean revertTeamsInTextFile(List<Team> savedTeams, List<Team> writtenTeams, Map<Integer, Team> previousTeams) {
+        for (Team team : savedTeams) {
+            if (team.getFitnessMetrics() != null) removeEntryFromFileById(team.getFitnessMetrics().getId() + "", DATA_TYPES.FITNESS_METRICS);
+            removeEntryFromFileById(team.getId() + "", DATA_TYPES.PROJECT_TEAM);
+        }
+
+        for (Team team : writtenTeams) {
+            Team previousTeam = previousTeams.get(team.getId());
+            if (previousTeam != null && !updateTeamToTextFile(previousTeam) && SharedConstants.DEV)
+                logger.log(Level.SEVERE, "TeamService.revertTeamsInTextFile : Team " + team.getId() + " not reverted.");
+        }
+
+        return false;
+    }
+
+    private boolean saveTeamsToDatabase(List<Team> newTeams, List<Team> updatedTeams) {
+        boolean committed = false;
+        try {
+            context.toggleAutoCommit(false);
+
+            for (Team team : newTeams) {
+                String query = "INSERT INTO `teams` (`project_id`) VALUES (" + team.getProject().getId() + ");";
+
+                PreparedStatement statement = context.createStatement(query, SharedConstants.DB_INSERT);
+                if (statement == null) throw new SQLException("Team not inserted.");
+
+                int teamId = context.executeDataInsertionQuery(statement);
+                if (teamId <= 0) throw new SQLException("Team not inserted.");
+                team.setId(teamId);
+            }
+
+            if (!newTeams.isEmpty()) {
+                List<Team> teamsWithFitness = new ArrayList<>();
+                for (Team team : newTeams)
+                    if (team.getFitnessMetrics() != null) teamsWithFitness.add(team);
+
+                if (!saveTeamMembersToDatabase(newTeams)) throw new SQLException("Team members not saved.");
+                if (!teamsWithFitness.isEmpty() && !saveFitnessMetricsToDatabase(teamsWithFitness))
+                    throw new SQLException("Fitness Metrics not saved.");
+            }
+
+            if (!updatedTeams.isEmpty()) writeTeamUpdatesToDatabase(updatedTeams);
+
+            context.saveChanges();
+            committed = true;
+            return true;
+        } catch (SQLException ex) {
+            if (SharedConstants.DEV) logger.log(Level.SEVERE, "TeamService.saveTeamsToDatabase : " + ex.getMessage());
+            return false;
+        } finally {
+            endTransaction(committed, "TeamService.saveTeamsToDatabase");
+        }
     }
 
     /**
@@ -323,8 +492,55 @@ public class TeamService extends TextFileServiceBase implements ITeamService {
      */
     @Override
     public boolean updateTeam(@NotNull Team newTeam) {
-        return SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName())
-                ? updateTeamToTextFile(newTeam) : updateTeamToDatabase(newTeam);
+        return updateTeams(Collections.singletonList(newTeam));
+    }
+
+    /**
+     * Updates many Teams to their corresponding instances in file or database according to DATA_SOURCE.
+     * In database, the Teams, their members and Fitness Metrics are all written in 1 transaction with batched statements,
+     * so either all Teams are updated or none. In file, Teams are updated in turn until one fails.
+     * Returns true on update success, otherwise false.
+     * @param teams List<Team>
+     * @return boolean
+     */
+    @Override
+    public boolean updateTeams(@NotNull List<Team> teams) {
+        return updateTeams(teams, false);
+    }
+
+    /**
+     * Updates many Teams whose Fitness Metrics have been recomputed, nothing else having changed.
+     * The change is published as an event of metrics only, so recomputing metrics is not requested again by saving them.
+     * Returns true on update success, otherwise false.
+     * @param teams List<Team>
+     * @return boolean
+     */
+    public boolean updateTeamFitnessMetrics(@NotNull List<Team> teams) {
+        return updateTeams(teams, true);
+    }
+
+    private boolean updateTeams(List<Team> teams, boolean metricsOnly) {
+        if (teams.isEmpty()) return true;
+
+        boolean inTextFile = SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName());
+        boolean updated = inTextFile ? updateTeamsToTextFile(teams) : updateTeamsToDatabase(teams);
+
+        //A failed database update has been rolled back, but a failed file update may have written some Teams already
+        if (updated || inTextFile) DomainSnapshotService.getInstance().invalidate();
+        if (!updated) return false;
+
+        List<Integer> teamIds = new ArrayList<>();
+        for (Team team : teams) teamIds.add(team.getId());
+        ChangeEventService.getInstance().publish(metricsOnly ? ChangeEvent.forTeamMetrics(teamIds) : ChangeEvent.forTeams(teamIds));
+
+        return true;
+    }
+
+    private boolean updateTeamsToTextFile(List<Team> teams) {
+        for (Team team : teams)
+            if (!updateTeamToTextFile(team)) return false;
+
+        return true;
     }
 
     private boolean updateTeamToTextFile(Team team) {
@@ -348,77 +564,79 @@ public class TeamService extends TextFileServiceBase implements ITeamService {
         return false;
     }
 
-    private boolean updateTeamToDatabase(Team team) {
+    private boolean updateTeamsToDatabase(List<Team> teams) {
+        boolean committed = false;
         try {
             context.toggleAutoCommit(false);
-
-            Boolean updateResult = updateTeamProjectInDatabase(team);
-            if (!updateResult) throw new SQLException();
-
-            updateResult = removeTeamMembersInDatabase(team.getId());
-            if (!updateResult) throw new SQLException();
-
-            updateResult = saveTeamMembersToDatabase(team.getId(), team.getMembers());
-            if (!updateResult) throw new SQLException();
-
-            if (team.getFitnessMetrics() == null || team.getMembers().size() != SharedConstants.GROUP_LIMIT) {
-                updateResult = removeTeamFitness(team.getId());
-                if (updateResult == null) throw new SQLException();
-            }
-            else {
-                updateResult = removeTeamFitness(team.getId());
-                if (updateResult == null) throw new SQLException();
-
-                updateResult = saveFitnessMetricsToDatabase(team.getId(), team.getFitnessMetrics());
-                if (!updateResult) throw new SQLException();
-            }
+            writeTeamUpdatesToDatabase(teams);
 
             context.saveChanges();
-            context.toggleAutoCommit(true);
+            committed = true;
             return true;
         } catch (SQLException ex) {
-            if (SharedConstants.DEV) logger.log(Level.SEVERE, "TeamService.updateTeamToDatabase : " + ex.getMessage());
-            try {
-                context.revertChanges();
-                context.toggleAutoCommit(true);
-            } catch (SQLException e) {
-                if (SharedConstants.DEV) logger.log(Level.SEVERE, "TeamService.updateTeamToDatabase.catch : " + ex.getMessage());
-                return false;
-            }
+            if (SharedConstants.DEV) logger.log(Level.SEVERE, "TeamService.updateTeamsToDatabase : " + ex.getMessage());
             return false;
+        } finally {
+            endTransaction(committed, "TeamService.updateTeamsToDatabase");
         }
     }
 
-    private boolean updateTeamProjectInDatabase(Team team) {
+    //Writes the Projects, members and Fitness Metrics of Teams in the current transaction, throws on failure
+    private void writeTeamUpdatesToDatabase(List<Team> teams) throws SQLException {
+        //Only full Teams keep their Fitness Metrics, the others have them removed
+        List<Team> teamsWithFitness = new ArrayList<>();
+        for (Team team : teams)
+            if (team.getFitnessMetrics() != null && team.getMembers().size() == SharedConstants.GROUP_LIMIT)
+                teamsWithFitness.add(team);
+
+        String teamIds = joinTeamIds(teams);
+
+        if (!updateTeamProjectsInDatabase(teams)) throw new SQLException("Team Projects not updated.");
+        if (!removeRowsOfTeamsInDatabase("team_members", teamIds)) throw new SQLException("Team members not removed.");
+        if (!saveTeamMembersToDatabase(teams)) throw new SQLException("Team members not saved.");
+        if (!removeRowsOfTeamsInDatabase("fitness_metrics", teamIds)) throw new SQLException("Fitness Metrics not removed.");
+
+        if (!teamsWithFitness.isEmpty() && !saveFitnessMetricsToDatabase(teamsWithFitness))
+            throw new SQLException("Fitness Metrics not saved.");
+    }
+
+    private boolean updateTeamProjectsInDatabase(List<Team> teams) {
         String query = "UPDATE `teams` SET `project_id` = ? WHERE id = ?;";
 
         PreparedStatement statement = context.createStatement(query, SharedConstants.DB_UPDATE);
         if (statement == null) return false;
 
         try {
-            statement.setInt(1, team.getProject().getId());
-            statement.setInt(2, team.getId());
-
-            Boolean result = context.executeDataModifierQuery(statement);
-            if (result == null) return false;
+            for (Team team : teams) {
+                statement.setInt(1, team.getProject().getId());
+                statement.setInt(2, team.getId());
+                statement.addBatch();
+            }
         } catch (SQLException ex) {
-            if (SharedConstants.DEV) logger.log(Level.SEVERE, "TeamService.updateTeamProjectInDatabase : " + ex.getMessage());
+            if (SharedConstants.DEV) logger.log(Level.SEVERE, "TeamService.updateTeamProjectsInDatabase : " + ex.getMessage());
+            context.closeStatement(statement);
             return false;
         }
 
-        return true;
+        //An unchanged Project may affect no row, so only exceptions are failures
+        return context.executeDataBatchQuery(statement) != null;
     }
 
-    private boolean removeTeamMembersInDatabase(int teamId) {
-        String query = "DELETE FROM `team_members` WHERE `team_id` = " + teamId;
+    //Deletes the rows of all Teams from a table having `team_id`, true for success (even if no row), false for exception
+    private boolean removeRowsOfTeamsInDatabase(String table, String teamIds) {
+        String query = "DELETE FROM `" + table + "` WHERE `team_id` IN (" + teamIds + ");";
 
         PreparedStatement statement = context.createStatement(query, SharedConstants.DB_DELETE);
         if (statement == null) return false;
 
-        Boolean result = context.executeDataModifierQuery(statement);
-        if (result == null) return false;
+        return context.executeDataModifierQuery(statement) != null;
+    }
+
+    private String joinTeamIds(List<Team> teams) {
+        StringJoiner teamIds = new StringJoiner(", ");
+        for (Team team : teams) teamIds.add(String.valueOf(team.getId()));
 
-        return result;
+        return teamIds.toString();
     }
 
     /**
@@ -429,6 +647,13 @@ public class TeamService extends TextFileServiceBase implements ITeamService {
      */
     @Override
     public Boolean removeTeamFitness(int id) {
+        Boolean removed = removeTeamFitnessFromStorage(id);
+
+        DomainSnapshotService.getInstance().invalidate();
+        return removed;
+    }
+
+    private Boolean removeTeamFitnessFromStorage(int id) {
         if (SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName()))
             return removeEntryFromFileById(id + "", DATA_TYPES.FITNESS_METRICS);
 
@@ -448,6 +673,13 @@ public class TeamService extends TextFileServiceBase implements ITeamService {
      */
     @Override
     public Boolean deleteTeam(Team team) {
+        Boolean deleted = deleteTeamFromStorage(team);
+
+        DomainSnapshotService.getInstance().invalidate();
+        return deleted;
+    }
+
+    private Boolean deleteTeamFromStorage(Team team) {
         if (SharedConstants.DATA_SOURCE.equals(TextFileServiceBase.class.getSimpleName()))
             return removeEntryFromFileById(team.getId() + "", DATA_TYPES.PROJECT_TEAM);
 
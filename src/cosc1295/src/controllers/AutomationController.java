@@ -1,19 +1,26 @@
 package cosc1295.src.controllers;
 
-import cosc1295.providers.services.ProjectService;
-import cosc1295.providers.services.StudentService;
 import cosc1295.providers.services.TeamService;
+import cosc1295.src.models.DomainSnapshot;
 import cosc1295.src.models.Preference;
+import cosc1295.src.models.PreferenceIndex;
 import cosc1295.src.models.Project;
+import cosc1295.src.models.ProjectIndex;
 import cosc1295.src.models.Student;
 import cosc1295.src.models.Team;
+import cosc1295.src.services.DomainSnapshotService;
+import cosc1295.src.services.HistoryService;
 import cosc1295.src.services.SuggestionService;
 import cosc1295.src.services.analyzers.AutoAssignAnalyzer;
 import cosc1295.src.services.analyzers.AutoSwapAnalyzer;
+import cosc1295.src.services.analyzers.CohortFormationAnalyzer;
 import cosc1295.src.views.AutomationView;
+import helpers.commons.SharedConstants;
 import helpers.utilities.LogicalAssistant;
 
 import javafx.util.Pair;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -36,20 +43,40 @@ public class AutomationController extends ControllerBase {
     }
 
     public void executeAutoAssignSwapFeatures() {
-        //Read the required data for Projects and Preferences from database
-        List<Project> projects = (new ProjectService()).readAllProjectsFromFile();
-        List<Preference> preferences = (new StudentService()).readAllStudentPreferencesFromFile();
+        //Take the required data for Projects and Preferences from the domain snapshot
+        DomainSnapshot snapshot = DomainSnapshotService.getInstance().getSnapshot();
+        List<Project> projects = snapshot.getProjects();
+        List<Preference> preferences = snapshot.getPreferences();
 
         if (projects == null || preferences == null) //when data retrieval failed
             automationView.displayUrgentFailMessage();
         else { //data retrieval was successful, let user user the feature
             boolean runAutoAssign = automationView.promptForFeatureToRun();
 
-            if (runAutoAssign) runAutoAssignFeature(projects, preferences);
+            if (runAutoAssign && automationView.promptForCohortFormation()) runCohortFormationFeature();
+            else if (runAutoAssign) runAutoAssignFeature(projects, preferences);
+            else if (automationView.promptForBatchSwap()) runBatchAutoSwapFeature(projects, preferences);
             else runAutoSwapFeature(projects, preferences);
         }
     }
 
+    /**
+     * Forms Teams for all unteamed Students at once by using the SuggestionService to search for a whole allocation.
+     * The Teams formed, new and updated, are saved together in 1 transaction once user confirms. This change is not recorded for undoing.
+     */
+    public void runCohortFormationFeature() {
+        Pair<List<Team>, List<Double>> formation = suggestionService.runForResult(new CohortFormationAnalyzer<>());
+        if (formation == null) { //no allocation satisfies all Team requirements, or no Student to form
+            automationView.displayNoSuggestionMessage();
+            return;
+        }
+
+        if (!automationView.promptForFormationConfirmation(formation)) return;
+
+        if (teamService.saveTeams(formation.getKey())) automationView.displaySuccessMessage();
+        else automationView.displayUrgentFailMessage();
+    }
+
     /**
      * Automatically assign a Student into a Team by using the SuggestionService to analyze all data
      * and produce a prospective assignment.
@@ -57,6 +84,8 @@ public class AutomationController extends ControllerBase {
      * @param preferences List<Preference>
      */
     public void runAutoAssignFeature(List<Project> projects, List<Preference> preferences) {
+        ProjectIndex projectIndex = new ProjectIndex(projects);
+        PreferenceIndex preferenceIndex = new PreferenceIndex(preferences, projectIndex);
         boolean shouldQuit = false;
 
         while (!shouldQuit) {
@@ -73,7 +102,7 @@ public class AutomationController extends ControllerBase {
             if (shouldAssign) {
                 //Assign the Student
                 boolean assigned = LogicalAssistant.assignStudentToTeam(
-                    suggestion.getValue(), suggestion.getKey(), projects, preferences
+                    suggestion.getValue(), suggestion.getKey(), projectIndex, preferenceIndex
                 );
 
                 //Save changes to database
@@ -92,6 +121,8 @@ public class AutomationController extends ControllerBase {
      * @param preferences List<Preference>
      */
     public void runAutoSwapFeature(List<Project> projects, List<Preference> preferences) {
+        ProjectIndex projectIndex = new ProjectIndex(projects);
+        PreferenceIndex preferenceIndex = new PreferenceIndex(preferences, projectIndex);
         boolean shouldQuit = false;
 
         while (!shouldQuit) {
@@ -108,13 +139,12 @@ public class AutomationController extends ControllerBase {
             if (shouldSwap) {
                 //Swap the Students
                 Pair<Team, Team> swapResults = LogicalAssistant.swapStudentsBetweenTeams(
-                    suggestion.getValue(), suggestion.getKey(), projects, preferences
+                    suggestion.getValue(), suggestion.getKey(), projectIndex, preferenceIndex
                 );
 
                 //Save changes to database
                 if (swapResults != null &&
-                    teamService.updateTeam(swapResults.getKey()) &&
-                    teamService.updateTeam(swapResults.getValue())
+                    teamService.updateTeams(Arrays.asList(swapResults.getKey(), swapResults.getValue()))
                 )
                     automationView.displaySuccessMessage();
             }
@@ -122,4 +152,56 @@ public class AutomationController extends ControllerBase {
             shouldQuit = !automationView.promptForContinue();
         }
     }
+
+    /**
+     * Same as runAutoSwapFeature, but each analysis suggests several swaps between disjoint Teams.
+     * The swaps are confirmed and saved together, and each of them is recorded for undoing.
+     * @param projects List<Project>
+     * @param preferences List<Preference>
+     */
+    public void runBatchAutoSwapFeature(List<Project> projects, List<Preference> preferences) {
+        HistoryService history = HistoryService.getInstance();
+        ProjectIndex projectIndex = new ProjectIndex(projects);
+        PreferenceIndex preferenceIndex = new PreferenceIndex(preferences, projectIndex);
+        boolean shouldQuit = false;
+
+        while (!shouldQuit) {
+            //Analyze all data once to get several swaps, no 2 swaps share a Team
+            List<Pair<Pair<Team, Student>, Pair<Team, Student>>> suggestions =
+                suggestionService.runForResult(new AutoSwapAnalyzer<>(SharedConstants.AUTO_SWAP_BATCH_SIZE));
+
+            if (suggestions == null || suggestions.isEmpty()) { //no suggestion: meaning all Teams have been balanced
+                shouldQuit = true;
+                automationView.displayNoSuggestionMessage();
+                continue;
+            }
+
+            if (automationView.promptForBatchSwapConfirmation(suggestions)) {
+                List<Team> swappedTeams = new ArrayList<>();
+                int swapCount = 0;
+
+                //Swap the Students of each suggestion, each swap adds its own history item
+                for (Pair<Pair<Team, Student>, Pair<Team, Student>> suggestion : suggestions) {
+                    Pair<Team, Team> swapResults = LogicalAssistant.swapStudentsBetweenTeams(
+                        suggestion.getValue(), suggestion.getKey(), projectIndex, preferenceIndex
+                    );
+                    if (swapResults == null) break;
+
+                    swapCount++;
+                    swappedTeams.add(swapResults.getKey());
+                    swappedTeams.add(swapResults.getValue());
+                }
+
+                //Save all swaps in 1 transaction, or drop their history items if nothing was saved
+                if (swapCount == suggestions.size() && teamService.updateTeams(swappedTeams))
+                    automationView.displaySuccessMessage();
+                else {
+                    for (int i = 0; i < swapCount; i++) history.popLastChange();
+                    automationView.displayUrgentFailMessage();
+                }
+            }
+
+            shouldQuit = !automationView.promptForContinue();
+        }
+    }
 }
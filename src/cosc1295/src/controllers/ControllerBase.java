@@ -6,18 +6,17 @@ import helpers.commons.SharedConstants;
 import helpers.commons.SharedEnums;
 import helpers.utilities.Helpers;
 import helpers.utilities.LogicalAssistant;
-import javafx.util.Pair;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import static java.lang.Math.abs;
 import static java.lang.Math.sqrt;
 
 public class ControllerBase {
 
+    private static final SharedEnums.SKILLS[] SKILLS = SharedEnums.SKILLS.values();
+
     protected final Flasher flasher = Flasher.getInstance();
 
     /**
@@ -28,130 +27,137 @@ public class ControllerBase {
      * @return TeamFitness
      */
     public TeamFitness calculateTeamFitnessMetricsFor(Team team, List<Project> projects, List<Preference> preferences) {
+        ProjectIndex projectIndex = new ProjectIndex(projects);
+        return calculateTeamFitnessMetricsFor(team, projectIndex, new PreferenceIndex(preferences, projectIndex));
+    }
+
+    /**
+     * Calculates the Fitness Metrics for a Team against Projects and Preferences that have been indexed already.
+     * @param team Team
+     * @param projectIndex ProjectIndex
+     * @param preferenceIndex PreferenceIndex
+     * @return TeamFitness
+     */
+    public TeamFitness calculateTeamFitnessMetricsFor(Team team, ProjectIndex projectIndex, PreferenceIndex preferenceIndex) {
         //Create FitnessMetrics for Team that never has, otherwise update Team's FitnessMetrics
         TeamFitness teamFitness = team.getFitnessMetrics() == null
                 ? new TeamFitness()
                 : team.getFitnessMetrics();
 
-        /* At first, all competency and satisfaction ratings/preferences are summed up into these 2 containers,
-         * then use these 2 containers to calculate average competency and satisfaction metrics. */
-        HashMap<SharedEnums.SKILLS, Double> skillCompetencies = new HashMap<>();
-        Pair<Double, Double> satisfactions = new Pair<>(0.0, 0.0);
-
-        for (Student member : team.getMembers()) { //Perform the sums
-            HashMap<SharedEnums.SKILLS, SharedEnums.RANKINGS> memberSkillRanking = member.getSkillRanking();
-
-            for (Map.Entry<SharedEnums.SKILLS, SharedEnums.RANKINGS> entry : memberSkillRanking.entrySet())
-                if (skillCompetencies.containsKey(entry.getKey()))
-                    skillCompetencies.put(
-                        entry.getKey(),
-                        skillCompetencies.get(entry.getKey()) + entry.getValue().getValue() //sum up competency ratings
-                    );
-                else
-                    skillCompetencies.put(entry.getKey(), (double) entry.getValue().getValue());
-
-            Preference memberPreferences = null;
-            for (int i = preferences.size() - 1; i >= 0; i--)
-                if (preferences.get(i).getStudentUniqueId().equalsIgnoreCase(member.getUniqueId()))
-                    memberPreferences = preferences.get(i);
-
-            //Sum up satisfaction preferences
-            if (memberPreferences != null)
-                for (Map.Entry<String, Integer> entry : memberPreferences.getPreference().entrySet())
-                    try {
-                        if (entry.getKey().equals(team.getProject().getUniqueId()) && entry.getValue() == 4)
-                            satisfactions = new Pair<>(satisfactions.getKey() + 1, satisfactions.getValue());
-
-                        if (entry.getKey().equals(team.getProject().getUniqueId()) && entry.getValue() == 3)
-                            satisfactions = new Pair<>(satisfactions.getKey(), satisfactions.getValue() + 1);
-                    } catch (NullPointerException ex) {
-                        flasher.flash(new Flash(
-                            "Missing Project Preference data for member " + member.getUniqueId() + ".\n" +
-                            "Preference Satisfaction will be skipped. Please check data and retry.",
-                            SharedEnums.FLASH_TYPES.ERROR
-                        ));
-
-                        satisfactions = null;
-                        break;
-                    }
-            else
-                satisfactions = null;
-        }
-
-        //Compute metrics for competency
-        Pair<Double, HashMap<SharedEnums.SKILLS, Double>> computedCompetencies = computeAverageCompetencies(skillCompetencies);
-        teamFitness.setAverageTeamSkillCompetency(computedCompetencies.getKey());
+        CompactTeamFitness metrics = new CompactTeamFitness(projectIndex);
+        metrics.setId(teamFitness.getId());
+        calculateCompactFitnessMetricsFor(team, preferenceIndex, metrics);
 
-        HashMap<SharedEnums.SKILLS, Double> teamCompetencyBySkills = computedCompetencies.getValue();
-        teamFitness.setTeamCompetency(teamCompetencyBySkills);
+        return metrics.writeTo(teamFitness);
+    }
 
-        //Compute metrics for satisfaction
-        teamFitness.setPreferenceSatisfaction(satisfactions == null ? null : computeAverageSatisfactions(satisfactions));
+    /**
+     * Calculates the Fitness Metrics for a Team into a CompactTeamFitness, which can be reused between calls.
+     * The sums are kept in primitives, so no map, Pair or boxed number is created.
+     * The metrics are computed in hundredths, rounding averages half to even, so no floating-point number is involved.
+     * The Projects are the ones indexed by the CompactTeamFitness' ProjectIndex.
+     * @param team Team
+     * @param preferenceIndex PreferenceIndex
+     * @param metrics CompactTeamFitness
+     */
+    public void calculateCompactFitnessMetricsFor(Team team, PreferenceIndex preferenceIndex, CompactTeamFitness metrics) {
+        List<Student> members = team.getMembers();
 
-        //Calculate the Skill Shortfall: average of all Projects, and per Project.
-        //At first, all shortfall differences are summed up into a container, then use the container to calculate the averages
-        HashMap<String, Double> skillShortFalls = new HashMap<>();
-        for (Project project : projects) {
-            double shortfall = 0;
+        //Compute metrics for competency: sum up the competency ratings of all members for each skill, then average them
+        long totalCompetency = 0;
+        for (int skill = 0; skill < SKILLS.length; skill++) {
+            int skillTotal = 0;
+            boolean hasSkill = false;
 
-            for (Map.Entry<SharedEnums.SKILLS, SharedEnums.RANKINGS> ranking : project.getSkillRanking().entrySet()) {
-                double requestedSkillRanking = ranking.getValue().getValue();
-                double teamSkillRanking = teamCompetencyBySkills.get(ranking.getKey());
+            for (int i = 0; i < members.size(); i++) {
+                SharedEnums.RANKINGS ranking = members.get(i).getSkillRanking().get(SKILLS[skill]);
+                if (ranking == null) continue;
 
-                if (requestedSkillRanking > teamSkillRanking)
-                    shortfall += abs(requestedSkillRanking - teamSkillRanking); //sum up the differences
+                skillTotal += ranking.getValue();
+                hasSkill = true;
             }
 
-            skillShortFalls.put(project.getUniqueId(), shortfall);
+            int competency = hasSkill
+                ? (int) Helpers.divideHalfEven((long) skillTotal * SharedConstants.METRIC_SCALE, SharedConstants.GROUP_LIMIT)
+                : CompactTeamFitness.MISSING;
+
+            metrics.setCompetency(skill, competency);
+            if (hasSkill) totalCompetency += competency;
         }
 
-        teamFitness.setSkillShortFall(skillShortFalls); //Per-Project Shortfalls
-        teamFitness.setAverageSkillShortfall(computeAverageTeamSkillShortFall(skillShortFalls)); //Average of all Projects
+        metrics.setAverageTeamSkillCompetency((int) Helpers.divideHalfEven(
+            totalCompetency * SKILLS.length, SharedConstants.GROUP_LIMIT
+        ));
 
-        return teamFitness;
-    }
+        //Compute metrics for satisfaction: count members having the Team's Project as their 1st or 2nd preference
+        String projectId = team.getProject() == null ? null : team.getProject().getUniqueId();
+        int projectPosition = projectId == null ? -1 : metrics.getProjectIndex().indexOf(projectId);
+        int firstSatisfactions = 0;
+        int secondSatisfactions = 0;
+        boolean hasSatisfactions = true;
 
-    private double computeAverageTeamSkillShortFall(HashMap<String, Double> skillShortfall) {
-        double totalShortfall = 0;
-        for (Map.Entry<String, Double> entry : skillShortfall.entrySet())
-            totalShortfall += entry.getValue();
+        for (int i = 0; i < members.size(); i++) {
+            Student member = members.get(i);
+            Preference memberPreferences = preferenceIndex.getPreferenceFor(member.getUniqueId());
 
-        return Helpers.round(totalShortfall / skillShortfall.size(), SharedConstants.DECIMAL_PRECISION);
-    }
+            if (memberPreferences == null) {
+                hasSatisfactions = false;
+                continue;
+            }
 
-    private Pair<Double, Pair<Double, Double>> computeAverageSatisfactions(Pair<Double, Double> satisfactions) {
-        return new Pair<>(
-            Helpers.round(
-                (satisfactions.getKey() + satisfactions.getValue()) * 100 / SharedConstants.GROUP_LIMIT,
-                SharedConstants.DECIMAL_PRECISION
-            ),
-            new Pair<>(
-                Helpers.round(satisfactions.getKey() * 100 / SharedConstants.GROUP_LIMIT, SharedConstants.DECIMAL_PRECISION),
-                Helpers.round(satisfactions.getValue() * 100 / SharedConstants.GROUP_LIMIT, SharedConstants.DECIMAL_PRECISION)
-            )
-        );
-    }
+            int rating = projectId == null ? 0 : (
+                projectPosition >= 0 && preferenceIndex.getProjectIndex() == metrics.getProjectIndex()
+                    ? preferenceIndex.getRating(member.getUniqueId(), projectPosition)
+                    : preferenceIndex.getRating(member.getUniqueId(), projectId)
+            );
+            boolean isSatisfying = rating == 4 || rating == 3;
+
+            if ((projectId == null && !memberPreferences.getPreference().isEmpty()) || (!hasSatisfactions && isSatisfying)) {
+                flasher.flash(new Flash(
+                    "Missing Project Preference data for member " + member.getUniqueId() + ".\n" +
+                    "Preference Satisfaction will be skipped. Please check data and retry.",
+                    SharedEnums.FLASH_TYPES.ERROR
+                ));
 
-    private Pair<Double, HashMap<SharedEnums.SKILLS, Double>> computeAverageCompetencies(HashMap<SharedEnums.SKILLS, Double> competencies) {
-        HashMap<SharedEnums.SKILLS, Double> averageCompetencies = new HashMap<>();
+                hasSatisfactions = false;
+                continue;
+            }
+
+            if (rating == 4) firstSatisfactions++;
+            if (rating == 3) secondSatisfactions++;
+        }
 
-        for (Map.Entry<SharedEnums.SKILLS, Double> competency : competencies.entrySet())
-            averageCompetencies.put(
-                competency.getKey(),
-                Helpers.round(competency.getValue() / SharedConstants.GROUP_LIMIT, SharedConstants.DECIMAL_PRECISION)
+        if (hasSatisfactions)
+            metrics.setPreferenceSatisfaction(
+                CompactTeamFitness.percentageOf(firstSatisfactions + secondSatisfactions),
+                CompactTeamFitness.percentageOf(firstSatisfactions),
+                CompactTeamFitness.percentageOf(secondSatisfactions)
             );
+        else
+            metrics.clearPreferenceSatisfaction();
+
+        //Calculate the Skill Shortfall: per Project, then the average of all Projects
+        ProjectIndex projectIndex = metrics.getProjectIndex();
+        long totalShortfall = 0;
+
+        for (int project = 0; project < projectIndex.size(); project++) {
+            int shortfall = 0;
+
+            for (int skill = 0; skill < SKILLS.length; skill++) {
+                int requestedSkillRanking = projectIndex.getRequestedRanking(project, skill);
+                int teamSkillRanking = metrics.getCompetency(skill);
+                if (requestedSkillRanking < 0 || teamSkillRanking == CompactTeamFitness.MISSING) continue;
+
+                int requested = requestedSkillRanking * SharedConstants.METRIC_SCALE;
+                if (requested > teamSkillRanking)
+                    shortfall += requested - teamSkillRanking; //sum up the differences
+            }
+
+            metrics.setShortfall(project, shortfall);
+            totalShortfall += shortfall;
+        }
 
-        double totalCompetency = 0;
-        for (Map.Entry<SharedEnums.SKILLS, Double> entry : averageCompetencies.entrySet())
-            totalCompetency += entry.getValue();
-
-        return new Pair<>(
-            Helpers.round(
-                totalCompetency / SharedConstants.GROUP_LIMIT * SharedEnums.getAllEnumAttributesAsList(SharedEnums.SKILLS.class).size(),
-                SharedConstants.DECIMAL_PRECISION
-            ),
-            averageCompetencies
-        );
+        metrics.setAverageSkillShortfall((int) Helpers.divideHalfEven(totalShortfall, projectIndex.size()));
     }
 
     /**
@@ -162,13 +168,25 @@ public class ControllerBase {
      * @return List<Double>
      */
     public List<Double> calculateStandardDeviationsForFitnessMetrics(List<Team> teams, List<Project> projects, List<Preference> preferences) {
+        ProjectIndex projectIndex = new ProjectIndex(projects);
+        return calculateStandardDeviationsForFitnessMetrics(teams, projectIndex, new PreferenceIndex(preferences, projectIndex));
+    }
+
+    /**
+     * Calculates the Standard Deviations using Projects and Preferences that have been indexed already.
+     * @param teams List<Team>
+     * @param projectIndex ProjectIndex
+     * @param preferenceIndex PreferenceIndex
+     * @return List<Double>
+     */
+    public List<Double> calculateStandardDeviationsForFitnessMetrics(List<Team> teams, ProjectIndex projectIndex, PreferenceIndex preferenceIndex) {
         double totalCompetencyAcrossProjects = 0;
         double totalSatisfactionAcrossProjects = 0;
         double totalShortfallsAcrossTeams = 0;
 
         //Step 1: Calculate the sums for each metric
         for (Team team : teams) {
-            TeamFitness teamFitness = calculateTeamFitnessMetricsFor(team, projects, preferences);
+            TeamFitness teamFitness = calculateTeamFitnessMetricsFor(team, projectIndex, preferenceIndex);
             team.setFitnessMetrics(teamFitness);
 
             totalCompetencyAcrossProjects += teamFitness.getAverageTeamSkillCompetency();
@@ -1,18 +1,17 @@
 package cosc1295.src.controllers;
 
-import cosc1295.providers.services.ProjectService;
-import cosc1295.providers.services.StudentService;
 import cosc1295.providers.services.TeamService;
-import cosc1295.src.models.Preference;
-import cosc1295.src.models.Project;
+import cosc1295.src.models.DomainSnapshot;
+import cosc1295.src.models.PreferenceIndex;
+import cosc1295.src.models.ProjectIndex;
 import cosc1295.src.models.Student;
 import cosc1295.src.models.Team;
+import cosc1295.src.services.DomainSnapshotService;
 import cosc1295.src.services.HistoryService;
 import cosc1295.src.views.HistoryView;
 import helpers.commons.SharedConstants;
 
 import javafx.util.Pair;
-import java.util.List;
 
 public class HistoryController extends ControllerBase {
 
@@ -21,15 +20,16 @@ public class HistoryController extends ControllerBase {
     private final HistoryView historyView;
     private final TeamService teamService;
 
-    private final List<Project> projects;
-    private final List<Preference> preferences;
+    private final ProjectIndex projectIndex;
+    private final PreferenceIndex preferenceIndex;
 
     public HistoryController() {
         historyView = new HistoryView();
         teamService = new TeamService();
 
-        projects = (new ProjectService()).readAllProjectsFromFile();
-        preferences = (new StudentService()).readAllStudentPreferencesFromFile();
+        DomainSnapshot snapshot = DomainSnapshotService.getInstance().getSnapshot();
+        projectIndex = snapshot.getProjectIndex();
+        preferenceIndex = snapshot.getPreferenceIndex();
     }
 
     /**
@@ -77,10 +77,10 @@ public class HistoryController extends ControllerBase {
 
         //Recalculate Fitness Metrics
         if (first.getMembers().size() == SharedConstants.GROUP_LIMIT)
-            first.setFitnessMetrics(calculateTeamFitnessMetricsFor(first, projects, preferences));
+            first.setFitnessMetrics(calculateTeamFitnessMetricsFor(first, projectIndex, preferenceIndex));
 
         if (second.getMembers().size() == SharedConstants.GROUP_LIMIT)
-            second.setFitnessMetrics(calculateTeamFitnessMetricsFor(second, projects, preferences));
+            second.setFitnessMetrics(calculateTeamFitnessMetricsFor(second, projectIndex, preferenceIndex));
 
         //Save data
         if (!teamService.updateTeam(first) || ( //if first team updated failed
@@ -2,10 +2,9 @@ package cosc1295.src.controllers;
 
 import com.sun.istack.internal.NotNull;
 import com.sun.istack.internal.Nullable;
-import cosc1295.providers.services.ProjectService;
-import cosc1295.providers.services.StudentService;
 import cosc1295.providers.services.TeamService;
 import cosc1295.src.models.*;
+import cosc1295.src.services.DomainSnapshotService;
 import cosc1295.src.services.HistoryService;
 import cosc1295.src.services.SuggestionService;
 import cosc1295.src.services.analyzers.TeamsSwapAnalyzer;
@@ -20,23 +19,21 @@ import java.util.List;
 public class TeamFormationController extends ControllerBase {
 
     private final TeamView teamView;
-    private final StudentService studentService;
     private final TeamService teamService;
-    private final ProjectService projectService;
     private final HistoryService history = HistoryService.getInstance();
 
     public TeamFormationController() {
         teamView = new TeamView();
-        studentService = new StudentService();
         teamService = new TeamService();
-        projectService = new ProjectService();
     }
 
     public Boolean executeTeamSelectionTask() {
-        List<Student> students = studentService.readAllStudentsFromFile();
-        List<Project> projects = projectService.readAllProjectsFromFile();
-        List<Team> teams = teamService.readAllTeamsFromFile();
-        List<Preference> preferences = studentService.readAllStudentPreferencesFromFile();
+        //Teams in the snapshot already hold full Student data as members
+        DomainSnapshot snapshot = DomainSnapshotService.getInstance().getSnapshot();
+        List<Student> students = snapshot.getStudents();
+        List<Project> projects = snapshot.getProjects();
+        List<Team> teams = snapshot.getTeams();
+        List<Preference> preferences = snapshot.getPreferences();
 
         if (students == null || projects == null || teams == null || preferences == null)
             return null;
@@ -51,10 +48,6 @@ public class TeamFormationController extends ControllerBase {
             return false;
         }
 
-        //Teams read from file holds members data with only Student Unique ID,
-        //So set Student from Student List into Team members before any further tasks
-        LogicalAssistant.setStudentDataInTeams(teams, students);
-
         String featureToRun; //Task to run: assign Students to Teams, or swap Students between Teams
         //Get only Students that do not already in a Team for assigning task
         List<Student> unteamedStudents = LogicalAssistant.filterUnteamedStudents(students, teams);
@@ -248,7 +241,7 @@ public class TeamFormationController extends ControllerBase {
 
     //The method name speaks its task
     public void printTeamFitnessMetricsTable() {
-        List<Team> teams = teamService.readAllTeamsFromFile();
+        List<Team> teams = DomainSnapshotService.getInstance().getSnapshot().getTeams();
 
         if (teams == null) teamView.displayTaskFinalResult(null);
         else if (teams.size() == 0) teamView.displayInsufficientSelectionFor(Team.class);
@@ -2,8 +2,6 @@ package cosc1295.src.controllers.activities;
 
 import com.sun.istack.internal.NotNull;
 import com.sun.istack.internal.Nullable;
-import cosc1295.providers.services.ProjectService;
-import cosc1295.providers.services.StudentService;
 import cosc1295.providers.services.TeamService;
 import cosc1295.src.controllers.ControllerBase;
 import cosc1295.src.models.*;
@@ -19,6 +17,7 @@ import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.collections.ObservableList;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
@@ -49,6 +48,7 @@ import java.util.function.Consumer;
  * The design of this feature utilizes recursive calls to reduce the amount of codes and eliminate redundant codes.
  * To simplify this feature, the assignable Teams are ones that have 0-3 members despite members can be replaced.
  * I have created another activity to remove Team member.
+ * After assigning, data are written in background, and only the changed rows are applied to the widgets.
  */
 public class AssignActivity extends AnchorPane implements IActivity {
 
@@ -56,7 +56,6 @@ public class AssignActivity extends AnchorPane implements IActivity {
     private static final String SET_PROJECT = "SET_PROJECT";
 
     //Dependency injections to access data processing services
-    private final StudentService studentService;
     private final TeamService teamService;
     private final ControllerBase controllerBase;
 
@@ -65,8 +64,16 @@ public class AssignActivity extends AnchorPane implements IActivity {
     private final SimpleObjectProperty<Team> teamToReceiveMember;
     private final SimpleObjectProperty<Student> studentInTeamToBeReplaced;
 
+    private Task<?> suggestionTask; //The suggestion being computed in background, cancelled when it goes stale
+
+    //The data currently drawn, kept to apply only the changed rows after an assignment
+    private DomainSnapshot snapshot; //handed over by ContentInflator, so storage is never read on the FX thread
+    private List<Team> teams;
+    private List<Student> assignableStudents;
+    private ObservableList<StudentVM> studentsData;
+    private TableView studentsTable;
+
     public AssignActivity() {
-        studentService = new StudentService();
         teamService = new TeamService();
         controllerBase = new ControllerBase();
 
@@ -86,14 +93,16 @@ public class AssignActivity extends AnchorPane implements IActivity {
      * Data are read and errors are checked in preparation for the features.
      * Only on no error, the widgets are shown and the listeners are attached to the observables.
      * @param container Scene
+     * @param snapshot DomainSnapshot
      * @param postMessage String
      */
-    public void drawAssigningTaskContents(Scene container, @Nullable String postMessage) {
+    public void drawAssigningTaskContents(Scene container, DomainSnapshot snapshot, @Nullable String postMessage) {
         this.setId(this.getClass().getSimpleName());
         IActivity.drawActivityTitle(container, this, "Assign Students To Teams");
 
-        List<Student> students = studentService.readAllStudentsFromFile();
-        List<Team> teams = teamService.readAllTeamsFromFile();
+        this.snapshot = snapshot;
+        List<Student> students = snapshot.getStudents();
+        List<Team> teams = snapshot.getTeams();
 
         boolean error = students == null || teams == null;
         if (error) drawActivityFailMessage(container, "An error occurred while retrieving data from files.\nPlease try again.");
@@ -108,8 +117,8 @@ public class AssignActivity extends AnchorPane implements IActivity {
             attachListenersToObservables(container, students);
             drawButtonBasedOnContext(container, false);
 
-            List<Student> assignableStudents = LogicalAssistant.filterUnteamedStudents(students, teams);
-            LogicalAssistant.setStudentDataInTeams(teams, students);
+            this.teams = teams;
+            assignableStudents = LogicalAssistant.filterUnteamedStudents(students, teams);
             drawWidgetsForAssigningStudentsTask(container, assignableStudents, teams);
         }
     }
@@ -129,7 +138,10 @@ public class AssignActivity extends AnchorPane implements IActivity {
             message.set(SharedConstants.EMPTY_STRING);
             manageStatusMessageAndAssignButtonBasedOnRequirements(container, message, shouldEnableAssignButton);
             if (teamToReceiveMember.get() != null) suggestAssigneeAndTeam();
-            else IActivity.removeElementIfExists("suggestion", this);
+            else {
+                cancelSuggestion();
+                IActivity.removeElementIfExists("suggestion", this);
+            }
         }));
 
         studentInTeamToBeReplaced.addListener(observable -> {
@@ -144,6 +156,7 @@ public class AssignActivity extends AnchorPane implements IActivity {
     }
 
     private void suggestAssigneeAndTeam() {
+        cancelSuggestion();
         SuggestionService suggestionService = new SuggestionService();
 
         if (teamToReceiveMember.get() != null && teamToReceiveMember.get().getProject() != null) {
@@ -154,17 +167,26 @@ public class AssignActivity extends AnchorPane implements IActivity {
             if (studentToAssign.get() != null) clone.addMember(studentToAssign.get());
 
             //The suggestion for a Student to assign
-            Pair<Student, Student> suggestion = suggestionService.runForResult(new AssignStudentAnalyzer<>(clone));
-            IActivity.drawStudentSwapOrAssignSuggestion(this, suggestion);
+            Task<Pair<Student, Student>> task = suggestionService.runInBackground(() -> new AssignStudentAnalyzer<>(clone));
+            IActivity.drawSuggestionWhenReady(this, task, suggestion -> IActivity.drawStudentSwapOrAssignSuggestion(this, suggestion));
+            suggestionTask = task;
         }
         else if (studentToAssign.get() != null && teamToReceiveMember.get() == null) {
-            Pair<Team, Student> suggestion = suggestionService.runForResult(new TeamToAssignAnalyzer<>(studentToAssign.get().clone()));
-            drawTeamToAssignSuggestion(suggestion);
+            Student assigneeClone = studentToAssign.get().clone();
+            Task<Pair<Team, Student>> task = suggestionService.runInBackground(() -> new TeamToAssignAnalyzer<>(assigneeClone));
+            IActivity.drawSuggestionWhenReady(this, task, this::drawTeamToAssignSuggestion);
+            suggestionTask = task;
         }
 
+        //The running analysis is left to finish, no more is accepted
         suggestionService.die();
     }
 
+    private void cancelSuggestion() {
+        if (suggestionTask != null) suggestionTask.cancel();
+        suggestionTask = null;
+    }
+
     private void manageStatusMessageAndAssignButtonBasedOnRequirements(
         Scene container, AtomicReference<String> message, SimpleBooleanProperty shouldEnableAssignButton
     ) {
@@ -285,7 +307,7 @@ public class AssignActivity extends AnchorPane implements IActivity {
      * @param initialWidth double
      */
     private void drawStudentsSelectionArea(List<Student> students, double initialWidth) {
-        TableView studentsTable = new TableView(); //Create a Table view
+        studentsTable = new TableView(); //Create a Table view
         studentsTable.getStyleClass().add("data-table");
         studentsTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
         this.getChildren().add(studentsTable);
@@ -335,7 +357,7 @@ public class AssignActivity extends AnchorPane implements IActivity {
         conflictCol.setCellValueFactory(new PropertyValueFactory<>("conflicters"));
 
         //Attach observables and selection listener to Table Rows
-        ObservableList<StudentVM> studentsData = FXCollections.observableArrayList();
+        studentsData = FXCollections.observableArrayList();
         for (Student student : students) {
             StudentVM studentVm = StudentVM.cast(student);
             studentsData.add(studentVm);
@@ -347,8 +369,9 @@ public class AssignActivity extends AnchorPane implements IActivity {
         TableView.TableViewSelectionModel studentSelectionModel = studentsTable.getSelectionModel();
         studentSelectionModel.setSelectionMode(SelectionMode.SINGLE);
 
+        //No row is selected when the selection is cleared
         studentSelectionModel.selectedIndexProperty().addListener((observable, oldValue, newValue) ->
-            studentToAssign.set(students.get(newValue.intValue()))
+            studentToAssign.set(newValue.intValue() < 0 ? null : students.get(newValue.intValue()))
         );
     }
 
@@ -378,7 +401,7 @@ public class AssignActivity extends AnchorPane implements IActivity {
             IActivity.changeElementText(
                 Label.class, "Set a Project for newly created Team", "select-team-title", this
             );
-            List<Project> projects = (new ProjectService()).readAllProjectsFromFile();
+            List<Project> projects = snapshot.getProjects();
 
             String errorMessage = null;
             if (projects == null) errorMessage = "An error occurred while reading Project data from file.\nPlease try again.";
@@ -808,56 +831,84 @@ public class AssignActivity extends AnchorPane implements IActivity {
      * @param assignButton Button
      */
     private void setActionListenerFor(Scene container, Button assignButton) {
-        final List<Project> projects = (new ProjectService()).readAllProjectsFromFile();
-        final List<Preference> preferences = studentService.readAllStudentPreferencesFromFile();
+        final List<Project> projects = snapshot.getProjects();
+        final List<Preference> preferences = snapshot.getPreferences();
 
         if (projects == null || preferences == null)
             drawActivityFailMessage(container, "An error occurred while retrieving data from files.\nPlease try again.");
 
         assignButton.setOnAction(event -> {
-            LogicalAssistant.assignStudentToTeam(
-                new Pair<>(teamToReceiveMember.get(), studentInTeamToBeReplaced.get()),
-                studentToAssign.get(), projects, preferences
+            Team team = teamToReceiveMember.get();
+            Student assignee = studentToAssign.get();
+            Student replacedMember = studentInTeamToBeReplaced.get();
+            boolean isNewTeam = team.isNewlyAdded();
+
+            LogicalAssistant.assignStudentToTeam(new Pair<>(team, replacedMember), assignee, projects, preferences);
+            assignButton.setDisable(true);
+
+            //Finally save or update data, the new Team ID is the result of saving, otherwise the ID of the updated Team
+            StorageWriter.write(
+                () -> isNewTeam ? teamService.SaveNewTeam(team) : (teamService.updateTeam(team) ? team.getId() : -1),
+                teamId -> {
+                    HistoryService history = HistoryService.getInstance();
+
+                    //Check the save/update results
+                    if (teamId == null || teamId < 0) {
+                        assignButton.setVisible(false);
+                        history.popLastChange();
+                        drawActivityFailMessage(container, "An error occurred while updating/saving data into files.\nPlease retry your task.");
+                        return;
+                    }
+
+                    if (isNewTeam) {
+                        history.reviseLastChange(teamId, SharedConstants.ACTION_ASSIGN);
+
+                        team.setId(teamId);
+                        team.setNewlyAdded(false);
+                    }
+
+                    applyAssignment(container, team, assignee, replacedMember);
+                }
             );
-
-            //Finally save or update data
-            boolean updateSuccess = false;
-            int newTeamId = -1;
-            if (teamToReceiveMember.get().isNewlyAdded()) newTeamId = teamService.SaveNewTeam(teamToReceiveMember.get());
-            else updateSuccess = teamService.updateTeam(teamToReceiveMember.get());
-
-            HistoryService history = HistoryService.getInstance();
-            //Check the save/update results
-            if ((!teamToReceiveMember.get().isNewlyAdded() && !updateSuccess) ||
-                (teamToReceiveMember.get().isNewlyAdded() && newTeamId < 0)
-            ) {
-                assignButton.setVisible(false);
-                history.popLastChange();
-                drawActivityFailMessage(container, "An error occurred while updating/saving data into files.\nPlease retry your task.");
-            }
-
-            if (teamToReceiveMember.get().isNewlyAdded() && newTeamId != -1) {
-                history.reviseLastChange(newTeamId, SharedConstants.ACTION_ASSIGN);
-
-                teamToReceiveMember.get().setId(newTeamId);
-                teamToReceiveMember.get().setNewlyAdded(false);
-                updateSuccess = true;
-            }
-
-            if (updateSuccess) {
-                assignButton.setDisable(true);
-                redrawActivity(container);
-            }
         });
     }
 
-    private void redrawActivity(Scene container) {
-        studentToAssign.set(null);
+    /**
+     * Applies a saved assignment to the data drawn: the assignee leaves the assignable Students, the replaced member
+     * (if any) joins them, and the Team selection is redrawn with the Team updated. Other rows are left as they are.
+     * @param container Scene
+     * @param team Team
+     * @param assignee Student
+     * @param replacedMember Student
+     */
+    private void applyAssignment(Scene container, Team team, Student assignee, @Nullable Student replacedMember) {
+        studentsTable.getSelectionModel().clearSelection();
         teamToReceiveMember.set(null);
         studentInTeamToBeReplaced.set(null);
+
+        //The selection listener reads assignableStudents by the row index, so it is changed before the rows
+        int row = assignableStudents.indexOf(assignee);
+        if (row >= 0) {
+            assignableStudents.remove(row);
+            studentsData.remove(row);
+        }
+
+        if (replacedMember != null) {
+            assignableStudents.add(replacedMember);
+            studentsData.add(StudentVM.cast(replacedMember));
+        }
+
+        //A new Team was held as a placeholder while being created, it is replaced by the saved Team
+        for (int i = 0; i < teams.size(); i++)
+            if (teams.get(i).isNewlyAdded()) teams.set(i, team);
+
         eraseTeamDetailsTable();
+        IActivity.removeElementIfExists("optional-message", this);
+        IActivity.removeElementIfExists("create-team-button", this);
         IActivity.removeElementIfExists("suggestion", this);
-        drawAssigningTaskContents(container, "The selected Student has been assigned to team successfully.");
+        drawTeamsSelectionArea(teams, (container.getWidth() - MARGIN * 3) / 2, null);
+
+        IActivity.drawSuccessMessage("The selected Student has been assigned to team successfully.", this);
     }
 
     private void drawActivityFailMessage(Scene container, String message) {
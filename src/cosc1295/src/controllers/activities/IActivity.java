@@ -5,12 +5,14 @@ import cosc1295.src.models.Student;
 import helpers.commons.SharedConstants;
 import javafx.beans.property.ObjectPropertyBase;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.concurrent.Task;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.ContentDisplay;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.Pane;
 import javafx.util.Pair;
@@ -236,12 +238,15 @@ public interface IActivity {
 
     /**
      * Draws a `success` status message on an Activity after user successfully commit changes made to data.
-     * Also constraints the size and position of the message in the Activity.
+     * The new message replaces the old one. Also constraints the size and position of the message in the Activity.
      * @param message String
      * @param activity Pane
      */
     static void drawSuccessMessage(String message, Pane activity) {
+        removeElementIfExists("success-message", activity);
+
         Label success = new Label(message);
+        success.setId("success-message");
         success.getStyleClass().add("message-success");
         activity.getChildren().add(success);
 
@@ -292,6 +297,62 @@ public interface IActivity {
 
         suggestionLabel.setText(message);
         activity.getChildren().add(suggestionLabel);
+        constraintSuggestion(suggestionLabel, activity);
+    }
+
+    /**
+     * Shows the progress of a suggestion being computed in background, in place of the suggestion.
+     * When the suggestion is ready, the progress is replaced by the suggestion drawn with `drawSuggestion`.
+     * The progress is also removed if the computation fails or is cancelled, a cancelled suggestion is never drawn.
+     * A failed computation is told in place of the suggestion.
+     * @param activity Pane
+     * @param suggestionTask Task<T>
+     * @param drawSuggestion Consumer<T>
+     * @param <T> Type
+     */
+    static <T> void drawSuggestionWhenReady(Pane activity, Task<T> suggestionTask, Consumer<T> drawSuggestion) {
+        removeElementIfExists("suggestion", activity);
+
+        ProgressIndicator indicator = new ProgressIndicator();
+        indicator.progressProperty().bind(suggestionTask.progressProperty());
+        indicator.setPrefSize(MARGIN, MARGIN);
+
+        Label progressLabel = new Label("Analyzing...");
+        progressLabel.getStyleClass().add("suggestion");
+        progressLabel.setId("suggestion-progress");
+        progressLabel.setGraphic(indicator);
+        suggestionTask.messageProperty().addListener((observable, oldMessage, newMessage) -> progressLabel.setText(newMessage));
+
+        activity.getChildren().add(progressLabel);
+        constraintSuggestion(progressLabel, activity);
+
+        //Removed by reference, as the progress of a newer suggestion may be showing by then
+        suggestionTask.setOnSucceeded(event -> {
+            activity.getChildren().remove(progressLabel);
+            drawSuggestion.accept(suggestionTask.getValue());
+        });
+
+        suggestionTask.setOnFailed(event -> {
+            activity.getChildren().remove(progressLabel);
+            removeElementIfExists("suggestion", activity);
+
+            Label failureLabel = new Label("An error occurred while analyzing data for a suggestion. Please try again.");
+            failureLabel.getStyleClass().add("suggestion");
+            failureLabel.setId("suggestion");
+
+            activity.getChildren().add(failureLabel);
+            constraintSuggestion(failureLabel, activity);
+        });
+        suggestionTask.setOnCancelled(event -> activity.getChildren().remove(progressLabel));
+    }
+
+    /**
+     * Constraints the position XY of a suggestion (or its progress) in the Activity.
+     * @param suggestionLabel Label
+     * @param activity Pane
+     */
+    static void constraintSuggestion(Label suggestionLabel, Pane activity) {
+        boolean isAssignActivity = activity.getId().toLowerCase().contains(AssignActivity.class.getSimpleName().toLowerCase());
 
         if (isAssignActivity) {
             suggestionLabel.setPrefWidth(MARGIN * 15);
@@ -1,16 +1,13 @@
 package cosc1295.src.controllers.activities;
 
-import cosc1295.providers.services.ProjectService;
-import cosc1295.providers.services.StudentService;
 import cosc1295.providers.services.TeamService;
 import cosc1295.src.controllers.ControllerBase;
+import cosc1295.src.models.DomainSnapshot;
 import cosc1295.src.models.Preference;
 import cosc1295.src.models.Project;
-import cosc1295.src.models.Student;
 import cosc1295.src.models.Team;
 import helpers.commons.SharedConstants;
 import helpers.commons.SharedEnums;
-import helpers.utilities.LogicalAssistant;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
@@ -35,8 +32,6 @@ public class ProjectActivity extends AnchorPane implements IActivity {
 
     //Dependency injections to access data processing services
     private final TeamService teamService;
-    private final ProjectService projectService;
-    private final StudentService studentService;
 
     //The observable objects to keep track of the changes made to data
     private final SimpleObjectProperty<Team> selectedTeam;
@@ -44,22 +39,24 @@ public class ProjectActivity extends AnchorPane implements IActivity {
 
     public ProjectActivity() {
         teamService = new TeamService();
-        projectService = new ProjectService();
-        studentService = new StudentService();
 
         selectedTeam = new SimpleObjectProperty<>(null);
         selectedProject = new SimpleObjectProperty<>(null);
     }
 
-    public void drawProjectSettingTaskContents(Scene container, String postMessage) {
+    public void drawProjectSettingTaskContents(Scene container, DomainSnapshot snapshot, String postMessage) {
+        drawProjectSettingTaskContents(
+            container, snapshot.getTeams(), snapshot.getProjects(), snapshot.getPreferences(), postMessage
+        );
+    }
+
+    //Draws from the given data, so redrawing after an update does not read storage on the FX thread
+    private void drawProjectSettingTaskContents(
+        Scene container, List<Team> teams, List<Project> projects, List<Preference> preferences, String postMessage
+    ) {
         this.setId(this.getClass().getSimpleName());
         IActivity.drawActivityTitle(container, this, "Remove Students From Teams");
 
-        List<Team> teams = teamService.readAllTeamsFromFile();
-        List<Student> students = studentService.readAllStudentsFromFile();
-        List<Project> projects = projectService.readAllProjectsFromFile();
-        List<Preference> preferences = studentService.readAllStudentPreferencesFromFile();
-
         boolean error = teams == null || projects == null || preferences == null;
         if (error) drawActivityFailMessage(container, "An error occurred while retrieving data from files.\nPlease try again.");
 
@@ -71,11 +68,10 @@ public class ProjectActivity extends AnchorPane implements IActivity {
 
             double tablePrefWidth = (container.getWidth() - MARGIN * 2) / 2;
             attachListenersToObservables(tablePrefWidth, projects);
-            LogicalAssistant.setStudentDataInTeams(teams, students);
 
             drawButtonBasedOnContext(container, false);
             drawWidgetsForReassigningProject(teams, tablePrefWidth);
-            setMainButtonListener(container, projects, preferences);
+            setMainButtonListener(container, teams, projects, preferences);
         }
     }
 
@@ -185,7 +181,7 @@ public class ProjectActivity extends AnchorPane implements IActivity {
         backButton.setOnAction(event -> intent.accept(SharedEnums.GUI_ACTION_CONTEXT.LAUNCH));
     }
 
-    private void setMainButtonListener(Scene container, List<Project> projects, List<Preference> preferences) {
+    private void setMainButtonListener(Scene container, List<Team> teams, List<Project> projects, List<Preference> preferences) {
         Button assignButton = (Button) this.lookup("#main-button");
 
         assignButton.setOnAction(event -> {
@@ -195,7 +191,7 @@ public class ProjectActivity extends AnchorPane implements IActivity {
 
             if (teamService.updateTeam(selectedTeam.get())) {
                 selectedTeam.set(null);
-                drawProjectSettingTaskContents(container, "The new Project has set to the Team successfully.");
+                drawProjectSettingTaskContents(container, teams, projects, preferences, "The new Project has set to the Team successfully.");
             }
             else drawActivityFailMessage(container, "An error occurred while updating data to files.\nPlease try again.");
         });
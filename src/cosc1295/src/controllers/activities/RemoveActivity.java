@@ -1,12 +1,12 @@
 package cosc1295.src.controllers.activities;
 
 import com.sun.istack.internal.Nullable;
-import cosc1295.providers.services.StudentService;
 import cosc1295.providers.services.TeamService;
+import cosc1295.src.models.DomainSnapshot;
 import cosc1295.src.models.Student;
 import cosc1295.src.models.Team;
+import cosc1295.src.models.TeamFitness;
 import helpers.commons.SharedEnums;
-import helpers.utilities.LogicalAssistant;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
@@ -23,6 +23,7 @@ import java.util.function.Consumer;
  * This Activity allows user to remove a member from a Team.
  * When removing a member, if Team has a Fitness Metrics, delete it; if Team has no member left, delete team.
  * Observable Design Pattern is used to control the flow of this Activity.
+ * After a removal, only the Team's item in the Team dropdown is updated, while data are written in background.
  */
 public class RemoveActivity extends AnchorPane implements IActivity {
 
@@ -30,28 +31,29 @@ public class RemoveActivity extends AnchorPane implements IActivity {
 
     //Dependency injections to access data processing services
     private final TeamService teamService;
-    private final StudentService studentService;
 
     //The observable objects to keep track of the changes made to data
     private final SimpleObjectProperty<Team> selectedTeam;
     private final SimpleObjectProperty<Student> selectedStudent;
 
+    //The Teams and their dropdown currently drawn, kept to update only the changed Team after a removal
+    private List<Team> teams;
+    private ComboBox<String> teamsDropdown;
+
     public RemoveActivity() {
-        studentService = new StudentService();
         teamService = new TeamService();
 
         selectedTeam = new SimpleObjectProperty<>(null);
         selectedStudent = new SimpleObjectProperty<>(null);
     }
 
-    public void drawRemovalTaskContents(Scene container, @Nullable String postMessage) {
+    public void drawRemovalTaskContents(Scene container, DomainSnapshot snapshot, @Nullable String postMessage) {
         this.setId(this.getClass().getSimpleName());
         IActivity.drawActivityTitle(container, this, "Remove Students From Teams");
 
-        List<Team> teams = teamService.readAllTeamsFromFile();
-        List<Student> students = studentService.readAllStudentsFromFile();
+        teams = snapshot.getTeams();
 
-        boolean error = teams == null || students == null;
+        boolean error = teams == null || snapshot.getStudents() == null;
         if (error) drawActivityFailMessage(container, "An error occurred while retrieving data from files.\nPlease try again.");
 
         error = !error && teams.size() == 0;
@@ -64,7 +66,6 @@ public class RemoveActivity extends AnchorPane implements IActivity {
             attachListenersToObservables(tablePrefWidth);
 
             drawButtonBasedOnContext(container, false);
-            LogicalAssistant.setStudentDataInTeams(teams, students);
             drawWidgetsForRemovingStudentsTask(teams, tablePrefWidth);
         }
     }
@@ -93,7 +94,7 @@ public class RemoveActivity extends AnchorPane implements IActivity {
         selectTeamLabel.getStyleClass().add("subtitle");
         AnchorPane.setTopAnchor(selectTeamLabel, MARGIN * 6);
 
-        ComboBox<String> teamsDropdown = new ComboBox<>();
+        teamsDropdown = new ComboBox<>();
         teamsDropdown.getStyleClass().add("dropdown-select");
         List<String> dropdownItems = new ArrayList<String>() {{ add("Select team"); }};
         teams.forEach(team -> dropdownItems.add(team.compact()));
@@ -167,28 +168,52 @@ public class RemoveActivity extends AnchorPane implements IActivity {
         backButton.setOnAction(event -> intent.accept(SharedEnums.GUI_ACTION_CONTEXT.LAUNCH));
 
         removeButton.setOnAction(event -> {
-            selectedTeam.get().getMembers().remove(selectedStudent.get());
-            boolean result;
-            if (selectedTeam.get().getFitnessMetrics() != null) {
-                result = teamService.removeTeamFitness(selectedTeam.get().getFitnessMetrics().getId());
-                selectedTeam.get().setFitnessMetrics(null);
+            Team team = selectedTeam.get();
+            team.getMembers().remove(selectedStudent.get());
+            removeButton.setDisable(true);
+
+            TeamFitness fitnessMetrics = team.getFitnessMetrics();
+            team.setFitnessMetrics(null);
+
+            StorageWriter.write(() -> {
+                boolean result = fitnessMetrics == null || teamService.removeTeamFitness(fitnessMetrics.getId());
 
-                if (!result) {
+                //The Team is written even if its Fitness Metrics failed to be removed
+                if (team.getMembers().size() == 0) return teamService.deleteTeam(team) && result;
+                return teamService.updateTeam(team) && result;
+            }, result -> {
+                if (result == null || !result) {
                     removeButton.setVisible(false);
                     drawActivityFailMessage(container, "An error occurred while updating data. Please retry.");
                 }
-            }
+                else updateRemovedTeam(container, team);
+            });
+        });
+    }
 
-            if (selectedTeam.get().getMembers().size() == 0) result = teamService.deleteTeam(selectedTeam.get());
-            else result = teamService.updateTeam(selectedTeam.get());
+    /**
+     * Updates the dropdown item of the Team a Student has been removed from, or removes the item if the Team is deleted.
+     * Then resets the selections, so user can proceed with another removal.
+     * @param container Scene
+     * @param team Team
+     */
+    private void updateRemovedTeam(Scene container, Team team) {
+        teamsDropdown.getSelectionModel().select(0);
+
+        int index = teams.indexOf(team);
+        if (team.getMembers().size() == 0) {
+            teams.remove(index);
+            teamsDropdown.getItems().remove(index + 1);
+        }
+        else teamsDropdown.getItems().set(index + 1, team.compact());
 
-            if (!result) drawActivityFailMessage(container, "An error occurred while updating data. Please retry.");
-            else {
-                selectedTeam.set(null);
-                eraseStudentSelectionFragment();
-                drawRemovalTaskContents(container, "The Student has been removed from Team successfully.");
-            }
-        });
+        //No Team is left to remove from, inform user as drawing the Activity again would
+        if (teams.size() == 0) {
+            this.getChildren().clear();
+            IActivity.drawActivityTitle(container, this, "Remove Students From Teams");
+            drawActivityFailMessage(container, "You have no Team to remove.\nPlease select another task.");
+        }
+        else IActivity.drawSuccessMessage("The Student has been removed from Team successfully.", this);
     }
 
     @Override
@@ -1,64 +1,89 @@
 package cosc1295.src.controllers.activities;
 
-import cosc1295.providers.services.ProjectService;
-import cosc1295.providers.services.StudentService;
-import cosc1295.providers.services.TeamService;
-import cosc1295.src.controllers.ControllerBase;
-import cosc1295.src.models.Preference;
-import cosc1295.src.models.Project;
-import cosc1295.src.models.Student;
-import cosc1295.src.models.Team;
+import cosc1295.src.models.TeamStatistics;
+import cosc1295.src.services.DomainSnapshotService;
+import cosc1295.src.services.StatisticsService;
 import helpers.commons.SharedConstants;
 import helpers.commons.SharedEnums;
-import helpers.utilities.LogicalAssistant;
+import javafx.concurrent.Task;
 import javafx.geometry.Side;
 import javafx.scene.Scene;
 import javafx.scene.chart.*;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
+import javafx.util.Pair;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 
+/**
+ * This Activity charts the Fitness Metrics of all Teams, and shows the Standard Deviation of each metric.
+ * The statistics are produced in background by StatisticsService, while a placeholder is showing.
+ * Up to STATISTICS_PAGE_SIZE Teams are charted one bar each. More Teams are charted by a histogram of the Teams
+ * in ranges of values, and user can drill down page by page to the bars of the Teams.
+ */
 @SuppressWarnings("unchecked")
 public class StatisticsActivity extends AnchorPane implements IActivity {
 
-
     private static final String COMPETENCY = "Skill Competency";
     private static final String PREFERENCE = "Project Preference";
     private static final String SHORTFALL = "Skill Shortfall";
 
-    private Consumer<SharedEnums.GUI_ACTION_CONTEXT> intent;
+    //Daemon thread, so a calculation left running never keeps the application from exiting
+    private static final ExecutorService calculator = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, StatisticsActivity.class.getSimpleName());
+        thread.setDaemon(true);
+        return thread;
+    });
 
-    private final TeamService teamService;
-    private final ControllerBase controllerBase;
+    private Consumer<SharedEnums.GUI_ACTION_CONTEXT> intent;
 
     private List<Double> standardDeviations;
 
-    public StatisticsActivity() {
-        teamService = new TeamService();
-        controllerBase = new ControllerBase();
-    }
-
     public void drawStatisticsContents(Scene container) {
         this.setId(this.getClass().getSimpleName());
         IActivity.drawActivityTitle(container, this, "View Team Statistics");
+        drawBackButton();
 
-        List<Team> teams = teamService.readAllTeamsFromFile();
-        List<Student> students = (new StudentService()).readAllStudentsFromFile();
-        List<Project> projects = (new ProjectService()).readAllProjectsFromFile();
-        List<Preference> preferences = (new StudentService()).readAllStudentPreferencesFromFile();
+        Label placeholder = new Label("Calculating statistics...");
+        placeholder.setId("statistics-placeholder");
+        placeholder.setGraphic(new ProgressIndicator());
+        this.getChildren().add(placeholder);
+
+        placeholder.setPrefWidth(MARGIN * 25);
+        AnchorPane.setTopAnchor(placeholder, MARGIN * 5);
+        AnchorPane.setLeftAnchor(placeholder, (this.getPrefWidth() - placeholder.getPrefWidth()) / 2);
+
+        Task<TeamStatistics> calculation = new Task<TeamStatistics>() {
+            @Override
+            protected TeamStatistics call() {
+                return StatisticsService.getInstance().getStatistics(DomainSnapshotService.getInstance().getSnapshot());
+            }
+        };
+
+        calculation.setOnSucceeded(event -> drawStatistics(container, calculation.getValue(), placeholder));
+        calculation.setOnFailed(event -> drawStatistics(container, null, placeholder));
+        calculator.execute(calculation);
+    }
 
-        if (teams == null || projects == null || preferences == null) drawActivityFailMessage(container);
+    private void drawStatistics(Scene container, TeamStatistics statistics, Label placeholder) {
+        //User has navigated away and back while calculating, the newer calculation draws instead
+        if (!this.getChildren().contains(placeholder)) return;
+        this.getChildren().remove(placeholder);
 
-        LogicalAssistant.setStudentDataInTeams(teams, students);
-        standardDeviations = controllerBase.calculateStandardDeviationsForFitnessMetrics(teams, projects, preferences);
-        drawTabPaneForDisplayingCharts(container, teams);
-        drawBackButton();
+        if (statistics == null) {
+            drawActivityFailMessage(container);
+            return;
+        }
+
+        standardDeviations = statistics.getStandardDeviations();
+        drawTabPaneForDisplayingCharts(container, statistics);
     }
 
-    private void drawTabPaneForDisplayingCharts(Scene container, List<Team> teams) {
+    private void drawTabPaneForDisplayingCharts(Scene container, TeamStatistics statistics) {
         double initialWidth = container.getWidth() - MARGIN * 2;
 
         TabPane triplePane = new TabPane();
@@ -66,9 +91,9 @@ public class StatisticsActivity extends AnchorPane implements IActivity {
         triplePane.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
         this.getChildren().add(triplePane);
 
-        Tab competencyTab = new Tab(COMPETENCY, drawPaneBodyWithStatisticsChartFor(COMPETENCY, teams, initialWidth));
-        Tab preferenceTab = new Tab(PREFERENCE, drawPaneBodyWithStatisticsChartFor(PREFERENCE, teams, initialWidth));
-        Tab shortfallTab = new Tab(SHORTFALL, drawPaneBodyWithStatisticsChartFor(SHORTFALL, teams, initialWidth));
+        Tab competencyTab = new Tab(COMPETENCY, drawPaneBodyWithStatisticsChartFor(COMPETENCY, statistics, initialWidth));
+        Tab preferenceTab = new Tab(PREFERENCE, drawPaneBodyWithStatisticsChartFor(PREFERENCE, statistics, initialWidth));
+        Tab shortfallTab = new Tab(SHORTFALL, drawPaneBodyWithStatisticsChartFor(SHORTFALL, statistics, initialWidth));
 
         triplePane.getTabs().add(competencyTab);
         triplePane.getTabs().add(preferenceTab);
@@ -81,7 +106,7 @@ public class StatisticsActivity extends AnchorPane implements IActivity {
         setTabSelectionListener(triplePane);
     }
 
-    private Pane drawPaneBodyWithStatisticsChartFor(String metrics, List<Team> teams, double initialWidth) {
+    private Pane drawPaneBodyWithStatisticsChartFor(String metrics, TeamStatistics statistics, double initialWidth) {
         Pane chartPane = new Pane();
         chartPane.getStyleClass().add("chart-pane");
 
@@ -90,91 +115,92 @@ public class StatisticsActivity extends AnchorPane implements IActivity {
 
         switch (metrics) {
             case COMPETENCY:
-                return drawSkillCompetencyChart(chartPane, teams, initialWidth);
+                return drawStatisticsChart(chartPane, statistics, TeamStatistics.COMPETENCY, COMPETENCY, "Average Skill Competency", initialWidth);
             case PREFERENCE:
-                return drawProjectPreferenceChart(chartPane, teams, initialWidth);
+                return drawStatisticsChart(chartPane, statistics, TeamStatistics.PREFERENCE, PREFERENCE, "Percentage of 1st & 2nd Preference", initialWidth);
             default: //Skill Shortfall
-                return drawSkillShortFallChart(chartPane, teams, initialWidth);
+                return drawStatisticsChart(chartPane, statistics, TeamStatistics.SHORTFALL, SHORTFALL, "Average Skill Shortfalls", initialWidth);
         }
     }
 
-    private Pane drawSkillCompetencyChart(Pane chartPane, List<Team> teams, double initialWidth) {
-        BarChart competencyChart = createEmptyBarChart("Average Skill Competency", initialWidth);
-
-        XYChart.Series<String, Double> competencyData = new XYChart.Series<>();
-        List<XYChart.Data<String, Double>> data = new ArrayList<>();
-        teams.forEach(team -> {
-            if (team.getFitnessMetrics() != null)
-                data.add(new XYChart.Data<>(
-                    "Team #" + team.getId(),
-                    (Double) team.getFitnessMetrics().getAverageTeamSkillCompetency()
-                ));
-        });
-
-        competencyData.getData().addAll(data);
-        competencyChart.getData().add(competencyData);
-        chartPane.getChildren().add(competencyChart);
+    /**
+     * Draws the chart of a metric. If there are more Teams than a page, the chart shows the histogram of the Teams,
+     * and a dropdown allows for viewing the histogram or a page of Teams instead.
+     * @param chartPane Pane
+     * @param statistics TeamStatistics
+     * @param metric int
+     * @param metrics String
+     * @param title String
+     * @param initialWidth double
+     * @return Pane
+     */
+    private Pane drawStatisticsChart(
+        Pane chartPane, TeamStatistics statistics, int metric, String metrics, String title, double initialWidth
+    ) {
+        BarChart<String, Number> chart = createEmptyBarChart(title, initialWidth);
+        chartPane.getChildren().add(chart);
+
+        int pageSize = SharedConstants.STATISTICS_PAGE_SIZE;
+        if (statistics.getTeamCount() <= pageSize) chartTeams(chart, statistics.getPage(metric, 0, pageSize));
+        else {
+            chartHistogram(chart, statistics.getHistogram(metric, SharedConstants.STATISTICS_HISTOGRAM_BINS));
+
+            ComboBox<String> viewDropdown = new ComboBox<>();
+            viewDropdown.getStyleClass().add("dropdown-select");
+            viewDropdown.getItems().add("Histogram of " + statistics.getTeamCount() + " Teams");
+            for (int page = 0; page < statistics.getPageCount(pageSize); page++)
+                viewDropdown.getItems().add(statistics.getPageLabel(page, pageSize));
+
+            viewDropdown.setValue(viewDropdown.getItems().get(0));
+            viewDropdown.setPrefWidth(MARGIN * 9);
+            viewDropdown.setLayoutX(initialWidth * 0.75 - viewDropdown.getPrefWidth());
+            chartPane.getChildren().add(viewDropdown);
+
+            //Only the selected view is charted, the chart is reused
+            viewDropdown.getSelectionModel().selectedIndexProperty().addListener((observable, oldValue, newValue) -> {
+                if (newValue.intValue() == 0)
+                    chartHistogram(chart, statistics.getHistogram(metric, SharedConstants.STATISTICS_HISTOGRAM_BINS));
+                else if (newValue.intValue() > 0)
+                    chartTeams(chart, statistics.getPage(metric, newValue.intValue() - 1, pageSize));
+            });
+        }
 
-        VBox standardDeviation = drawStandardDeviationLabelFor(COMPETENCY, standardDeviations.get(0));
+        VBox standardDeviation = drawStandardDeviationLabelFor(metrics, standardDeviations.get(metric));
         constraintSD(standardDeviation);
         this.getChildren().add(standardDeviation);
         return chartPane;
     }
 
-    private Pane drawProjectPreferenceChart(Pane chartPane, List<Team> teams, double initialWidth) {
-        BarChart preferenceChart = createEmptyBarChart("Percentage of 1st & 2nd Preference", initialWidth);
-
-        XYChart.Series<String, Double> preferenceData = new XYChart.Series<>();
-        List<XYChart.Data<String, Double>> data = new ArrayList<>();
-        teams.forEach(team -> {
-            if (team.getFitnessMetrics() != null)
-                data.add(new XYChart.Data<>(
-                    "Team #" + team.getId(),
-                    (Double) team.getFitnessMetrics().getPreferenceSatisfaction().getKey()
-                ));
-        });
-
-        preferenceData.getData().addAll(data);
-        preferenceChart.getData().add(preferenceData);
-        chartPane.getChildren().add(preferenceChart);
+    private void chartTeams(BarChart<String, Number> chart, List<Pair<String, Double>> teamValues) {
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        List<XYChart.Data<String, Number>> data = new ArrayList<>();
+        teamValues.forEach(teamValue -> data.add(new XYChart.Data<>(teamValue.getKey(), teamValue.getValue())));
 
-        VBox standardDeviation = drawStandardDeviationLabelFor(PREFERENCE, standardDeviations.get(1));
-        constraintSD(standardDeviation);
-        this.getChildren().add(standardDeviation);
-        return chartPane;
+        series.getData().addAll(data);
+        chart.getXAxis().setLabel(null);
+        chart.getData().setAll(series);
     }
 
-    private Pane drawSkillShortFallChart(Pane chartPane, List<Team> teams, double initialWidth) {
-        BarChart shortfallChart = createEmptyBarChart("Average Skill Shortfalls", initialWidth);
-
-        XYChart.Series<String, Double> shortfallData = new XYChart.Series<>();
-        List<XYChart.Data<String, Double>> data = new ArrayList<>();
-        teams.forEach(team -> {
-            if (team.getFitnessMetrics() != null)
-                data.add(new XYChart.Data<>(
-                        "Team #" + team.getId(),
-                        (Double) team.getFitnessMetrics().getAverageSkillShortfall()
-                ));
-        });
-
-        shortfallData.getData().addAll(data);
-        shortfallChart.getData().add(shortfallData);
-        chartPane.getChildren().add(shortfallChart);
+    private void chartHistogram(BarChart<String, Number> chart, List<Pair<String, Integer>> histogram) {
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        List<XYChart.Data<String, Number>> data = new ArrayList<>();
+        histogram.forEach(range -> data.add(new XYChart.Data<>(range.getKey(), range.getValue())));
 
-        VBox standardDeviation = drawStandardDeviationLabelFor(SHORTFALL, standardDeviations.get(2));
-        constraintSD(standardDeviation);
-        this.getChildren().add(standardDeviation);
-        return chartPane;
+        series.getData().addAll(data);
+        chart.getXAxis().setLabel("Number of Teams by range of values");
+        chart.getData().setAll(series);
     }
 
-    private BarChart createEmptyBarChart(String title, double initialWidth) {
+    private BarChart<String, Number> createEmptyBarChart(String title, double initialWidth) {
         CategoryAxis hAxis = new CategoryAxis();
         NumberAxis vAxis = new NumberAxis();
 
-        BarChart barChart = new BarChart(hAxis, vAxis);
+        BarChart<String, Number> barChart = new BarChart<>(hAxis, vAxis);
         barChart.setPrefSize(initialWidth * 0.75, MARGIN * 19 * 0.9);
         constraintElements(barChart);
 
+        //Categories change when another view is selected, animating them misplaces the bars
+        barChart.setAnimated(false);
         barChart.setLegendVisible(false);
         barChart.setBarGap(MARGIN * 1.5);
         barChart.setTitle(title);
@@ -221,7 +247,6 @@ public class StatisticsActivity extends AnchorPane implements IActivity {
 
     private void drawActivityFailMessage(Scene container) {
         IActivity.drawActivityMessageOnException(container, this, "An error occurred while retrieving data from files.\nPlease try again.");
-        drawBackButton();
     }
 
     private void constraintElements(Region... elements) {
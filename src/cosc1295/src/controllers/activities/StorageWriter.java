@@ -0,0 +1,44 @@
+package cosc1295.src.controllers.activities;
+
+import javafx.concurrent.Task;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Writes data into storage in background, so the Activities stay responsive while data are being saved.
+ * Writes are run one after another in the order they are requested, by a single thread that ends when idle,
+ * so pending writes are finished before the application exits.
+ */
+final class StorageWriter {
+
+    private static final ExecutorService writer = new ThreadPoolExecutor(
+        0, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>()
+    );
+
+    private StorageWriter() { }
+
+    /**
+     * Runs a write in background, then passes its result to `onWritten` on the JavaFX Application Thread.
+     * If the write throws, null is passed as the result.
+     * @param write Callable<T>
+     * @param onWritten Consumer<T>
+     * @param <T> Type
+     */
+    static <T> void write(Callable<T> write, Consumer<T> onWritten) {
+        Task<T> task = new Task<T>() {
+            @Override
+            protected T call() throws Exception {
+                return write.call();
+            }
+        };
+
+        task.setOnSucceeded(event -> onWritten.accept(task.getValue()));
+        task.setOnFailed(event -> onWritten.accept(null));
+        writer.execute(task);
+    }
+}
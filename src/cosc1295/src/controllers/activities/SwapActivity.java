@@ -1,8 +1,8 @@
 package cosc1295.src.controllers.activities;
 
 import com.sun.istack.internal.Nullable;
-import cosc1295.providers.services.ProjectService;
 import cosc1295.src.controllers.ControllerBase;
+import cosc1295.src.models.DomainSnapshot;
 import cosc1295.src.models.Preference;
 import cosc1295.src.models.Project;
 import cosc1295.src.services.SuggestionService;
@@ -10,7 +10,6 @@ import cosc1295.src.services.analyzers.SecondTeamAnalyzer;
 import cosc1295.src.services.analyzers.SwapStudentAnalyzer;
 import cosc1295.src.services.analyzers.TeamsSwapAnalyzer;
 import helpers.commons.SharedEnums.PERSONALITIES;
-import cosc1295.providers.services.StudentService;
 import cosc1295.providers.services.TeamService;
 import cosc1295.src.models.Student;
 import cosc1295.src.models.Team;
@@ -20,6 +19,7 @@ import helpers.utilities.Helpers;
 import helpers.utilities.LogicalAssistant;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.concurrent.Task;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
@@ -28,6 +28,7 @@ import javafx.scene.layout.AnchorPane;
 import javafx.util.Pair;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
@@ -39,6 +40,7 @@ import java.util.function.Consumer;
  * and displayed to inform if the Students are good to swap, or any requirements that are
  * not satisfied, so user is informed and can adjust their selection.
  * After swapping, if a team has 4 members, recalculate its Fitness Metrics.
+ * The swapped Teams are written in background, then the Team dropdowns are redrawn without reading data again.
  */
 public class SwapActivity extends AnchorPane implements IActivity {
 
@@ -47,7 +49,6 @@ public class SwapActivity extends AnchorPane implements IActivity {
     private static final String SECOND_TEAM = "SECOND_TEAM";
 
     //Dependency injections to access data processing services
-    private final StudentService studentService;
     private final TeamService teamService;
     private final ControllerBase controllerBase;
 
@@ -58,8 +59,13 @@ public class SwapActivity extends AnchorPane implements IActivity {
     private final SimpleObjectProperty<Team> secondTeamInSwap;
     private final SimpleObjectProperty<Student> secondTeamMember;
 
+    private Task<?> suggestionTask; //The suggestion being computed in background, cancelled when it goes stale
+
+    //The data to recalculate Fitness Metrics on swapping, read once when the Activity is drawn
+    private List<Project> projects;
+    private List<Preference> preferences;
+
     public SwapActivity() {
-        studentService = new StudentService();
         teamService = new TeamService();
         controllerBase = new ControllerBase();
 
@@ -73,17 +79,20 @@ public class SwapActivity extends AnchorPane implements IActivity {
     /**
      * This method is invoked by ContentInflator when SwapActivity is inflated into Scene.
      * This method prepares necessary data and presets that are triggered on user interactions.
+     * The data are drawn from the snapshot handed over by ContentInflator, so storage is never read on the FX thread.
      * @param container Scene
+     * @param snapshot DomainSnapshot
      * @param postMessage String
      */
-    public void drawSwappingTaskContents(Scene container, @Nullable String postMessage) {
+    public void drawSwappingTaskContents(Scene container, DomainSnapshot snapshot, @Nullable String postMessage) {
         this.setId(this.getClass().getSimpleName());
         IActivity.drawActivityTitle(container, this, "Swap Students Between Teams");
 
-        List<Team> teams = teamService.readAllTeamsFromFile();
-        List<Student> students = studentService.readAllStudentsFromFile();
+        List<Team> teams = snapshot.getTeams();
+        projects = snapshot.getProjects();
+        preferences = snapshot.getPreferences();
 
-        boolean error = teams == null || students == null;
+        boolean error = teams == null || snapshot.getStudents() == null;
         if (error) drawActivityFailMessage(container, "An error occurred while retrieving data from files.\nPlease try again.");
 
         error = !error && teams.size() < 2;
@@ -92,11 +101,10 @@ public class SwapActivity extends AnchorPane implements IActivity {
         if (!error) {
             if (postMessage != null) IActivity.drawSuccessMessage(postMessage, this);
 
-            double tablePrefWidth = (container.getWidth() - MARGIN * 3) / 2;
+            double tablePrefWidth = tablePrefWidthOf(container);
             attachListenersToObservables(tablePrefWidth);
 
             drawButtonBasedOnContext(container, false);
-            LogicalAssistant.setStudentDataInTeams(teams, students);
 
             observableTeams.set((ArrayList<Team>) teams);
             drawWidgetsForSwappingStudentsTask(tablePrefWidth);
@@ -156,25 +164,31 @@ public class SwapActivity extends AnchorPane implements IActivity {
     }
 
     private void displaySuggestion() {
+        if (suggestionTask != null) suggestionTask.cancel();
+
         SuggestionService suggestionService = new SuggestionService();
         Team firstClone = firstTeamInSwap.get() == null ? null : firstTeamInSwap.get().clone();
         Team secondClone = secondTeamInSwap.get() == null ? null : secondTeamInSwap.get().clone();
 
         if (firstClone != null && secondClone != null) {
-            Pair<Student, Student> suggestion = suggestionService.runForResult(new SwapStudentAnalyzer<>(firstClone, secondClone));
-            IActivity.drawStudentSwapOrAssignSuggestion(this, suggestion);
+            Task<Pair<Student, Student>> task = suggestionService.runInBackground(() -> new SwapStudentAnalyzer<>(firstClone, secondClone));
+            IActivity.drawSuggestionWhenReady(this, task, suggestion -> IActivity.drawStudentSwapOrAssignSuggestion(this, suggestion));
+            suggestionTask = task;
         }
         else if (firstClone == null && secondClone == null) {
-            Pair<Pair<Team, Team>, Pair<Student, Student>> suggestion = suggestionService.runForResult(new TeamsSwapAnalyzer<>());
-            drawTeamSwapSuggestion(suggestion);
+            Task<Pair<Pair<Team, Team>, Pair<Student, Student>>> task = suggestionService.runInBackground(TeamsSwapAnalyzer::new);
+            IActivity.drawSuggestionWhenReady(this, task, this::drawTeamSwapSuggestion);
+            suggestionTask = task;
         }
         else {
-            Pair<Team, Pair<Student, Student>> suggestion = suggestionService.runForResult(new SecondTeamAnalyzer<>(
+            Task<Pair<Team, Pair<Student, Student>>> task = suggestionService.runInBackground(() -> new SecondTeamAnalyzer<>(
                 firstClone == null ? secondClone : firstClone
             ));
-            drawSecondTeamSuggestion(suggestion);
+            IActivity.drawSuggestionWhenReady(this, task, this::drawSecondTeamSuggestion);
+            suggestionTask = task;
         }
 
+        //The running analysis is left to finish, no more is accepted
         suggestionService.die();
     }
 
@@ -247,7 +261,9 @@ public class SwapActivity extends AnchorPane implements IActivity {
         String order = teamOrder.equals(FIRST_TEAM) ? "first" : "second";
         double leftAnchor = teamOrder.equals(FIRST_TEAM) ? MARGIN : initialWidth + MARGIN * 2;
 
+        IActivity.removeElementIfExists("team-select-label-" + teamOrder, this);
         Label selectTeamLabel = new Label("Select the " + order + " Team in Swap");
+        selectTeamLabel.setId("team-select-label-" + teamOrder);
         this.getChildren().add(selectTeamLabel);
 
         selectTeamLabel.getStyleClass().add("subtitle");
@@ -430,9 +446,6 @@ public class SwapActivity extends AnchorPane implements IActivity {
 
     private void setActionListenerFor(Scene container, Button swapButton) {
         swapButton.setOnAction(event -> {
-            List<Project> projects = (new ProjectService()).readAllProjectsFromFile();
-            List<Preference> preferences = studentService.readAllStudentPreferencesFromFile();
-
             if (projects == null || preferences == null)
                 drawActivityFailMessage(container, "\"An error occurred while retrieving data from files.\nPlease try again.\"");
             else {
@@ -442,21 +455,41 @@ public class SwapActivity extends AnchorPane implements IActivity {
                     projects, preferences
                 );
 
-                boolean result = swapResults != null && teamService.updateTeam(swapResults.getKey());
-                if (result && teamService.updateTeam(swapResults.getValue())) {
-                    observableTeams.set(null);
-                    firstTeamInSwap.set(null);
-                    secondTeamInSwap.set(null);
-
-                    IActivity.removeElementIfExists("suggestion", this);
-                    drawSwappingTaskContents(container, "The Students have been swapped between 2 Teams successfully.");
-                }
-                else
+                if (swapResults == null) {
                     drawActivityFailMessage(container, "An error occurred while updating/saving data into files.\nPlease retry your task.");
+                    return;
+                }
+
+                swapButton.setDisable(true);
+                StorageWriter.write(
+                    () -> teamService.updateTeams(Arrays.asList(swapResults.getKey(), swapResults.getValue())),
+                    result -> {
+                        if (result == null || !result)
+                            drawActivityFailMessage(container, "An error occurred while updating/saving data into files.\nPlease retry your task.");
+                        else redrawTeamSelections(tablePrefWidthOf(container));
+                    }
+                );
             }
         });
     }
 
+    /**
+     * Resets the selections after a swap, and redraws the Team dropdowns with the swapped Teams updated.
+     * The Teams are kept, as they have been swapped in place.
+     * @param initialWidth double
+     */
+    private void redrawTeamSelections(double initialWidth) {
+        firstTeamInSwap.set(null);
+        secondTeamInSwap.set(null);
+
+        drawWidgetsForSwappingStudentsTask(initialWidth);
+        IActivity.drawSuccessMessage("The Students have been swapped between 2 Teams successfully.", this);
+    }
+
+    private double tablePrefWidthOf(Scene container) {
+        return (container.getWidth() - MARGIN * 3) / 2;
+    }
+
     private void drawSecondTeamSuggestion(Pair<Team, Pair<Student, Student>> suggestion) {
         IActivity.removeElementIfExists("suggestion", this);
 
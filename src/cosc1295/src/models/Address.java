@@ -4,8 +4,6 @@ import helpers.commons.SharedConstants;
 import helpers.utilities.Helpers;
 
 import java.io.Serializable;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -159,26 +157,6 @@ public class Address implements Serializable {
                state.concat(" ") + postCode.concat(", ") + country;
     }
 
-    /**
-     * Creates delimeterized string from data retrieved from database as data saved in text file.
-     * @param rs ResultSet
-     * @return String
-     * @throws SQLException
-     */
-    public String composeRaw(ResultSet rs) throws SQLException {
-        return rs.getInt("id") + SharedConstants.TEXT_DELIMITER +
-                (
-                    Helpers.isNullOrBlankOrEmpty(rs.getString("building")) ?
-                        SharedConstants.NA :
-                        rs.getString("building")
-                ) + SharedConstants.TEXT_DELIMITER +
-                rs.getString("street") + SharedConstants.TEXT_DELIMITER +
-                rs.getString("suburb") + SharedConstants.TEXT_DELIMITER +
-                rs.getString("state") + SharedConstants.TEXT_DELIMITER +
-                rs.getString("post_code") + SharedConstants.TEXT_DELIMITER +
-                rs.getString("country");
-    }
-
     @SuppressWarnings("MethodDoesntCallSuperMethod")
     public Address clone() {
         Address clone = new Address();
@@ -0,0 +1,220 @@
+package cosc1295.src.models;
+
+import helpers.commons.SharedConstants;
+import helpers.commons.SharedEnums.SKILLS;
+import helpers.utilities.Helpers;
+
+import javafx.util.Pair;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Primitive, array-backed form of TeamFitness used while scoring candidates.
+ * All metrics are kept as integers in hundredths (SharedConstants.METRIC_SCALE), so scoring and comparing candidates
+ * is exact, and decimals are only produced when converting to TeamFitness for storage and display.
+ * Competencies are indexed by SKILLS ordinal, shortfalls by the dense index of a ProjectIndex.
+ * A missing competency or shortfall is kept as MISSING, a missing Preference Satisfaction as hasPreferenceSatisfaction == false,
+ * so the conversion to and from TeamFitness is lossless. A new object has no metrics yet, like empty maps in TeamFitness.
+ */
+public class CompactTeamFitness {
+
+    public static final int MISSING = Integer.MIN_VALUE;
+
+    private static final SKILLS[] SKILL_VALUES = SKILLS.values();
+
+    private final ProjectIndex projectIndex;
+
+    private int id; //the id of the Team's Fitness Metrics
+    private int averageTeamSkillCompetency;
+    private final int[] competencies = new int[SKILL_VALUES.length];
+    private boolean hasCompetencies = true;
+    private boolean hasPreferenceSatisfaction;
+    private int overallSatisfaction;
+    private int firstPreferenceSatisfaction;
+    private int secondPreferenceSatisfaction;
+    private int averageSkillShortfall;
+    private final int[] shortfalls;
+    private boolean hasShortfalls = true;
+
+    public CompactTeamFitness(ProjectIndex projectIndex) {
+        this.projectIndex = projectIndex;
+        shortfalls = new int[projectIndex.size()];
+
+        Arrays.fill(competencies, MISSING);
+        Arrays.fill(shortfalls, MISSING);
+    }
+
+    /**
+     * Gets the percentage of Team members that a count of members represents, in hundredths.
+     * @param count int
+     * @return int
+     */
+    public static int percentageOf(int count) {
+        return (int) Helpers.divideHalfEven((long) count * 100 * SharedConstants.METRIC_SCALE, SharedConstants.GROUP_LIMIT);
+    }
+
+    public ProjectIndex getProjectIndex() {
+        return projectIndex;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setAverageTeamSkillCompetency(int averageTeamSkillCompetency) {
+        this.averageTeamSkillCompetency = averageTeamSkillCompetency;
+    }
+
+    public int getAverageTeamSkillCompetency() {
+        return averageTeamSkillCompetency;
+    }
+
+    /**
+     * @param skill int - SKILLS ordinal
+     * @param competency int - MISSING if the Team has no competency for the skill
+     */
+    public void setCompetency(int skill, int competency) {
+        competencies[skill] = competency;
+    }
+
+    public int getCompetency(int skill) {
+        return competencies[skill];
+    }
+
+    public void setPreferenceSatisfaction(int overall, int first, int second) {
+        hasPreferenceSatisfaction = true;
+        overallSatisfaction = overall;
+        firstPreferenceSatisfaction = first;
+        secondPreferenceSatisfaction = second;
+    }
+
+    public void clearPreferenceSatisfaction() {
+        hasPreferenceSatisfaction = false;
+        overallSatisfaction = 0;
+        firstPreferenceSatisfaction = 0;
+        secondPreferenceSatisfaction = 0;
+    }
+
+    public boolean hasPreferenceSatisfaction() {
+        return hasPreferenceSatisfaction;
+    }
+
+    public int getOverallSatisfaction() {
+        return overallSatisfaction;
+    }
+
+    public int getFirstPreferenceSatisfaction() {
+        return firstPreferenceSatisfaction;
+    }
+
+    public int getSecondPreferenceSatisfaction() {
+        return secondPreferenceSatisfaction;
+    }
+
+    public void setAverageSkillShortfall(int averageSkillShortfall) {
+        this.averageSkillShortfall = averageSkillShortfall;
+    }
+
+    public int getAverageSkillShortfall() {
+        return averageSkillShortfall;
+    }
+
+    /**
+     * @param project int - index in the ProjectIndex
+     * @param shortfall int - MISSING if the Team has no shortfall for the Project
+     */
+    public void setShortfall(int project, int shortfall) {
+        shortfalls[project] = shortfall;
+    }
+
+    public int getShortfall(int project) {
+        return shortfalls[project];
+    }
+
+    /**
+     * Writes the values of this object into an existing TeamFitness, replacing all its metrics.
+     * @param teamFitness TeamFitness
+     * @return TeamFitness
+     */
+    public TeamFitness writeTo(TeamFitness teamFitness) {
+        teamFitness.setId(id);
+        teamFitness.setAverageTeamSkillCompetency(Helpers.fromScaled(averageTeamSkillCompetency));
+
+        HashMap<SKILLS, Double> teamCompetency = null;
+        if (hasCompetencies) {
+            teamCompetency = new HashMap<>();
+            for (int skill = 0; skill < SKILL_VALUES.length; skill++)
+                if (competencies[skill] != MISSING) teamCompetency.put(SKILL_VALUES[skill], Helpers.fromScaled(competencies[skill]));
+        }
+        teamFitness.setTeamCompetency(teamCompetency);
+
+        teamFitness.setPreferenceSatisfaction(
+            !hasPreferenceSatisfaction ? null :
+            new Pair<>(
+                Helpers.fromScaled(overallSatisfaction),
+                new Pair<>(Helpers.fromScaled(firstPreferenceSatisfaction), Helpers.fromScaled(secondPreferenceSatisfaction))
+            )
+        );
+
+        teamFitness.setAverageSkillShortfall(Helpers.fromScaled(averageSkillShortfall));
+
+        HashMap<String, Double> skillShortfall = null;
+        if (hasShortfalls) {
+            skillShortfall = new HashMap<>();
+            for (int project = 0; project < shortfalls.length; project++)
+                if (shortfalls[project] != MISSING)
+                    skillShortfall.put(projectIndex.getUniqueId(project), Helpers.fromScaled(shortfalls[project]));
+        }
+        teamFitness.setSkillShortFall(skillShortfall);
+
+        return teamFitness;
+    }
+
+    public TeamFitness toTeamFitness() {
+        return writeTo(new TeamFitness());
+    }
+
+    /**
+     * Creates the compact form of a TeamFitness.
+     * Returns null if the TeamFitness has shortfalls for Projects that are not in the ProjectIndex.
+     * @param teamFitness TeamFitness
+     * @param projectIndex ProjectIndex
+     * @return CompactTeamFitness
+     */
+    public static CompactTeamFitness fromTeamFitness(TeamFitness teamFitness, ProjectIndex projectIndex) {
+        CompactTeamFitness compact = new CompactTeamFitness(projectIndex);
+        compact.setId(teamFitness.getId());
+        compact.setAverageTeamSkillCompetency(Helpers.toScaled(teamFitness.getAverageTeamSkillCompetency()));
+
+        compact.hasCompetencies = teamFitness.getTeamCompetency() != null;
+        if (compact.hasCompetencies)
+            for (Map.Entry<SKILLS, Double> entry : teamFitness.getTeamCompetency().entrySet())
+                compact.setCompetency(entry.getKey().ordinal(), Helpers.toScaled(entry.getValue()));
+
+        Pair<Double, Pair<Double, Double>> satisfaction = teamFitness.getPreferenceSatisfaction();
+        if (satisfaction != null)
+            compact.setPreferenceSatisfaction(
+                Helpers.toScaled(satisfaction.getKey()),
+                Helpers.toScaled(satisfaction.getValue().getKey()),
+                Helpers.toScaled(satisfaction.getValue().getValue())
+            );
+
+        compact.setAverageSkillShortfall(Helpers.toScaled(teamFitness.getAverageSkillShortfall()));
+
+        compact.hasShortfalls = teamFitness.getSkillShortFall() != null;
+        if (compact.hasShortfalls)
+            for (Map.Entry<String, Double> entry : teamFitness.getSkillShortFall().entrySet()) {
+                int project = projectIndex.indexOf(entry.getKey());
+                if (project < 0) return null;
+
+                compact.setShortfall(project, Helpers.toScaled(entry.getValue()));
+            }
+
+        return compact;
+    }
+}
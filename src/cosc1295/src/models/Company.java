@@ -6,8 +6,6 @@ import helpers.utilities.Helpers;
 
 import javafx.util.Pair;
 import java.io.Serializable;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -118,21 +116,6 @@ public class Company implements IThing, Serializable {
             address.getId();
     }
 
-    /**
-     * Creates delimeterized string from data retrieved from database as data saved in text file.
-     * @param rs ResultSet
-     * @return String
-     * @throws SQLException
-     */
-    public String composeRaw(ResultSet rs) throws SQLException {
-        return rs.getInt("id") + SharedConstants.TEXT_DELIMITER +
-                rs.getString("unique_id") + SharedConstants.TEXT_DELIMITER +
-                rs.getString("company_name") + SharedConstants.TEXT_DELIMITER +
-                rs.getString("abn_number") + SharedConstants.TEXT_DELIMITER +
-                rs.getString("website_url") + SharedConstants.TEXT_DELIMITER +
-                rs.getInt("address_id");
-    }
-
     @SuppressWarnings("MethodDoesntCallSuperMethod")
     public Company clone() {
         Company clone = new Company();
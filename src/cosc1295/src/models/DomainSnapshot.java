@@ -0,0 +1,87 @@
+package cosc1295.src.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * All Students, Projects, Preferences and Teams (with members resolved to Students) read from storage at one point in time.
+ * A snapshot never changes: Teams are handed out as clones so callers may modify them freely,
+ * the other lists are handed out as copies whose elements should be treated as read-only.
+ * Any list is null if it failed to be read.
+ */
+public class DomainSnapshot {
+
+    private final long version;
+    private final String dataSource;
+    private final List<Student> students;
+    private final List<Project> projects;
+    private final List<Preference> preferences;
+    private final List<Team> teams;
+    private final ProjectIndex projectIndex;
+    private final PreferenceIndex preferenceIndex;
+
+    public DomainSnapshot(
+        long version, String dataSource,
+        List<Student> students, List<Project> projects, List<Preference> preferences, List<Team> teams
+    ) {
+        this.version = version;
+        this.dataSource = dataSource;
+        this.students = students == null ? null : Collections.unmodifiableList(new ArrayList<>(students));
+        this.projects = projects == null ? null : Collections.unmodifiableList(new ArrayList<>(projects));
+        this.preferences = preferences == null ? null : Collections.unmodifiableList(new ArrayList<>(preferences));
+        this.teams = teams == null ? null : Collections.unmodifiableList(new ArrayList<>(teams));
+
+        projectIndex = projects == null ? null : new ProjectIndex(projects);
+        preferenceIndex = preferences == null ? null : new PreferenceIndex(preferences, projectIndex);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Checks if all data have been read successfully.
+     * @return boolean
+     */
+    public boolean isComplete() {
+        return students != null && projects != null && preferences != null && teams != null;
+    }
+
+    public List<Student> getStudents() {
+        return students == null ? null : new ArrayList<>(students);
+    }
+
+    public List<Project> getProjects() {
+        return projects == null ? null : new ArrayList<>(projects);
+    }
+
+    public List<Preference> getPreferences() {
+        return preferences == null ? null : new ArrayList<>(preferences);
+    }
+
+    /**
+     * Returns clones of the Teams, sharing the Student objects of the snapshot as members.
+     * @return List<Team>
+     */
+    public List<Team> getTeams() {
+        if (teams == null) return null;
+
+        List<Team> clones = new ArrayList<>();
+        for (Team team : teams) clones.add(team.clone());
+
+        return clones;
+    }
+
+    public ProjectIndex getProjectIndex() {
+        return projectIndex;
+    }
+
+    public PreferenceIndex getPreferenceIndex() {
+        return preferenceIndex;
+    }
+}
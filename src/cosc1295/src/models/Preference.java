@@ -4,11 +4,7 @@ import helpers.commons.SharedConstants;
 
 import javafx.util.Pair;
 import java.io.Serializable;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 public class Preference implements Serializable {
@@ -58,36 +54,6 @@ public class Preference implements Serializable {
         return stringPref.toString();
     }
 
-    /**
-     * Creates delimeterized string from data retrieved from database as data saved in text file.
-     * @param rs ResultSet
-     * @return String
-     * @throws SQLException
-     */
-    public List<String> composeRaw(ResultSet rs) throws SQLException {
-        List<String> data = new ArrayList<>();
-
-        String studentIdTracker = SharedConstants.EMPTY_STRING;
-        StringBuilder rawData = new StringBuilder(SharedConstants.EMPTY_STRING);
-        while (rs.next()) {
-            if (!studentIdTracker.equals(rs.getString("student_id"))) {
-                if (rawData.length() != 0) data.add(rawData.toString());
-
-                rawData = new StringBuilder(rs.getString("student_id") + SharedConstants.TEXT_DELIMITER);
-                studentIdTracker = rs.getString("student_id");
-            }
-
-            rawData.append(rs.getString("project_id"))
-                    .append(SharedConstants.TEXT_DELIMITER)
-                    .append(rs.getString("rating"))
-                    .append(SharedConstants.TEXT_DELIMITER);
-
-            if (rs.isLast()) data.add(rawData.toString());
-        }
-
-        return data;
-    }
-
     @SuppressWarnings("MethodDoesntCallSuperMethod")
     public Preference clone() {
         Preference clone = new Preference();
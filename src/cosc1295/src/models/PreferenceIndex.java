@@ -0,0 +1,104 @@
+package cosc1295.src.models;
+
+import com.sun.istack.internal.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexes Preferences by Student unique ID so that a lookup does not scan all Preferences.
+ * A Student may have several Preferences captured: Fitness Metrics use the first one captured (matched case-insensitively),
+ * while StudentService retrieves the last one captured (matched case-sensitively). The index keeps both.
+ * Project ratings of the Preferences used by Fitness Metrics are also kept in int arrays indexed by a ProjectIndex.
+ */
+public class PreferenceIndex {
+
+    private final ProjectIndex projectIndex;
+    private final HashMap<String, Preference> firstCaptured = new HashMap<>();
+    private final HashMap<String, int[]> ratings = new HashMap<>();
+    private final HashMap<String, Preference> lastCaptured = new HashMap<>();
+
+    public PreferenceIndex(List<Preference> preferences) {
+        this(preferences, null);
+    }
+
+    /**
+     * @param preferences List<Preference>
+     * @param projectIndex ProjectIndex - the Projects whose ratings are kept in primitive form, nullable
+     */
+    public PreferenceIndex(List<Preference> preferences, @Nullable ProjectIndex projectIndex) {
+        this.projectIndex = projectIndex;
+
+        for (Preference preference : preferences) {
+            lastCaptured.put(preference.getStudentUniqueId(), preference);
+
+            String key = preference.getStudentUniqueId().toUpperCase();
+            if (firstCaptured.containsKey(key)) continue;
+
+            firstCaptured.put(key, preference);
+            if (projectIndex == null) continue;
+
+            int[] projectRatings = new int[projectIndex.size()];
+            for (Map.Entry<String, Integer> entry : preference.getPreference().entrySet()) {
+                int project = projectIndex.indexOf(entry.getKey());
+                if (project >= 0 && entry.getValue() != null) projectRatings[project] = entry.getValue();
+            }
+
+            ratings.put(key, projectRatings);
+        }
+    }
+
+    public ProjectIndex getProjectIndex() {
+        return projectIndex;
+    }
+
+    public boolean hasPreference(String studentUniqueId) {
+        return firstCaptured.containsKey(studentUniqueId.toUpperCase());
+    }
+
+    /**
+     * Returns the first Preference captured for a Student, which is the one used for Fitness Metrics. Null if none.
+     * @param studentUniqueId String
+     * @return Preference
+     */
+    public Preference getPreferenceFor(String studentUniqueId) {
+        return firstCaptured.get(studentUniqueId.toUpperCase());
+    }
+
+    /**
+     * Returns the last Preference captured for a Student, matching the unique ID exactly. Null if none.
+     * @param studentUniqueId String
+     * @return Preference
+     */
+    public Preference getLatestPreferenceFor(String studentUniqueId) {
+        return lastCaptured.get(studentUniqueId);
+    }
+
+    /**
+     * Returns the rating a Student gives to a Project in the Preference used for Fitness Metrics, 0 if not rated.
+     * @param studentUniqueId String
+     * @param project int - index in the ProjectIndex
+     * @return int
+     */
+    public int getRating(String studentUniqueId, int project) {
+        int[] projectRatings = ratings.get(studentUniqueId.toUpperCase());
+        return projectRatings == null ? 0 : projectRatings[project];
+    }
+
+    /**
+     * Returns the rating a Student gives to a Project in the Preference used for Fitness Metrics, 0 if not rated.
+     * Uses the primitive ratings when the Project is indexed.
+     * @param studentUniqueId String
+     * @param projectUniqueId String
+     * @return int
+     */
+    public int getRating(String studentUniqueId, String projectUniqueId) {
+        int project = projectIndex == null ? -1 : projectIndex.indexOf(projectUniqueId);
+        if (project >= 0) return getRating(studentUniqueId, project);
+
+        Preference preference = getPreferenceFor(studentUniqueId);
+        Integer rating = preference == null ? null : preference.getPreference().get(projectUniqueId);
+        return rating == null ? 0 : rating;
+    }
+}
@@ -0,0 +1,69 @@
+package cosc1295.src.models;
+
+import helpers.commons.SharedEnums.RANKINGS;
+import helpers.commons.SharedEnums.SKILLS;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives each distinct Project a dense index, so per-project values can be kept in arrays.
+ * If several Projects share a uniqueId, the last one wins, as it does for the Skill Shortfall map in TeamFitness.
+ */
+public class ProjectIndex {
+
+    private final String[] uniqueIds;
+    private final int[][] requestedRankings; //per project, per skill ordinal, -1 if not requested
+    private final HashMap<String, Integer> positions = new HashMap<>();
+
+    public ProjectIndex(List<Project> projects) {
+        LinkedHashMap<String, Project> distinctProjects = new LinkedHashMap<>();
+        for (Project project : projects) distinctProjects.put(project.getUniqueId(), project);
+
+        uniqueIds = new String[distinctProjects.size()];
+        requestedRankings = new int[distinctProjects.size()][SKILLS.values().length];
+
+        int index = 0;
+        for (Project project : distinctProjects.values()) {
+            uniqueIds[index] = project.getUniqueId();
+            positions.put(project.getUniqueId(), index);
+            Arrays.fill(requestedRankings[index], -1);
+
+            for (Map.Entry<SKILLS, RANKINGS> ranking : project.getSkillRanking().entrySet())
+                requestedRankings[index][ranking.getKey().ordinal()] = ranking.getValue().getValue();
+
+            index++;
+        }
+    }
+
+    public int size() {
+        return uniqueIds.length;
+    }
+
+    public String getUniqueId(int index) {
+        return uniqueIds[index];
+    }
+
+    /**
+     * Returns the dense index of a Project, or -1 if the Project is not indexed.
+     * @param uniqueId String
+     * @return int
+     */
+    public int indexOf(String uniqueId) {
+        Integer index = positions.get(uniqueId);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the ranking a Project requests for a skill, or -1 if the Project does not request the skill.
+     * @param index int
+     * @param skill int - SKILLS ordinal
+     * @return int
+     */
+    public int getRequestedRanking(int index, int skill) {
+        return requestedRankings[index][skill];
+    }
+}
@@ -7,8 +7,6 @@ import helpers.utilities.Helpers;
 import javafx.util.Pair;
 
 import java.io.Serializable;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 
 public class ProjectOwner extends People implements IThing, Serializable {
 
@@ -59,22 +57,6 @@ public class ProjectOwner extends People implements IThing, Serializable {
 
     }
 
-    /**
-     * Creates delimeterized string from data retrieved from database as data saved in text file.
-     * @param rs ResultSet
-     * @return String
-     * @throws SQLException
-     */
-    public String composeRaw(ResultSet rs) throws SQLException {
-        return rs.getInt("id") + SharedConstants.TEXT_DELIMITER +
-                rs.getString("unique_id") + SharedConstants.TEXT_DELIMITER +
-                rs.getString("first_name") + SharedConstants.TEXT_DELIMITER +
-                rs.getString("last_name") + SharedConstants.TEXT_DELIMITER +
-                rs.getString("email_address") + SharedConstants.TEXT_DELIMITER +
-                rs.getString("role_id") + SharedConstants.TEXT_DELIMITER +
-                rs.getString("company_id");
-    }
-
     @SuppressWarnings("MethodDoesntCallSuperMethod")
     public ProjectOwner clone() {
         ProjectOwner clone = new ProjectOwner();
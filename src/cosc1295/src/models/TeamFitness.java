@@ -5,10 +5,9 @@ import helpers.commons.SharedEnums.SKILLS;
 
 import javafx.util.Pair;
 import java.io.Serializable;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 public class TeamFitness implements Serializable {
 
@@ -182,18 +181,17 @@ public class TeamFitness implements Serializable {
     }
 
     /**
-     * Creates delimeterized string from data retrieved from database as data saved in text file.
-     * @param rs ResultSet
-     * @return String
-     * @throws SQLException
+     * Checks if this Fitness Metrics has the same scores as another, regardless of their IDs.
+     * @param other TeamFitness
+     * @return boolean
      */
-    public String composeRaw(ResultSet rs) throws SQLException {
-        return rs.getInt("team_id") + SharedConstants.TEXT_DELIMITER +
-                rs.getString("avg_skill_competency") + SharedConstants.TEXT_DELIMITER +
-                rs.getString("competency_by_skill") +
-                rs.getString("avg_preference_satisfaction") +
-                rs.getString("avg_skill_shortfall") + SharedConstants.TEXT_DELIMITER +
-                rs.getString("shortfall_by_project");
+    public boolean hasSameMetricsAs(TeamFitness other) {
+        return other != null &&
+               Double.compare(averageTeamSkillCompetency, other.averageTeamSkillCompetency) == 0 &&
+               Double.compare(averageSkillShortfall, other.averageSkillShortfall) == 0 &&
+               Objects.equals(teamCompetencyBySkills, other.teamCompetencyBySkills) &&
+               Objects.equals(preferenceSatisfaction, other.preferenceSatisfaction) &&
+               Objects.equals(skillShortFall, other.skillShortFall);
     }
 
     @SuppressWarnings("MethodDoesntCallSuperMethod")
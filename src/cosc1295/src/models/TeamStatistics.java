@@ -0,0 +1,137 @@
+package cosc1295.src.models;
+
+import helpers.commons.SharedConstants;
+import helpers.utilities.Helpers;
+
+import javafx.util.Pair;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.lang.Math.sqrt;
+
+/**
+ * The Fitness Metrics of all Teams as displayed in statistics: Skill Competency, Preference Satisfaction and Skill Shortfall
+ * of each Team ordered by Team ID, and the Standard Deviation of each metric across Teams.
+ * Many Teams can be displayed either page by page, or aggregated into a histogram of the Teams in equal ranges of values.
+ */
+public class TeamStatistics {
+
+    public static final int COMPETENCY = 0;
+    public static final int PREFERENCE = 1;
+    public static final int SHORTFALL = 2;
+
+    private final List<Integer> teamIds;
+    private final double[][] values; //by metric, then by Team
+    private final List<Double> standardDeviations;
+
+    /**
+     * @param teamIds List<Integer> - ordered by Team ID
+     * @param values double[][] - the values of each metric, in the order of teamIds
+     */
+    public TeamStatistics(List<Integer> teamIds, double[][] values) {
+        this.teamIds = Collections.unmodifiableList(new ArrayList<>(teamIds));
+        this.values = values;
+
+        List<Double> deviations = new ArrayList<>();
+        for (double[] metricValues : values) deviations.add(calculateStandardDeviation(metricValues));
+        standardDeviations = Collections.unmodifiableList(deviations);
+    }
+
+    public int getTeamCount() {
+        return teamIds.size();
+    }
+
+    /**
+     * Returns the Standard Deviations in the order of the metrics: Skill Competency, Preference Satisfaction, Skill Shortfall.
+     * @return List<Double>
+     */
+    public List<Double> getStandardDeviations() {
+        return standardDeviations;
+    }
+
+    public int getPageCount(int pageSize) {
+        return (teamIds.size() + pageSize - 1) / pageSize;
+    }
+
+    /**
+     * Returns the values of a metric for the Teams in a page, labelled by Team.
+     * @param metric int
+     * @param page int - from 0
+     * @param pageSize int
+     * @return List<Pair<String, Double>>
+     */
+    public List<Pair<String, Double>> getPage(int metric, int page, int pageSize) {
+        List<Pair<String, Double>> teamValues = new ArrayList<>();
+
+        int last = Math.min(teamIds.size(), (page + 1) * pageSize);
+        for (int i = page * pageSize; i < last; i++)
+            teamValues.add(new Pair<>("Team #" + teamIds.get(i), values[metric][i]));
+
+        return teamValues;
+    }
+
+    /**
+     * Labels a page by the IDs of its first and last Teams.
+     * @param page int
+     * @param pageSize int
+     * @return String
+     */
+    public String getPageLabel(int page, int pageSize) {
+        int last = Math.min(teamIds.size(), (page + 1) * pageSize) - 1;
+        return "Teams #" + teamIds.get(page * pageSize) + " - #" + teamIds.get(last);
+    }
+
+    /**
+     * Counts the Teams having a metric in each of a number of equal ranges between the lowest and highest values.
+     * Each range is labelled by its bounds, the highest value falls into the last range.
+     * @param metric int
+     * @param bins int
+     * @return List<Pair<String, Integer>>
+     */
+    public List<Pair<String, Integer>> getHistogram(int metric, int bins) {
+        List<Pair<String, Integer>> histogram = new ArrayList<>();
+        if (teamIds.isEmpty()) return histogram;
+
+        double lowest = Double.MAX_VALUE;
+        double highest = -Double.MAX_VALUE;
+        for (double value : values[metric]) {
+            lowest = Math.min(lowest, value);
+            highest = Math.max(highest, value);
+        }
+
+        //All Teams having the same value are counted in a single range
+        if (lowest == highest) bins = 1;
+        double width = (highest - lowest) / bins;
+
+        int[] counts = new int[bins];
+        for (double value : values[metric])
+            counts[width == 0 ? 0 : Math.min(bins - 1, (int) ((value - lowest) / width))]++;
+
+        for (int i = 0; i < bins; i++)
+            histogram.add(new Pair<>(
+                Helpers.round(lowest + width * i, SharedConstants.DECIMAL_PRECISION) + " - " +
+                Helpers.round(lowest + width * (i + 1), SharedConstants.DECIMAL_PRECISION),
+                counts[i]
+            ));
+
+        return histogram;
+    }
+
+    //Calculated as ControllerBase.calculateStandardDeviationsForFitnessMetrics does
+    private static double calculateStandardDeviation(double[] metricValues) {
+        if (metricValues.length == 0) return 0.0;
+
+        double total = 0;
+        for (double value : metricValues) total += value;
+        double average = total / metricValues.length;
+
+        double sumDeltaSquares = 0;
+        for (double value : metricValues) {
+            double delta = Math.abs(value - average);
+            sumDeltaSquares += delta * delta;
+        }
+
+        return Helpers.round(sqrt(sumDeltaSquares / metricValues.length), SharedConstants.DECIMAL_PRECISION + 1);
+    }
+}
@@ -0,0 +1,97 @@
+package cosc1295.src.services;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Singleton class
+ * Tells the subscribers which Teams and Students have changed, so that they only rework the affected data.
+ * The services publish an event after they write data, next to invalidating the DomainSnapshot.
+ * Subscribers are called on the publishing thread and must return quickly.
+ */
+public final class ChangeEventService {
+
+    private static ChangeEventService eventService;
+
+    private final List<Consumer<ChangeEvent>> subscribers = new CopyOnWriteArrayList<>();
+
+    private ChangeEventService() { }
+
+    public static ChangeEventService getInstance() {
+        if (eventService == null) {
+            synchronized (ChangeEventService.class) {
+                eventService = eventService == null
+                    ? new ChangeEventService()
+                    : eventService;
+            }
+        }
+
+        return eventService;
+    }
+
+    public void subscribe(Consumer<ChangeEvent> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(Consumer<ChangeEvent> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    public void publish(ChangeEvent event) {
+        for (Consumer<ChangeEvent> subscriber : subscribers)
+            subscriber.accept(event);
+    }
+
+    /**
+     * The Teams and Students changed by a write. An event affecting all Teams is published
+     * when the change concerns every Team, eg. a new Project adds a skill shortfall to all of them.
+     * An event of metrics only tells that the Fitness Metrics of Teams have been recomputed, and nothing they are computed from.
+     */
+    public static final class ChangeEvent {
+
+        private final Set<Integer> teamIds;
+        private final Set<String> studentUniqueIds;
+        private final boolean affectingAllTeams;
+        private final boolean metricsOnly;
+
+        private ChangeEvent(Set<Integer> teamIds, Set<String> studentUniqueIds, boolean affectingAllTeams, boolean metricsOnly) {
+            this.teamIds = Collections.unmodifiableSet(teamIds);
+            this.studentUniqueIds = Collections.unmodifiableSet(studentUniqueIds);
+            this.affectingAllTeams = affectingAllTeams;
+            this.metricsOnly = metricsOnly;
+        }
+
+        public static ChangeEvent forTeams(Collection<Integer> teamIds) {
+            return new ChangeEvent(new HashSet<>(teamIds), new HashSet<>(), false, false);
+        }
+
+        public static ChangeEvent forTeamMetrics(Collection<Integer> teamIds) {
+            return new ChangeEvent(new HashSet<>(teamIds), new HashSet<>(), false, true);
+        }
+
+        public static ChangeEvent forStudent(String studentUniqueId) {
+            return new ChangeEvent(new HashSet<>(), Collections.singleton(studentUniqueId), false, false);
+        }
+
+        public static ChangeEvent forAllTeams() {
+            return new ChangeEvent(new HashSet<>(), new HashSet<>(), true, false);
+        }
+
+        public Set<Integer> getTeamIds() {
+            return teamIds;
+        }
+
+        public Set<String> getStudentUniqueIds() {
+            return studentUniqueIds;
+        }
+
+        public boolean isAffectingAllTeams() {
+            return affectingAllTeams;
+        }
+
+        public boolean isMetricsOnly() {
+            return metricsOnly;
+        }
+    }
+}
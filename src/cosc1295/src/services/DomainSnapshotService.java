@@ -0,0 +1,108 @@
+package cosc1295.src.services;
+
+import cosc1295.providers.services.ProjectService;
+import cosc1295.providers.services.StudentService;
+import cosc1295.providers.services.TeamService;
+import cosc1295.src.models.*;
+import helpers.commons.SharedConstants;
+import helpers.utilities.LogicalAssistant;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Singleton class
+ * Holds the latest DomainSnapshot so that analyzers, activities and the metrics thread do not read storage on every use.
+ * The services invalidate the snapshot whenever they write, the next request then reads storage again.
+ */
+public final class DomainSnapshotService {
+
+    private static DomainSnapshotService snapshotService;
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile DomainSnapshot snapshot;
+
+    private DomainSnapshotService() { }
+
+    public static DomainSnapshotService getInstance() {
+        if (snapshotService == null) {
+            synchronized (DomainSnapshotService.class) {
+                snapshotService = snapshotService == null
+                    ? new DomainSnapshotService()
+                    : snapshotService;
+            }
+        }
+
+        return snapshotService;
+    }
+
+    /**
+     * Returns the current snapshot, reading storage if data have changed since the last read.
+     * A snapshot that failed to read some data is returned but not kept, so the next request reads again.
+     * @return DomainSnapshot
+     */
+    public DomainSnapshot getSnapshot() {
+        DomainSnapshot current = snapshot;
+        if (isCurrent(current)) return current;
+
+        synchronized (this) {
+            current = snapshot;
+            if (isCurrent(current)) return current;
+
+            long readingVersion = version.get();
+            current = readSnapshot(readingVersion);
+
+            //Data may have been written while reading, then the snapshot is already stale
+            if (current.isComplete() && readingVersion == version.get()) snapshot = current;
+            return current;
+        }
+    }
+
+    /**
+     * Checks if the current snapshot can be returned without reading storage.
+     * @return boolean
+     */
+    public boolean hasCurrentSnapshot() {
+        return isCurrent(snapshot);
+    }
+
+    /**
+     * Returns the current snapshot without reading storage, or null if data have changed since the last read.
+     * @return DomainSnapshot
+     */
+    public DomainSnapshot getCurrentSnapshot() {
+        DomainSnapshot current = snapshot;
+        return isCurrent(current) ? current : null;
+    }
+
+    /**
+     * Marks the current snapshot as stale. Called by the services after writing data.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    private boolean isCurrent(DomainSnapshot current) {
+        return current != null &&
+               current.getVersion() == version.get() &&
+               current.getDataSource().equals(SharedConstants.DATA_SOURCE);
+    }
+
+    private DomainSnapshot readSnapshot(long readingVersion) {
+        StudentService studentService = new StudentService();
+
+        List<Student> students = studentService.readAllStudentsFromFile();
+        List<Preference> preferences = studentService.readAllStudentPreferencesFromFile();
+        List<Project> projects = (new ProjectService()).readAllProjectsFromFile();
+        List<Team> teams = (new TeamService()).readAllTeamsFromFile();
+
+        //Teams read from storage hold members with only Student Unique ID
+        if (teams != null && students != null) LogicalAssistant.setStudentDataInTeams(teams, students);
+
+        return new DomainSnapshot(readingVersion, SharedConstants.DATA_SOURCE, students, projects, preferences, teams);
+    }
+}
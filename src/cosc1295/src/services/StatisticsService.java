@@ -0,0 +1,128 @@
+package cosc1295.src.services;
+
+import cosc1295.src.controllers.ControllerBase;
+import cosc1295.src.models.*;
+
+import javafx.util.Pair;
+import java.util.*;
+
+/**
+ * Singleton class
+ * Produces the statistics of all Teams from the Fitness Metrics stored with them.
+ * Teams having no stored Fitness Metrics (less than 4 members) get them calculated, and kept by Team,
+ * so a Team is calculated again only when its Project or members change. Other Teams are only read again.
+ * Calculated metrics are all dropped if Projects or Preferences change, as every Team's metrics depend on them.
+ * Teams having a member without Preference data are left out, as their Preference Satisfaction is unknown.
+ */
+public final class StatisticsService {
+
+    private static StatisticsService statisticsService;
+
+    private final ControllerBase controllerBase = new ControllerBase();
+
+    //Calculated metrics by Team ID: the Project and members they were calculated for, and their values (null if missing)
+    private final Map<Integer, Pair<String, double[]>> calculatedMetrics = new HashMap<>();
+    private long dataFingerprint;
+
+    private StatisticsService() { }
+
+    public static StatisticsService getInstance() {
+        if (statisticsService == null) {
+            synchronized (StatisticsService.class) {
+                statisticsService = statisticsService == null
+                    ? new StatisticsService()
+                    : statisticsService;
+            }
+        }
+
+        return statisticsService;
+    }
+
+    /**
+     * Produces the statistics of the Teams in a snapshot. Returns null if the snapshot failed to read some data.
+     * @param snapshot DomainSnapshot
+     * @return TeamStatistics
+     */
+    public synchronized TeamStatistics getStatistics(DomainSnapshot snapshot) {
+        if (!snapshot.isComplete()) return null;
+
+        long fingerprint = fingerprintOf(snapshot);
+        if (fingerprint != dataFingerprint) {
+            calculatedMetrics.clear();
+            dataFingerprint = fingerprint;
+        }
+
+        List<Team> teams = snapshot.getTeams();
+        teams.sort(Comparator.comparingInt(Team::getId));
+
+        List<Integer> teamIds = new ArrayList<>(teams.size());
+        List<double[]> teamMetrics = new ArrayList<>(teams.size());
+        Set<Integer> currentTeamIds = new HashSet<>();
+
+        for (Team team : teams) {
+            currentTeamIds.add(team.getId());
+
+            double[] metrics = metricsOf(team, snapshot);
+            if (metrics == null) continue;
+
+            teamIds.add(team.getId());
+            teamMetrics.add(metrics);
+        }
+
+        double[][] values = new double[3][teamMetrics.size()];
+        for (int i = 0; i < teamMetrics.size(); i++)
+            for (int metric = 0; metric < values.length; metric++) values[metric][i] = teamMetrics.get(i)[metric];
+
+        //Teams that have been deleted
+        calculatedMetrics.keySet().retainAll(currentTeamIds);
+        return new TeamStatistics(teamIds, values);
+    }
+
+    private double[] metricsOf(Team team, DomainSnapshot snapshot) {
+        TeamFitness fitnessMetrics = team.getFitnessMetrics();
+        if (fitnessMetrics != null && fitnessMetrics.getPreferenceSatisfaction() != null)
+            return valuesOf(fitnessMetrics);
+
+        String signature = signatureOf(team);
+        Pair<String, double[]> calculated = calculatedMetrics.get(team.getId());
+        if (calculated != null && calculated.getKey().equals(signature)) return calculated.getValue();
+
+        double[] metrics = valuesOf(
+            controllerBase.calculateTeamFitnessMetricsFor(team, snapshot.getProjectIndex(), snapshot.getPreferenceIndex())
+        );
+
+        calculatedMetrics.put(team.getId(), new Pair<>(signature, metrics));
+        return metrics;
+    }
+
+    //Returns null if the Preference Satisfaction is missing
+    private static double[] valuesOf(TeamFitness fitnessMetrics) {
+        if (fitnessMetrics.getPreferenceSatisfaction() == null) return null;
+
+        return new double[] {
+            fitnessMetrics.getAverageTeamSkillCompetency(),
+            fitnessMetrics.getPreferenceSatisfaction().getKey(),
+            fitnessMetrics.getAverageSkillShortfall()
+        };
+    }
+
+    //The Project and members (with their skills) that the metrics of a Team are calculated from
+    private static String signatureOf(Team team) {
+        StringBuilder signature = new StringBuilder(team.getProject() == null ? "" : team.getProject().getUniqueId());
+        for (Student member : team.getMembers())
+            signature.append('|').append(member.getUniqueId()).append(member.getSkillRanking());
+
+        return signature.toString();
+    }
+
+    private static long fingerprintOf(DomainSnapshot snapshot) {
+        long fingerprint = 17;
+        for (Project project : snapshot.getProjects())
+            fingerprint = fingerprint * 31 + Objects.hash(project.getUniqueId(), String.valueOf(project.getSkillRanking()));
+
+        for (Preference preference : snapshot.getPreferences())
+            fingerprint = fingerprint * 31 + Objects.hash(preference.getStudentUniqueId(), preference.getPreference());
+
+        return fingerprint;
+    }
+}
@@ -1,9 +1,17 @@
 package cosc1295.src.services;
 
+import cosc1295.src.services.analyzers.SuperAnalyzer;
+import helpers.commons.SharedConstants;
+
+import javafx.concurrent.Task;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -11,17 +19,50 @@ import java.util.logging.Logger;
  * Uses an ExecutorService to run an Analyzer, which will analyze all data to produce suggestions.
  * This service is created to run the analyzers on a dedicated Thread, and closed right after.
  * To work with all types of analyzers, including the ones that would be written later.
+ * Analyzers evaluate their candidates on a pool of worker threads sized by the parallelism level.
+ * The pools are kept for the lifetime of the application, 1 per parallelism level, and shared by all analyses.
+ * The GUI runs analyzers in background as cancellable Tasks, so the JavaFX Application Thread is never blocked.
  */
 public class SuggestionService {
     private static final Logger logger = Logger.getLogger(SuggestionService.class.getName());
 
+    private static final Map<Integer, ForkJoinPool> workerPools = new ConcurrentHashMap<>();
+
     private final ExecutorService executor;
+    private final int parallelism;
 
     public SuggestionService() {
-        executor = Executors.newSingleThreadExecutor();
+        this(SharedConstants.SUGGESTION_PARALLELISM);
+    }
+
+    /**
+     * @param parallelism int - number of threads evaluating candidates, 1 to evaluate sequentially
+     */
+    public SuggestionService(int parallelism) {
+        //Daemon thread, so an analysis left running never keeps the application from exiting
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, SuggestionService.class.getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Gets the pool of worker threads for a parallelism level, created on first use. Null if 1 or less,
+     * meaning candidates are evaluated sequentially. The worker threads are daemons, ending after being idle for a while.
+     * @param parallelism int
+     * @return ForkJoinPool
+     */
+    public static ForkJoinPool getWorkerPool(int parallelism) {
+        if (parallelism <= 1) return null;
+        return workerPools.computeIfAbsent(parallelism, ForkJoinPool::new);
     }
 
     public <T> T runForResult(Callable<T> analyzer) {
+        if (analyzer instanceof SuperAnalyzer)
+            ((SuperAnalyzer) analyzer).setWorkerPool(getWorkerPool(parallelism));
+
         try {
             return executor.submit(analyzer).get();
         } catch (InterruptedException | ExecutionException e) {
@@ -30,7 +71,72 @@ public class SuggestionService {
         }
     }
 
+    /**
+     * Creates an analyzer and runs it in background, returning its Task right away. The analyzer is created by the Task,
+     * as creating it reads all data when they have changed, which must not block the JavaFX Application Thread.
+     * The result is published by the Task on the JavaFX Application Thread, so it can be drawn from the Task's onSucceeded handler.
+     * If the analysis throws, the Task fails with the exception, so it is handled by the Task's onFailed handler.
+     * While candidates are evaluated, the Task's progress and message tell how many have been evaluated.
+     * Cancelling the Task stops the analysis, and its result is never published.
+     * @param analyzerFactory Supplier<Callable<T>>
+     * @param <T> Type
+     * @return Task<T>
+     */
+    public <T> Task<T> runInBackground(Supplier<Callable<T>> analyzerFactory) {
+        Task<T> task = new SuggestionTask<>(analyzerFactory, parallelism);
+        executor.execute(task);
+
+        return task;
+    }
+
     public void die() {
         executor.shutdown();
     }
+
+    private static class SuggestionTask<T> extends Task<T> {
+
+        private final Supplier<Callable<T>> analyzerFactory;
+        private final int parallelism;
+        private volatile Callable<T> analyzer;
+
+        private SuggestionTask(Supplier<Callable<T>> analyzerFactory, int parallelism) {
+            this.analyzerFactory = analyzerFactory;
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        protected T call() throws Exception {
+            if (isCancelled()) return null;
+            analyzer = analyzerFactory.get();
+
+            if (analyzer instanceof SuperAnalyzer) {
+                SuperAnalyzer superAnalyzer = (SuperAnalyzer) analyzer;
+                superAnalyzer.setWorkerPool(getWorkerPool(parallelism));
+                superAnalyzer.setProgressListener((evaluatedUnits, totalUnits, evaluatedCandidates) -> {
+                    updateProgress(evaluatedUnits, totalUnits);
+                    updateMessage("Evaluated " + evaluatedCandidates + " candidates...");
+                });
+
+                //Cancelled while the analyzer was being created
+                if (isCancelled()) superAnalyzer.cancel();
+            }
+
+            try {
+                return analyzer.call();
+            } catch (Exception e) {
+                //A cancelled analysis throws CancellationException, its result is discarded anyway
+                if (!isCancelled())
+                    logger.log(Level.WARNING, "SuggestionService.SuggestionTask.call : " + e.getMessage());
+
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            Callable<T> running = analyzer;
+            if (running instanceof SuperAnalyzer) ((SuperAnalyzer) running).cancel();
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
 }
@@ -1,62 +1,164 @@
 package cosc1295.src.services;
 
-import cosc1295.providers.services.ProjectService;
-import cosc1295.providers.services.StudentService;
 import cosc1295.providers.services.TeamService;
 import cosc1295.src.controllers.ControllerBase;
-import cosc1295.src.models.Preference;
-import cosc1295.src.models.Project;
+import cosc1295.src.models.DomainSnapshot;
 import cosc1295.src.models.Student;
 import cosc1295.src.models.Team;
+import cosc1295.src.models.TeamFitness;
+import cosc1295.src.services.ChangeEventService.ChangeEvent;
 import helpers.commons.SharedConstants;
-import helpers.utilities.LogicalAssistant;
 
-import java.util.Date;
-import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.*;
+import java.util.function.Consumer;
 
+/**
+ * Recomputes the Fitness Metrics of full Teams in background, and saves the ones that have changed.
+ * Teams are recomputed when a ChangeEvent tells that they, or their members, have changed.
+ * Events arriving close together are coalesced, so a burst of changes is recomputed and saved at once.
+ * A full pass over all Teams also runs at start and then periodically, to catch changes made outside the app.
+ * Only the Teams whose metrics have changed are saved, and their saving is published as metrics only,
+ * which is ignored here, so saving metrics never requests them to be recomputed again.
+ */
 public class TeamFitnessMetricService extends Thread {
 
-    private static final long INTERVAL = 900000L; //15 minutes
-    private final Timer timer = new Timer();
+    private static final int MAX_COALESCED_WINDOWS = 10; //a steady stream of events still gets recomputed
 
-    private final StudentService studentService;
+    private final long reconciliationInterval;
     private final TeamService teamService;
-    private final ProjectService projectService;
+
+    //Pending changes, guarded by `lock` (not `this`, whose monitor is used by Thread.join)
+    private final Object lock = new Object();
+    private final Set<Integer> changedTeamIds = new HashSet<>();
+    private final Set<String> changedStudentIds = new HashSet<>();
+    private boolean fullPassRequested;
+    private long firstChangeTime;
+    private long lastChangeTime;
+
+    private final Consumer<ChangeEvent> changeSubscriber = this::onChange;
 
     public TeamFitnessMetricService() {
+        this(SharedConstants.FITNESS_RECONCILIATION_INTERVAL);
+    }
+
+    /**
+     * @param reconciliationInterval long - milliseconds between 2 full passes over all Teams
+     */
+    public TeamFitnessMetricService(long reconciliationInterval) {
         super(TeamFitnessMetricService.class.getSimpleName() + (new Date()).getTime());
 
-        studentService = new StudentService();
+        this.reconciliationInterval = reconciliationInterval;
         teamService = new TeamService();
-        projectService = new ProjectService();
     }
 
-    private void computeTeamFitnessMetricsInBackground() {
-        List<Team> teams = teamService.readAllTeamsFromFile();
-        List<Student> students = studentService.readAllStudentsFromFile();
-        List<Project> projects = projectService.readAllProjectsFromFile();
-        List<Preference> preferences = studentService.readAllStudentPreferencesFromFile();
+    //Called on the publishing thread, so it only records the change
+    private void onChange(ChangeEvent event) {
+        //Ignores the metrics saved by this service, or by any other one, as nothing they are computed from has changed
+        if (event.isMetricsOnly()) return;
 
-        if (teams != null && students != null && projects != null && preferences != null) {
-            LogicalAssistant.setStudentDataInTeams(teams, students);
+        synchronized (lock) {
+            if (!hasPendingChanges()) firstChangeTime = System.currentTimeMillis();
+            lastChangeTime = System.currentTimeMillis();
 
-            for (Team team : teams)
-                if (team.getMembers().size() == SharedConstants.GROUP_LIMIT) {
-                    team.setFitnessMetrics((new ControllerBase()).calculateTeamFitnessMetricsFor(team, projects, preferences));
-                    teamService.updateTeam(team);
-                }
+            changedTeamIds.addAll(event.getTeamIds());
+            for (String uniqueId : event.getStudentUniqueIds()) changedStudentIds.add(uniqueId.toUpperCase());
+            fullPassRequested = fullPassRequested || event.isAffectingAllTeams();
+
+            lock.notifyAll();
         }
     }
 
+    private boolean hasPendingChanges() {
+        return fullPassRequested || !changedTeamIds.isEmpty() || !changedStudentIds.isEmpty();
+    }
+
     @Override
     public void run() {
-        timer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                computeTeamFitnessMetricsInBackground();
+        ChangeEventService.getInstance().subscribe(changeSubscriber);
+        long nextReconciliation = System.currentTimeMillis();
+
+        try {
+            while (!isInterrupted()) {
+                Set<Integer> teamIds;
+                Set<String> studentIds;
+                boolean fullPass;
+
+                synchronized (lock) {
+                    waitForChanges(nextReconciliation);
+
+                    fullPass = fullPassRequested || System.currentTimeMillis() >= nextReconciliation;
+                    teamIds = new HashSet<>(changedTeamIds);
+                    studentIds = new HashSet<>(changedStudentIds);
+
+                    changedTeamIds.clear();
+                    changedStudentIds.clear();
+                    fullPassRequested = false;
+                }
+
+                if (fullPass) nextReconciliation = System.currentTimeMillis() + reconciliationInterval;
+                computeTeamFitnessMetricsInBackground(teamIds, studentIds, fullPass);
             }
-        }, 0, INTERVAL);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            ChangeEventService.getInstance().unsubscribe(changeSubscriber);
+        }
+    }
+
+    //Waits until the pending changes have settled, or the next full pass is due. Called while holding `lock`
+    private void waitForChanges(long nextReconciliation) throws InterruptedException {
+        while (true) {
+            long now = System.currentTimeMillis();
+            if (now >= nextReconciliation) return;
+
+            long timeout;
+            if (!hasPendingChanges()) timeout = nextReconciliation - now;
+            else {
+                long settledTime = Math.min(
+                    lastChangeTime + SharedConstants.FITNESS_COALESCING_WINDOW,
+                    firstChangeTime + SharedConstants.FITNESS_COALESCING_WINDOW * MAX_COALESCED_WINDOWS
+                );
+
+                if (now >= settledTime) return;
+                timeout = Math.min(settledTime, nextReconciliation) - now;
+            }
+
+            lock.wait(timeout);
+        }
+    }
+
+    private void computeTeamFitnessMetricsInBackground(Set<Integer> teamIds, Set<String> studentIds, boolean fullPass) {
+        DomainSnapshot snapshot = DomainSnapshotService.getInstance().getSnapshot();
+
+        //Unreadable data are left to the next full pass
+        if (!snapshot.isComplete()) return;
+
+        ControllerBase controllerBase = new ControllerBase();
+        List<Team> changedTeams = new ArrayList<>();
+
+        for (Team team : snapshot.getTeams()) {
+            if (team.getMembers().size() != SharedConstants.GROUP_LIMIT) continue;
+            if (!fullPass && !teamIds.contains(team.getId()) && !hasAnyMemberIn(team, studentIds)) continue;
+
+            //The calculation writes into the Team's current metrics, so keep a copy to compare with
+            TeamFitness previousMetrics = team.getFitnessMetrics() == null ? null : team.getFitnessMetrics().clone();
+            team.setFitnessMetrics(controllerBase.calculateTeamFitnessMetricsFor(
+                team, snapshot.getProjectIndex(), snapshot.getPreferenceIndex()
+            ));
+
+            if (!team.getFitnessMetrics().hasSameMetricsAs(previousMetrics)) changedTeams.add(team);
+        }
+
+        //Saves all changed Teams at once. A failed save is retried by the next full pass
+        if (!changedTeams.isEmpty()) teamService.updateTeamFitnessMetrics(changedTeams);
+    }
+
+    private boolean hasAnyMemberIn(Team team, Set<String> studentIds) {
+        if (studentIds.isEmpty()) return false;
+
+        for (Student member : team.getMembers())
+            if (studentIds.contains(member.getUniqueId().toUpperCase())) return true;
+
+        return false;
     }
 }
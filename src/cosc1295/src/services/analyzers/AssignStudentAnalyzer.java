@@ -1,11 +1,11 @@
 package cosc1295.src.services.analyzers;
 
-import cosc1295.src.controllers.ControllerBase;
 import cosc1295.src.models.*;
 import helpers.commons.SharedConstants;
 import helpers.utilities.LogicalAssistant;
 import javafx.util.Pair;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.concurrent.Callable;
 
@@ -23,11 +23,16 @@ public class AssignStudentAnalyzer<T> extends SuperAnalyzer implements Callable<
         this.team = team;
     }
 
+    public AssignStudentAnalyzer(DomainSnapshot snapshot, Team team) {
+        super(snapshot);
+        this.team = team;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public T call() {
         //Pair<Student, Student> : Key being a student from list, Value being a team member
-        HashMap<Pair<Student, Student>, TeamFitness> metricsData = calculateMetrics();
+        HashMap<Pair<Student, Student>, CompactTeamFitness> metricsData = calculateMetrics();
         return (T) produceAssignSuggestion(metricsData);
     }
 
@@ -35,41 +40,34 @@ public class AssignStudentAnalyzer<T> extends SuperAnalyzer implements Callable<
      * Calculates Fitness Metrics for all possible assignees if they satisfy all Team's requirements.
      * @return
      */
-    private HashMap<Pair<Student, Student>, TeamFitness> calculateMetrics() {
-        HashMap<Pair<Student, Student>, TeamFitness> metricsData = new HashMap<>();
-        ControllerBase controllerBase = new ControllerBase();
-
+    private HashMap<Pair<Student, Student>, CompactTeamFitness> calculateMetrics() {
         List<Student> assignableStudents = LogicalAssistant.filterUnteamedStudents(students, teams);
 
-        for (Student student : assignableStudents) {
-            if (!hasPreferenceData(student, preferences) || team.hasMember(student.getUniqueId())) continue;
+        return evaluateCandidates(assignableStudents, student -> {
+            LinkedHashMap<Pair<Student, Student>, CompactTeamFitness> metricsData = new LinkedHashMap<>();
+            if (!hasPreferenceData(student) || team.hasMember(student.getUniqueId())) return metricsData;
 
             //When Team has available slots to take more Students, so just assign, no replace
             if (team.getMembers().size() < SharedConstants.GROUP_LIMIT) {
-                boolean assignable = LogicalAssistant.isStudentAssignable(student, new Pair<>(team, null));
-                if (!assignable) continue;
+                boolean assignable = constraintEngine.isStudentAssignable(student, team, null);
+                if (!assignable) return metricsData;
 
-                Team clone = team.clone();
-                clone.getMembers().add(student);
-                TeamFitness metrics = controllerBase.calculateTeamFitnessMetricsFor(clone, projects, preferences);
+                CompactTeamFitness metrics = scoringEngine.scoreAssignment(team, null, student);
 
                 metricsData.put(new Pair<>(student, null), metrics);
-                continue;
+                return metricsData;
             }
 
             //When Team is full, the assignee will replace 1 Team member
             for (Student member : team.getMembers()) {
-                boolean assignable = LogicalAssistant.isStudentAssignable(student, new Pair<>(team, member));
+                boolean assignable = constraintEngine.isStudentAssignable(student, team, member);
                 if (!assignable) continue;
 
-                Team clone = team.clone();
-                clone.replaceMemberByUniqueId(member.getUniqueId(), student);
-
-                TeamFitness metrics = controllerBase.calculateTeamFitnessMetricsFor(clone, projects, preferences);
+                CompactTeamFitness metrics = scoringEngine.scoreAssignment(team, member, student);
                 metricsData.put(new Pair<>(student, member), metrics);
             }
-        }
 
-        return metricsData;
+            return metricsData;
+        });
     }
 }
@@ -1,14 +1,15 @@
 package cosc1295.src.services.analyzers;
 
-import cosc1295.src.controllers.ControllerBase;
 import cosc1295.src.models.Student;
 import cosc1295.src.models.Team;
-import cosc1295.src.models.TeamFitness;
+import cosc1295.src.models.CompactTeamFitness;
+import cosc1295.src.models.DomainSnapshot;
 import helpers.commons.SharedConstants;
 import helpers.utilities.LogicalAssistant;
 
 import javafx.util.Pair;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.concurrent.Callable;
 
@@ -18,32 +19,32 @@ public class AutoAssignAnalyzer<T> extends SuperAnalyzer implements Callable<T>
         super();
     }
 
+    public AutoAssignAnalyzer(DomainSnapshot snapshot) {
+        super(snapshot);
+    }
+
     //Suggestion responds in format Pair<Student, Pair<Team, Student>>
     @SuppressWarnings("unchecked")
     @Override
     public T call() {
-        HashMap<Pair<Student, Pair<Team, Student>>, TeamFitness> metricsData = calculateMetrics();
+        HashMap<Pair<Student, Pair<Team, Student>>, CompactTeamFitness> metricsData = calculateMetrics();
         return (T) produceAssignSuggestion(metricsData);
     }
 
-    private HashMap<Pair<Student, Pair<Team, Student>>, TeamFitness> calculateMetrics() {
-        HashMap<Pair<Student, Pair<Team, Student>>, TeamFitness> metricsData = new HashMap<>();
-        ControllerBase controllerBase = new ControllerBase();
-
+    private HashMap<Pair<Student, Pair<Team, Student>>, CompactTeamFitness> calculateMetrics() {
         List<Student> assignableStudents = LogicalAssistant.filterUnteamedStudents(students, teams);
 
-        for (Student student : assignableStudents) {
-            if (!hasPreferenceData(student, preferences)) continue;
+        return evaluateCandidates(assignableStudents, student -> {
+            LinkedHashMap<Pair<Student, Pair<Team, Student>>, CompactTeamFitness> metricsData = new LinkedHashMap<>();
+            if (!hasPreferenceData(student)) return metricsData;
 
             for (Team team : teams) {
                 //When Team has available slots to take more Students, so just assign, no replace
                 if (team.getMembers().size() < SharedConstants.GROUP_LIMIT) {
-                    boolean assignable = LogicalAssistant.isStudentAssignable(student, new Pair<>(team, null));
+                    boolean assignable = constraintEngine.isStudentAssignable(student, team, null);
                     if (!assignable) continue;
 
-                    Team clone = team.clone();
-                    clone.getMembers().add(student);
-                    TeamFitness metrics = controllerBase.calculateTeamFitnessMetricsFor(clone, projects, preferences);
+                    CompactTeamFitness metrics = scoringEngine.scoreAssignment(team, null, student);
 
                     metricsData.put(new Pair<>(student, new Pair<>(team, null)), metrics);
                     continue;
@@ -51,18 +52,15 @@ public class AutoAssignAnalyzer<T> extends SuperAnalyzer implements Callable<T>
 
                 //When Team is full, the assignee will replace 1 Team member
                 for (Student member : team.getMembers()) {
-                    boolean assignable = LogicalAssistant.isStudentAssignable(student, new Pair<>(team, member));
+                    boolean assignable = constraintEngine.isStudentAssignable(student, team, member);
                     if (!assignable) continue;
 
-                    Team clone = team.clone();
-                    clone.replaceMemberByUniqueId(member.getUniqueId(), student);
-
-                    TeamFitness metrics = controllerBase.calculateTeamFitnessMetricsFor(clone, projects, preferences);
+                    CompactTeamFitness metrics = scoringEngine.scoreAssignment(team, member, student);
                     metricsData.put(new Pair<>(student, new Pair<>(team, member)), metrics);
                 }
             }
-        }
 
-        return metricsData;
+            return metricsData;
+        });
     }
 }
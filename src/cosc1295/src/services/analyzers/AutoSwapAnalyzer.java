@@ -1,33 +1,87 @@
 package cosc1295.src.services.analyzers;
 
-import cosc1295.src.controllers.ControllerBase;
 import cosc1295.src.models.Student;
 import cosc1295.src.models.Team;
-import cosc1295.src.models.TeamFitness;
+import cosc1295.src.models.CompactTeamFitness;
+import cosc1295.src.models.DomainSnapshot;
 
 import javafx.util.Pair;
-import java.util.HashMap;
+import java.util.*;
 import java.util.concurrent.Callable;
 
 public class AutoSwapAnalyzer<T> extends SuperAnalyzer implements Callable<T> {
 
+    private final int batchSize;
+
     public AutoSwapAnalyzer() {
         super();
+        batchSize = 1;
+    }
+
+    public AutoSwapAnalyzer(DomainSnapshot snapshot) {
+        super(snapshot);
+        batchSize = 1;
+    }
+
+    /**
+     * Suggests up to batchSize swaps from a single analysis, each swap touching Teams that no other swap touches.
+     * As the Teams are disjoint, each swap stays valid and keeps its metrics after the others are applied.
+     * @param batchSize int
+     */
+    public AutoSwapAnalyzer(int batchSize) {
+        super();
+        this.batchSize = batchSize;
+    }
+
+    public AutoSwapAnalyzer(DomainSnapshot snapshot, int batchSize) {
+        super(snapshot);
+        this.batchSize = batchSize;
     }
 
-    //Suggestion responds in format Pair<Pair<Team, Student>, Pair<Team, Student>>
+    //Suggestion responds in format Pair<Pair<Team, Student>, Pair<Team, Student>>,
+    //or in format List<Pair<Pair<Team, Student>, Pair<Team, Student>>> when the batch size is more than 1
     @SuppressWarnings("unchecked")
     @Override
     public T call() {
-        HashMap<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>> metricsData = calculateSwapMetrics();
+        HashMap<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>> metricsData = calculateSwapMetrics();
 
         Pair<Student, Student> suggestion = produceSwapSuggestion(metricsData);
         if (suggestion == null) return null;
 
+        if (batchSize > 1) return (T) produceSwapBatch(metricsData, suggestion);
+
         Pair<Team, Team> teamPair = findTeamsByMembers(suggestion);
         return (T) new Pair<>(
             new Pair<>(teamPair.getKey(), suggestion.getKey()),
             new Pair<>(teamPair.getValue(), suggestion.getValue())
         );
     }
+
+    //The single suggestion comes first, then the best ranked swaps whose Teams are not touched yet
+    private List<Pair<Pair<Team, Student>, Pair<Team, Student>>> produceSwapBatch(
+        HashMap<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>> metricsData,
+        Pair<Student, Student> suggestion
+    ) {
+        Map<Student, Team> teamsByMember = indexTeamsByMember();
+        Set<Team> touchedTeams = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Pair<Pair<Team, Student>, Pair<Team, Student>>> batch = new ArrayList<>();
+
+        List<Pair<Student, Student>> candidates = new ArrayList<>();
+        candidates.add(suggestion);
+        candidates.addAll(rankSwapSuggestions(metricsData));
+
+        for (Pair<Student, Student> candidate : candidates) {
+            if (batch.size() == batchSize) break;
+
+            Team first = teamsByMember.get(candidate.getKey());
+            Team second = teamsByMember.get(candidate.getValue());
+            if (first == null || second == null || touchedTeams.contains(first) || touchedTeams.contains(second)) continue;
+
+            touchedTeams.add(first);
+            touchedTeams.add(second);
+            batch.add(new Pair<>(new Pair<>(first, candidate.getKey()), new Pair<>(second, candidate.getValue())));
+        }
+
+        return batch;
+    }
 }
@@ -0,0 +1,616 @@
+package cosc1295.src.services.analyzers;
+
+import cosc1295.src.controllers.ControllerBase;
+import cosc1295.src.models.*;
+import helpers.commons.SharedConstants;
+import helpers.commons.SharedEnums;
+import helpers.utilities.LogicalAssistant;
+
+import javafx.util.Pair;
+import java.util.*;
+import java.util.concurrent.Callable;
+
+/**
+ * Forms Teams for all unteamed Students in a single run, instead of assigning them one at a time.
+ * Unteamed Students having Preference data first fill the free slots of existing Teams, the others form new Teams,
+ * each new Team taking a Project. The allocation is then improved by simulated annealing, with 3 kinds of moves:
+ * swap 2 allocated Students, move an allocated Student into a Team having a free slot, or give a new Team another Project.
+ * Existing members never move. Each move only rescores the Teams it changes, and the cohort's sums are updated by their deltas.
+ *
+ * The search minimizes the Standard Deviations of Skill Competency and Skill Shortfall, and of Preference Satisfaction
+ * less its average (both as ratios), so Teams are balanced and Students get their preferred Projects.
+ * A Team breaking the LogicalAssistant rules (conflicters, Leader type, Personality balance) is penalized heavily,
+ * so the best allocation kept is one satisfying all rules whenever the search finds one.
+ * The search stops on its time or iteration budget, whichever comes first. The parallelism level is not used.
+ *
+ * Suggestion responds in format Pair<List<Team>, List<Double>>: the Teams having new members (new Teams are marked newly added),
+ * and the Standard Deviations of all Teams after formation, as calculateStandardDeviationsForFitnessMetrics returns them.
+ * Returns null if there is no Student to form, no Project, or no allocation satisfying all rules was found.
+ */
+public class CohortFormationAnalyzer<T> extends SuperAnalyzer implements Callable<T> {
+
+    private static final SharedEnums.SKILLS[] SKILLS = SharedEnums.SKILLS.values();
+    private static final double VIOLATION_PENALTY = 100.0;
+    private static final double PERCENTAGE = 100.0;
+    private static final double INITIAL_TEMPERATURE = 0.5;
+    private static final double FINAL_TEMPERATURE = 0.0001;
+    private static final int CHECK_INTERVAL = 1024; //iterations between 2 checks of the time budget
+
+    //Positions of the scores of a Team
+    private static final int COMPETENCY = 0;
+    private static final int SATISFACTION = 1;
+    private static final int SHORTFALL = 2;
+    private static final int VIOLATIONS = 3;
+    private static final int SCORES = 4;
+
+    private final long timeBudget;
+    private final long iterationBudget;
+    private final Random random;
+    private final ProjectIndex projectIndex;
+
+    //Allocation state: members of each Team (existing Teams first, then new Teams), fixed members first
+    private Candidate[][] members;
+    private int[] sizes;
+    private int[] fixedSizes;
+    private int[] teamProjects;
+    private Candidate[] assignees;
+    private int existingTeamCount;
+
+    //Scores of each Team and the sums over the cohort
+    private double[][] shortfallTable; //per skill, per skill total of a Team: the shortfall summed over all Projects
+    private double[][] teamScores;
+    private final double[] sums = new double[SCORES];
+    private final double[] squareSums = new double[SCORES];
+    private int totalViolations;
+
+    public CohortFormationAnalyzer() {
+        this(SharedConstants.FORMATION_TIME_BUDGET, SharedConstants.FORMATION_ITERATION_BUDGET);
+    }
+
+    /**
+     * @param timeBudget long - milliseconds the search may run
+     * @param iterationBudget long - moves the search may try
+     */
+    public CohortFormationAnalyzer(long timeBudget, long iterationBudget) {
+        super();
+        this.timeBudget = timeBudget;
+        this.iterationBudget = iterationBudget;
+        random = new Random();
+        projectIndex = preferenceIndex.getProjectIndex();
+    }
+
+    /**
+     * Forms the cohort held in a snapshot, with a seed so that runs are repeatable when stopped by iterations.
+     * @param snapshot DomainSnapshot
+     * @param timeBudget long - milliseconds the search may run
+     * @param iterationBudget long - moves the search may try
+     * @param seed long
+     */
+    public CohortFormationAnalyzer(DomainSnapshot snapshot, long timeBudget, long iterationBudget, long seed) {
+        super(snapshot);
+        this.timeBudget = timeBudget;
+        this.iterationBudget = iterationBudget;
+        random = new Random(seed);
+        projectIndex = preferenceIndex.getProjectIndex();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T call() {
+        if (projectIndex == null || projectIndex.size() == 0) return null;
+        if (!prepareAllocation()) return null;
+
+        Pair<Candidate[][], int[]> best = search();
+        restore(best);
+        if (totalViolations > 0) return null;
+
+        return (T) produceFormation();
+    }
+
+    //Puts the unteamed Students into the free slots of existing Teams, then into new Teams
+    private boolean prepareAllocation() {
+        List<Student> unteamedStudents = LogicalAssistant.filterUnteamedStudents(students, teams);
+        List<Candidate> formable = new ArrayList<>();
+        for (Student student : unteamedStudents)
+            if (hasPreferenceData(student)) formable.add(new Candidate(student, preferenceIndex));
+
+        if (formable.isEmpty()) return false;
+        Collections.shuffle(formable, random);
+
+        int freeSlots = 0;
+        for (Team team : teams) freeSlots += Math.max(0, SharedConstants.GROUP_LIMIT - team.getMembers().size());
+
+        existingTeamCount = teams.size();
+        int newTeamCount = (Math.max(0, formable.size() - freeSlots) + SharedConstants.GROUP_LIMIT - 1) / SharedConstants.GROUP_LIMIT;
+        int teamCount = existingTeamCount + newTeamCount;
+
+        members = new Candidate[teamCount][];
+        sizes = new int[teamCount];
+        fixedSizes = new int[teamCount];
+        teamProjects = new int[teamCount];
+        teamScores = new double[teamCount][SCORES];
+        assignees = formable.toArray(new Candidate[0]);
+
+        for (int team = 0; team < existingTeamCount; team++) {
+            List<Student> teamMembers = teams.get(team).getMembers();
+            members[team] = new Candidate[Math.max(SharedConstants.GROUP_LIMIT, teamMembers.size())];
+
+            for (Student member : teamMembers) members[team][sizes[team]++] = new Candidate(member, preferenceIndex);
+            fixedSizes[team] = sizes[team];
+
+            Project project = teams.get(team).getProject();
+            teamProjects[team] = project == null ? -1 : projectIndex.indexOf(project.getUniqueId());
+        }
+
+        //New Teams take the most wanted Projects in turn
+        int[] projectsByDemand = sortProjectsByDemand();
+        for (int team = existingTeamCount; team < teamCount; team++) {
+            members[team] = new Candidate[SharedConstants.GROUP_LIMIT];
+            teamProjects[team] = projectsByDemand[(team - existingTeamCount) % projectsByDemand.length];
+        }
+
+        int team = 0;
+        for (Candidate assignee : assignees) {
+            while (sizes[team] >= SharedConstants.GROUP_LIMIT) team++;
+
+            assignee.team = team;
+            assignee.slot = sizes[team];
+            members[team][sizes[team]++] = assignee;
+        }
+
+        prepareShortfallTable();
+        for (int i = 0; i < teamCount; i++) teamScores[i] = scoreTeam(i);
+        recomputeSums();
+
+        return true;
+    }
+
+    //A Team's shortfall only depends on its skill totals, so it is summed over all Projects once for every possible total
+    private void prepareShortfallTable() {
+        int maxTeamSize = SharedConstants.GROUP_LIMIT;
+        for (Candidate[] teamMembers : members) maxTeamSize = Math.max(maxTeamSize, teamMembers.length);
+
+        int maxTotal = SharedEnums.RANKINGS.HIGHEST.getValue() * maxTeamSize;
+        shortfallTable = new double[SKILLS.length][maxTotal + 1];
+
+        for (int skill = 0; skill < SKILLS.length; skill++)
+            for (int total = 0; total <= maxTotal; total++) {
+                double competency = (double) total / SharedConstants.GROUP_LIMIT;
+
+                for (int project = 0; project < projectIndex.size(); project++) {
+                    int requestedSkillRanking = projectIndex.getRequestedRanking(project, skill);
+                    if (requestedSkillRanking >= 0 && requestedSkillRanking > competency)
+                        shortfallTable[skill][total] += requestedSkillRanking - competency;
+                }
+            }
+    }
+
+    private int[] sortProjectsByDemand() {
+        int[] demands = new int[projectIndex.size()];
+        for (Candidate assignee : assignees) {
+            for (int project : assignee.firstChoices) demands[project] += 2;
+            for (int project : assignee.secondChoices) demands[project]++;
+        }
+
+        Integer[] projects = new Integer[projectIndex.size()];
+        for (int project = 0; project < projects.length; project++) projects[project] = project;
+        Arrays.sort(projects, (first, second) -> Integer.compare(demands[second], demands[first]));
+
+        int[] sorted = new int[projects.length];
+        for (int i = 0; i < projects.length; i++) sorted[i] = projects[i];
+
+        return sorted;
+    }
+
+    /**
+     * Runs the simulated annealing from the current allocation.
+     * Returns the best allocation met, as the members of each Team and the Projects of each Team.
+     * @return Pair<Candidate[][], int[]>
+     */
+    private Pair<Candidate[][], int[]> search() {
+        long startTime = System.currentTimeMillis();
+        double currentCost = cost();
+        double bestCost = currentCost;
+        Pair<Candidate[][], int[]> best = copyAllocation();
+        double temperature = INITIAL_TEMPERATURE;
+
+        for (long iteration = 0; iteration < iterationBudget; iteration++) {
+            if (iteration % CHECK_INTERVAL == 0) {
+                double progress = Math.max(
+                    (double) iteration / iterationBudget,
+                    (double) (System.currentTimeMillis() - startTime) / timeBudget
+                );
+                if (progress >= 1) break;
+
+                temperature = INITIAL_TEMPERATURE * Math.pow(FINAL_TEMPERATURE / INITIAL_TEMPERATURE, progress);
+                recomputeSums(); //drops the rounding errors accumulated by the deltas
+                currentCost = cost();
+            }
+
+            Move move = proposeMove();
+            if (move == null) continue;
+
+            move.apply();
+            double newCost = cost();
+            double delta = newCost - currentCost;
+
+            if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                currentCost = newCost;
+
+                if (currentCost < bestCost) {
+                    bestCost = currentCost;
+                    best = copyAllocation();
+                }
+            }
+            else move.revert();
+        }
+
+        return best;
+    }
+
+    private Move proposeMove() {
+        int newTeamCount = members.length - existingTeamCount;
+        double kind = random.nextDouble();
+
+        if (newTeamCount > 0 && projectIndex.size() > 1 && kind < 0.1) {
+            int team = existingTeamCount + random.nextInt(newTeamCount);
+            int project = random.nextInt(projectIndex.size());
+
+            return project == teamProjects[team] ? null : new ProjectChange(team, project);
+        }
+
+        Candidate assignee = assignees[random.nextInt(assignees.length)];
+
+        if (kind < 0.3) {
+            int team = random.nextInt(members.length);
+            boolean emptiesNewTeam = assignee.team >= existingTeamCount && sizes[assignee.team] == 1;
+
+            return team == assignee.team || sizes[team] >= SharedConstants.GROUP_LIMIT || emptiesNewTeam
+                ? null : new Relocation(assignee, team);
+        }
+
+        Candidate other = assignees[random.nextInt(assignees.length)];
+        return other.team == assignee.team ? null : new Exchange(assignee, other);
+    }
+
+    private double cost() {
+        int teamCount = members.length;
+
+        return VIOLATION_PENALTY * totalViolations +
+               deviation(COMPETENCY, teamCount) +
+               deviation(SHORTFALL, teamCount) +
+               (deviation(SATISFACTION, teamCount) - sums[SATISFACTION] / teamCount) / PERCENTAGE;
+    }
+
+    private double deviation(int score, int teamCount) {
+        double mean = sums[score] / teamCount;
+        return Math.sqrt(Math.max(0, squareSums[score] / teamCount - mean * mean));
+    }
+
+    private void recomputeSums() {
+        Arrays.fill(sums, 0);
+        Arrays.fill(squareSums, 0);
+        totalViolations = 0;
+
+        for (double[] scores : teamScores) addScores(scores, 1);
+    }
+
+    private void addScores(double[] scores, int sign) {
+        for (int score = 0; score < VIOLATIONS; score++) {
+            sums[score] += sign * scores[score];
+            squareSums[score] += sign * scores[score] * scores[score];
+        }
+
+        totalViolations += sign * (int) scores[VIOLATIONS];
+    }
+
+    //Rescores a Team after its members or Project changed, and updates the sums of the cohort
+    private void rescoreTeam(int team) {
+        addScores(teamScores[team], -1);
+        teamScores[team] = scoreTeam(team);
+        addScores(teamScores[team], 1);
+    }
+
+    /**
+     * Scores a Team the same way as ControllerBase.calculateCompactFitnessMetricsFor, plus the number of rules it breaks.
+     * Scores are not rounded, as rounding is too slow for the number of moves tried, and the search only compares them.
+     * A member missing a Preference only adds no satisfaction, so the flash messages for it are not shown during the search.
+     * @param team int
+     * @return double[]
+     */
+    private double[] scoreTeam(int team) {
+        double[] scores = new double[SCORES];
+        Candidate[] teamMembers = members[team];
+        int size = sizes[team];
+
+        double totalCompetency = 0;
+        double totalShortfall = 0;
+        for (int skill = 0; skill < SKILLS.length; skill++) {
+            int skillTotal = 0;
+            boolean hasSkill = false;
+
+            for (int i = 0; i < size; i++) {
+                int ranking = teamMembers[i].rankings[skill];
+                if (ranking < 0) continue;
+
+                skillTotal += ranking;
+                hasSkill = true;
+            }
+
+            if (hasSkill) {
+                totalCompetency += (double) skillTotal / SharedConstants.GROUP_LIMIT;
+                totalShortfall += shortfallTable[skill][skillTotal];
+            }
+        }
+
+        scores[COMPETENCY] = totalCompetency / SharedConstants.GROUP_LIMIT * SKILLS.length;
+
+        int satisfactions = 0;
+        if (teamProjects[team] >= 0)
+            for (int i = 0; i < size; i++)
+                if (teamMembers[i].hasChoice(teamProjects[team])) satisfactions++;
+
+        scores[SATISFACTION] = (double) satisfactions * 100 / SharedConstants.GROUP_LIMIT;
+
+        scores[SHORTFALL] = totalShortfall / projectIndex.size();
+        scores[VIOLATIONS] = team < existingTeamCount && size == fixedSizes[team] ? 0 : countViolations(team);
+
+        return scores;
+    }
+
+    /**
+     * Counts the LogicalAssistant rules a Team breaks as it is: each pair of conflicting members (unless both are existing members),
+     * a full Team without Leader type, and each Personality type missing for the balance required by the Team's size.
+     * @param team int
+     * @return int
+     */
+    private int countViolations(int team) {
+        Candidate[] teamMembers = members[team];
+        int size = sizes[team];
+        int violations = 0;
+
+        boolean hasLeader = false;
+        EnumSet<SharedEnums.PERSONALITIES> personalities = EnumSet.noneOf(SharedEnums.PERSONALITIES.class);
+
+        for (int i = 0; i < size; i++) {
+            Student member = teamMembers[i].student;
+            if (member.getPersonality() != null) personalities.add(member.getPersonality());
+            if (member.getPersonality() == SharedEnums.PERSONALITIES.A) hasLeader = true;
+
+            for (int j = i + 1; j < size; j++)
+                if ((i >= fixedSizes[team] || j >= fixedSizes[team]) && teamMembers[i].conflictsWith(teamMembers[j]))
+                    violations++;
+        }
+
+        if (size == SharedConstants.GROUP_LIMIT && !hasLeader) violations++;
+
+        //A Team of 2 needs 1 Personality type, of 3 needs 2 types, of 4 needs 3 types
+        int requiredPersonalities = size < 2 ? 0 : size - 1;
+        violations += Math.max(0, requiredPersonalities - personalities.size());
+
+        return violations;
+    }
+
+    private Pair<Candidate[][], int[]> copyAllocation() {
+        Candidate[][] allocation = new Candidate[members.length][];
+        for (int team = 0; team < members.length; team++)
+            allocation[team] = Arrays.copyOf(members[team], sizes[team]);
+
+        return new Pair<>(allocation, teamProjects.clone());
+    }
+
+    private void restore(Pair<Candidate[][], int[]> allocation) {
+        for (int team = 0; team < members.length; team++) {
+            Candidate[] teamMembers = allocation.getKey()[team];
+            Arrays.fill(members[team], null);
+            System.arraycopy(teamMembers, 0, members[team], 0, teamMembers.length);
+            sizes[team] = teamMembers.length;
+
+            for (int slot = fixedSizes[team]; slot < sizes[team]; slot++) {
+                members[team][slot].team = team;
+                members[team][slot].slot = slot;
+            }
+        }
+
+        System.arraycopy(allocation.getValue(), 0, teamProjects, 0, teamProjects.length);
+        for (int team = 0; team < members.length; team++) teamScores[team] = scoreTeam(team);
+        recomputeSums();
+    }
+
+    //Turns the allocation into Teams, then calculates their Fitness Metrics and the Standard Deviations
+    private Pair<List<Team>, List<Double>> produceFormation() {
+        Map<String, Project> projectsById = new HashMap<>();
+        for (Project project : projects) projectsById.put(project.getUniqueId(), project);
+
+        ControllerBase controllerBase = new ControllerBase();
+        List<Team> formedTeams = new ArrayList<>();
+        List<Team> allTeams = new ArrayList<>();
+
+        for (int team = 0; team < members.length; team++) {
+            Team formedTeam;
+            if (team < existingTeamCount) formedTeam = teams.get(team);
+            else {
+                formedTeam = new Team();
+                formedTeam.setNewlyAdded(true);
+                formedTeam.setProject(projectsById.get(projectIndex.getUniqueId(teamProjects[team])));
+            }
+
+            for (int slot = fixedSizes[team]; slot < sizes[team]; slot++)
+                formedTeam.addMember(members[team][slot].student);
+
+            if (formedTeam.getMembers().size() == SharedConstants.GROUP_LIMIT)
+                formedTeam.setFitnessMetrics(controllerBase.calculateTeamFitnessMetricsFor(formedTeam, projectIndex, preferenceIndex));
+
+            if (sizes[team] > fixedSizes[team]) formedTeams.add(formedTeam);
+            if (hasAllPreferenceData(formedTeam)) allTeams.add(formedTeam.clone());
+        }
+
+        //Deviations are calculated on clones, as the calculation sets Fitness Metrics to Teams that are not full
+        List<Double> deviations = allTeams.isEmpty() ? null
+            : controllerBase.calculateStandardDeviationsForFitnessMetrics(allTeams, projectIndex, preferenceIndex);
+
+        return new Pair<>(formedTeams, deviations);
+    }
+
+    //Teams having a member without Preference have no Preference Satisfaction, so cannot be in the deviations
+    private boolean hasAllPreferenceData(Team team) {
+        if (team.getProject() == null) return false;
+
+        for (Student member : team.getMembers())
+            if (!hasPreferenceData(member)) return false;
+
+        return true;
+    }
+
+    /**
+     * A Student with the data the search reads on every move.
+     */
+    private static final class Candidate {
+
+        private final Student student;
+        private final int[] rankings = new int[SKILLS.length]; //-1 for a skill not ranked
+        private final Set<String> conflicters;
+        private final int[] firstChoices;
+        private final int[] secondChoices;
+
+        private int team;
+        private int slot;
+
+        private Candidate(Student student, PreferenceIndex preferenceIndex) {
+            ProjectIndex projectIndex = preferenceIndex.getProjectIndex();
+            this.student = student;
+            conflicters = new HashSet<>(student.getConflicters());
+
+            for (int skill = 0; skill < SKILLS.length; skill++) {
+                SharedEnums.RANKINGS ranking = student.getSkillRanking().get(SKILLS[skill]);
+                rankings[skill] = ranking == null ? -1 : ranking.getValue();
+            }
+
+            List<Integer> firsts = new ArrayList<>();
+            List<Integer> seconds = new ArrayList<>();
+            for (int project = 0; project < projectIndex.size(); project++) {
+                int rating = preferenceIndex.getRating(student.getUniqueId(), project);
+                if (rating == 4) firsts.add(project);
+                if (rating == 3) seconds.add(project);
+            }
+
+            firstChoices = firsts.stream().mapToInt(Integer::intValue).toArray();
+            secondChoices = seconds.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private boolean hasChoice(int project) {
+            for (int choice : firstChoices) if (choice == project) return true;
+            for (int choice : secondChoices) if (choice == project) return true;
+
+            return false;
+        }
+
+        private boolean conflictsWith(Candidate other) {
+            return conflicters.contains(other.student.getUniqueId()) || other.conflicters.contains(student.getUniqueId());
+        }
+    }
+
+    private interface Move {
+        void apply();
+        void revert();
+    }
+
+    //Swaps 2 allocated Students between their Teams
+    private final class Exchange implements Move {
+
+        private final Candidate first;
+        private final Candidate second;
+
+        private Exchange(Candidate first, Candidate second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void apply() {
+            int firstTeam = first.team;
+            int firstSlot = first.slot;
+
+            place(first, second.team, second.slot);
+            place(second, firstTeam, firstSlot);
+
+            rescoreTeam(first.team);
+            rescoreTeam(second.team);
+        }
+
+        @Override
+        public void revert() {
+            apply();
+        }
+    }
+
+    //Moves an allocated Student into another Team having a free slot
+    private final class Relocation implements Move {
+
+        private final Candidate assignee;
+        private final int targetTeam;
+        private int sourceTeam;
+
+        private Relocation(Candidate assignee, int targetTeam) {
+            this.assignee = assignee;
+            this.targetTeam = targetTeam;
+        }
+
+        @Override
+        public void apply() {
+            sourceTeam = assignee.team;
+            moveTo(targetTeam);
+        }
+
+        @Override
+        public void revert() {
+            moveTo(sourceTeam);
+        }
+
+        private void moveTo(int team) {
+            int from = assignee.team;
+
+            //The last member takes the freed slot, it is an allocated Student as existing members come first
+            Candidate last = members[from][--sizes[from]];
+            members[from][sizes[from]] = null;
+            if (last != assignee) place(last, from, assignee.slot);
+
+            place(assignee, team, sizes[team]++);
+
+            rescoreTeam(from);
+            rescoreTeam(team);
+        }
+    }
+
+    //Gives a new Team another Project
+    private final class ProjectChange implements Move {
+
+        private final int team;
+        private final int project;
+        private int previousProject;
+
+        private ProjectChange(int team, int project) {
+            this.team = team;
+            this.project = project;
+        }
+
+        @Override
+        public void apply() {
+            previousProject = teamProjects[team];
+            teamProjects[team] = project;
+            rescoreTeam(team);
+        }
+
+        @Override
+        public void revert() {
+            teamProjects[team] = previousProject;
+            rescoreTeam(team);
+        }
+    }
+
+    private void place(Candidate candidate, int team, int slot) {
+        members[team][slot] = candidate;
+        candidate.team = team;
+        candidate.slot = slot;
+    }
+}
@@ -0,0 +1,246 @@
+package cosc1295.src.services.analyzers;
+
+import com.sun.istack.internal.Nullable;
+import cosc1295.src.models.Student;
+import cosc1295.src.models.Team;
+import helpers.commons.SharedConstants;
+import helpers.commons.SharedEnums;
+
+import java.util.*;
+
+/**
+ * Checks the Team requirements on assigning and swapping Students without cloning Teams or building lists.
+ * Students get dense indices by unique ID, and each Team keeps its requirements as primitives:
+ * a count of members per Personality, a count of Leader type members and a bitset of the Students its members refuse.
+ * The results are identical to the requirement checks of LogicalAssistant, which delegate to this engine.
+ * States are prepared once, so the engine can be shared by threads as long as the Teams and Students do not change.
+ */
+public class ConstraintEngine {
+
+    private static final int PERSONALITY_SLOTS = SharedEnums.PERSONALITIES.values().length + 1; //last slot for unset Personality
+
+    private final Map<String, Integer> studentIndices = new HashMap<>();
+    private final Map<Student, StudentState> studentStates = new IdentityHashMap<>();
+    private final Map<Team, TeamState> teamStates = new IdentityHashMap<>();
+
+    /**
+     * Prepares the states for the given Teams and Students, and the members of the Teams.
+     * Teams and Students not given here are prepared on each use.
+     * @param teams List<Team>
+     * @param students List<Student>
+     */
+    public ConstraintEngine(List<Team> teams, List<Student> students) {
+        //Indexes every unique ID that can be refused, so conflicts are found by index
+        for (Student student : students) indexStudent(student);
+        for (Team team : teams)
+            for (Student member : team.getMembers()) indexStudent(member);
+
+        for (Student student : students) studentStates.put(student, new StudentState(student));
+        for (Team team : teams) {
+            for (Student member : team.getMembers())
+                if (!studentStates.containsKey(member)) studentStates.put(member, new StudentState(member));
+
+            teamStates.put(team, new TeamState(team));
+        }
+    }
+
+    /**
+     * Checks if a Student can be assigned to a Team, possibly in place of a member.
+     * The replaced member is found by unique ID.
+     * @param student Student
+     * @param team Team
+     * @param member Student - the member replaced by the assignee, null to add the assignee
+     * @return boolean
+     */
+    public boolean isStudentAssignable(Student student, Team team, @Nullable Student member) {
+        StudentState assignee = stateOf(student);
+        TeamState teamState = stateOf(team);
+        int replaced = member == null ? -1 : teamState.slotOf(indexOf(member.getUniqueId()));
+
+        //A Team having 3 members must get its Leader type from the assignee if no remaining member is one
+        if (teamState.size == SharedConstants.GROUP_LIMIT - 1 &&
+            teamState.countLeadersWithout(replaced) + (assignee.leader ? 1 : 0) == 0
+        ) return false;
+
+        if (assignee.refuses(assignee.index) || teamState.isRefusing(assignee.index, replaced)) return false;
+
+        int remaining = teamState.size - (replaced < 0 ? 0 : 1);
+        return remaining < 1 || !isImbalance(remaining + 1, teamState.countPersonalitiesWith(replaced, assignee.personality));
+    }
+
+    /**
+     * Checks if 2 Students can be swapped between their Teams.
+     * Each member is found in its Team by reference.
+     * @param firstTeam Team
+     * @param secondTeam Team
+     * @param firstTeamMember Student
+     * @param secondTeamMember Student
+     * @return boolean
+     */
+    public boolean areStudentsSwappable(Team firstTeam, Team secondTeam, Student firstTeamMember, Student secondTeamMember) {
+        StudentState firstMember = stateOf(firstTeamMember);
+        StudentState secondMember = stateOf(secondTeamMember);
+
+        return isReceivable(stateOf(firstTeam), firstMember, secondMember) &&
+               isReceivable(stateOf(secondTeam), secondMember, firstMember);
+    }
+
+    //Checks if a Team can take the incoming Student in place of the outgoing member
+    private boolean isReceivable(TeamState teamState, StudentState outgoing, StudentState incoming) {
+        int replaced = teamState.slotOf(outgoing);
+        int remaining = teamState.size - (replaced < 0 ? 0 : 1);
+
+        //A refusal is overlooked when the Team still needs its Leader type, as LogicalAssistant reports the Leader type only
+        boolean leaderRequired = remaining >= 3 &&
+                                 teamState.countLeadersWithout(replaced) == 0 &&
+                                 !(remaining == 3 && incoming.leader);
+        if (!leaderRequired && teamState.isRefusing(incoming.index, replaced)) return false;
+
+        return remaining < 1 || !isImbalance(remaining + 1, teamState.countPersonalitiesWith(replaced, incoming.personality));
+    }
+
+    //A prospective Team with 2 Personality types or less is imbalance once it has 4 members, or 3 members of the same type
+    private static boolean isImbalance(int size, int personalities) {
+        return personalities <= 2 && (size >= 4 || (size == 3 && personalities < 2));
+    }
+
+    private void indexStudent(Student student) {
+        studentIndices.putIfAbsent(student.getUniqueId(), studentIndices.size());
+        for (String uniqueId : student.getConflicters())
+            studentIndices.putIfAbsent(uniqueId, studentIndices.size());
+    }
+
+    //Unique IDs unknown to the engine are refused by no one
+    private int indexOf(String uniqueId) {
+        Integer index = studentIndices.get(uniqueId);
+        return index == null ? -1 : index;
+    }
+
+    private StudentState stateOf(Student student) {
+        StudentState state = studentStates.get(student);
+        return state != null ? state : new StudentState(student);
+    }
+
+    private TeamState stateOf(Team team) {
+        TeamState state = teamStates.get(team);
+        return state != null ? state : new TeamState(team);
+    }
+
+    private static int personalitySlotOf(Student student) {
+        return student.getPersonality() == null ? PERSONALITY_SLOTS - 1 : student.getPersonality().ordinal();
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return index >= 0 && (index >>> 6) < bits.length && (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * The requirement data of a single Student.
+     */
+    private final class StudentState {
+
+        private final int index;
+        private final int personality;
+        private final boolean leader;
+        private final long[] refusedBits;
+
+        private StudentState(Student student) {
+            index = indexOf(student.getUniqueId());
+            personality = personalitySlotOf(student);
+            leader = student.getPersonality() == SharedEnums.PERSONALITIES.A;
+
+            int maxIndex = -1;
+            for (String uniqueId : student.getConflicters()) maxIndex = Math.max(maxIndex, indexOf(uniqueId));
+
+            refusedBits = new long[maxIndex < 0 ? 0 : (maxIndex >>> 6) + 1];
+            for (String uniqueId : student.getConflicters()) {
+                int refused = indexOf(uniqueId);
+                if (refused >= 0) refusedBits[refused >>> 6] |= 1L << refused;
+            }
+        }
+
+        private boolean refuses(int studentIndex) {
+            return isSet(refusedBits, studentIndex);
+        }
+    }
+
+    /**
+     * The requirement data of a single Team.
+     */
+    private final class TeamState {
+
+        private final StudentState[] members;
+        private final int size;
+        private final int[] personalityCounts = new int[PERSONALITY_SLOTS];
+        private final int personalityMask;
+        private final int leaderCount;
+        private final long[] refusedBits; //union of the members' refusals
+
+        private TeamState(Team team) {
+            size = team.getMembers().size();
+            members = new StudentState[size];
+
+            int leaders = 0;
+            int words = 0;
+            for (int i = 0; i < size; i++) {
+                members[i] = stateOf(team.getMembers().get(i));
+                personalityCounts[members[i].personality]++;
+                if (members[i].leader) leaders++;
+                words = Math.max(words, members[i].refusedBits.length);
+            }
+
+            int mask = 0;
+            for (int slot = 0; slot < PERSONALITY_SLOTS; slot++)
+                if (personalityCounts[slot] > 0) mask |= 1 << slot;
+
+            refusedBits = new long[words];
+            for (StudentState member : members)
+                for (int word = 0; word < member.refusedBits.length; word++)
+                    refusedBits[word] |= member.refusedBits[word];
+
+            personalityMask = mask;
+            leaderCount = leaders;
+        }
+
+        //Finds a member by unique ID index
+        private int slotOf(int studentIndex) {
+            if (studentIndex < 0) return -1;
+
+            for (int i = 0; i < size; i++)
+                if (members[i].index == studentIndex) return i;
+
+            return -1;
+        }
+
+        //Finds a member by reference
+        private int slotOf(StudentState member) {
+            for (int i = 0; i < size; i++)
+                if (members[i] == member) return i;
+
+            return -1;
+        }
+
+        private int countLeadersWithout(int replaced) {
+            return leaderCount - (replaced >= 0 && members[replaced].leader ? 1 : 0);
+        }
+
+        //Counts the Personality types of the Team having the member at the replaced slot replaced by a Student of the given Personality
+        private int countPersonalitiesWith(int replaced, int personality) {
+            int mask = personalityMask;
+            if (replaced >= 0 && personalityCounts[members[replaced].personality] == 1)
+                mask &= ~(1 << members[replaced].personality);
+
+            return Integer.bitCount(mask | 1 << personality);
+        }
+
+        //Checks if any member, other than the one at the replaced slot, refuses a Student
+        private boolean isRefusing(int studentIndex, int replaced) {
+            if (!isSet(refusedBits, studentIndex)) return false;
+
+            for (int i = 0; i < size; i++)
+                if (i != replaced && members[i].refuses(studentIndex)) return true;
+
+            return false;
+        }
+    }
+}
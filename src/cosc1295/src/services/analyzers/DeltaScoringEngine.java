@@ -0,0 +1,243 @@
+package cosc1295.src.services.analyzers;
+
+import com.sun.istack.internal.Nullable;
+import cosc1295.src.models.*;
+import helpers.commons.SharedConstants;
+import helpers.commons.SharedEnums;
+import helpers.utilities.Helpers;
+
+import javafx.util.Pair;
+import java.util.*;
+
+/**
+ * Scores candidate swaps and assignments incrementally instead of recomputing the Fitness Metrics of whole Teams.
+ * Each Team keeps running sums of its skill rankings, preference satisfactions and per-project shortfall contributions,
+ * so a candidate only applies the delta of the outgoing and incoming members.
+ * All sums are integers in hundredths, so applying a delta never accumulates floating-point errors.
+ * The metrics produced are identical to ControllerBase.calculateTeamFitnessMetricsFor on the changed Team.
+ */
+public class DeltaScoringEngine {
+
+    private static final SharedEnums.SKILLS[] SKILLS = SharedEnums.SKILLS.values();
+
+    private final ProjectIndex projectIndex;
+    private final PreferenceIndex preferenceIndex;
+    private final Map<Team, TeamState> teamStates;
+
+    /**
+     * Prepares the running states for the given Teams. Teams not given here are prepared on first use.
+     * @param teams List<Team>
+     * @param projects List<Project>
+     * @param preferences List<Preference>
+     */
+    public DeltaScoringEngine(List<Team> teams, List<Project> projects, List<Preference> preferences) {
+        this(teams, new PreferenceIndex(preferences, new ProjectIndex(projects)));
+    }
+
+    /**
+     * Prepares the running states for the given Teams, using Preferences indexed against the Projects to score.
+     * @param teams List<Team>
+     * @param preferenceIndex PreferenceIndex - must have a ProjectIndex
+     */
+    public DeltaScoringEngine(List<Team> teams, PreferenceIndex preferenceIndex) {
+        this.projectIndex = preferenceIndex.getProjectIndex();
+        this.preferenceIndex = preferenceIndex;
+
+        teamStates = Collections.synchronizedMap(new IdentityHashMap<>());
+        for (Team team : teams) teamStates.put(team, new TeamState(team));
+    }
+
+    public ProjectIndex getProjectIndex() {
+        return projectIndex;
+    }
+
+    /**
+     * Computes the Fitness Metrics of a Team as it currently is.
+     * @param team Team
+     * @return CompactTeamFitness
+     */
+    public CompactTeamFitness scoreTeam(Team team) {
+        return stateOf(team).scoreReplacement(null, null);
+    }
+
+    /**
+     * Computes the Fitness Metrics of 2 Teams as if their members were swapped, without changing the Teams.
+     * @param firstTeam Team
+     * @param secondTeam Team
+     * @param firstTeamMember Student
+     * @param secondTeamMember Student
+     * @return Pair<CompactTeamFitness, CompactTeamFitness>
+     */
+    public Pair<CompactTeamFitness, CompactTeamFitness> scoreSwap(
+        Team firstTeam, Team secondTeam, Student firstTeamMember, Student secondTeamMember
+    ) {
+        return new Pair<>(
+            stateOf(firstTeam).scoreReplacement(firstTeamMember, secondTeamMember),
+            stateOf(secondTeam).scoreReplacement(secondTeamMember, firstTeamMember)
+        );
+    }
+
+    /**
+     * Computes the Fitness Metrics of a Team as if a Student was assigned into it, without changing the Team.
+     * @param team Team
+     * @param member Student - the member replaced by the assignee, null to add the assignee
+     * @param assignee Student
+     * @return CompactTeamFitness
+     */
+    public CompactTeamFitness scoreAssignment(Team team, @Nullable Student member, Student assignee) {
+        return stateOf(team).scoreReplacement(member, assignee);
+    }
+
+    //Atomic on the synchronized map, so workers scoring the same Team concurrently share 1 state
+    private TeamState stateOf(Team team) {
+        return teamStates.computeIfAbsent(team, TeamState::new);
+    }
+
+    private Preference findPreference(Student student) {
+        return preferenceIndex.getPreferenceFor(student.getUniqueId());
+    }
+
+    private static int rankingOf(Student student, int skill) {
+        if (student == null) return -1;
+
+        SharedEnums.RANKINGS ranking = student.getSkillRanking().get(SKILLS[skill]);
+        return ranking == null ? -1 : ranking.getValue();
+    }
+
+    private static int averageOf(int skillTotal) {
+        return (int) Helpers.divideHalfEven((long) skillTotal * SharedConstants.METRIC_SCALE, SharedConstants.GROUP_LIMIT);
+    }
+
+    private int shortfallContribution(int project, int skill, int teamSkillRanking) {
+        int requested = projectIndex.getRequestedRanking(project, skill) * SharedConstants.METRIC_SCALE;
+        return requested > teamSkillRanking ? requested - teamSkillRanking : 0;
+    }
+
+    /**
+     * The running sums of a single Team.
+     */
+    private class TeamState {
+
+        private final int fitnessId;
+        private final String projectId;
+        private final int projectPosition;
+        private final int[] skillTotals = new int[SKILLS.length];
+        private final int[] skillPresences = new int[SKILLS.length];
+        private final int[] shortfalls = new int[projectIndex.size()];
+        private int firstCount;
+        private int secondCount;
+        private int missingPreferences;
+        private int unmatchablePreferences;
+
+        private TeamState(Team team) {
+            fitnessId = team.getFitnessMetrics() == null ? 0 : team.getFitnessMetrics().getId();
+            projectId = team.getProject() == null ? null : team.getProject().getUniqueId();
+            projectPosition = projectId == null ? -1 : projectIndex.indexOf(projectId);
+
+            for (Student member : team.getMembers()) {
+                for (int skill = 0; skill < SKILLS.length; skill++) {
+                    int ranking = rankingOf(member, skill);
+                    if (ranking < 0) continue;
+
+                    skillTotals[skill] += ranking;
+                    skillPresences[skill]++;
+                }
+
+                firstCount += preferenceRating(member, 4);
+                secondCount += preferenceRating(member, 3);
+                missingPreferences += isPreferenceMissing(member);
+                unmatchablePreferences += isPreferenceUnmatchable(member);
+            }
+
+            for (int project = 0; project < projectIndex.size(); project++)
+                for (int skill = 0; skill < SKILLS.length; skill++)
+                    if (skillPresences[skill] > 0 && projectIndex.getRequestedRanking(project, skill) >= 0)
+                        shortfalls[project] += shortfallContribution(project, skill, averageOf(skillTotals[skill]));
+        }
+
+        /**
+         * Scores the Team with the outgoing member (nullable) replaced by the incoming one (nullable).
+         * Only the skills whose totals change are re-evaluated against the Projects.
+         */
+        private CompactTeamFitness scoreReplacement(Student outgoing, Student incoming) {
+            CompactTeamFitness metrics = new CompactTeamFitness(projectIndex);
+            metrics.setId(fitnessId);
+
+            for (int project = 0; project < projectIndex.size(); project++)
+                metrics.setShortfall(project, shortfalls[project]);
+
+            long totalCompetency = 0;
+            for (int skill = 0; skill < SKILLS.length; skill++) {
+                int incomingRanking = rankingOf(incoming, skill);
+                int outgoingRanking = rankingOf(outgoing, skill);
+
+                int presence = skillPresences[skill] + (incomingRanking < 0 ? 0 : 1) - (outgoingRanking < 0 ? 0 : 1);
+                int total = skillTotals[skill] + Math.max(incomingRanking, 0) - Math.max(outgoingRanking, 0);
+                int competency = presence > 0 ? averageOf(total) : CompactTeamFitness.MISSING;
+
+                metrics.setCompetency(skill, competency);
+                if (presence > 0) totalCompetency += competency;
+
+                if (total == skillTotals[skill] && (presence > 0) == (skillPresences[skill] > 0)) continue;
+
+                for (int project = 0; project < projectIndex.size(); project++)
+                    if (projectIndex.getRequestedRanking(project, skill) >= 0)
+                        metrics.setShortfall(project,
+                            metrics.getShortfall(project) +
+                            (presence > 0 ? shortfallContribution(project, skill, competency) : 0) -
+                            (skillPresences[skill] > 0 ? shortfallContribution(project, skill, averageOf(skillTotals[skill])) : 0)
+                        );
+            }
+
+            metrics.setAverageTeamSkillCompetency((int) Helpers.divideHalfEven(
+                totalCompetency * SKILLS.length, SharedConstants.GROUP_LIMIT
+            ));
+
+            boolean satisfactionMissing =
+                missingPreferences + isPreferenceMissing(incoming) - isPreferenceMissing(outgoing) > 0 ||
+                unmatchablePreferences + isPreferenceUnmatchable(incoming) - isPreferenceUnmatchable(outgoing) > 0;
+
+            if (satisfactionMissing) metrics.clearPreferenceSatisfaction();
+            else {
+                int first = firstCount - preferenceRating(outgoing, 4) + preferenceRating(incoming, 4);
+                int second = secondCount - preferenceRating(outgoing, 3) + preferenceRating(incoming, 3);
+
+                metrics.setPreferenceSatisfaction(
+                    CompactTeamFitness.percentageOf(first + second),
+                    CompactTeamFitness.percentageOf(first),
+                    CompactTeamFitness.percentageOf(second)
+                );
+            }
+
+            long totalShortfall = 0;
+            for (int project = 0; project < projectIndex.size(); project++)
+                totalShortfall += metrics.getShortfall(project);
+
+            metrics.setAverageSkillShortfall((int) Helpers.divideHalfEven(totalShortfall, projectIndex.size()));
+
+            return metrics;
+        }
+
+        private int preferenceRating(Student member, int rating) {
+            if (member == null || projectId == null) return 0;
+
+            int memberRating = projectPosition >= 0
+                ? preferenceIndex.getRating(member.getUniqueId(), projectPosition)
+                : preferenceIndex.getRating(member.getUniqueId(), projectId);
+
+            return memberRating == rating ? 1 : 0;
+        }
+
+        private int isPreferenceMissing(Student member) {
+            return member != null && findPreference(member) == null ? 1 : 0;
+        }
+
+        //A Team without Project cannot be matched against the preferences of a member who has any
+        private int isPreferenceUnmatchable(Student member) {
+            if (member == null || projectId != null) return 0;
+
+            Preference preference = findPreference(member);
+            return preference != null && !preference.getPreference().isEmpty() ? 1 : 0;
+        }
+    }
+}
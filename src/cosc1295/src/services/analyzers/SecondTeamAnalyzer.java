@@ -2,10 +2,13 @@ package cosc1295.src.services.analyzers;
 
 import cosc1295.src.models.Student;
 import cosc1295.src.models.Team;
-import cosc1295.src.models.TeamFitness;
+import cosc1295.src.models.CompactTeamFitness;
+import cosc1295.src.models.DomainSnapshot;
 
 import javafx.util.Pair;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 /**
@@ -24,10 +27,15 @@ public class SecondTeamAnalyzer<T> extends SuperAnalyzer implements Callable<T>
         selectedTeam = team;
     }
 
+    public SecondTeamAnalyzer(DomainSnapshot snapshot, Team team) {
+        super(snapshot);
+        selectedTeam = team;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public T call() {
-        HashMap<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>> metricsData = calculateMetrics();
+        HashMap<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>> metricsData = calculateMetrics();
         Pair<Student, Student> suggestion = produceSwapSuggestion(metricsData);
         if (suggestion == null) return null;
 
@@ -39,27 +47,15 @@ public class SecondTeamAnalyzer<T> extends SuperAnalyzer implements Callable<T>
      * Calculates the Fitness Metrics for each possible pair combination of Students across all Teams.
      * `Possible` means each pair is checked against all team requirements.
      * Returns HashMap of Pair<Student, Student> being the possible swap,
-     * and Pair<TeamFitness, TeamFitness> being the Fitness Metrics of 2 Teams.
-     * @return HashMap<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>>
+     * and Pair<CompactTeamFitness, CompactTeamFitness> being the Fitness Metrics of 2 Teams.
+     * @return HashMap<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>>
      */
-    private HashMap<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>> calculateMetrics() {
-        HashMap<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>> metricsData = new HashMap<>();
-
-        for (Team team : teams) {
-            if (team.getId() == selectedTeam.getId()) continue;
-
-            for (Student member : selectedTeam.getMembers())
-                for (Student elector : team.getMembers()) {
-                    Pair<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>> metrics = produceMetricsData(
-                        selectedTeam, team, member, elector
-                    );
-                    if (metrics == null) continue;
-
-                    metricsData.put(metrics.getKey(), metrics.getValue());
-                }
-        }
+    private HashMap<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>> calculateMetrics() {
+        List<Team> otherTeams = new ArrayList<>();
+        for (Team team : teams)
+            if (team.getId() != selectedTeam.getId()) otherTeams.add(team);
 
-        return metricsData;
+        return evaluateCandidates(otherTeams, team -> calculateSwapMetricsFor(selectedTeam, team));
     }
 
     private Team findTeamByMember(Student member) {
@@ -1,63 +1,156 @@
 package cosc1295.src.services.analyzers;
 
-import cosc1295.providers.services.ProjectService;
-import cosc1295.providers.services.StudentService;
-import cosc1295.providers.services.TeamService;
-import cosc1295.src.controllers.ControllerBase;
 import cosc1295.src.models.*;
-import helpers.utilities.LogicalAssistant;
+import cosc1295.src.services.DomainSnapshotService;
 
 import javafx.util.Pair;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
-class SuperAnalyzer {
+public class SuperAnalyzer {
 
     final List<Preference> preferences;
     final List<Project> projects;
     final List<Team> teams;
     final List<Student> students;
+    final PreferenceIndex preferenceIndex;
+    final DeltaScoringEngine scoringEngine;
+    final ConstraintEngine constraintEngine;
+
+    private ForkJoinPool workerPool; //null to evaluate sequentially
+
+    //Progress and cancellation, shared by the threads evaluating candidates
+    private final AtomicInteger evaluatedUnits = new AtomicInteger();
+    private final AtomicInteger totalUnits = new AtomicInteger();
+    private final AtomicLong evaluatedCandidates = new AtomicLong();
+    private volatile ProgressListener progressListener;
+    private volatile boolean cancelled;
 
     public SuperAnalyzer() {
-        preferences = (new StudentService()).readAllStudentPreferencesFromFile();
-        projects = (new ProjectService()).readAllProjectsFromFile();
-        teams = (new TeamService()).readAllTeamsFromFile();
-        students = (new StudentService()).readAllStudentsFromFile();
-        LogicalAssistant.setStudentDataInTeams(teams, students);
+        this(DomainSnapshotService.getInstance().getSnapshot());
+    }
+
+    /**
+     * Analyzes the data held in a snapshot instead of reading storage.
+     * Teams are cloned from the snapshot, so the analyzer never changes the snapshot.
+     * @param snapshot DomainSnapshot
+     */
+    public SuperAnalyzer(DomainSnapshot snapshot) {
+        preferences = snapshot.getPreferences();
+        projects = snapshot.getProjects();
+        teams = snapshot.getTeams();
+        students = snapshot.getStudents();
+        preferenceIndex = snapshot.getPreferenceIndex();
+        scoringEngine = new DeltaScoringEngine(teams, preferenceIndex);
+        constraintEngine = new ConstraintEngine(teams, students);
+    }
+
+    /**
+     * Sets the pool of worker threads used to evaluate candidates. Evaluates sequentially if null.
+     * The pool is shared by analyses, see SuggestionService.getWorkerPool.
+     * @param workerPool ForkJoinPool
+     */
+    public void setWorkerPool(ForkJoinPool workerPool) {
+        this.workerPool = workerPool;
+    }
+
+    /**
+     * Sets the listener receiving the progress of evaluating candidates.
+     * The listener is called by the threads evaluating candidates, each time a unit has been evaluated.
+     * @param progressListener ProgressListener
+     */
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Stops the analysis: no more unit is evaluated, and the analysis throws CancellationException.
+     * The unit being evaluated by each thread is finished first.
+     */
+    public void cancel() {
+        cancelled = true;
     }
 
     /**
      * Calculates the Fitness Metrics for each possible pair combination of Students accross all Teams.
      * `Possible` means each pair is checked against all team requirements.
      * Returns HashMap of Pair<Student, Student> being the possible swap,
-     * and Pair<TeamFitness, TeamFitness> being the Fitness Metrics of 2 Teams.
-     * @return HashMap<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>>
+     * and Pair<CompactTeamFitness, CompactTeamFitness> being the Fitness Metrics of 2 Teams.
+     * @return HashMap<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>>
      */
-    HashMap<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>> calculateSwapMetrics() {
-        HashMap<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>> metricsData = new HashMap<>();
+    HashMap<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>> calculateSwapMetrics() {
+        List<Pair<Team, Team>> teamPairs = new ArrayList<>();
+        for (int i = 0; i < teams.size(); i++)
+            for (int j = i + 1; j < teams.size(); j++)
+                teamPairs.add(new Pair<>(teams.get(i), teams.get(j)));
 
-        for (int i = 0; i < teams.size(); i++) {
-            Team first = teams.get(i);
+        return evaluateCandidates(teamPairs, teamPair -> calculateSwapMetricsFor(teamPair.getKey(), teamPair.getValue()));
+    }
 
-            for (int j = i + 1; j < teams.size(); j++) {
-                Team second = teams.get(j);
+    /**
+     * Calculates the Fitness Metrics for each possible pair combination of Students between 2 Teams.
+     * @param first Team
+     * @param second Team
+     * @return LinkedHashMap<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>>
+     */
+    LinkedHashMap<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>> calculateSwapMetricsFor(Team first, Team second) {
+        LinkedHashMap<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>> metricsData = new LinkedHashMap<>();
 
-                for (Student firstMember : first.getMembers())
-                    for (Student secondMember : second.getMembers()) {
-                        Pair<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>> metrics = produceMetricsData(
-                                first, second, firstMember, secondMember
-                        );
-                        if (metrics == null) continue;
+        for (Student firstMember : first.getMembers())
+            for (Student secondMember : second.getMembers()) {
+                Pair<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>> metrics = produceMetricsData(
+                        first, second, firstMember, secondMember
+                );
+                if (metrics == null) continue;
 
-                        metricsData.put(metrics.getKey(), metrics.getValue());
-                    }
+                metricsData.put(metrics.getKey(), metrics.getValue());
             }
 
-            if (i == teams.size() - 2) break;
+        return metricsData;
+    }
+
+    /**
+     * Evaluates the candidates produced by each unit (a Team, a pair of Teams, a Student...) and merges them in unit order.
+     * When a worker pool is set, the units are partitioned into fork/join tasks. Merging keeps the unit order,
+     * so the result (and the suggestion made from it) is the same as evaluating sequentially.
+     * The progress is reported after each unit, and a cancelled analysis stops before evaluating the next unit.
+     * @param units List<U>
+     * @param evaluator Function<U, LinkedHashMap<K, V>>
+     * @return LinkedHashMap<K, V>
+     */
+    <U, K, V> LinkedHashMap<K, V> evaluateCandidates(List<U> units, Function<U, LinkedHashMap<K, V>> evaluator) {
+        totalUnits.addAndGet(units.size());
+        Function<U, LinkedHashMap<K, V>> trackedEvaluator = unit -> {
+            if (cancelled) throw new CancellationException("Analysis cancelled.");
+
+            LinkedHashMap<K, V> candidates = evaluator.apply(unit);
+            reportProgress(candidates.size());
+
+            return candidates;
+        };
+
+        ForkJoinPool pool = workerPool;
+        if (pool == null || units.size() <= 1) {
+            LinkedHashMap<K, V> candidates = new LinkedHashMap<>();
+            for (U unit : units) candidates.putAll(trackedEvaluator.apply(unit));
+
+            return candidates;
         }
 
-        return metricsData;
+        return pool.invoke(new CandidateTask<>(units, 0, units.size(), trackedEvaluator));
+    }
+
+    private void reportProgress(int candidates) {
+        int units = evaluatedUnits.incrementAndGet();
+        long allCandidates = evaluatedCandidates.addAndGet(candidates);
+
+        ProgressListener listener = progressListener;
+        if (listener != null) listener.onProgress(units, totalUnits.get(), allCandidates);
     }
 
     Pair<Team, Team> findTeamsByMembers(Pair<Student, Student> members) {
@@ -88,20 +181,19 @@ class SuperAnalyzer {
      * Used for AssignStudentAnalyzer to produce a suggestion.
      * Returns HashMap with Key being a pair of Students that can be assigned/replaced,
      * and Value being the averages for later comparisons.
-     * @param metricsData HashMap<Pair<Student, Student>, TeamFitness>
-     * @return HashMap<Pair<Student, Student>, Double>
+     * The averages are kept as integers multiplied by 3 (the number of metrics), so no division is made
+     * and the comparisons are exact: (SK + PS) / 3 is kept as SK + PS, and SS as SS * 3, all in hundredths.
+     * @param metricsData HashMap<Pair<Student, Student>, CompactTeamFitness>
+     * @return HashMap<Pair<Student, Student>, Long>
      */
-    <T> HashMap<T, Pair<Double, Double>> calculateAssignMetricsAverages(HashMap<T, TeamFitness> metricsData) {
-        HashMap<T, Pair<Double, Double>> averages = new HashMap<>();
+    <T> HashMap<T, Pair<Long, Long>> calculateAssignMetricsAverages(HashMap<T, CompactTeamFitness> metricsData) {
+        HashMap<T, Pair<Long, Long>> averages = new LinkedHashMap<>();
 
-        for (Map.Entry<T, TeamFitness> entry : metricsData.entrySet()) {
-            TeamFitness metrics = entry.getValue();
-            double entryMetricsAverage = (
-                metrics.getAverageTeamSkillCompetency() +
-                metrics.getPreferenceSatisfaction().getKey()
-            ) / 3;
+        for (Map.Entry<T, CompactTeamFitness> entry : metricsData.entrySet()) {
+            CompactTeamFitness metrics = entry.getValue();
+            long entryMetricsAverage = (long) metrics.getAverageTeamSkillCompetency() + metrics.getOverallSatisfaction();
 
-            averages.put(entry.getKey(), new Pair<>(entryMetricsAverage, metrics.getAverageSkillShortfall()));
+            averages.put(entry.getKey(), new Pair<>(entryMetricsAverage, 3L * metrics.getAverageSkillShortfall()));
         }
 
         return averages;
@@ -112,28 +204,29 @@ class SuperAnalyzer {
      * Used for TeamsSwapAnalyzer, SecondTeamAnalyzer, SwapStudentAnalyser to produce a suggestion.
      * Returns HashMap with Key being a pair of Students that can be assigned/replaced,
      * and Value being the averages for later comparisons.
-     * @param metricsData HashMap<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>>
-     * @return HashMap<Pair<Student, Student>, Double>
+     * The averages are kept as integers multiplied by 6 (2 Teams by 3 metrics), so no division is made
+     * and the comparisons are exact: the sums of SK and PS of both Teams, and the sum of SS of both Teams * 3, all in hundredths.
+     * @param metricsData HashMap<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>>
+     * @return HashMap<Pair<Student, Student>, Long>
      */
-    HashMap<Pair<Student, Student>, Pair<Double, Double>> calculateSwapMetricsAverages(
-        HashMap<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>> metricsData
+    HashMap<Pair<Student, Student>, Pair<Long, Long>> calculateSwapMetricsAverages(
+        HashMap<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>> metricsData
     ) {
-        HashMap<Pair<Student, Student>, Pair<Double, Double>> averages = new HashMap<>();
+        HashMap<Pair<Student, Student>, Pair<Long, Long>> averages = new LinkedHashMap<>();
 
-        for (Map.Entry<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>> entry : metricsData.entrySet()) {
-            TeamFitness firstMetrics = entry.getValue().getKey();
-            TeamFitness secondMetrics = entry.getValue().getValue();
+        for (Map.Entry<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>> entry : metricsData.entrySet()) {
+            CompactTeamFitness firstMetrics = entry.getValue().getKey();
+            CompactTeamFitness secondMetrics = entry.getValue().getValue();
 
-            double metricsAverage = (
-                (firstMetrics.getAverageTeamSkillCompetency() + secondMetrics.getAverageTeamSkillCompetency()) / 2 +
-                (firstMetrics.getPreferenceSatisfaction().getKey() + secondMetrics.getPreferenceSatisfaction().getKey()) / 2
-            ) / 3;
+            long metricsAverage =
+                (long) firstMetrics.getAverageTeamSkillCompetency() + secondMetrics.getAverageTeamSkillCompetency() +
+                firstMetrics.getOverallSatisfaction() + secondMetrics.getOverallSatisfaction();
 
             averages.put(
                 entry.getKey(),
                 new Pair<>(
                     metricsAverage,
-                    (firstMetrics.getAverageSkillShortfall() + secondMetrics.getAverageSkillShortfall()) / 2
+                    3L * (firstMetrics.getAverageSkillShortfall() + secondMetrics.getAverageSkillShortfall())
                 )
             );
         }
@@ -144,72 +237,102 @@ class SuperAnalyzer {
     /**
      * Checks if a Student has its data for Project Preference or it's missing.
      * @param student Student
-     * @param preferences List<Preference>
      * @return boolean
      */
-    boolean hasPreferenceData(Student student, List<Preference> preferences) {
-        for (Preference preference : preferences)
-            if (preference.getStudentUniqueId().equalsIgnoreCase(student.getUniqueId()))
-                return true;
-
-        return false;
+    boolean hasPreferenceData(Student student) {
+        return preferenceIndex.hasPreference(student.getUniqueId());
     }
 
     /**
      * Returns a suggestion for assigning Student to a Team, with the Key being
      * the Student to be assign, and Value (if not null) being a Team's member possibly replaced.
-     * @param metricsData HashMap<Pair<Student, Student>, TeamFitness>
+     * @param metricsData HashMap<Pair<Student, Student>, CompactTeamFitness>
      * @return Pair<Student, Student>
      */
-    <T> T produceAssignSuggestion(HashMap<T, TeamFitness> metricsData) {
-        HashMap<T, Pair<Double, Double>> metricsAverages = calculateAssignMetricsAverages(metricsData);
+    <T> T produceAssignSuggestion(HashMap<T, CompactTeamFitness> metricsData) {
+        HashMap<T, Pair<Long, Long>> metricsAverages = calculateAssignMetricsAverages(metricsData);
         return getPairOnLowestMetricsAverages(metricsAverages);
     }
 
     /**
      * Returns the suggestion to use. Key must hold a Student (assignee), Value (nullable) is a member to be replaced.
-     * @param metricsData HashMap<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>>
+     * @param metricsData HashMap<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>>
      * @return Pair<Student, Student>
      */
     Pair<Student, Student> produceSwapSuggestion(
-        HashMap<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>> metricsData
+        HashMap<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>> metricsData
     ) {
-        HashMap<Pair<Student, Student>, Pair<Double, Double>> metricsAverages = calculateSwapMetricsAverages(metricsData);
+        HashMap<Pair<Student, Student>, Pair<Long, Long>> metricsAverages = calculateSwapMetricsAverages(metricsData);
         return getPairOnLowestMetricsAverages(metricsAverages);
     }
 
+    /**
+     * Ranks all swaps by their sum of metrics averages closest to the sum of all, then by the lowest average of skill shortfall.
+     * These are the measures of getPairOnLowestMetricsAverages, but the selection of produceSwapSuggestion skips the first entry
+     * and breaks ties against the last closer entry only, so its suggestion may not be ranked first here.
+     * Callers needing that suggestion first put it ahead of the ranking, as AutoSwapAnalyzer does.
+     * Used to suggest many swaps from a single analysis.
+     * @param metricsData HashMap<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>>
+     * @return List<Pair<Student, Student>>
+     */
+    List<Pair<Student, Student>> rankSwapSuggestions(
+        HashMap<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>> metricsData
+    ) {
+        HashMap<Pair<Student, Student>, Pair<Long, Long>> metricsAverages = calculateSwapMetricsAverages(metricsData);
+
+        long sumOfAverages = 0;
+        for (Pair<Long, Long> averages : metricsAverages.values())
+            sumOfAverages += (averages.getKey() + averages.getValue());
+
+        final long sum = sumOfAverages;
+        List<Map.Entry<Pair<Student, Student>, Pair<Long, Long>>> entries = new ArrayList<>(metricsAverages.entrySet());
+
+        //The sort is stable, so entries measuring the same keep the order candidates were evaluated
+        entries.sort(Comparator
+            .comparingLong((Map.Entry<Pair<Student, Student>, Pair<Long, Long>> entry) ->
+                Math.abs(entry.getValue().getKey() + entry.getValue().getValue() - sum))
+            .thenComparingLong(entry -> entry.getValue().getValue())
+        );
+
+        List<Pair<Student, Student>> ranking = new ArrayList<>(entries.size());
+        for (Map.Entry<Pair<Student, Student>, Pair<Long, Long>> entry : entries) ranking.add(entry.getKey());
+
+        return ranking;
+    }
+
+    /**
+     * Maps each Team member to its Team, so the Teams of many suggestions are found without searching all Teams.
+     * @return Map<Student, Team>
+     */
+    Map<Student, Team> indexTeamsByMember() {
+        Map<Student, Team> teamsByMember = new IdentityHashMap<>();
+        for (Team team : teams)
+            for (Student member : team.getMembers())
+                teamsByMember.put(member, team);
+
+        return teamsByMember;
+    }
+
     /**
      * Calculates the Fitness Metrics for each pair of Students.
      * Each pair combination of Students can be a suggestion.
+     * Requirements are checked by the ConstraintEngine and metrics are scored incrementally by the DeltaScoringEngine,
+     * so no Team is cloned or fully recomputed.
      * @param firstTeam Team
      * @param secondTeam Team
      * @param firstTeamMember Student
      * @param secondTeamMember Student
-     * @return Pair<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>>
+     * @return Pair<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>>
      */
-    Pair<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>> produceMetricsData(
+    Pair<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>> produceMetricsData(
         Team firstTeam, Team secondTeam, Student firstTeamMember, Student secondTeamMember
     ) {
-        ControllerBase controllerBase = new ControllerBase();
-
-        boolean swappable = LogicalAssistant.areStudentsSwappable(
-            new Pair<>(firstTeam, secondTeam),
-            new Pair<>(firstTeamMember, secondTeamMember)
-        );
+        boolean swappable = constraintEngine.areStudentsSwappable(firstTeam, secondTeam, firstTeamMember, secondTeamMember);
         if (!swappable) return null;
 
-        Team firstClone = firstTeam.clone();
-        Team secondClone = secondTeam.clone();
-
-        firstClone.replaceMemberByUniqueId(firstTeamMember.getUniqueId(), secondTeamMember);
-        secondClone.replaceMemberByUniqueId(secondTeamMember.getUniqueId(), firstTeamMember);
-
-        TeamFitness firstMetrics = controllerBase.calculateTeamFitnessMetricsFor(firstClone, projects, preferences);
-        TeamFitness secondMetrics = controllerBase.calculateTeamFitnessMetricsFor(secondClone, projects, preferences);
-
-        return new Pair(
+        return new Pair<>(
             new Pair<>(firstTeamMember, secondTeamMember),
-            new Pair<>(firstMetrics, secondMetrics)
+            scoringEngine.scoreSwap(firstTeam, secondTeam, firstTeamMember, secondTeamMember)
         );
     }
 
@@ -228,23 +351,24 @@ class SuperAnalyzer {
      * E4. 14 3.3 17.3 1.28,
      * E5. 10 3.1 13.1 5.48
      * Average = 18.58. E2 and E3 have the same difference to the average. Select E2.
-     * @param metricsAverages HashMap<T, Pair<Double, Double>>
+     * Entries are inspected in the order candidates were evaluated, so the selection is deterministic.
+     * @param metricsAverages HashMap<T, Pair<Long, Long>>
      * @param <T> Type
      * @return T
      */
-    private <T> T getPairOnLowestMetricsAverages(HashMap<T, Pair<Double, Double>> metricsAverages) {
+    private <T> T getPairOnLowestMetricsAverages(HashMap<T, Pair<Long, Long>> metricsAverages) {
         T suggestion = null;
-        double sumOfAverages = 0.0;
+        long sumOfAverages = 0;
 
         //Sum up all the averages in the map
-        for (Map.Entry<T, Pair<Double, Double>> entry : metricsAverages.entrySet())
+        for (Map.Entry<T, Pair<Long, Long>> entry : metricsAverages.entrySet())
             sumOfAverages += (entry.getValue().getKey() + entry.getValue().getValue());
 
         //Select an entry from the map for suggestion
-        double difference = 0.0;
-        double previousShortfallAvg = 0.0;
+        long difference = 0;
+        long previousShortfallAvg = 0;
         boolean firstEntry = true;
-        for (Map.Entry<T, Pair<Double, Double>> entry : metricsAverages.entrySet()) {
+        for (Map.Entry<T, Pair<Long, Long>> entry : metricsAverages.entrySet()) {
             if (firstEntry) { //on first entry, only calculate the different
                 difference = Math.abs(entry.getValue().getKey() + entry.getValue().getValue() - sumOfAverages);
                 firstEntry = false;
@@ -252,7 +376,7 @@ class SuperAnalyzer {
             }
 
             //from 2nd entry, start selecting a suggestion
-            double temp = Math.abs(entry.getValue().getKey() + entry.getValue().getValue() - sumOfAverages);
+            long temp = Math.abs(entry.getValue().getKey() + entry.getValue().getValue() - sumOfAverages);
             if (temp < difference) { //select entry having sum of its averages closest to `difference`
                 previousShortfallAvg = entry.getValue().getValue();
                 difference = temp;
@@ -267,4 +391,49 @@ class SuperAnalyzer {
 
         return suggestion;
     }
+
+    /**
+     * Receives the progress of an analysis: the units (Teams, pairs of Teams, Students...) evaluated
+     * out of all units to evaluate, and the candidates found by evaluating them.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(int evaluatedUnits, int totalUnits, long evaluatedCandidates);
+    }
+
+    /**
+     * Evaluates a range of units, splitting it in halves until a single unit remains.
+     * The left half is merged before the right half to keep the unit order.
+     */
+    private static class CandidateTask<U, K, V> extends RecursiveTask<LinkedHashMap<K, V>> {
+
+        private static final long serialVersionUID = -2739617436514730512L;
+
+        private final List<U> units;
+        private final int from;
+        private final int to;
+        private final Function<U, LinkedHashMap<K, V>> evaluator;
+
+        private CandidateTask(List<U> units, int from, int to, Function<U, LinkedHashMap<K, V>> evaluator) {
+            this.units = units;
+            this.from = from;
+            this.to = to;
+            this.evaluator = evaluator;
+        }
+
+        @Override
+        protected LinkedHashMap<K, V> compute() {
+            if (to - from == 1) return evaluator.apply(units.get(from));
+
+            int middle = (from + to) >>> 1;
+            CandidateTask<U, K, V> left = new CandidateTask<>(units, from, middle, evaluator);
+            left.fork();
+
+            LinkedHashMap<K, V> right = new CandidateTask<>(units, middle, to, evaluator).compute();
+            LinkedHashMap<K, V> candidates = left.join();
+            candidates.putAll(right);
+
+            return candidates;
+        }
+    }
 }
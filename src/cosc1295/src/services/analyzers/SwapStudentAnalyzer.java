@@ -3,6 +3,7 @@ package cosc1295.src.services.analyzers;
 import cosc1295.src.models.*;
 import javafx.util.Pair;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.concurrent.Callable;
 
 /**
@@ -21,10 +22,16 @@ public class SwapStudentAnalyzer<T> extends SuperAnalyzer implements Callable<T>
         this.secondTeam = secondTeam;
     }
 
+    public SwapStudentAnalyzer(DomainSnapshot snapshot, Team firstTeam, Team secondTeam) {
+        super(snapshot);
+        this.firstTeam = firstTeam;
+        this.secondTeam = secondTeam;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public T call() {
-        HashMap<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>> metricsData = calculateMetrics();
+        HashMap<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>> metricsData = calculateMetrics();
         return (T) produceSwapSuggestion(metricsData);
     }
 
@@ -32,28 +39,27 @@ public class SwapStudentAnalyzer<T> extends SuperAnalyzer implements Callable<T>
      * Calculates the Fitness Metrics for each possible pair combination of Students across all Teams.
      * `Possible` means each pair is checked against all team requirements.
      * Returns HashMap of Pair<Student, Student> being the possible swap,
-     * and Pair<TeamFitness, TeamFitness> being the Fitness Metrics of 2 Teams.
-     * @return HashMap<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>>
+     * and Pair<CompactTeamFitness, CompactTeamFitness> being the Fitness Metrics of 2 Teams.
+     * @return HashMap<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>>
      */
-    private HashMap<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>> calculateMetrics() {
+    private HashMap<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>> calculateMetrics() {
         //First-Second respectively
-        HashMap<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>> metricsData = new HashMap<>();
-
-        for (Student firstTeamMember : firstTeam.getMembers()) {
-            if (!hasPreferenceData(firstTeamMember, preferences)) continue;
+        return evaluateCandidates(firstTeam.getMembers(), firstTeamMember -> {
+            LinkedHashMap<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>> metricsData = new LinkedHashMap<>();
+            if (!hasPreferenceData(firstTeamMember)) return metricsData;
 
             for (Student secondTeamMember : secondTeam.getMembers()) {
-                if (!hasPreferenceData(secondTeamMember, preferences)) continue;
+                if (!hasPreferenceData(secondTeamMember)) continue;
 
-                Pair<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>> metrics = produceMetricsData(
+                Pair<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>> metrics = produceMetricsData(
                     firstTeam, secondTeam, firstTeamMember, secondTeamMember
                 );
                 if (metrics == null) continue;
 
                 metricsData.put(metrics.getKey(), metrics.getValue());
             }
-        }
 
-        return metricsData;
+            return metricsData;
+        });
     }
 }
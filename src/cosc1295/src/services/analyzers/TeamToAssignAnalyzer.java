@@ -1,14 +1,14 @@
 package cosc1295.src.services.analyzers;
 
-import cosc1295.src.controllers.ControllerBase;
 import cosc1295.src.models.Student;
 import cosc1295.src.models.Team;
-import cosc1295.src.models.TeamFitness;
+import cosc1295.src.models.CompactTeamFitness;
+import cosc1295.src.models.DomainSnapshot;
 import helpers.commons.SharedConstants;
-import helpers.utilities.LogicalAssistant;
 import javafx.util.Pair;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.concurrent.Callable;
 
 public class TeamToAssignAnalyzer<T> extends SuperAnalyzer implements Callable<T> {
@@ -20,48 +20,47 @@ public class TeamToAssignAnalyzer<T> extends SuperAnalyzer implements Callable<T
         this.student = student;
     }
 
+    public TeamToAssignAnalyzer(DomainSnapshot snapshot, Student student) {
+        super(snapshot);
+        this.student = student;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public T call() {
         //Pair<Team, Student> - Team to get the assignee, Student (team member - nullable) to be replaced
-        HashMap<Pair<Team, Student>, TeamFitness> metricsData = calculateMetrics();
+        HashMap<Pair<Team, Student>, CompactTeamFitness> metricsData = calculateMetrics();
         return (T) produceAssignSuggestion(metricsData);
     }
 
-    private HashMap<Pair<Team, Student>, TeamFitness> calculateMetrics() {
-        HashMap<Pair<Team, Student>, TeamFitness> metricsData = new HashMap<>();
-        ControllerBase controllerBase = new ControllerBase();
+    private HashMap<Pair<Team, Student>, CompactTeamFitness> calculateMetrics() {
 
-        for (Team team : teams) {
-            if (team.hasMember(student.getUniqueId())) continue;
+        return evaluateCandidates(teams, team -> {
+            LinkedHashMap<Pair<Team, Student>, CompactTeamFitness> metricsData = new LinkedHashMap<>();
+            if (team.hasMember(student.getUniqueId())) return metricsData;
 
             //When team has available slot to take more Students, consider adding the Student to Team, and then...
             if (team.getMembers().size() < SharedConstants.GROUP_LIMIT) {
-                boolean assignable = LogicalAssistant.isStudentAssignable(student, new Pair<>(team, null));
+                boolean assignable = constraintEngine.isStudentAssignable(student, team, null);
                 if (assignable) {
-                    Team clone = team.clone();
-                    clone.addMember(student);
-                    TeamFitness metrics = controllerBase.calculateTeamFitnessMetricsFor(clone, projects, preferences);
+                    CompactTeamFitness metrics = scoringEngine.scoreAssignment(team, null, student);
 
                     metricsData.put(new Pair<>(team, null), metrics);
                 }
 
-                if (team.getMembers().size() == 1) continue;
+                if (team.getMembers().size() == 1) return metricsData;
             }
 
             //...also consider replacing 1 member in Team by the assignee
             for (Student member : team.getMembers()) {
-                boolean assignable = LogicalAssistant.isStudentAssignable(student, new Pair<>(team, member));
+                boolean assignable = constraintEngine.isStudentAssignable(student, team, member);
                 if (!assignable) continue;
 
-                Team clone = team.clone();
-                clone.replaceMemberByUniqueId(member.getUniqueId(), student);
-
-                TeamFitness metrics = controllerBase.calculateTeamFitnessMetricsFor(clone, projects, preferences);
+                CompactTeamFitness metrics = scoringEngine.scoreAssignment(team, member, student);
                 metricsData.put(new Pair<>(team, member), metrics);
             }
-        }
 
-        return metricsData;
+            return metricsData;
+        });
     }
 }
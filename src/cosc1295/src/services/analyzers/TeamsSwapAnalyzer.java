@@ -16,10 +16,14 @@ public class TeamsSwapAnalyzer<T> extends SuperAnalyzer implements Callable<T> {
         super();
     }
 
+    public TeamsSwapAnalyzer(DomainSnapshot snapshot) {
+        super(snapshot);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public T call() {
-        HashMap<Pair<Student, Student>, Pair<TeamFitness, TeamFitness>> metricsData = calculateSwapMetrics();
+        HashMap<Pair<Student, Student>, Pair<CompactTeamFitness, CompactTeamFitness>> metricsData = calculateSwapMetrics();
 
         Pair<Student, Student> suggestion = produceSwapSuggestion(metricsData);
         if (suggestion == null) return null;
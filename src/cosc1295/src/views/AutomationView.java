@@ -8,6 +8,7 @@ import helpers.commons.SharedConstants;
 import helpers.commons.SharedEnums;
 import javafx.util.Pair;
 
+import java.util.List;
 import java.util.Scanner;
 
 public class AutomationView {
@@ -34,6 +35,21 @@ public class AutomationView {
         ));
     }
 
+    public boolean promptForCohortFormation() {
+        return flasher.promptForConfirmation(new Flash(
+            "\nDo you wish to form Teams for all unteamed Students at once?\nY: Form all Teams\tN: Assign one at a time",
+            SharedEnums.FLASH_TYPES.NONE
+        ));
+    }
+
+    public boolean promptForBatchSwap() {
+        return flasher.promptForConfirmation(new Flash(
+            "\nDo you wish to get several swaps between different Teams at once?\n" +
+                    "Y: Up to " + SharedConstants.AUTO_SWAP_BATCH_SIZE + " swaps at once\tN: One swap at a time",
+            SharedEnums.FLASH_TYPES.NONE
+        ));
+    }
+
     public boolean promptForContinue() {
         return flasher.promptForConfirmation(new Flash(
             "\nDo you wish to continue?\nY: Continue\tN:Quit",
@@ -64,6 +80,43 @@ public class AutomationView {
         return flasher.promptForConfirmation(new Flash("Do you wish to proceed?\nY: yes\tN: Cancel", SharedEnums.FLASH_TYPES.NONE));
     }
 
+    public boolean promptForBatchSwapConfirmation(List<Pair<Pair<Team, Student>, Pair<Team, Student>>> suggestions) {
+        StringBuilder swaps = new StringBuilder("\nRecommended Swaps:");
+        for (Pair<Pair<Team, Student>, Pair<Team, Student>> suggestion : suggestions)
+            swaps.append("\n\tStudent ").append(suggestion.getKey().getValue().getUniqueId())
+                 .append(" in Team #").append(suggestion.getKey().getKey().getId())
+                 .append(" Swapping to Student ").append(suggestion.getValue().getValue().getUniqueId())
+                 .append(" in Team #").append(suggestion.getValue().getKey().getId());
+
+        flasher.flash(new Flash(swaps.toString(), SharedEnums.FLASH_TYPES.NONE));
+        return flasher.promptForConfirmation(new Flash("Do you wish to proceed with all swaps?\nY: yes\tN: Cancel", SharedEnums.FLASH_TYPES.NONE));
+    }
+
+    public boolean promptForFormationConfirmation(Pair<List<Team>, List<Double>> formation) {
+        int newTeams = 0;
+        int members = 0;
+        for (Team team : formation.getKey()) {
+            if (team.isNewlyAdded()) newTeams++;
+            members += team.getMembers().size();
+        }
+
+        flasher.flash(new Flash(
+            "\nRecommended Formation: " + newTeams + " new Team(s), " + (formation.getKey().size() - newTeams) +
+                    " existing Team(s) taking new members, " + members + " Team member(s) in total." + (
+                formation.getValue() == null ? SharedConstants.EMPTY_STRING :
+                    "\nStandard Deviations after formation:" +
+                    "\n\tSkill Competency: " + formation.getValue().get(0) +
+                    "\n\tPreference Satisfaction: " + formation.getValue().get(1) +
+                    "\n\tSkill Shortfall: " + formation.getValue().get(2)
+            ),
+            SharedEnums.FLASH_TYPES.NONE
+        ));
+
+        return flasher.promptForConfirmation(new Flash(
+            "This formation cannot be undone. Do you wish to proceed?\nY: yes\tN: Cancel", SharedEnums.FLASH_TYPES.NONE
+        ));
+    }
+
     public void displayUrgentFailMessage() {
         flasher.flash(new Flash(
             "An error occurred while retrieving data. Please try again.\n" +
@@ -1,29 +1,46 @@
 package cosc1295.src.views.gui;
 
 import cosc1295.src.controllers.activities.*;
+import cosc1295.src.models.DomainSnapshot;
+import cosc1295.src.services.DomainSnapshotService;
 import helpers.commons.SharedConstants;
 import helpers.commons.SharedEnums.GUI_ACTION_CONTEXT;
+import javafx.concurrent.Task;
 import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.Pane;
 
 import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Singleton object class.
  * This class provides an instance of Inflator, which will
  * inflate an appropriate content into the Scene basing on a navigation option.
+ * Activities are created on their first navigation, then kept for later navigations.
+ * Data are read by a background loader while a placeholder is showing, and drawn into the Activity when loaded.
+ * Loaded data are kept by DomainSnapshotService, so later navigations draw straight away until data are changed.
+ * The Activity is drawn from the snapshot handed over by the loader, so the FX thread never reads storage.
  */
 public class ContentInflator {
 
     private final String STYLES_DIR = System.getProperty("user.dir").replace("\\", "/") +
                                       "/src/cosc1295/src/views/gui/styles/";
 
-    //When the GUI launches, before inflating any Activity into Scene,
-    // all Activities are prepared and stored into this HashMap
+    //Each Activity is created on its first navigation, then stored into this HashMap for later navigations
     private static final HashMap<GUI_ACTION_CONTEXT, Pane> activityCollection = new HashMap<>();
     private static ContentInflator inflator;
 
+    //Daemon thread, so a loading left running never keeps the application from exiting
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, ContentInflator.class.getSimpleName());
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private ContentInflator() { }
 
     public static ContentInflator getInstance() {
@@ -35,47 +52,36 @@ public class ContentInflator {
             }
         }
 
-        if (activityCollection.isEmpty())
-            inflator.gatherResources();
-
         return inflator;
     }
 
     /**
-     * Prepare all Activities and store them into a collection for later use
+     * Creates the Activity for a navigation option.
+     * @param context GUI_ACTION_CONTEXT
+     * @return Pane
      */
-    private void gatherResources() {
-        for (Map.Entry<GUI_ACTION_CONTEXT, String> entry : SharedConstants.RESOURCES.entrySet()) {
-            Pane activity;
-
-            switch (entry.getKey()) {
-                case LAUNCH:
-                    activity = new LaunchActivity();
-                    break;
-                case ASSIGN:
-                    activity = new AssignActivity();
-                    break;
-                case SWAP:
-                    activity = new SwapActivity();
-                    break;
-                case REMOVE:
-                    activity = new RemoveActivity();
-                    break;
-                case PROJECT:
-                    activity = new ProjectActivity();
-                    break;
-                default: //STATS
-                    activity = new StatisticsActivity();
-                    break;
-            }
-
-            activityCollection.put(entry.getKey(), activity);
+    private Pane createActivity(GUI_ACTION_CONTEXT context) {
+        switch (context) {
+            case LAUNCH:
+                return new LaunchActivity();
+            case ASSIGN:
+                return new AssignActivity();
+            case SWAP:
+                return new SwapActivity();
+            case REMOVE:
+                return new RemoveActivity();
+            case PROJECT:
+                return new ProjectActivity();
+            default: //STATS
+                return new StatisticsActivity();
         }
     }
 
     /**
      * Inflate an Activity into the Scene when user make a navigation.
      * While inflating an Activity, the stylesheet CSS of that Activity will be added to the Scene accordingly.
+     * If the data of the Activity have to be read from storage, a placeholder is inflated instead,
+     * and the Activity is drawn when the data are loaded, unless user has navigated elsewhere by then.
      * @param context GUI_ACTION_CONTEXT
      * @param container Scene
      * @return Scene
@@ -85,30 +91,80 @@ public class ContentInflator {
         container.getStylesheets().clear();
         container.getStylesheets().add("file:///" + STYLES_DIR + SharedConstants.RESOURCES.get(context));
 
-        Pane activity = activityCollection.get(context);
+        Pane activity = activityCollection.computeIfAbsent(context, this::createActivity);
+        activity.getChildren().clear();
+
+        //The LaunchActivity has no data to read
+        DomainSnapshot snapshot = DomainSnapshotService.getInstance().getCurrentSnapshot();
+        if (context == GUI_ACTION_CONTEXT.LAUNCH || snapshot != null)
+            drawActivityContents(context, activity, container, snapshot);
+        else {
+            drawLoadingPlaceholder(activity, container);
+
+            Task<DomainSnapshot> loading = new Task<DomainSnapshot>() {
+                @Override
+                protected DomainSnapshot call() {
+                    return DomainSnapshotService.getInstance().getSnapshot();
+                }
+            };
+
+            //On failure, the Activity is drawn anyway from a snapshot having no data, to show its own error message
+            loading.setOnSucceeded(event -> drawLoadedActivity(context, activity, container, loading.getValue()));
+            loading.setOnFailed(event -> drawLoadedActivity(context, activity, container, new DomainSnapshot(
+                DomainSnapshotService.getInstance().getVersion(), SharedConstants.DATA_SOURCE, null, null, null, null
+            )));
+            loader.execute(loading);
+        }
+
+        container.setRoot(activity);
+        return container;
+    }
+
+    private void drawLoadedActivity(GUI_ACTION_CONTEXT context, Pane activity, Scene container, DomainSnapshot snapshot) {
+        if (container.getRoot() != activity) return;
+
         activity.getChildren().clear();
+        drawActivityContents(context, activity, container, snapshot);
+    }
+
+    private void drawActivityContents(GUI_ACTION_CONTEXT context, Pane activity, Scene container, DomainSnapshot snapshot) {
         switch (context) {
             case LAUNCH:
                 ((LaunchActivity) activity).drawLaunchingContents(container);
                 break;
             case ASSIGN:
-                ((AssignActivity) activity).drawAssigningTaskContents(container, null);
+                ((AssignActivity) activity).drawAssigningTaskContents(container, snapshot, null);
                 break;
             case SWAP:
-                ((SwapActivity) activity).drawSwappingTaskContents(container, null);
+                ((SwapActivity) activity).drawSwappingTaskContents(container, snapshot, null);
                 break;
             case REMOVE:
-                ((RemoveActivity) activity).drawRemovalTaskContents(container, null);
+                ((RemoveActivity) activity).drawRemovalTaskContents(container, snapshot, null);
                 break;
             case PROJECT:
-                ((ProjectActivity) activity).drawProjectSettingTaskContents(container, null);
+                ((ProjectActivity) activity).drawProjectSettingTaskContents(container, snapshot, null);
                 break;
             default: //STATS
                 ((StatisticsActivity) activity).drawStatisticsContents(container);
                 break;
         }
+    }
 
-        container.setRoot(activity);
-        return container;
+    /**
+     * Draws a progress indicator on the Activity while its data are being loaded.
+     * @param activity Pane
+     * @param container Scene
+     */
+    private void drawLoadingPlaceholder(Pane activity, Scene container) {
+        IActivity.drawActivityTitle(container, activity, "Loading data...");
+
+        Label placeholder = new Label("Reading Students, Teams, Projects and Preferences.");
+        placeholder.setId("loading-placeholder");
+        placeholder.setGraphic(new ProgressIndicator());
+        activity.getChildren().add(placeholder);
+
+        placeholder.setPrefWidth(IActivity.MARGIN * 25);
+        AnchorPane.setTopAnchor(placeholder, IActivity.MARGIN * 5);
+        AnchorPane.setLeftAnchor(placeholder, (activity.getPrefWidth() - placeholder.getPrefWidth()) / 2);
     }
-}
\ No newline at end of file
+}
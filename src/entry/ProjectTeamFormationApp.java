@@ -25,8 +25,8 @@ public final class ProjectTeamFormationApp {
     private final Flasher flasher = Flasher.getInstance();
 
     public void run() {
-        // TeamMetricsService is a background job that execute once every 15 minutes
-        // to calculate fitness metrics for all Teams, view the class for more information
+        // TeamMetricsService is a background job that recalculates fitness metrics for the Teams that change,
+        // and for all Teams once every 15 minutes, view the class for more information
         Thread TeamMetricsService = new TeamFitnessMetricService();
         TeamMetricsService.start();
 
@@ -17,12 +17,20 @@ public final class SharedConstants {
 
     public static String DATA_SOURCE = DatabaseContext.class.getSimpleName(); //TextFileServiceBase.class.getSimpleName();
 
+    public static final String DB_SELECT = "SELECT";
+
     public static final String DB_INSERT = "INSERT";
 
     public static final String DB_UPDATE = "UPDATE";
 
     public static final String DB_DELETE = "DELETE";
 
+    public static final int DB_POOL_SIZE = 4; //default number of pooled connections, overridden by `poolSize` in db.properties
+
+    public static final long DB_POOL_TIMEOUT = 10000L; //milliseconds to wait for a pooled connection
+
+    public static final int DB_STATEMENT_CACHE_SIZE = 32; //cached PreparedStatements per pooled connection
+
     public static final String EMPTY_STRING = "";
 
     public static final String MULTIPLE_SPACE = " +";
@@ -31,10 +39,22 @@ public final class SharedConstants {
 
     public static final String TEXT_DELIMITER = ",,";
 
+    //Text files having entries updated or removed by ID take updates and removals as appended records,
+    //the latest record of an ID wins. When this is off, a file still having such records is compacted on its first access
+    public static boolean TEXT_FILE_LOG_STRUCTURED = false;
+
+    public static final String TEXT_FILE_TOMBSTONE = "#REMOVED#"; //record telling an entry has been removed
+
+    public static final int TEXT_FILE_COMPACTION_MINIMUM = 100; //dead records in a file before it can be compacted
+
+    public static final double TEXT_FILE_COMPACTION_RATIO = 0.5; //dead records per live record for a file to be compacted
+
     public static final String NA = "N/A";
 
     public static final int DECIMAL_PRECISION = 2;
 
+    public static final int METRIC_SCALE = 100; //Fitness Metrics are computed in hundredths, as of DECIMAL_PRECISION
+
     public static final int GROUP_LIMIT = 4; //Number of students in a group
 
     public static final int MAX_CONFLICTERS = 2;
@@ -43,6 +63,22 @@ public final class SharedConstants {
 
     public static final int SHORTLISTED_NUM = 5;
 
+    public static final int SUGGESTION_PARALLELISM = Runtime.getRuntime().availableProcessors(); //threads used by analyzers
+
+    public static final int AUTO_SWAP_BATCH_SIZE = 5; //swaps suggested by one analysis in batch auto swap
+
+    public static final long FORMATION_TIME_BUDGET = 30000L; //milliseconds the cohort formation may search
+
+    public static final long FORMATION_ITERATION_BUDGET = 5000000L; //moves the cohort formation may try
+
+    public static final long FITNESS_RECONCILIATION_INTERVAL = 900000L; //15 minutes between full passes of the metrics thread
+
+    public static final long FITNESS_COALESCING_WINDOW = 2000L; //milliseconds without change before the metrics thread recomputes
+
+    public static final int STATISTICS_PAGE_SIZE = 20; //Teams charted one bar each, more Teams are charted by histogram or page
+
+    public static final int STATISTICS_HISTOGRAM_BINS = 10; //ranges of values the Teams are counted in
+
     public static final String ACTION_SWAP = "SWAP";
 
     public static final String ACTION_ASSIGN = "ASSIGN";
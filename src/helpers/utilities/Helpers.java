@@ -12,7 +12,8 @@ import helpers.commons.SharedConstants;
 import helpers.commons.SharedEnums;
 
 import javafx.util.Pair;
-import java.text.DecimalFormat;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -232,6 +233,7 @@ public final class Helpers {
     /**
      * Round a floating-point number, taking the decimal numbers by precision.
      * Eg. 1.23456789 is rounded in 1.23 if precision == 2, or 1.234 if precision == 3
+     * Halves are rounded to the even neighbour, by the exact value of the number.
      * @param any double
      * @param precision int
      * @return double
@@ -239,10 +241,41 @@ public final class Helpers {
     public static double round(double any, int precision) {
         precision = precision == 0 ? 1 : Math.min(precision, 3);
 
-        DecimalFormat format = new DecimalFormat(
-                precision == 2 ? "#.##" : "#.###"
-        );
-        return Double.parseDouble(format.format(any));
+        return new BigDecimal(any).setScale(precision == 2 ? 2 : 3, RoundingMode.HALF_EVEN).doubleValue();
+    }
+
+    /**
+     * Divides 2 integers, rounding the quotient to the nearest integer, or to the even one if it is halfway.
+     * Used for the Fitness Metrics being computed in hundredths, so no floating-point rounding is involved.
+     * Eg. 5 / 2 gives 2, 7 / 2 gives 4, -7 / 2 gives -4
+     * @param dividend long
+     * @param divisor long - positive
+     * @return long
+     */
+    public static long divideHalfEven(long dividend, long divisor) {
+        long quotient = Math.floorDiv(dividend, divisor);
+        long twiceRemainder = Math.floorMod(dividend, divisor) * 2;
+
+        if (twiceRemainder > divisor || (twiceRemainder == divisor && (quotient & 1) != 0)) quotient++;
+        return quotient;
+    }
+
+    /**
+     * Converts a metric computed in hundredths into its decimal value, as stored and displayed.
+     * @param scaled long
+     * @return double
+     */
+    public static double fromScaled(long scaled) {
+        return (double) scaled / SharedConstants.METRIC_SCALE;
+    }
+
+    /**
+     * Converts a stored metric into hundredths, taking the nearest hundredth.
+     * @param value double
+     * @return int
+     */
+    public static int toScaled(double value) {
+        return (int) Math.round(value * SharedConstants.METRIC_SCALE);
     }
 
     /**
@@ -5,12 +5,12 @@ import com.sun.istack.internal.Nullable;
 import cosc1295.src.controllers.ControllerBase;
 import cosc1295.src.models.*;
 import cosc1295.src.services.HistoryService;
+import cosc1295.src.services.analyzers.ConstraintEngine;
 import helpers.commons.SharedConstants;
 import helpers.commons.SharedEnums;
 
 import javafx.util.Pair;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 public final class LogicalAssistant {
 
@@ -53,32 +53,38 @@ public final class LogicalAssistant {
         return assignableTeams;
     }
 
-    //Set full Student data into Team members
+    //Set full Student data into Team members.
+    //Students are indexed by unique ID once, so each member resolves in constant time.
+    //Members not found in the Student list are dropped, the first Student having a unique ID wins.
     public static void setStudentDataInTeams(List<Team> teams, List<Student> students) {
+        Map<String, Student> studentsById = new HashMap<>(students.size() * 2);
+        for (Student student : students)
+            studentsById.putIfAbsent(student.getUniqueId(), student);
+
         for (Team team : teams) {
-            List<Student> members = team.getMembers();
-            List<Student> memberData = new ArrayList<>();
+            List<Student> memberData = new ArrayList<>(team.getMembers().size());
 
-            for (Student member : members)
-                for (Student student : students)
-                    if (student.getUniqueId().equals(member.getUniqueId())) {
-                        memberData.add(student);
-                        break;
-                    }
+            for (Student member : team.getMembers()) {
+                Student student = studentsById.get(member.getUniqueId());
+                if (student != null) memberData.add(student);
+            }
 
             team.setMembers(memberData);
         }
     }
 
-    //Pick up only the Students who have not already in any Teams when user want to assign a Student to a Team
+    //Pick up only the Students who have not already in any Teams when user want to assign a Student to a Team.
+    //Team members are collected into a set of unique IDs first, then Students are filtered in a single pass.
     public static List<Student> filterUnteamedStudents(List<Student> students, List<Team> teams) {
-        List<Student> unteamedStudents = new ArrayList<>(students);
-
+        Set<String> teamedStudentIds = new HashSet<>();
         for (Team team : teams)
             for (Student member : team.getMembers())
-                unteamedStudents.removeIf(
-                        m -> m.getUniqueId().equals(member.getUniqueId())
-                );
+                teamedStudentIds.add(member.getUniqueId());
+
+        List<Student> unteamedStudents = new ArrayList<>();
+        for (Student student : students)
+            if (!teamedStudentIds.contains(student.getUniqueId()))
+                unteamedStudents.add(student);
 
         return unteamedStudents;
     }
@@ -315,6 +321,23 @@ public final class LogicalAssistant {
     @SuppressWarnings("UnusedReturnValue")
     public static boolean assignStudentToTeam(
         Pair<Team, Student> teamAndMember, Student assignee, List<Project> projects, List<Preference> preferences
+    ) {
+        ProjectIndex projectIndex = new ProjectIndex(projects);
+        return assignStudentToTeam(teamAndMember, assignee, projectIndex, new PreferenceIndex(preferences, projectIndex));
+    }
+
+    /**
+     * Same as assignStudentToTeam, using Projects and Preferences that have been indexed already,
+     * so the indexes are built once for many assignments.
+     * @param teamAndMember Pair<Team, Student>
+     * @param assignee Student
+     * @param projectIndex ProjectIndex
+     * @param preferenceIndex PreferenceIndex
+     * @return boolean
+     */
+    @SuppressWarnings("UnusedReturnValue")
+    public static boolean assignStudentToTeam(
+        Pair<Team, Student> teamAndMember, Student assignee, ProjectIndex projectIndex, PreferenceIndex preferenceIndex
     ) {
         HistoryService history = HistoryService.getInstance();
 
@@ -327,7 +350,7 @@ public final class LogicalAssistant {
         teamAndMember.getKey().addMember(assignee);
         if (teamAndMember.getKey().getMembers().size() == SharedConstants.GROUP_LIMIT)
             teamAndMember.getKey().setFitnessMetrics(
-                (new ControllerBase()).calculateTeamFitnessMetricsFor(teamAndMember.getKey(), projects, preferences)
+                (new ControllerBase()).calculateTeamFitnessMetricsFor(teamAndMember.getKey(), projectIndex, preferenceIndex)
             );
 
         //Finally add a history item to support undoing
@@ -348,6 +371,22 @@ public final class LogicalAssistant {
      */
     public static Pair<Team, Team> swapStudentsBetweenTeams(
         Pair<Team, Student> first, Pair<Team, Student> second, List<Project> projects, List<Preference> preferences
+    ) {
+        ProjectIndex projectIndex = new ProjectIndex(projects);
+        return swapStudentsBetweenTeams(first, second, projectIndex, new PreferenceIndex(preferences, projectIndex));
+    }
+
+    /**
+     * Same as swapStudentsBetweenTeams, using Projects and Preferences that have been indexed already,
+     * so the indexes are built once for many swaps.
+     * @param first Pair<Team, Student>
+     * @param second Pair<Team, Student>
+     * @param projectIndex ProjectIndex
+     * @param preferenceIndex PreferenceIndex
+     * @return Pair<Team, Team>
+     */
+    public static Pair<Team, Team> swapStudentsBetweenTeams(
+        Pair<Team, Student> first, Pair<Team, Student> second, ProjectIndex projectIndex, PreferenceIndex preferenceIndex
     ) {
         HistoryService history = HistoryService.getInstance();
         //First, remove the member from Team 1
@@ -365,7 +404,7 @@ public final class LogicalAssistant {
         if (swapResult) { //If Students are swapped successfully, then recalculate FitnessMetrics if necessary
             if (first.getKey().getMembers().size() == SharedConstants.GROUP_LIMIT)
                 first.getKey().setFitnessMetrics(
-                    (new ControllerBase()).calculateTeamFitnessMetricsFor(first.getKey(), projects, preferences)
+                    (new ControllerBase()).calculateTeamFitnessMetricsFor(first.getKey(), projectIndex, preferenceIndex)
                 );
 
             history.add(new Pair<>( //Set history for undoing feature
@@ -380,14 +419,23 @@ public final class LogicalAssistant {
     }
 
     /**
-     * Used for the analyzers to check if a Student can be assigned to a Team without any
-     * worry about the details of requirements.
+     * Checks if a Student can be assigned to a Team without any worry about the details of requirements.
+     * The analyzers use a shared ConstraintEngine instead, this prepares one for the Team on each call.
      * Data passed in with Pair<Team, Student> being Team to get the assignee, and Student being a replaced member.
      * @param student Student
      * @param teamAndMember Pair<Team, Student>
      * @return boolean
      */
     public static boolean isStudentAssignable(Student student, Pair<Team, Student> teamAndMember) {
+        ConstraintEngine engine = new ConstraintEngine(
+            Collections.singletonList(teamAndMember.getKey()), Collections.singletonList(student)
+        );
+
+        return engine.isStudentAssignable(student, teamAndMember.getKey(), teamAndMember.getValue());
+    }
+
+    //Checks the assignment against the detailed requirements, the ConstraintEngine gives the same results
+    private static boolean checkAssignmentRequirements(Student student, Pair<Team, Student> teamAndMember) {
         List<Student> members = new ArrayList<>(teamAndMember.getKey().getMembers());
         Team faker = teamAndMember.getKey().clone();
         if (teamAndMember.getValue() != null) {
@@ -410,14 +458,26 @@ public final class LogicalAssistant {
     }
 
     /**
-     * Used for the analyzers to check if 2 Students can be swapped between 2 Teams without any
-     * worry about the details of requirements.
+     * Checks if 2 Students can be swapped between 2 Teams without any worry about the details of requirements.
+     * The analyzers use a shared ConstraintEngine instead, this prepares one for the Teams on each call.
      * Data must be passed in respective order of Team-Student belonging to each other.
      * @param teams Pair<Team, Team>
      * @param students Pair<Student, Student>
      * @return boolean
      */
     public static boolean areStudentsSwappable(Pair<Team, Team> teams, Pair<Student, Student> students) {
+        //Moving a Student without taking one back is only checked in details
+        if (students.getKey() == null || students.getValue() == null) return checkSwapRequirements(teams, students);
+
+        ConstraintEngine engine = new ConstraintEngine(
+            Arrays.asList(teams.getKey(), teams.getValue()), Collections.emptyList()
+        );
+
+        return engine.areStudentsSwappable(teams.getKey(), teams.getValue(), students.getKey(), students.getValue());
+    }
+
+    //Checks the swap against the detailed requirements, the ConstraintEngine gives the same results
+    private static boolean checkSwapRequirements(Pair<Team, Team> teams, Pair<Student, Student> students) {
         Pair<Team, Student> first = new Pair<>(teams.getKey(), students.getKey());
         Pair<Team, Student> second = new Pair<>(teams.getValue(), students.getValue());
 
@@ -462,4 +522,14 @@ public final class LogicalAssistant {
     runCheckImbalancePersonalityOnAssignForTest(Pair<Team, Student> assignment) {
         return checkImbalancePersonalityOnAssign(assignment);
     }
+
+    //For unittest only
+    public static boolean runCheckAssignmentRequirementsForTest(Student student, Pair<Team, Student> teamAndMember) {
+        return checkAssignmentRequirements(student, teamAndMember);
+    }
+
+    //For unittest only
+    public static boolean runCheckSwapRequirementsForTest(Pair<Team, Team> teams, Pair<Student, Student> students) {
+        return checkSwapRequirements(teams, students);
+    }
 }
@@ -0,0 +1,221 @@
+package helpers.utilities;
+
+import helpers.commons.SharedConstants;
+import helpers.commons.SharedEnums;
+
+import javafx.util.Pair;
+
+/**
+ * Reads the tokens of a record delimited by TEXT_DELIMITER one after another, without regex or token arrays.
+ * The tokens are the same as String.split(TEXT_DELIMITER) gives: trailing empty tokens are dropped,
+ * and an empty record has one empty token. Reading past the last token throws IndexOutOfBoundsException,
+ * as indexing past the split array did, so the readers keep their error handling.
+ * Numbers, Skill-Ranking tokens and Personalities are decoded straight from the record without substrings.
+ * An instance can be reset with each record to read, it is not thread-safe.
+ */
+public final class RecordTokenizer {
+
+    private static final String DELIMITER = SharedConstants.TEXT_DELIMITER;
+    private static final SharedEnums.RANKINGS[] RANKINGS = SharedEnums.RANKINGS.values();
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private String record;
+    private int position; //start of the next token
+    private int limit; //end of the last non-empty token, -1 if no token is left
+
+    public RecordTokenizer() {
+        reset(SharedConstants.EMPTY_STRING);
+    }
+
+    public RecordTokenizer(String record) {
+        reset(record);
+    }
+
+    /**
+     * Starts reading another record.
+     * @param record String
+     * @return RecordTokenizer
+     */
+    public RecordTokenizer reset(String record) {
+        this.record = record;
+        position = 0;
+        limit = record.isEmpty() ? 0 : findLimit(record);
+
+        return this;
+    }
+
+    public boolean hasNext() {
+        return position <= limit;
+    }
+
+    public String next() {
+        int end = nextEnd();
+        String token = record.substring(position, end);
+
+        position = end + DELIMITER.length();
+        return token;
+    }
+
+    /**
+     * Skips a number of tokens.
+     * @param count int
+     */
+    public void skip(int count) {
+        for (int i = 0; i < count; i++) position = nextEnd() + DELIMITER.length();
+    }
+
+    /**
+     * Reads the next token as an int, ignoring surrounding spaces.
+     * @return int
+     * @throws NumberFormatException if the token is not an int
+     */
+    public int nextInt() {
+        int end = nextEnd();
+        int start = skipSpaces(position, end);
+        int stop = trimSpaces(start, end);
+
+        long value = parseDigits(start, stop, Integer.MAX_VALUE + 1L);
+        if (value > Integer.MAX_VALUE && record.charAt(start) != '-') throw invalidNumber(start, stop);
+
+        position = end + DELIMITER.length();
+        return (int) (record.charAt(start) == '-' ? -value : value);
+    }
+
+    /**
+     * Reads the next token as a double, ignoring surrounding spaces. Plain decimals are decoded in place,
+     * other forms (exponent, too many digits) are left to Double.parseDouble, so the value is the same either way.
+     * @return double
+     * @throws NumberFormatException if the token is not a double
+     */
+    public double nextDouble() {
+        int end = nextEnd();
+        int start = skipSpaces(position, end);
+        int stop = trimSpaces(start, end);
+
+        double value = parseDecimal(start, stop);
+        position = end + DELIMITER.length();
+        return value;
+    }
+
+    /**
+     * Reads the next token as a Skill-Ranking, as LogicalAssistant.parseSkillRankingToken does.
+     * Eg. token "W1" decodes into SKILLS.W and RANKING.LOW
+     * @return Pair<SharedEnums.SKILLS, SharedEnums.RANKINGS>
+     */
+    public Pair<SharedEnums.SKILLS, SharedEnums.RANKINGS> nextSkillRanking() {
+        int end = nextEnd();
+        if (end == position) throw new StringIndexOutOfBoundsException("Empty Skill-Ranking token.");
+
+        char skill = record.charAt(position);
+        SharedEnums.SKILLS eSkill = skill == 'A' ? SharedEnums.SKILLS.A
+                                  : (skill == 'N' ? SharedEnums.SKILLS.N
+                                  : (skill == 'P' ? SharedEnums.SKILLS.P : SharedEnums.SKILLS.W));
+
+        int ranking = Character.digit(record.charAt(end - 1), 10);
+        if (ranking < 0) throw invalidNumber(end - 1, end);
+
+        position = end + DELIMITER.length();
+        return new Pair<>(eSkill, RANKINGS[ranking - 1]);
+    }
+
+    /**
+     * Reads the next token as a Personality. Any token other than A, B and C is a D, as the readers did.
+     * @return SharedEnums.PERSONALITIES
+     */
+    public SharedEnums.PERSONALITIES nextPersonality() {
+        int end = nextEnd();
+        char personality = end - position == 1 ? record.charAt(position) : 0;
+
+        position = end + DELIMITER.length();
+        return personality == 'A' ? SharedEnums.PERSONALITIES.A
+             : (personality == 'B' ? SharedEnums.PERSONALITIES.B
+             : (personality == 'C' ? SharedEnums.PERSONALITIES.C : SharedEnums.PERSONALITIES.D));
+    }
+
+    //Finds where the next token ends, or fails if there is no token left
+    private int nextEnd() {
+        if (!hasNext()) throw new IndexOutOfBoundsException("No token left in record.");
+
+        int delimiter = record.indexOf(DELIMITER, position);
+        return delimiter < 0 ? record.length() : delimiter;
+    }
+
+    private static int findLimit(String record) {
+        int limit = -1;
+        int start = 0;
+
+        while (true) {
+            int delimiter = record.indexOf(DELIMITER, start);
+            int end = delimiter < 0 ? record.length() : delimiter;
+
+            if (end > start) limit = end;
+            if (delimiter < 0) return limit;
+
+            start = delimiter + DELIMITER.length();
+        }
+    }
+
+    private int skipSpaces(int start, int end) {
+        while (start < end && record.charAt(start) <= ' ') start++;
+        return start;
+    }
+
+    private int trimSpaces(int start, int end) {
+        while (end > start && record.charAt(end - 1) <= ' ') end--;
+        return end;
+    }
+
+    //Parses an optionally signed run of digits, returning its magnitude
+    private long parseDigits(int start, int stop, long maxMagnitude) {
+        int index = start;
+        if (index < stop && (record.charAt(index) == '-' || record.charAt(index) == '+')) index++;
+        if (index == stop) throw invalidNumber(start, stop);
+
+        long value = 0;
+        for (; index < stop; index++) {
+            int digit = record.charAt(index) - '0';
+            if (digit < 0 || digit > 9) throw invalidNumber(start, stop);
+
+            value = value * 10 + digit;
+            if (value > maxMagnitude) throw invalidNumber(start, stop);
+        }
+
+        return value;
+    }
+
+    private double parseDecimal(int start, int stop) {
+        int index = start;
+        boolean negative = index < stop && record.charAt(index) == '-';
+        if (index < stop && (record.charAt(index) == '-' || record.charAt(index) == '+')) index++;
+
+        long mantissa = 0;
+        int digits = 0;
+        int decimals = -1; //digits after the point, -1 if no point
+        for (; index < stop; index++) {
+            char current = record.charAt(index);
+
+            if (current == '.' && decimals < 0) decimals = 0;
+            else if (current >= '0' && current <= '9' && digits < 18) {
+                mantissa = mantissa * 10 + (current - '0');
+                digits++;
+                if (decimals >= 0) decimals++;
+            }
+            else break;
+        }
+
+        //The quotient of 2 exact doubles is correctly rounded, so it equals what Double.parseDouble gives
+        if (index == stop && digits > 0 && mantissa < (1L << 53) && decimals < POWERS_OF_TEN.length) {
+            double value = decimals > 0 ? mantissa / POWERS_OF_TEN[decimals] : mantissa;
+            return negative ? -value : value;
+        }
+
+        return Double.parseDouble(record.substring(start, stop));
+    }
+
+    private NumberFormatException invalidNumber(int start, int stop) {
+        return new NumberFormatException("For input string: \"" + record.substring(start, stop) + "\"");
+    }
+}
@@ -0,0 +1,185 @@
+package tests;
+
+import cosc1295.providers.bases.BinaryFileServiceBase;
+import cosc1295.src.models.Company;
+import helpers.commons.SharedConstants;
+import junit.framework.TestCase;
+import org.junit.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class BinaryRecordStoreTest {
+
+    private static final String FILE_PATH = System.getProperty("user.dir") + "\\src\\assets\\binaries" +
+                                            SharedConstants.COMPANY_FILE_NAME;
+
+    private BinaryFileServiceBase<Company> binaryFileService;
+    private byte[] originalData;
+
+    @Before
+    public void setUp() throws IOException {
+        //Each test starts without the file, the original data are put back afterwards
+        File file = new File(FILE_PATH);
+        originalData = file.exists() ? Files.readAllBytes(file.toPath()) : null;
+        file.delete();
+
+        binaryFileService = new BinaryFileServiceBase<>();
+    }
+
+    @Test
+    public void savedEntriesShouldReadBack() {
+        for (int id = 1; id <= 3; id++)
+            TestCase.assertTrue(binaryFileService.saveEntryToFile(Company.class, makeCompany(id, "Company " + id)));
+
+        List<Company> companies = binaryFileService.readAllDataFromFile(Company.class);
+        TestCase.assertEquals(3, companies.size());
+        for (int i = 0; i < companies.size(); i++) {
+            TestCase.assertEquals(i + 1, companies.get(i).getId());
+            TestCase.assertEquals("Company " + (i + 1), companies.get(i).getCompanyName());
+        }
+
+        TestCase.assertEquals("CO2", binaryFileService.getEntryFromFileById(Company.class, 2).getUniqueId());
+        TestCase.assertNull(binaryFileService.getEntryFromFileById(Company.class, 4));
+        TestCase.assertTrue(binaryFileService.isRedundantUniqueId(Company.class, "CO3"));
+        TestCase.assertFalse(binaryFileService.isRedundantUniqueId(Company.class, "CO4"));
+    }
+
+    @Test
+    public void updatedEntryShouldReadBackInPlaceOrGrown() {
+        binaryFileService.saveEntryToFile(Company.class, makeCompany(1, "Company"));
+        binaryFileService.saveEntryToFile(Company.class, makeCompany(2, "Company"));
+        long savedLength = new File(FILE_PATH).length();
+
+        //Fits the spare room of its slot, so the file keeps its length
+        TestCase.assertTrue(binaryFileService.updateEntryToFile(Company.class, makeCompany(1, "Company A")));
+        TestCase.assertEquals(savedLength, new File(FILE_PATH).length());
+        TestCase.assertEquals("Company A", binaryFileService.getEntryFromFileById(Company.class, 1).getCompanyName());
+
+        //Outgrows its slot, so a new record is appended and the old one is left dead
+        String longName = longNameOf("Company A");
+        TestCase.assertTrue(binaryFileService.updateEntryToFile(Company.class, makeCompany(1, longName)));
+        TestCase.assertTrue(new File(FILE_PATH).length() > savedLength);
+        TestCase.assertEquals(longName, binaryFileService.getEntryFromFileById(Company.class, 1).getCompanyName());
+
+        List<Company> companies = binaryFileService.readAllDataFromFile(Company.class);
+        TestCase.assertEquals(2, companies.size());
+        TestCase.assertEquals(longName, companies.get(0).getCompanyName());
+        TestCase.assertEquals("Company", companies.get(1).getCompanyName());
+
+        TestCase.assertFalse(binaryFileService.updateEntryToFile(Company.class, makeCompany(3, "Company")));
+    }
+
+    @Test
+    public void nextIdShouldFollowHighestIdSaved() {
+        TestCase.assertEquals(1, binaryFileService.getNextEntryIdForNewEntry(Company.class));
+
+        binaryFileService.saveEntryToFile(Company.class, makeCompany(1, "Company"));
+        binaryFileService.saveEntryToFile(Company.class, makeCompany(5, "Company"));
+        binaryFileService.saveEntryToFile(Company.class, makeCompany(3, "Company"));
+        TestCase.assertEquals(6, binaryFileService.getNextEntryIdForNewEntry(Company.class));
+
+        //Outgrows its slot with a new Unique ID, leaving a dead slot in the file
+        Company company = makeCompany(5, longNameOf("Company"));
+        company.setUniqueId("CO9");
+        TestCase.assertTrue(binaryFileService.updateEntryToFile(Company.class, company));
+
+        //The store is cached by file, so the file is changed from outside to have it indexed again from the file
+        forceIndexRebuild();
+
+        TestCase.assertEquals(6, binaryFileService.getNextEntryIdForNewEntry(Company.class));
+        TestCase.assertFalse(binaryFileService.isRedundantUniqueId(Company.class, "CO5"));
+        TestCase.assertTrue(binaryFileService.isRedundantUniqueId(Company.class, "CO9"));
+
+        List<Company> companies = binaryFileService.readAllDataFromFile(Company.class);
+        TestCase.assertEquals(3, companies.size());
+        TestCase.assertEquals(1, companies.get(0).getId());
+        TestCase.assertEquals(3, companies.get(1).getId());
+        TestCase.assertEquals(5, companies.get(2).getId());
+        TestCase.assertEquals(longNameOf("Company"), companies.get(2).getCompanyName());
+    }
+
+    @Test
+    public void serializedFileShouldConvertToRecords() throws IOException {
+        writeSerializedFile(
+            Arrays.asList(makeCompany(1, "Company A"), makeCompany(2, "Company B")),
+            makeCompany(3, "Company C"), makeCompany(2, "Company B updated")
+        );
+
+        TestCase.assertEquals(Boolean.TRUE, binaryFileService.convertSerializedFile(Company.class));
+        TestCase.assertEquals(Boolean.FALSE, binaryFileService.convertSerializedFile(Company.class));
+        assertConvertedCompanies();
+    }
+
+    @Test
+    public void serializedFileShouldConvertOnFirstUse() throws IOException {
+        writeSerializedFile(
+            Arrays.asList(makeCompany(1, "Company A"), makeCompany(2, "Company B")),
+            makeCompany(3, "Company C"), makeCompany(2, "Company B updated")
+        );
+
+        assertConvertedCompanies();
+        TestCase.assertEquals(Boolean.FALSE, binaryFileService.convertSerializedFile(Company.class));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        File file = new File(FILE_PATH);
+        if (originalData == null) file.delete();
+        else Files.write(file.toPath(), originalData);
+    }
+
+    //The last version of an entry wins, and the Unique IDs and the next ID are read from the converted records
+    private void assertConvertedCompanies() {
+        List<Company> companies = binaryFileService.readAllDataFromFile(Company.class);
+        TestCase.assertEquals(3, companies.size());
+        TestCase.assertEquals("Company A", companies.get(0).getCompanyName());
+        TestCase.assertEquals("Company B updated", companies.get(1).getCompanyName());
+        TestCase.assertEquals("Company C", companies.get(2).getCompanyName());
+
+        TestCase.assertEquals("Company B updated", binaryFileService.getEntryFromFileById(Company.class, 2).getCompanyName());
+        TestCase.assertTrue(binaryFileService.isRedundantUniqueId(Company.class, "CO3"));
+        TestCase.assertEquals(4, binaryFileService.getNextEntryIdForNewEntry(Company.class));
+    }
+
+    //Writes a file as it was saved before records: a serialized list, then the entries appended one by one
+    private static void writeSerializedFile(List<Company> companies, Company... appendedCompanies) throws IOException {
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(new FileOutputStream(FILE_PATH))) {
+            outputStream.writeObject(new ArrayList<>(companies));
+        }
+
+        for (Company company : appendedCompanies)
+            try (ObjectOutputStream outputStream = new ObjectOutputStream(new FileOutputStream(FILE_PATH, true)) {
+                protected void writeStreamHeader() throws IOException { reset(); }
+            }) {
+                outputStream.writeObject(company);
+            }
+    }
+
+    private static void forceIndexRebuild() {
+        File file = new File(FILE_PATH);
+        TestCase.assertTrue(file.setLastModified(file.lastModified() + 1000));
+    }
+
+    private static String longNameOf(String name) {
+        StringBuilder longName = new StringBuilder();
+        for (int i = 0; i < 200; i++) longName.append(name).append(' ');
+
+        return longName.toString();
+    }
+
+    private static Company makeCompany(int id, String name) {
+        Company company = new Company();
+        company.setId(id);
+        company.setUniqueId("CO" + id);
+        company.setCompanyName(name);
+
+        return company;
+    }
+}
@@ -0,0 +1,138 @@
+package tests;
+
+import cosc1295.src.models.Student;
+import cosc1295.src.models.Team;
+import cosc1295.src.services.analyzers.ConstraintEngine;
+import helpers.commons.SharedConstants;
+import helpers.commons.SharedEnums.PERSONALITIES;
+import helpers.utilities.LogicalAssistant;
+
+import javafx.util.Pair;
+import junit.framework.TestCase;
+import org.junit.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks on randomly generated cohorts that the ConstraintEngine agrees with the detailed requirement checks.
+ * Teams of 1 to 4 members are made from Students having random Personalities and Conflicters.
+ */
+public class ConstraintEngineTest {
+
+    private static final long SEED = 1295L;
+    private static final int COHORTS = 200;
+    private static final int STUDENTS = 24;
+    private static final PERSONALITIES[] PERSONALITY_VALUES = PERSONALITIES.values();
+
+    private Random random;
+
+    @Before
+    public void setUp() {
+        random = new Random(SEED);
+    }
+
+    @Test
+    public void engineShouldAgreeWithRequirementsOnAssign() {
+        int assignable = 0;
+        int checks = 0;
+
+        for (int cohort = 0; cohort < COHORTS; cohort++) {
+            List<Student> students = makeStudents();
+            List<Team> teams = makeTeams(students);
+            List<Student> unteamedStudents = LogicalAssistant.filterUnteamedStudents(students, teams);
+            ConstraintEngine engine = new ConstraintEngine(teams, students);
+
+            for (Team team : teams)
+                for (Student student : unteamedStudents) {
+                    List<Student> replacedMembers = new ArrayList<>(team.getMembers());
+                    replacedMembers.add(null);
+
+                    for (Student member : replacedMembers) {
+                        boolean expected = LogicalAssistant.runCheckAssignmentRequirementsForTest(student, new Pair<>(team, member));
+
+                        TestCase.assertEquals(expected, engine.isStudentAssignable(student, team, member));
+                        TestCase.assertEquals(expected, LogicalAssistant.isStudentAssignable(student, new Pair<>(team, member)));
+
+                        if (expected) assignable++;
+                        checks++;
+                    }
+                }
+        }
+
+        //Both outcomes must have been exercised
+        TestCase.assertTrue(assignable > 0 && assignable < checks);
+    }
+
+    @Test
+    public void engineShouldAgreeWithRequirementsOnSwap() {
+        int swappable = 0;
+        int checks = 0;
+
+        for (int cohort = 0; cohort < COHORTS; cohort++) {
+            List<Student> students = makeStudents();
+            List<Team> teams = makeTeams(students);
+            ConstraintEngine engine = new ConstraintEngine(teams, students);
+
+            for (Team first : teams)
+                for (Team second : teams) {
+                    if (first == second) continue;
+
+                    for (Student firstMember : first.getMembers())
+                        for (Student secondMember : second.getMembers()) {
+                            boolean expected = LogicalAssistant.runCheckSwapRequirementsForTest(
+                                new Pair<>(first, second), new Pair<>(firstMember, secondMember)
+                            );
+
+                            TestCase.assertEquals(expected, engine.areStudentsSwappable(first, second, firstMember, secondMember));
+                            TestCase.assertEquals(expected, LogicalAssistant.areStudentsSwappable(
+                                new Pair<>(first, second), new Pair<>(firstMember, secondMember)
+                            ));
+
+                            if (expected) swappable++;
+                            checks++;
+                        }
+                }
+        }
+
+        TestCase.assertTrue(swappable > 0 && swappable < checks);
+    }
+
+    private List<Student> makeStudents() {
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = new Student();
+            student.setId(i + 1);
+            student.setUniqueId("S" + (i + 1));
+            student.setPersonality(PERSONALITY_VALUES[random.nextInt(PERSONALITY_VALUES.length)]);
+            students.add(student);
+        }
+
+        //Conflicters are few, so some Teams are conflict free, and some refer to Students out of the cohort
+        for (Student student : students) {
+            int conflicterCount = random.nextInt(3);
+            for (int i = 0; i < conflicterCount; i++)
+                student.addConflicter("S" + (random.nextInt(STUDENTS + 2) + 1));
+        }
+
+        return students;
+    }
+
+    //Teams take Students in turn, leaving a few Students unteamed
+    private List<Team> makeTeams(List<Student> students) {
+        List<Team> teams = new ArrayList<>();
+        int next = 0;
+
+        while (next < students.size() - SharedConstants.GROUP_LIMIT) {
+            Team team = new Team();
+            team.setId(teams.size() + 1);
+
+            int size = random.nextInt(SharedConstants.GROUP_LIMIT) + 1;
+            for (int i = 0; i < size; i++) team.addMember(students.get(next++));
+
+            teams.add(team);
+        }
+
+        return teams;
+    }
+}
@@ -0,0 +1,281 @@
+package tests;
+
+import cosc1295.providers.bases.DatabaseContext;
+import cosc1295.providers.bases.TextFileServiceBase;
+import cosc1295.providers.services.ProjectService;
+import cosc1295.providers.services.StudentService;
+import cosc1295.src.controllers.ControllerBase;
+import cosc1295.src.models.*;
+import cosc1295.src.services.analyzers.DeltaScoringEngine;
+import helpers.commons.SharedConstants;
+import helpers.commons.SharedEnums;
+import helpers.commons.SharedEnums.RANKINGS;
+import helpers.commons.SharedEnums.SKILLS;
+import javafx.util.Pair;
+import junit.framework.TestCase;
+import org.junit.*;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.*;
+
+public class DeltaScoringEngineTest {
+
+    private static List<Student> students;
+    private static List<Project> projects;
+    private static List<Preference> preferences;
+    private static ControllerBase controllerBase;
+
+    private static final List<Team> testTeams = new ArrayList<>();
+
+    @BeforeClass
+    public static void setUpBeforeClass() {
+        SharedConstants.DATA_SOURCE = TextFileServiceBase.class.getSimpleName();
+
+        projects = (new ProjectService()).readAllProjectsFromFile();
+
+        StudentService studentService = new StudentService();
+        students = studentService.readAllStudentsFromFile();
+        preferences = studentService.readAllStudentPreferencesFromFile();
+
+        controllerBase = new ControllerBase();
+    }
+
+    @Before
+    public void setUp() {
+        testTeams.add(makeTeam(111, 1, 0, new int[] { 0, 5, 9, 10 }));
+        testTeams.add(makeTeam(222, 3, 223, new int[] { 11, 6, 3, 2 }));
+        testTeams.add(makeTeam(333, 2, 0, new int[] { 8, 1, 7, 4 }));
+        testTeams.add(makeTeam(444, 0, 445, new int[] { 20, 35, 50, 65 })); //members without preference data
+    }
+
+    @Test
+    public void scoredTeamShouldMatchFullCalculation() {
+        DeltaScoringEngine engine = new DeltaScoringEngine(testTeams, projects, preferences);
+
+        for (Team team : testTeams)
+            assertSameFitness(
+                referenceFitnessFor(team.clone()),
+                engine.scoreTeam(team)
+            );
+    }
+
+    @Test
+    public void scoredSwapsShouldMatchFullCalculation() {
+        DeltaScoringEngine engine = new DeltaScoringEngine(testTeams, projects, preferences);
+
+        for (int i = 0; i < testTeams.size(); i++)
+            for (int j = i + 1; j < testTeams.size(); j++) {
+                Team first = testTeams.get(i);
+                Team second = testTeams.get(j);
+
+                for (Student firstMember : first.getMembers())
+                    for (Student secondMember : second.getMembers()) {
+                        Team firstClone = first.clone();
+                        Team secondClone = second.clone();
+                        firstClone.replaceMemberByUniqueId(firstMember.getUniqueId(), secondMember);
+                        secondClone.replaceMemberByUniqueId(secondMember.getUniqueId(), firstMember);
+
+                        Pair<CompactTeamFitness, CompactTeamFitness> scored = engine.scoreSwap(first, second, firstMember, secondMember);
+                        assertSameFitness(referenceFitnessFor(firstClone), scored.getKey());
+                        assertSameFitness(referenceFitnessFor(secondClone), scored.getValue());
+                    }
+            }
+    }
+
+    @Test
+    public void scoringShouldNotChangeTeams() {
+        DeltaScoringEngine engine = new DeltaScoringEngine(testTeams, projects, preferences);
+        Team first = testTeams.get(0);
+        Team second = testTeams.get(1);
+        Student firstMember = first.getMembers().get(0);
+        Student secondMember = second.getMembers().get(0);
+
+        engine.scoreSwap(first, second, firstMember, secondMember);
+
+        TestCase.assertSame(firstMember, first.getMembers().get(0));
+        TestCase.assertSame(secondMember, second.getMembers().get(0));
+        assertSameFitness(
+            referenceFitnessFor(first.clone()),
+            engine.scoreTeam(first)
+        );
+    }
+
+    @Test
+    public void scoredAssignmentsShouldMatchFullCalculation() {
+        Team partialTeam = makeTeam(555, 2, 556, new int[] { 8, 1, 7 });
+        testTeams.add(partialTeam);
+        DeltaScoringEngine engine = new DeltaScoringEngine(testTeams, projects, preferences);
+
+        for (int index : new int[] { 2, 3, 6, 11, 40 }) {
+            Student assignee = students.get(index);
+
+            Team clone = partialTeam.clone();
+            clone.addMember(assignee);
+            assertSameFitness(
+                referenceFitnessFor(clone),
+                engine.scoreAssignment(partialTeam, null, assignee)
+            );
+
+            for (Student member : partialTeam.getMembers()) {
+                clone = partialTeam.clone();
+                clone.replaceMemberByUniqueId(member.getUniqueId(), assignee);
+                assertSameFitness(
+                    referenceFitnessFor(clone),
+                    engine.scoreAssignment(partialTeam, member, assignee)
+                );
+            }
+        }
+    }
+
+    @Test
+    public void fullCalculationShouldMatchReference() {
+        for (Team team : testTeams)
+            assertSameFitness(
+                referenceFitnessFor(team.clone()),
+                controllerBase.calculateTeamFitnessMetricsFor(team.clone(), projects, preferences)
+            );
+    }
+
+    @Test
+    public void compactFitnessShouldConvertLosslessly() {
+        ProjectIndex projectIndex = new ProjectIndex(projects);
+
+        for (Team team : testTeams) {
+            TeamFitness fitness = controllerBase.calculateTeamFitnessMetricsFor(team.clone(), projects, preferences);
+            CompactTeamFitness compact = CompactTeamFitness.fromTeamFitness(fitness, projectIndex);
+
+            TestCase.assertNotNull(compact);
+            assertSameFitness(fitness, compact);
+        }
+
+        TeamFitness emptyFitness = new TeamFitness();
+        TeamFitness converted = CompactTeamFitness.fromTeamFitness(emptyFitness, projectIndex).toTeamFitness();
+        TestCase.assertNull(converted.getTeamCompetency());
+        TestCase.assertNull(converted.getPreferenceSatisfaction());
+        TestCase.assertNull(converted.getSkillShortFall());
+    }
+
+    @After
+    public void tearDown() {
+        testTeams.clear();
+    }
+
+    @AfterClass
+    public static void tearDownAfterClass() {
+        SharedConstants.DATA_SOURCE = DatabaseContext.class.getSimpleName();
+        controllerBase = null;
+        projects = null;
+        students = null;
+        preferences = null;
+    }
+
+    private static Team makeTeam(int id, int projectIndex, int fitnessId, int[] memberIndexes) {
+        Team team = new Team();
+        team.setId(id);
+        team.setProject(projects.get(projectIndex));
+
+        for (int index : memberIndexes)
+            team.addMember(students.get(index));
+
+        if (fitnessId != 0) {
+            TeamFitness fitness = new TeamFitness();
+            fitness.setId(fitnessId);
+            team.setFitnessMetrics(fitness);
+        }
+
+        return team;
+    }
+
+    private static void assertSameFitness(TeamFitness expected, CompactTeamFitness compact) {
+        assertSameFitness(expected, compact.toTeamFitness());
+    }
+
+    private static void assertSameFitness(TeamFitness expected, TeamFitness actual) {
+        TestCase.assertEquals(expected.getId(), actual.getId());
+        TestCase.assertEquals(expected.getAverageTeamSkillCompetency(), actual.getAverageTeamSkillCompetency());
+        TestCase.assertEquals(expected.getTeamCompetency(), actual.getTeamCompetency());
+        TestCase.assertEquals(expected.getPreferenceSatisfaction(), actual.getPreferenceSatisfaction());
+        TestCase.assertEquals(expected.getAverageSkillShortfall(), actual.getAverageSkillShortfall());
+        TestCase.assertEquals(expected.getSkillShortFall(), actual.getSkillShortFall());
+    }
+
+    //The calculation of Fitness Metrics as first written in ControllerBase, in doubles and rounded by DecimalFormat.
+    //Kept here as the oracle, so the scoring engine and ControllerBase are both checked against the original results
+    private static TeamFitness referenceFitnessFor(Team team) {
+        TeamFitness teamFitness = team.getFitnessMetrics() == null ? new TeamFitness() : team.getFitnessMetrics();
+
+        HashMap<SKILLS, Double> skillCompetencies = new HashMap<>();
+        Pair<Double, Double> satisfactions = new Pair<>(0.0, 0.0);
+
+        for (Student member : team.getMembers()) {
+            for (Map.Entry<SKILLS, RANKINGS> entry : member.getSkillRanking().entrySet())
+                skillCompetencies.merge(entry.getKey(), (double) entry.getValue().getValue(), Double::sum);
+
+            Preference memberPreferences = null;
+            for (int i = preferences.size() - 1; i >= 0; i--)
+                if (preferences.get(i).getStudentUniqueId().equalsIgnoreCase(member.getUniqueId()))
+                    memberPreferences = preferences.get(i);
+
+            if (memberPreferences == null || satisfactions == null) {
+                satisfactions = null;
+                continue;
+            }
+
+            for (Map.Entry<String, Integer> entry : memberPreferences.getPreference().entrySet()) {
+                if (entry.getKey().equals(team.getProject().getUniqueId()) && entry.getValue() == 4)
+                    satisfactions = new Pair<>(satisfactions.getKey() + 1, satisfactions.getValue());
+
+                if (entry.getKey().equals(team.getProject().getUniqueId()) && entry.getValue() == 3)
+                    satisfactions = new Pair<>(satisfactions.getKey(), satisfactions.getValue() + 1);
+            }
+        }
+
+        HashMap<SKILLS, Double> teamCompetency = new HashMap<>();
+        double totalCompetency = 0;
+        for (Map.Entry<SKILLS, Double> competency : skillCompetencies.entrySet()) {
+            double average = round(competency.getValue() / SharedConstants.GROUP_LIMIT);
+            teamCompetency.put(competency.getKey(), average);
+            totalCompetency += average;
+        }
+
+        teamFitness.setTeamCompetency(teamCompetency);
+        teamFitness.setAverageTeamSkillCompetency(round(
+            totalCompetency / SharedConstants.GROUP_LIMIT * SharedEnums.getAllEnumAttributesAsList(SKILLS.class).size()
+        ));
+
+        teamFitness.setPreferenceSatisfaction(satisfactions == null ? null : new Pair<>(
+            round((satisfactions.getKey() + satisfactions.getValue()) * 100 / SharedConstants.GROUP_LIMIT),
+            new Pair<>(
+                round(satisfactions.getKey() * 100 / SharedConstants.GROUP_LIMIT),
+                round(satisfactions.getValue() * 100 / SharedConstants.GROUP_LIMIT)
+            )
+        ));
+
+        HashMap<String, Double> skillShortFalls = new HashMap<>();
+        double totalShortfall = 0;
+        for (Project project : projects) {
+            double shortfall = 0;
+
+            for (Map.Entry<SKILLS, RANKINGS> ranking : project.getSkillRanking().entrySet()) {
+                double requestedSkillRanking = ranking.getValue().getValue();
+                double teamSkillRanking = teamCompetency.get(ranking.getKey());
+
+                if (requestedSkillRanking > teamSkillRanking)
+                    shortfall += requestedSkillRanking - teamSkillRanking;
+            }
+
+            skillShortFalls.put(project.getUniqueId(), shortfall);
+            totalShortfall += shortfall;
+        }
+
+        teamFitness.setSkillShortFall(skillShortFalls);
+        teamFitness.setAverageSkillShortfall(round(totalShortfall / skillShortFalls.size()));
+
+        return teamFitness;
+    }
+
+    private static double round(double any) {
+        return Double.parseDouble(new DecimalFormat("#.##", DecimalFormatSymbols.getInstance(Locale.ROOT)).format(any));
+    }
+}
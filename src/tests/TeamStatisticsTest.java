@@ -0,0 +1,65 @@
+package tests;
+
+import cosc1295.src.models.TeamStatistics;
+import javafx.util.Pair;
+import junit.framework.TestCase;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TeamStatisticsTest {
+
+    private TeamStatistics statistics;
+
+    @Before
+    public void setUp() {
+        //45 Teams: competency from 1.0 to 5.4, preference at 50 or 100, shortfall all the same
+        List<Integer> teamIds = new ArrayList<>();
+        double[][] values = new double[3][45];
+
+        for (int i = 0; i < 45; i++) {
+            teamIds.add(i + 1);
+            values[TeamStatistics.COMPETENCY][i] = 1.0 + i * 0.1;
+            values[TeamStatistics.PREFERENCE][i] = i % 2 == 0 ? 50 : 100;
+            values[TeamStatistics.SHORTFALL][i] = 0.5;
+        }
+
+        statistics = new TeamStatistics(teamIds, values);
+    }
+
+    @Test
+    public void pagesShouldCoverAllTeams() {
+        TestCase.assertEquals(3, statistics.getPageCount(20));
+        TestCase.assertEquals(5, statistics.getPage(TeamStatistics.COMPETENCY, 2, 20).size());
+        TestCase.assertEquals("Teams #41 - #45", statistics.getPageLabel(2, 20));
+
+        Pair<String, Double> firstOfPage = statistics.getPage(TeamStatistics.PREFERENCE, 1, 20).get(0);
+        TestCase.assertEquals("Team #21", firstOfPage.getKey());
+        TestCase.assertEquals(50.0, firstOfPage.getValue());
+    }
+
+    @Test
+    public void histogramShouldCountEveryTeam() {
+        List<Pair<String, Integer>> competency = statistics.getHistogram(TeamStatistics.COMPETENCY, 10);
+        TestCase.assertEquals(10, competency.size());
+        TestCase.assertEquals(45, competency.stream().mapToInt(Pair::getValue).sum());
+        TestCase.assertEquals(5, (int) competency.get(9).getValue()); //the highest value falls into the last range
+
+        List<Pair<String, Integer>> shortfall = statistics.getHistogram(TeamStatistics.SHORTFALL, 10);
+        TestCase.assertEquals(1, shortfall.size());
+        TestCase.assertEquals(45, (int) shortfall.get(0).getValue());
+    }
+
+    @Test
+    public void standardDeviationsShouldBeCorrect() {
+        TestCase.assertEquals(1.299, statistics.getStandardDeviations().get(TeamStatistics.COMPETENCY));
+        TestCase.assertEquals(24.994, statistics.getStandardDeviations().get(TeamStatistics.PREFERENCE));
+        TestCase.assertEquals(0.0, statistics.getStandardDeviations().get(TeamStatistics.SHORTFALL));
+    }
+
+    @After
+    public void tearDown() {
+        statistics = null;
+    }
+}
@@ -0,0 +1,80 @@
+package tests;
+
+import cosc1295.providers.bases.TextFileServiceBase;
+import helpers.commons.SharedConstants;
+import helpers.commons.SharedEnums.DATA_TYPES;
+import junit.framework.TestCase;
+import org.junit.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+
+public class TextFileModeTest {
+
+    private static final String FILE_PATH = System.getProperty("user.dir") + "\\src\\assets\\texts\\" +
+                                            SharedConstants.TEAM_FITNESS_METRICS_FILE_NAME;
+
+    private TextFileServiceBase textFileService;
+    private boolean logStructured;
+    private byte[] originalData;
+
+    @Before
+    public void setUp() throws IOException {
+        //Each test starts on an empty file, the original data are put back afterwards
+        File file = new File(FILE_PATH);
+        originalData = file.exists() ? Files.readAllBytes(file.toPath()) : null;
+        Files.write(file.toPath(), new byte[0]);
+
+        logStructured = SharedConstants.TEXT_FILE_LOG_STRUCTURED;
+        textFileService = new TextFileServiceBase();
+    }
+
+    @Test
+    public void loggedRecordsShouldReadBackAfterTurningModeOff() {
+        SharedConstants.TEXT_FILE_LOG_STRUCTURED = true;
+        textFileService.saveEntryToFile("1,,first", DATA_TYPES.FITNESS_METRICS);
+        textFileService.saveEntryToFile("2,,second", DATA_TYPES.FITNESS_METRICS);
+        textFileService.updateEntryToFileById("1,,first updated", 1, DATA_TYPES.FITNESS_METRICS);
+        textFileService.removeEntryFromFileById("2", DATA_TYPES.FITNESS_METRICS);
+
+        SharedConstants.TEXT_FILE_LOG_STRUCTURED = false;
+        TestCase.assertEquals(Arrays.asList("1,,first updated"), textFileService.readAllDataFromFile(DATA_TYPES.FITNESS_METRICS));
+        TestCase.assertEquals("1,,first updated", textFileService.getEntryFromFileById("1", DATA_TYPES.FITNESS_METRICS));
+        TestCase.assertEquals(2, textFileService.getNextEntryIdForNewEntry(DATA_TYPES.FITNESS_METRICS));
+
+        //The plain writes find the latest record only, as the file has been compacted
+        textFileService.updateEntryToFileById("1,,first updated again", 1, DATA_TYPES.FITNESS_METRICS);
+        TestCase.assertEquals("1,,first updated again", textFileService.getEntryFromFileById("1", DATA_TYPES.FITNESS_METRICS));
+        TestCase.assertEquals(1, textFileService.readAllDataFromFile(DATA_TYPES.FITNESS_METRICS).size());
+    }
+
+    @Test
+    public void plainRecordsShouldReadBackAfterTurningModeOn() {
+        SharedConstants.TEXT_FILE_LOG_STRUCTURED = false;
+        textFileService.saveEntryToFile("1,,first", DATA_TYPES.FITNESS_METRICS);
+        textFileService.saveEntryToFile("2,,second", DATA_TYPES.FITNESS_METRICS);
+        textFileService.updateEntryToFileById("1,,first updated", 1, DATA_TYPES.FITNESS_METRICS);
+
+        SharedConstants.TEXT_FILE_LOG_STRUCTURED = true;
+        textFileService.updateEntryToFileById("2,,second updated", 2, DATA_TYPES.FITNESS_METRICS);
+        textFileService.removeEntryFromFileById("1", DATA_TYPES.FITNESS_METRICS);
+
+        Map<String, String> entries = textFileService.readAllEntriesById(DATA_TYPES.FITNESS_METRICS);
+        TestCase.assertEquals(1, entries.size());
+        TestCase.assertEquals("2,,second updated", entries.get("2"));
+        TestCase.assertEquals("2,,second updated", textFileService.getEntryFromFileById("2", DATA_TYPES.FITNESS_METRICS));
+        TestCase.assertEquals(3, textFileService.getNextEntryIdForNewEntry(DATA_TYPES.FITNESS_METRICS));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        SharedConstants.TEXT_FILE_LOG_STRUCTURED = logStructured;
+
+        File file = new File(FILE_PATH);
+        if (originalData == null) file.delete();
+        else Files.write(file.toPath(), originalData);
+    }
+}